@@ -26,6 +26,9 @@ public class CommerceWebKeys {
 
 	public static final String COMMERCE_ORDER = "COMMERCE_ORDER";
 
+	public static final String COMMERCE_PRODUCT_PRICES =
+		"COMMERCE_PRODUCT_PRICES";
+
 	public static final String COMMERCE_SHIPMENT = "COMMERCE_SHIPMENT";
 
 	public static final String COMMERCE_SHIPMENT_ITEM =
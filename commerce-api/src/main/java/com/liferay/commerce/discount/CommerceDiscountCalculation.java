@@ -18,16 +18,31 @@ import aQute.bnd.annotation.ProviderType;
 
 import com.liferay.commerce.context.CommerceContext;
 import com.liferay.commerce.model.CommerceOrder;
+import com.liferay.commerce.product.model.CPInstance;
 import com.liferay.portal.kernel.exception.PortalException;
 
 import java.math.BigDecimal;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * @author Marco Leo
  */
 @ProviderType
 public interface CommerceDiscountCalculation {
 
+	/**
+	 * Returns a key identifying the product discounts whose rules hold for the
+	 * order, or <code>null</code> if they cannot be listed without searching
+	 * the discounts of each product. Since discount rules only read the
+	 * order, the product discounts of the order's items can only change when
+	 * this key does.
+	 */
+	public String getOrderProductCommerceDiscountsKey(
+			CommerceOrder commerceOrder, CommerceContext commerceContext)
+		throws PortalException;
+
 	public CommerceDiscountValue getOrderShippingCommerceDiscountValue(
 			CommerceOrder commerceOrder, BigDecimal shippingAmount,
 			CommerceContext commerceContext)
@@ -48,4 +63,16 @@ public interface CommerceDiscountCalculation {
 			CommerceContext commerceContext)
 		throws PortalException;
 
+	/**
+	 * Returns the product discount values of the SKUs for their unit prices,
+	 * keyed by SKU ID, leaving out the SKUs without discount. The discounts of
+	 * a product definition and the rules of a discount are resolved once for
+	 * all the SKUs instead of once per SKU.
+	 */
+	public Map<Long, CommerceDiscountValue> getProductCommerceDiscountValues(
+			List<CPInstance> cpInstances, int quantity,
+			Map<Long, BigDecimal> productUnitPrices,
+			CommerceContext commerceContext)
+		throws PortalException;
+
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.order;
+
+import java.io.Serializable;
+
+/**
+ * Describes one line to add to an order in bulk.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CommerceOrderItemLine implements Serializable {
+
+	public CommerceOrderItemLine(long cpInstanceId, int quantity, String json) {
+		_cpInstanceId = cpInstanceId;
+		_quantity = quantity;
+		_json = json;
+	}
+
+	public long getCPInstanceId() {
+		return _cpInstanceId;
+	}
+
+	public String getJson() {
+		return _json;
+	}
+
+	public int getQuantity() {
+		return _quantity;
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final long _cpInstanceId;
+	private final String _json;
+	private final int _quantity;
+
+}
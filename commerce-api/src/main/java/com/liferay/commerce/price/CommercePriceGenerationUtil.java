@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price;
+
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+
+/**
+ * Provides a token that changes whenever data that order item prices depend on
+ * change: prices, price lists, currencies, SKUs or discounts. Prices calculated
+ * with a different token must be recalculated.
+ *
+ * <p>
+ * Each cluster node generates its own token, which is never replicated. Only
+ * its removal is, so every node changes its token when the data change. Prices
+ * recorded on another node carry that node's token and are recalculated once
+ * on this node.
+ * </p>
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CommercePriceGenerationUtil {
+
+	public static final String CACHE_NAME =
+		CommercePriceGenerationUtil.class.getName();
+
+	public static String getGeneration() {
+		String generation = _portalCache.get(_GENERATION_KEY);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_portalCache, _GENERATION_KEY, generation);
+		}
+
+		return generation;
+	}
+
+	/**
+	 * Changes the token once the current transaction commits.
+	 */
+	public static void invalidate() {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_portalCache.remove(_GENERATION_KEY);
+
+				return null;
+			});
+	}
+
+	private static final String _GENERATION_KEY = "generation";
+
+	private static final PortalCache<String, String> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+}
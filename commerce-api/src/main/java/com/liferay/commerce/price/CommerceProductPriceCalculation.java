@@ -22,6 +22,7 @@ import com.liferay.commerce.currency.model.CommerceMoney;
 import com.liferay.commerce.price.list.model.CommercePriceList;
 import com.liferay.portal.kernel.exception.PortalException;
 
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -40,6 +41,21 @@ public interface CommerceProductPriceCalculation {
 			long cpInstanceId, int quantity, CommerceContext commerceContext)
 		throws PortalException;
 
+	/**
+	 * Returns the prices of the product instances, keyed by product instance
+	 * ID, resolving the instances, price entries, tier price entries and
+	 * currencies with a few bulk queries instead of one lookup per instance.
+	 * Product instances that cannot be viewed are omitted.
+	 */
+	public Map<Long, CommerceProductPrice> getCommerceProductPrices(
+			long[] cpInstanceIds, int quantity, boolean secure,
+			CommerceContext commerceContext)
+		throws PortalException;
+
+	public Map<Long, CommerceProductPrice> getCommerceProductPrices(
+			long[] cpInstanceIds, int quantity, CommerceContext commerceContext)
+		throws PortalException;
+
 	public CommerceMoney getFinalPrice(
 			long cpInstanceId, int quantity, boolean secure,
 			CommerceContext commerceContext)
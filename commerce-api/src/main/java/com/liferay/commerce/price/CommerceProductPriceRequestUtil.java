@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price;
+
+import com.liferay.commerce.constants.CPDefinitionInventoryConstants;
+import com.liferay.commerce.constants.CommerceWebKeys;
+import com.liferay.commerce.context.CommerceContext;
+import com.liferay.commerce.product.catalog.CPCatalogEntry;
+import com.liferay.commerce.product.catalog.CPSku;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
+
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Shares, within a request, the product prices that a listing calculates in a
+ * single batch, so that the price tags of its entries do not calculate them
+ * again one SKU at a time.
+ *
+ * @author Marco Leo
+ */
+public class CommerceProductPriceRequestUtil {
+
+	/**
+	 * Returns the price of the SKU prefetched in the request for the
+	 * quantity, or <code>null</code> if there is none.
+	 */
+	public static CommerceProductPrice getCommerceProductPrice(
+		HttpServletRequest httpServletRequest, long cpInstanceId,
+		int quantity) {
+
+		Map<Long, CommerceProductPrice> commerceProductPrices =
+			(Map<Long, CommerceProductPrice>)httpServletRequest.getAttribute(
+				CommerceWebKeys.COMMERCE_PRODUCT_PRICES);
+
+		if (commerceProductPrices == null) {
+			return null;
+		}
+
+		CommerceProductPrice commerceProductPrice = commerceProductPrices.get(
+			cpInstanceId);
+
+		if ((commerceProductPrice == null) ||
+			(commerceProductPrice.getQuantity() != quantity)) {
+
+			return null;
+		}
+
+		return commerceProductPrice;
+	}
+
+	/**
+	 * Calculates, in a single batch, the prices of the catalog entries whose
+	 * only SKU is displayed in the listing, for the default minimum order
+	 * quantity, and adds them to the prices prefetched in the request. Does
+	 * nothing if the request has no commerce context.
+	 */
+	public static void prefetchCommerceProductPrices(
+		HttpServletRequest httpServletRequest,
+		CommerceProductPriceCalculation commerceProductPriceCalculation,
+		List<CPCatalogEntry> cpCatalogEntries) {
+
+		CommerceContext commerceContext =
+			(CommerceContext)httpServletRequest.getAttribute(
+				CommerceWebKeys.COMMERCE_CONTEXT);
+
+		if (commerceContext == null) {
+			return;
+		}
+
+		long[] cpInstanceIds = new long[0];
+
+		for (CPCatalogEntry cpCatalogEntry : cpCatalogEntries) {
+			List<CPSku> cpSkus = cpCatalogEntry.getCPSkus();
+
+			if (cpCatalogEntry.isIgnoreSKUCombinations() &&
+				(cpSkus.size() == 1)) {
+
+				CPSku cpSku = cpSkus.get(0);
+
+				cpInstanceIds = ArrayUtil.append(
+					cpInstanceIds, cpSku.getCPInstanceId());
+			}
+		}
+
+		if (cpInstanceIds.length == 0) {
+			return;
+		}
+
+		try {
+			Map<Long, CommerceProductPrice> commerceProductPrices =
+				commerceProductPriceCalculation.getCommerceProductPrices(
+					cpInstanceIds,
+					CPDefinitionInventoryConstants.DEFAULT_MIN_ORDER_QUANTITY,
+					commerceContext);
+
+			Map<Long, CommerceProductPrice> requestCommerceProductPrices =
+				(Map<Long, CommerceProductPrice>)
+					httpServletRequest.getAttribute(
+						CommerceWebKeys.COMMERCE_PRODUCT_PRICES);
+
+			if (requestCommerceProductPrices != null) {
+				requestCommerceProductPrices.putAll(commerceProductPrices);
+			}
+			else {
+				httpServletRequest.setAttribute(
+					CommerceWebKeys.COMMERCE_PRODUCT_PRICES,
+					commerceProductPrices);
+			}
+		}
+		catch (PortalException pe) {
+			_log.error(pe, pe);
+		}
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CommerceProductPriceRequestUtil.class);
+
+}
@@ -18,6 +18,7 @@ import aQute.bnd.annotation.ProviderType;
 
 import com.liferay.commerce.context.CommerceContext;
 import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.order.CommerceOrderItemLine;
 
 import com.liferay.portal.kernel.dao.orm.ActionableDynamicQuery;
 import com.liferay.portal.kernel.dao.orm.DynamicQuery;
@@ -41,6 +42,7 @@ import com.liferay.portal.kernel.util.OrderByComparator;
 import java.io.Serializable;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Provides the local service interface for CommerceOrderItem. Methods of this
@@ -81,6 +83,23 @@ public interface CommerceOrderItemLocalService extends BaseLocalService,
 		CommerceContext commerceContext, ServiceContext serviceContext)
 		throws PortalException;
 
+	/**
+	* Adds the lines to the order, loading the product instances, definitions
+	* and prices of all the lines in bulk and validating every line before any
+	* of them is added.
+	*
+	* @param commerceOrderId the primary key of the commerce order
+	* @param commerceOrderItemLines the lines to add
+	* @param commerceContext the commerce context
+	* @param serviceContext the service context
+	* @return the commerce order items that were added, in the order of the lines
+	*/
+	public List<CommerceOrderItem> addCommerceOrderItems(
+		long commerceOrderId,
+		List<CommerceOrderItemLine> commerceOrderItemLines,
+		CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException;
+
 	/**
 	* Creates a new commerce order item with the primary key. Does not add the commerce order item to the database.
 	*
@@ -276,6 +295,10 @@ public interface CommerceOrderItemLocalService extends BaseLocalService,
 	public int getCommerceWarehouseItemQuantity(long commerceOrderItemId,
 		long commerceWarehouseId) throws PortalException;
 
+	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+	public Map<Long, Integer> getCPInstanceQuantities(long[] cpInstanceIds,
+		int orderStatus);
+
 	@Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
 	public int getCPInstanceQuantity(long cpInstanceId, int orderStatus);
 
@@ -340,4 +363,21 @@ public interface CommerceOrderItemLocalService extends BaseLocalService,
 		long cpInstanceId, int quantity, int shippedQuantity, String json,
 		CommerceContext commerceContext, ServiceContext serviceContext)
 		throws PortalException;
+
+	/**
+	* Adds the lines to the order in a single transaction. Lines of the same
+	* product instance and options are merged, lines matching an order item
+	* increase its quantity and the remaining lines are added in bulk.
+	*
+	* @param commerceOrderId the primary key of the commerce order
+	* @param commerceOrderItemLines the lines to add
+	* @param commerceContext the commerce context
+	* @param serviceContext the service context
+	* @return the commerce order items that were updated or added
+	*/
+	public List<CommerceOrderItem> upsertCommerceOrderItems(
+		long commerceOrderId,
+		List<CommerceOrderItemLine> commerceOrderItemLines,
+		CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException;
 }
\ No newline at end of file
@@ -65,6 +65,28 @@ public class CommerceOrderItemLocalServiceUtil {
 			quantity, shippedQuantity, json, commerceContext, serviceContext);
 	}
 
+	/**
+	* Adds the lines to the order, loading the product instances, definitions
+	* and prices of all the lines in bulk and validating every line before any
+	* of them is added.
+	*
+	* @param commerceOrderId the primary key of the commerce order
+	* @param commerceOrderItemLines the lines to add
+	* @param commerceContext the commerce context
+	* @param serviceContext the service context
+	* @return the commerce order items that were added, in the order of the lines
+	*/
+	public static java.util.List<com.liferay.commerce.model.CommerceOrderItem> addCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return getService()
+				   .addCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	/**
 	* Creates a new commerce order item with the primary key. Does not add the commerce order item to the database.
 	*
@@ -317,6 +339,11 @@ public class CommerceOrderItemLocalServiceUtil {
 			commerceWarehouseId);
 	}
 
+	public static java.util.Map<Long, Integer> getCPInstanceQuantities(
+		long[] cpInstanceIds, int orderStatus) {
+		return getService().getCPInstanceQuantities(cpInstanceIds, orderStatus);
+	}
+
 	public static int getCPInstanceQuantity(long cpInstanceId, int orderStatus) {
 		return getService().getCPInstanceQuantity(cpInstanceId, orderStatus);
 	}
@@ -420,6 +447,28 @@ public class CommerceOrderItemLocalServiceUtil {
 			quantity, shippedQuantity, json, commerceContext, serviceContext);
 	}
 
+	/**
+	* Adds the lines to the order in a single transaction. Lines of the same
+	* product instance and options are merged, lines matching an order item
+	* increase its quantity and the remaining lines are added in bulk.
+	*
+	* @param commerceOrderId the primary key of the commerce order
+	* @param commerceOrderItemLines the lines to add
+	* @param commerceContext the commerce context
+	* @param serviceContext the service context
+	* @return the commerce order items that were updated or added
+	*/
+	public static java.util.List<com.liferay.commerce.model.CommerceOrderItem> upsertCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return getService()
+				   .upsertCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	public static CommerceOrderItemLocalService getService() {
 		return _serviceTracker.getService();
 	}
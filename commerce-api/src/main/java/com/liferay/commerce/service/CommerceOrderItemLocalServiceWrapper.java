@@ -58,6 +58,28 @@ public class CommerceOrderItemLocalServiceWrapper
 			serviceContext);
 	}
 
+	/**
+	* Adds the lines to the order, loading the product instances, definitions
+	* and prices of all the lines in bulk and validating every line before any
+	* of them is added.
+	*
+	* @param commerceOrderId the primary key of the commerce order
+	* @param commerceOrderItemLines the lines to add
+	* @param commerceContext the commerce context
+	* @param serviceContext the service context
+	* @return the commerce order items that were added, in the order of the lines
+	*/
+	@Override
+	public java.util.List<com.liferay.commerce.model.CommerceOrderItem> addCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return _commerceOrderItemLocalService.addCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	/**
 	* Creates a new commerce order item with the primary key. Does not add the commerce order item to the database.
 	*
@@ -333,6 +355,13 @@ public class CommerceOrderItemLocalServiceWrapper
 			commerceWarehouseId);
 	}
 
+	@Override
+	public java.util.Map<Long, Integer> getCPInstanceQuantities(
+		long[] cpInstanceIds, int orderStatus) {
+		return _commerceOrderItemLocalService.getCPInstanceQuantities(cpInstanceIds,
+			orderStatus);
+	}
+
 	@Override
 	public int getCPInstanceQuantity(long cpInstanceId, int orderStatus) {
 		return _commerceOrderItemLocalService.getCPInstanceQuantity(cpInstanceId,
@@ -446,6 +475,28 @@ public class CommerceOrderItemLocalServiceWrapper
 			serviceContext);
 	}
 
+	/**
+	* Adds the lines to the order in a single transaction. Lines of the same
+	* product instance and options are merged, lines matching an order item
+	* increase its quantity and the remaining lines are added in bulk.
+	*
+	* @param commerceOrderId the primary key of the commerce order
+	* @param commerceOrderItemLines the lines to add
+	* @param commerceContext the commerce context
+	* @param serviceContext the service context
+	* @return the commerce order items that were updated or added
+	*/
+	@Override
+	public java.util.List<com.liferay.commerce.model.CommerceOrderItem> upsertCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return _commerceOrderItemLocalService.upsertCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	@Override
 	public CommerceOrderItemLocalService getWrappedService() {
 		return _commerceOrderItemLocalService;
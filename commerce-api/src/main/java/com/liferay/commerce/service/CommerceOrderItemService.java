@@ -18,6 +18,7 @@ import aQute.bnd.annotation.ProviderType;
 
 import com.liferay.commerce.context.CommerceContext;
 import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.order.CommerceOrderItemLine;
 
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
@@ -63,6 +64,12 @@ public interface CommerceOrderItemService extends BaseService {
 		CommerceContext commerceContext, ServiceContext serviceContext)
 		throws PortalException;
 
+	public List<CommerceOrderItem> addCommerceOrderItems(
+		long commerceOrderId,
+		List<CommerceOrderItemLine> commerceOrderItemLines,
+		CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException;
+
 	public void deleteCommerceOrderItem(long commerceOrderItemId)
 		throws PortalException;
 
@@ -127,4 +134,10 @@ public interface CommerceOrderItemService extends BaseService {
 		long cpInstanceId, int quantity, int shippedQuantity, String json,
 		CommerceContext commerceContext, ServiceContext serviceContext)
 		throws PortalException;
+
+	public List<CommerceOrderItem> upsertCommerceOrderItems(
+		long commerceOrderId,
+		List<CommerceOrderItemLine> commerceOrderItemLines,
+		CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException;
 }
\ No newline at end of file
@@ -53,6 +53,17 @@ public class CommerceOrderItemServiceUtil {
 			quantity, shippedQuantity, json, commerceContext, serviceContext);
 	}
 
+	public static java.util.List<com.liferay.commerce.model.CommerceOrderItem> addCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return getService()
+				   .addCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	public static void deleteCommerceOrderItem(long commerceOrderItemId)
 		throws com.liferay.portal.kernel.exception.PortalException {
 		getService().deleteCommerceOrderItem(commerceOrderItemId);
@@ -165,6 +176,17 @@ public class CommerceOrderItemServiceUtil {
 			quantity, shippedQuantity, json, commerceContext, serviceContext);
 	}
 
+	public static java.util.List<com.liferay.commerce.model.CommerceOrderItem> upsertCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return getService()
+				   .upsertCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	public static CommerceOrderItemService getService() {
 		return _serviceTracker.getService();
 	}
@@ -45,6 +45,17 @@ public class CommerceOrderItemServiceWrapper implements CommerceOrderItemService
 			serviceContext);
 	}
 
+	@Override
+	public java.util.List<com.liferay.commerce.model.CommerceOrderItem> addCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return _commerceOrderItemService.addCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	@Override
 	public void deleteCommerceOrderItem(long commerceOrderItemId)
 		throws com.liferay.portal.kernel.exception.PortalException {
@@ -168,6 +179,17 @@ public class CommerceOrderItemServiceWrapper implements CommerceOrderItemService
 			serviceContext);
 	}
 
+	@Override
+	public java.util.List<com.liferay.commerce.model.CommerceOrderItem> upsertCommerceOrderItems(
+		long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		return _commerceOrderItemService.upsertCommerceOrderItems(commerceOrderId,
+			commerceOrderItemLines, commerceContext, serviceContext);
+	}
+
 	@Override
 	public CommerceOrderItemService getWrappedService() {
 		return _commerceOrderItemService;
@@ -94,6 +94,16 @@ public interface CommerceWarehouseItemLocalService extends BaseLocalService,
 	public CommerceWarehouseItem createCommerceWarehouseItem(
 		long commerceWarehouseItemId);
 
+	/**
+	* Subtracts the quantity from the commerce warehouse item with a single update evaluated by the database, so that concurrent decrements of the same item are serialized by the row lock and never lost. The time spent in the update is recorded in the stock update statistics.
+	*
+	* @param commerceWarehouseItem the commerce warehouse item
+	* @param quantity the quantity to subtract
+	* @return the quantity of the commerce warehouse item after the update
+	*/
+	public int decrementCommerceWarehouseItemQuantity(
+		CommerceWarehouseItem commerceWarehouseItem, int quantity);
+
 	/**
 	* Deletes the commerce warehouse item from the database. Also notifies the appropriate model listeners.
 	*
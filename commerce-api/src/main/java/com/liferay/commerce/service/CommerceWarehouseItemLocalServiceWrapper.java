@@ -81,6 +81,21 @@ public class CommerceWarehouseItemLocalServiceWrapper
 		return _commerceWarehouseItemLocalService.createCommerceWarehouseItem(commerceWarehouseItemId);
 	}
 
+	/**
+	* Subtracts the quantity from the commerce warehouse item with a single update evaluated by the database, so that concurrent decrements of the same item are serialized by the row lock and never lost. The time spent in the update is recorded in the stock update statistics.
+	*
+	* @param commerceWarehouseItem the commerce warehouse item
+	* @param quantity the quantity to subtract
+	* @return the quantity of the commerce warehouse item after the update
+	*/
+	@Override
+	public int decrementCommerceWarehouseItemQuantity(
+		com.liferay.commerce.model.CommerceWarehouseItem commerceWarehouseItem,
+		int quantity) {
+		return _commerceWarehouseItemLocalService.decrementCommerceWarehouseItemQuantity(commerceWarehouseItem,
+			quantity);
+	}
+
 	/**
 	* Deletes the commerce warehouse item from the database. Also notifies the appropriate model listeners.
 	*
@@ -30,5 +30,8 @@ public interface CommerceOrderItemFinder {
 
 	public int getCommerceOrderItemsQuantity(long commerceOrderId);
 
+	public java.util.Map<Long, Integer> getCPInstanceQuantities(
+		long[] cpInstanceIds, int status);
+
 	public int getCPInstanceQuantity(long cpInstanceId, int status);
 }
\ No newline at end of file
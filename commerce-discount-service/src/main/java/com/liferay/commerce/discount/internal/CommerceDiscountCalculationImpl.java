@@ -20,6 +20,8 @@ import com.liferay.commerce.currency.model.CommerceMoney;
 import com.liferay.commerce.currency.model.CommerceMoneyFactory;
 import com.liferay.commerce.discount.CommerceDiscountCalculation;
 import com.liferay.commerce.discount.CommerceDiscountValue;
+import com.liferay.commerce.discount.internal.cache.CommerceDiscountCache;
+import com.liferay.commerce.discount.internal.cache.CommerceDiscountCacheEntry;
 import com.liferay.commerce.discount.internal.search.CommerceDiscountIndexer;
 import com.liferay.commerce.discount.model.CommerceDiscount;
 import com.liferay.commerce.discount.model.CommerceDiscountRule;
@@ -31,12 +33,15 @@ import com.liferay.commerce.discount.target.CommerceDiscountTarget;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.product.model.CPInstance;
 import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.petra.string.StringPool;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.search.BaseModelSearchResult;
 import com.liferay.portal.kernel.search.Field;
 import com.liferay.portal.kernel.search.QueryConfig;
 import com.liferay.portal.kernel.search.SearchContext;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.workflow.WorkflowConstants;
 
 import java.io.Serializable;
@@ -46,6 +51,7 @@ import java.math.MathContext;
 import java.math.RoundingMode;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -60,6 +66,49 @@ import org.osgi.service.component.annotations.Reference;
 public class CommerceDiscountCalculationImpl
 	implements CommerceDiscountCalculation {
 
+	@Override
+	public String getOrderProductCommerceDiscountsKey(
+			CommerceOrder commerceOrder, CommerceContext commerceContext)
+		throws PortalException {
+
+		if (commerceOrder == null) {
+			return StringPool.BLANK;
+		}
+
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			_commerceDiscountCache.getCommerceDiscountCacheEntries(
+				commerceOrder.getGroupId(),
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_PRODUCT);
+
+		if (commerceDiscountCacheEntries == null) {
+			return null;
+		}
+
+		long[] commerceDiscountIds = new long[0];
+
+		for (CommerceDiscountCacheEntry commerceDiscountCacheEntry :
+				commerceDiscountCacheEntries) {
+
+			if (_isValidDiscount(
+					commerceContext,
+					commerceDiscountCacheEntry.getCommerceDiscountRules())) {
+
+				CommerceDiscount commerceDiscount =
+					commerceDiscountCacheEntry.getCommerceDiscount();
+
+				commerceDiscountIds = ArrayUtil.append(
+					commerceDiscountIds,
+					commerceDiscount.getCommerceDiscountId());
+			}
+		}
+
+		Arrays.sort(commerceDiscountIds);
+
+		return StringUtil.merge(commerceDiscountIds);
+	}
+
 	@Override
 	public CommerceDiscountValue getOrderShippingCommerceDiscountValue(
 			CommerceOrder commerceOrder, BigDecimal shippingAmount,
@@ -70,15 +119,27 @@ public class CommerceDiscountCalculationImpl
 			return null;
 		}
 
-		SearchContext searchContext = buildSearchContext(
-			commerceOrder.getCompanyId(), commerceOrder.getGroupId(), 0, 0,
-			commerceOrder.getCommerceOrderId(),
-			commerceContext.getCommerceUserSegmentEntryIds(),
-			commerceContext.getCouponCode(),
-			CommerceDiscountTarget.Type.APPLY_TO_SHIPPING);
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			_commerceDiscountCache.getCommerceDiscountCacheEntries(
+				commerceOrder.getGroupId(), 0,
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_SHIPPING);
+
+		if (commerceDiscountCacheEntries == null) {
+			SearchContext searchContext = buildSearchContext(
+				commerceOrder.getCompanyId(), commerceOrder.getGroupId(), 0, 0,
+				commerceOrder.getCommerceOrderId(),
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_SHIPPING);
+
+			commerceDiscountCacheEntries = _getCommerceDiscountCacheEntries(
+				searchContext);
+		}
 
 		return _getCommerceDiscountValue(
-			shippingAmount, commerceContext, searchContext);
+			shippingAmount, commerceContext, commerceDiscountCacheEntries);
 	}
 
 	@Override
@@ -91,15 +152,27 @@ public class CommerceDiscountCalculationImpl
 			return null;
 		}
 
-		SearchContext searchContext = buildSearchContext(
-			commerceOrder.getCompanyId(), commerceOrder.getGroupId(), 0, 0,
-			commerceOrder.getCommerceOrderId(),
-			commerceContext.getCommerceUserSegmentEntryIds(),
-			commerceContext.getCouponCode(),
-			CommerceDiscountTarget.Type.APPLY_TO_SUBTOTAL);
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			_commerceDiscountCache.getCommerceDiscountCacheEntries(
+				commerceOrder.getGroupId(), 0,
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_SUBTOTAL);
+
+		if (commerceDiscountCacheEntries == null) {
+			SearchContext searchContext = buildSearchContext(
+				commerceOrder.getCompanyId(), commerceOrder.getGroupId(), 0, 0,
+				commerceOrder.getCommerceOrderId(),
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_SUBTOTAL);
+
+			commerceDiscountCacheEntries = _getCommerceDiscountCacheEntries(
+				searchContext);
+		}
 
 		return _getCommerceDiscountValue(
-			subtotalAmount, commerceContext, searchContext);
+			subtotalAmount, commerceContext, commerceDiscountCacheEntries);
 	}
 
 	@Override
@@ -112,15 +185,27 @@ public class CommerceDiscountCalculationImpl
 			return null;
 		}
 
-		SearchContext searchContext = buildSearchContext(
-			commerceOrder.getCompanyId(), commerceOrder.getGroupId(), 0, 0,
-			commerceOrder.getCommerceOrderId(),
-			commerceContext.getCommerceUserSegmentEntryIds(),
-			commerceContext.getCouponCode(),
-			CommerceDiscountTarget.Type.APPLY_TO_TOTAL);
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			_commerceDiscountCache.getCommerceDiscountCacheEntries(
+				commerceOrder.getGroupId(), 0,
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_TOTAL);
+
+		if (commerceDiscountCacheEntries == null) {
+			SearchContext searchContext = buildSearchContext(
+				commerceOrder.getCompanyId(), commerceOrder.getGroupId(), 0, 0,
+				commerceOrder.getCommerceOrderId(),
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_TOTAL);
+
+			commerceDiscountCacheEntries = _getCommerceDiscountCacheEntries(
+				searchContext);
+		}
 
 		return _getCommerceDiscountValue(
-			totalAmount, commerceContext, searchContext);
+			totalAmount, commerceContext, commerceDiscountCacheEntries);
 	}
 
 	@Override
@@ -132,15 +217,93 @@ public class CommerceDiscountCalculationImpl
 		CPInstance cpInstance = _cpInstanceLocalService.getCPInstance(
 			cpInstanceId);
 
-		SearchContext searchContext = buildSearchContext(
-			cpInstance.getCompanyId(), cpInstance.getGroupId(),
-			cpInstance.getCPDefinitionId(), cpInstanceId, 0,
-			commerceContext.getCommerceUserSegmentEntryIds(),
-			commerceContext.getCouponCode(),
-			CommerceDiscountTarget.Type.APPLY_TO_PRODUCT);
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			_commerceDiscountCache.getCommerceDiscountCacheEntries(
+				cpInstance.getGroupId(), cpInstance.getCPDefinitionId(),
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_PRODUCT);
+
+		if (commerceDiscountCacheEntries == null) {
+			SearchContext searchContext = buildSearchContext(
+				cpInstance.getCompanyId(), cpInstance.getGroupId(),
+				cpInstance.getCPDefinitionId(), cpInstanceId, 0,
+				commerceContext.getCommerceUserSegmentEntryIds(),
+				commerceContext.getCouponCode(),
+				CommerceDiscountTarget.Type.APPLY_TO_PRODUCT);
+
+			commerceDiscountCacheEntries = _getCommerceDiscountCacheEntries(
+				searchContext);
+		}
 
 		return _getCommerceDiscountValue(
-			productUnitPrice, commerceContext, searchContext);
+			productUnitPrice, commerceContext, commerceDiscountCacheEntries);
+	}
+
+	@Override
+	public Map<Long, CommerceDiscountValue> getProductCommerceDiscountValues(
+			List<CPInstance> cpInstances, int quantity,
+			Map<Long, BigDecimal> productUnitPrices,
+			CommerceContext commerceContext)
+		throws PortalException {
+
+		Map<Long, CommerceDiscountValue> commerceDiscountValues =
+			new HashMap<>();
+
+		Map<Long, List<CommerceDiscountCacheEntry>>
+			cpDefinitionCommerceDiscountCacheEntries = new HashMap<>();
+		Map<Long, Boolean> validCommerceDiscounts = new HashMap<>();
+
+		for (CPInstance cpInstance : cpInstances) {
+			long cpDefinitionId = cpInstance.getCPDefinitionId();
+
+			List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+				null;
+
+			if (cpDefinitionCommerceDiscountCacheEntries.containsKey(
+					cpDefinitionId)) {
+
+				commerceDiscountCacheEntries =
+					cpDefinitionCommerceDiscountCacheEntries.get(
+						cpDefinitionId);
+			}
+			else {
+				commerceDiscountCacheEntries =
+					_commerceDiscountCache.getCommerceDiscountCacheEntries(
+						cpInstance.getGroupId(), cpDefinitionId,
+						commerceContext.getCommerceUserSegmentEntryIds(),
+						commerceContext.getCouponCode(),
+						CommerceDiscountTarget.Type.APPLY_TO_PRODUCT);
+
+				cpDefinitionCommerceDiscountCacheEntries.put(
+					cpDefinitionId, commerceDiscountCacheEntries);
+			}
+
+			if (commerceDiscountCacheEntries == null) {
+				SearchContext searchContext = buildSearchContext(
+					cpInstance.getCompanyId(), cpInstance.getGroupId(),
+					cpDefinitionId, cpInstance.getCPInstanceId(), 0,
+					commerceContext.getCommerceUserSegmentEntryIds(),
+					commerceContext.getCouponCode(),
+					CommerceDiscountTarget.Type.APPLY_TO_PRODUCT);
+
+				commerceDiscountCacheEntries = _getCommerceDiscountCacheEntries(
+					searchContext);
+			}
+
+			CommerceDiscountValue commerceDiscountValue =
+				_getCommerceDiscountValue(
+					productUnitPrices.get(cpInstance.getCPInstanceId()),
+					commerceContext, commerceDiscountCacheEntries,
+					validCommerceDiscounts);
+
+			if (commerceDiscountValue != null) {
+				commerceDiscountValues.put(
+					cpInstance.getCPInstanceId(), commerceDiscountValue);
+			}
+		}
+
+		return commerceDiscountValues;
 	}
 
 	protected SearchContext buildSearchContext(
@@ -180,8 +343,7 @@ public class CommerceDiscountCalculationImpl
 		return searchContext;
 	}
 
-	private CommerceDiscountValue _getCommerceDiscountValue(
-			BigDecimal amount, CommerceContext commerceContext,
+	private List<CommerceDiscountCacheEntry> _getCommerceDiscountCacheEntries(
 			SearchContext searchContext)
 		throws PortalException {
 
@@ -189,15 +351,72 @@ public class CommerceDiscountCalculationImpl
 			_commerceDiscountLocalService.searchCommerceDiscounts(
 				searchContext);
 
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			new ArrayList<>();
+
+		for (CommerceDiscount commerceDiscount :
+				baseModelSearchResult.getBaseModels()) {
+
+			List<CommerceDiscountRule> commerceDiscountRules =
+				_commerceDiscountRuleLocalService.getCommerceDiscountRules(
+					commerceDiscount.getCommerceDiscountId(), QueryUtil.ALL_POS,
+					QueryUtil.ALL_POS, null);
+
+			commerceDiscountCacheEntries.add(
+				new CommerceDiscountCacheEntry(
+					commerceDiscount, commerceDiscountRules, null, null, null,
+					null));
+		}
+
+		return commerceDiscountCacheEntries;
+	}
+
+	private CommerceDiscountValue _getCommerceDiscountValue(
+			BigDecimal amount, CommerceContext commerceContext,
+			List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries)
+		throws PortalException {
+
+		return _getCommerceDiscountValue(
+			amount, commerceContext, commerceDiscountCacheEntries,
+			new HashMap<Long, Boolean>());
+	}
+
+	/**
+	 * Returns the greatest discount value among the discounts whose rules
+	 * hold. The outcome of the rules of each discount is remembered in the
+	 * map, so that callers resolving several amounts evaluate them once.
+	 */
+	private CommerceDiscountValue _getCommerceDiscountValue(
+			BigDecimal amount, CommerceContext commerceContext,
+			List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries,
+			Map<Long, Boolean> validCommerceDiscounts)
+		throws PortalException {
+
 		List<CommerceDiscountValue> commerceDiscountValues = new ArrayList<>();
 
 		CommerceCurrency commerceCurrency =
 			commerceContext.getCommerceCurrency();
 
-		for (CommerceDiscount commerceDiscount :
-				baseModelSearchResult.getBaseModels()) {
+		for (CommerceDiscountCacheEntry commerceDiscountCacheEntry :
+				commerceDiscountCacheEntries) {
+
+			CommerceDiscount commerceDiscount =
+				commerceDiscountCacheEntry.getCommerceDiscount();
+
+			Boolean validCommerceDiscount = validCommerceDiscounts.get(
+				commerceDiscount.getCommerceDiscountId());
+
+			if (validCommerceDiscount == null) {
+				validCommerceDiscount = _isValidDiscount(
+					commerceContext,
+					commerceDiscountCacheEntry.getCommerceDiscountRules());
 
-			if (_isValidDiscount(commerceContext, commerceDiscount)) {
+				validCommerceDiscounts.put(
+					commerceDiscount.getCommerceDiscountId(),
+					validCommerceDiscount);
+			}
+
+			if (validCommerceDiscount) {
 				commerceDiscountValues.add(
 					_getCommerceDiscountValue(
 						commerceDiscount, amount, commerceCurrency));
@@ -328,14 +547,10 @@ public class CommerceDiscountCalculationImpl
 	}
 
 	private boolean _isValidDiscount(
-			CommerceContext commerceContext, CommerceDiscount commerceDiscount)
+			CommerceContext commerceContext,
+			List<CommerceDiscountRule> commerceDiscountRules)
 		throws PortalException {
 
-		List<CommerceDiscountRule> commerceDiscountRules =
-			_commerceDiscountRuleLocalService.getCommerceDiscountRules(
-				commerceDiscount.getCommerceDiscountId(), QueryUtil.ALL_POS,
-				QueryUtil.ALL_POS, null);
-
 		for (CommerceDiscountRule commerceDiscountRule :
 				commerceDiscountRules) {
 
@@ -355,6 +570,9 @@ public class CommerceDiscountCalculationImpl
 
 	private static final BigDecimal _ONE_HUNDRED = BigDecimal.valueOf(100);
 
+	@Reference
+	private CommerceDiscountCache _commerceDiscountCache;
+
 	@Reference
 	private CommerceDiscountLocalService _commerceDiscountLocalService;
 
@@ -0,0 +1,381 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.discount.internal.cache;
+
+import com.liferay.asset.kernel.model.AssetCategory;
+import com.liferay.asset.kernel.model.AssetEntry;
+import com.liferay.asset.kernel.service.AssetEntryLocalService;
+import com.liferay.commerce.discount.model.CommerceDiscount;
+import com.liferay.commerce.discount.model.CommerceDiscountConstants;
+import com.liferay.commerce.discount.model.CommerceDiscountRel;
+import com.liferay.commerce.discount.model.CommerceDiscountRule;
+import com.liferay.commerce.discount.model.CommerceDiscountUserSegmentRel;
+import com.liferay.commerce.discount.service.CommerceDiscountLocalService;
+import com.liferay.commerce.discount.service.CommerceDiscountRelLocalService;
+import com.liferay.commerce.discount.service.CommerceDiscountRuleLocalService;
+import com.liferay.commerce.discount.service.CommerceDiscountUserSegmentRelLocalService;
+import com.liferay.commerce.discount.target.CommerceDiscountTarget;
+import com.liferay.commerce.discount.target.CommerceDiscountTargetRegistry;
+import com.liferay.commerce.price.CommercePriceGenerationUtil;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps, for each group, every commerce discount with its rules, target rels
+ * and user segment rels so that discount resolution does not need to query the
+ * search index. Entries live in a multi VM portal cache: they are evicted
+ * according to the cache configuration and invalidations are replicated to the
+ * other cluster nodes.
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CommerceDiscountCache.class)
+public class CommerceDiscountCache {
+
+	public static final String CACHE_NAME =
+		CommerceDiscountCache.class.getName();
+
+	/**
+	 * Returns the discounts of the group with the given target type, whatever
+	 * products they target, or <code>null</code> if the group contains
+	 * discounts whose target cannot be evaluated in memory.
+	 */
+	public List<CommerceDiscountCacheEntry> getCommerceDiscountCacheEntries(
+		long groupId, long[] commerceUserSegmentEntryIds, String couponCode,
+		CommerceDiscountTarget.Type commerceDiscountTargetType) {
+
+		GroupCacheEntry groupCacheEntry = _getGroupCacheEntry(groupId);
+
+		if (!groupCacheEntry._resolvable) {
+			return null;
+		}
+
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			new ArrayList<>();
+
+		for (CommerceDiscountCacheEntry commerceDiscountCacheEntry :
+				groupCacheEntry._commerceDiscountCacheEntries) {
+
+			if (commerceDiscountCacheEntry.matches(
+					commerceDiscountTargetType, commerceUserSegmentEntryIds,
+					couponCode)) {
+
+				commerceDiscountCacheEntries.add(commerceDiscountCacheEntry);
+			}
+		}
+
+		return commerceDiscountCacheEntries;
+	}
+
+	/**
+	 * Returns the discounts of the group that apply to the given target, or
+	 * <code>null</code> if the group contains discounts whose target cannot be
+	 * evaluated in memory and the search index must be used instead.
+	 */
+	public List<CommerceDiscountCacheEntry> getCommerceDiscountCacheEntries(
+		long groupId, long cpDefinitionId, long[] commerceUserSegmentEntryIds,
+		String couponCode,
+		CommerceDiscountTarget.Type commerceDiscountTargetType) {
+
+		GroupCacheEntry groupCacheEntry = _getGroupCacheEntry(groupId);
+
+		if (!groupCacheEntry._resolvable) {
+			return null;
+		}
+
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			new ArrayList<>();
+
+		long[] assetCategoryIds = null;
+
+		for (CommerceDiscountCacheEntry commerceDiscountCacheEntry :
+				groupCacheEntry._commerceDiscountCacheEntries) {
+
+			if (!commerceDiscountCacheEntry.matches(
+					commerceDiscountTargetType, commerceUserSegmentEntryIds,
+					couponCode)) {
+
+				continue;
+			}
+
+			if (commerceDiscountTargetType ==
+					CommerceDiscountTarget.Type.APPLY_TO_PRODUCT) {
+
+				if (!commerceDiscountCacheEntry.matchesCPDefinitionId(
+						cpDefinitionId)) {
+
+					continue;
+				}
+
+				if (commerceDiscountCacheEntry.hasTargetAssetCategoryIds()) {
+					if (assetCategoryIds == null) {
+						assetCategoryIds = _getAssetCategoryIds(
+							cpDefinitionId);
+					}
+
+					if (!commerceDiscountCacheEntry.matchesAssetCategoryIds(
+							assetCategoryIds)) {
+
+						continue;
+					}
+				}
+			}
+
+			commerceDiscountCacheEntries.add(commerceDiscountCacheEntry);
+		}
+
+		return commerceDiscountCacheEntries;
+	}
+
+	/**
+	 * Forgets the group's discounts and, once the current transaction commits,
+	 * changes the price generation token so that order items priced with the
+	 * previous discounts are repriced. The discounts are forgotten again on
+	 * commit before being reloaded, since another request may have loaded them
+	 * from the data as they were before the commit.
+	 */
+	public void invalidate(long groupId) {
+		_portalCache.remove(groupId);
+
+		CommercePriceGenerationUtil.invalidate();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_portalCache.remove(groupId);
+
+				_getGroupCacheEntry(groupId);
+
+				return null;
+			});
+	}
+
+	private long[] _getAssetCategoryIds(long cpDefinitionId) {
+		AssetEntry assetEntry = _assetEntryLocalService.fetchEntry(
+			CPDefinition.class.getName(), cpDefinitionId);
+
+		if (assetEntry == null) {
+			return new long[0];
+		}
+
+		Set<AssetCategory> assetCategories = new HashSet<>();
+
+		for (AssetCategory assetCategory : assetEntry.getCategories()) {
+			assetCategories.add(assetCategory);
+
+			try {
+				assetCategories.addAll(assetCategory.getAncestors());
+			}
+			catch (PortalException pe) {
+				_log.error(pe, pe);
+			}
+		}
+
+		Stream<AssetCategory> stream = assetCategories.stream();
+
+		LongStream longStream = stream.mapToLong(AssetCategory::getCategoryId);
+
+		return longStream.toArray();
+	}
+
+	private long[] _getClassPKs(long commerceDiscountId, String className) {
+		List<CommerceDiscountRel> commerceDiscountRels =
+			_commerceDiscountRelLocalService.getCommerceDiscountRels(
+				commerceDiscountId, className);
+
+		Stream<CommerceDiscountRel> stream = commerceDiscountRels.stream();
+
+		LongStream longStream = stream.mapToLong(
+			CommerceDiscountRel::getClassPK);
+
+		long[] classPKs = longStream.toArray();
+
+		if (ArrayUtil.isEmpty(classPKs)) {
+			return null;
+		}
+
+		return classPKs;
+	}
+
+	private CommerceDiscountCacheEntry _getCommerceDiscountCacheEntry(
+		CommerceDiscount commerceDiscount,
+		CommerceDiscountTarget.Type commerceDiscountTargetType) {
+
+		long commerceDiscountId = commerceDiscount.getCommerceDiscountId();
+
+		List<CommerceDiscountRule> commerceDiscountRules =
+			_commerceDiscountRuleLocalService.getCommerceDiscountRules(
+				commerceDiscountId, QueryUtil.ALL_POS, QueryUtil.ALL_POS, null);
+
+		List<CommerceDiscountUserSegmentRel> commerceDiscountUserSegmentRels =
+			_commerceDiscountUserSegmentRelLocalService.
+				getCommerceDiscountUserSegmentRels(
+					commerceDiscountId, QueryUtil.ALL_POS, QueryUtil.ALL_POS,
+					null);
+
+		Stream<CommerceDiscountUserSegmentRel> stream =
+			commerceDiscountUserSegmentRels.stream();
+
+		LongStream longStream = stream.mapToLong(
+			CommerceDiscountUserSegmentRel::getCommerceUserSegmentEntryId);
+
+		long[] commerceUserSegmentEntryIds = longStream.toArray();
+
+		long[] targetCPDefinitionIds = null;
+		long[] targetAssetCategoryIds = null;
+
+		String target = commerceDiscount.getTarget();
+
+		if (target.equals(CommerceDiscountConstants.TARGET_PRODUCT)) {
+			targetCPDefinitionIds = _getClassPKs(
+				commerceDiscountId, CPDefinition.class.getName());
+		}
+		else if (target.equals(CommerceDiscountConstants.TARGET_CATEGORIES)) {
+			targetAssetCategoryIds = _getClassPKs(
+				commerceDiscountId, AssetCategory.class.getName());
+		}
+
+		return new CommerceDiscountCacheEntry(
+			commerceDiscount, commerceDiscountRules, commerceDiscountTargetType,
+			commerceUserSegmentEntryIds, targetCPDefinitionIds,
+			targetAssetCategoryIds);
+	}
+
+	private GroupCacheEntry _getGroupCacheEntry(long groupId) {
+		GroupCacheEntry groupCacheEntry = _portalCache.get(groupId);
+
+		if (groupCacheEntry != null) {
+			return groupCacheEntry;
+		}
+
+		List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries =
+			new ArrayList<>();
+		boolean resolvable = true;
+
+		List<CommerceDiscount> commerceDiscounts =
+			_commerceDiscountLocalService.getCommerceDiscounts(
+				groupId, QueryUtil.ALL_POS, QueryUtil.ALL_POS, null);
+
+		for (CommerceDiscount commerceDiscount : commerceDiscounts) {
+			if (!_supportedTargets.contains(commerceDiscount.getTarget())) {
+				resolvable = false;
+
+				break;
+			}
+
+			CommerceDiscountTarget commerceDiscountTarget =
+				_commerceDiscountTargetRegistry.getCommerceDiscountTarget(
+					commerceDiscount.getTarget());
+
+			if (commerceDiscountTarget == null) {
+				resolvable = false;
+
+				break;
+			}
+
+			commerceDiscountCacheEntries.add(
+				_getCommerceDiscountCacheEntry(
+					commerceDiscount, commerceDiscountTarget.getType()));
+		}
+
+		if (resolvable) {
+			groupCacheEntry = new GroupCacheEntry(
+				commerceDiscountCacheEntries, true);
+		}
+		else {
+			groupCacheEntry = new GroupCacheEntry(
+				Collections.<CommerceDiscountCacheEntry>emptyList(), false);
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, groupId, groupCacheEntry);
+
+		return groupCacheEntry;
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CommerceDiscountCache.class);
+
+	private static final PortalCache<Long, GroupCacheEntry> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+	private static final Set<String> _supportedTargets = new HashSet<>(
+		Arrays.asList(
+			CommerceDiscountConstants.TARGET_CATEGORIES,
+			CommerceDiscountConstants.TARGET_PRODUCT,
+			CommerceDiscountConstants.TARGET_SHIPPING,
+			CommerceDiscountConstants.TARGET_SUBTOTAL,
+			CommerceDiscountConstants.TARGET_TOTAL));
+
+	@Reference
+	private AssetEntryLocalService _assetEntryLocalService;
+
+	@Reference
+	private CommerceDiscountLocalService _commerceDiscountLocalService;
+
+	@Reference
+	private CommerceDiscountRelLocalService _commerceDiscountRelLocalService;
+
+	@Reference
+	private CommerceDiscountRuleLocalService _commerceDiscountRuleLocalService;
+
+	@Reference
+	private CommerceDiscountTargetRegistry _commerceDiscountTargetRegistry;
+
+	@Reference
+	private CommerceDiscountUserSegmentRelLocalService
+		_commerceDiscountUserSegmentRelLocalService;
+
+	private static class GroupCacheEntry implements Serializable {
+
+		private GroupCacheEntry(
+			List<CommerceDiscountCacheEntry> commerceDiscountCacheEntries,
+			boolean resolvable) {
+
+			_commerceDiscountCacheEntries = new ArrayList<>(
+				commerceDiscountCacheEntries);
+			_resolvable = resolvable;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<CommerceDiscountCacheEntry>
+			_commerceDiscountCacheEntries;
+		private final boolean _resolvable;
+
+	}
+
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.discount.internal.cache;
+
+import com.liferay.commerce.discount.model.CommerceDiscount;
+import com.liferay.commerce.discount.model.CommerceDiscountRule;
+import com.liferay.commerce.discount.target.CommerceDiscountTarget;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds a commerce discount together with everything needed to decide, without
+ * querying the search index, whether it applies to a given product or order.
+ *
+ * @author Marco Leo
+ */
+public class CommerceDiscountCacheEntry implements Serializable {
+
+	public CommerceDiscountCacheEntry(
+		CommerceDiscount commerceDiscount,
+		List<CommerceDiscountRule> commerceDiscountRules,
+		CommerceDiscountTarget.Type commerceDiscountTargetType,
+		long[] commerceUserSegmentEntryIds, long[] targetCPDefinitionIds,
+		long[] targetAssetCategoryIds) {
+
+		_commerceDiscount = commerceDiscount;
+		_commerceDiscountRules = new ArrayList<>(commerceDiscountRules);
+		_commerceDiscountTargetType = commerceDiscountTargetType;
+		_commerceUserSegmentEntryIds = commerceUserSegmentEntryIds;
+		_targetCPDefinitionIds = targetCPDefinitionIds;
+		_targetAssetCategoryIds = targetAssetCategoryIds;
+	}
+
+	public CommerceDiscount getCommerceDiscount() {
+		return _commerceDiscount;
+	}
+
+	public List<CommerceDiscountRule> getCommerceDiscountRules() {
+		return _commerceDiscountRules;
+	}
+
+	public CommerceDiscountTarget.Type getCommerceDiscountTargetType() {
+		return _commerceDiscountTargetType;
+	}
+
+	public boolean hasTargetAssetCategoryIds() {
+		return !ArrayUtil.isEmpty(_targetAssetCategoryIds);
+	}
+
+	/**
+	 * Mirrors the filters applied by <code>CommerceDiscountIndexer</code> on
+	 * status, active flag, target type, coupon code and user segments.
+	 */
+	public boolean matches(
+		CommerceDiscountTarget.Type commerceDiscountTargetType,
+		long[] commerceUserSegmentEntryIds, String couponCode) {
+
+		if ((_commerceDiscount.getStatus() !=
+				WorkflowConstants.STATUS_APPROVED) ||
+			!_commerceDiscount.isActive() ||
+			(_commerceDiscountTargetType != commerceDiscountTargetType)) {
+
+			return false;
+		}
+
+		if (_commerceDiscount.isUseCouponCode()) {
+			if ((couponCode == null) ||
+				!couponCode.equals(_commerceDiscount.getCouponCode())) {
+
+				return false;
+			}
+		}
+
+		if (ArrayUtil.isEmpty(commerceUserSegmentEntryIds)) {
+			return true;
+		}
+
+		for (long commerceUserSegmentEntryId : _commerceUserSegmentEntryIds) {
+			if (!ArrayUtil.contains(
+					commerceUserSegmentEntryIds, commerceUserSegmentEntryId)) {
+
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	public boolean matchesAssetCategoryIds(long[] assetCategoryIds) {
+		if (!hasTargetAssetCategoryIds()) {
+			return true;
+		}
+
+		for (long assetCategoryId : assetCategoryIds) {
+			if (ArrayUtil.contains(_targetAssetCategoryIds, assetCategoryId)) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	public boolean matchesCPDefinitionId(long cpDefinitionId) {
+		if (ArrayUtil.isEmpty(_targetCPDefinitionIds)) {
+			return true;
+		}
+
+		return ArrayUtil.contains(_targetCPDefinitionIds, cpDefinitionId);
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final CommerceDiscount _commerceDiscount;
+	private final List<CommerceDiscountRule> _commerceDiscountRules;
+	private final CommerceDiscountTarget.Type _commerceDiscountTargetType;
+	private final long[] _commerceUserSegmentEntryIds;
+	private final long[] _targetAssetCategoryIds;
+	private final long[] _targetCPDefinitionIds;
+
+}
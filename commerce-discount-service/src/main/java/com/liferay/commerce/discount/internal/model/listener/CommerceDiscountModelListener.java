@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.discount.internal.model.listener;
+
+import com.liferay.commerce.discount.internal.cache.CommerceDiscountCache;
+import com.liferay.commerce.discount.model.CommerceDiscount;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceDiscountModelListener
+	extends BaseModelListener<CommerceDiscount> {
+
+	@Override
+	public void onAfterCreate(CommerceDiscount commerceDiscount) {
+		_commerceDiscountCache.invalidate(commerceDiscount.getGroupId());
+	}
+
+	@Override
+	public void onAfterRemove(CommerceDiscount commerceDiscount) {
+		_commerceDiscountCache.invalidate(commerceDiscount.getGroupId());
+	}
+
+	@Override
+	public void onAfterUpdate(CommerceDiscount commerceDiscount) {
+		_commerceDiscountCache.invalidate(commerceDiscount.getGroupId());
+	}
+
+	@Reference
+	private CommerceDiscountCache _commerceDiscountCache;
+
+}
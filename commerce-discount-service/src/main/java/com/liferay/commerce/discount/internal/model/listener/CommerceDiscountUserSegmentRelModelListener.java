@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.discount.internal.model.listener;
+
+import com.liferay.commerce.discount.internal.cache.CommerceDiscountCache;
+import com.liferay.commerce.discount.model.CommerceDiscountUserSegmentRel;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceDiscountUserSegmentRelModelListener
+	extends BaseModelListener<CommerceDiscountUserSegmentRel> {
+
+	@Override
+	public void onAfterCreate(
+		CommerceDiscountUserSegmentRel commerceDiscountUserSegmentRel) {
+
+		_commerceDiscountCache.invalidate(
+			commerceDiscountUserSegmentRel.getGroupId());
+	}
+
+	@Override
+	public void onAfterRemove(
+		CommerceDiscountUserSegmentRel commerceDiscountUserSegmentRel) {
+
+		_commerceDiscountCache.invalidate(
+			commerceDiscountUserSegmentRel.getGroupId());
+	}
+
+	@Override
+	public void onAfterUpdate(
+		CommerceDiscountUserSegmentRel commerceDiscountUserSegmentRel) {
+
+		_commerceDiscountCache.invalidate(
+			commerceDiscountUserSegmentRel.getGroupId());
+	}
+
+	@Reference
+	private CommerceDiscountCache _commerceDiscountCache;
+
+}
@@ -22,6 +22,7 @@ import com.liferay.commerce.frontend.model.ProductSettingsModel;
 import com.liferay.portal.kernel.exception.PortalException;
 
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * @author Marco Leo
@@ -34,6 +35,11 @@ public interface ProductHelper {
 			Locale locale)
 		throws PortalException;
 
+	public Map<Long, PriceModel> getPrices(
+			long[] cpInstanceIds, int quantity, CommerceContext commerceContext,
+			Locale locale)
+		throws PortalException;
+
 	public ProductSettingsModel getProductSettingsModel(long cpInstanceId)
 		throws PortalException;
 
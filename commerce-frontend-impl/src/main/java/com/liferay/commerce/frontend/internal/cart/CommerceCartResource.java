@@ -25,13 +25,16 @@ import com.liferay.commerce.context.CommerceContextFactory;
 import com.liferay.commerce.discount.CommerceDiscountCouponCodeHelper;
 import com.liferay.commerce.exception.CommerceOrderValidatorException;
 import com.liferay.commerce.frontend.internal.cart.model.Cart;
+import com.liferay.commerce.frontend.internal.cart.model.CartItemAdd;
 import com.liferay.commerce.frontend.internal.cart.model.CartItemUpdate;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.CommerceOrderItem;
 import com.liferay.commerce.order.CommerceOrderHttpHelper;
+import com.liferay.commerce.order.CommerceOrderItemLine;
 import com.liferay.commerce.order.CommerceOrderValidatorResult;
 import com.liferay.commerce.service.CommerceOrderItemService;
 import com.liferay.commerce.service.CommerceOrderService;
+import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.service.ServiceContext;
@@ -42,6 +45,7 @@ import com.liferay.portal.kernel.util.Portal;
 import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.WebKeys;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
@@ -55,6 +59,7 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -68,6 +73,77 @@ import org.osgi.service.component.annotations.Reference;
 @Component(service = CommerceCartResource.class)
 public class CommerceCartResource {
 
+	@Consumes(MediaType.APPLICATION_JSON)
+	@Path("/cart-items")
+	@POST
+	@Produces(MediaType.APPLICATION_JSON)
+	public Response addOrderItems(
+		@QueryParam("groupId") long groupId,
+		@QueryParam("commerceAccountId") long commerceAccountId,
+		@QueryParam("orderId") long orderId, List<CartItemAdd> cartItemAdds,
+		@Context HttpServletRequest httpServletRequest) {
+
+		Cart cart = null;
+
+		try {
+			String couponCode =
+				_commerceDiscountCouponCodeHelper.getCommerceDiscountCouponCode(
+					httpServletRequest);
+
+			CommerceContext commerceContext = _commerceContextFactory.create(
+				groupId, _portal.getUserId(httpServletRequest), orderId,
+				commerceAccountId, couponCode);
+
+			httpServletRequest.setAttribute(
+				CommerceWebKeys.COMMERCE_CONTEXT, commerceContext);
+
+			ThemeDisplay themeDisplay =
+				(ThemeDisplay)httpServletRequest.getAttribute(
+					WebKeys.THEME_DISPLAY);
+
+			themeDisplay.setScopeGroupId(groupId);
+
+			CommerceOrder commerceOrder =
+				_commerceOrderService.fetchCommerceOrder(orderId);
+
+			if (commerceOrder == null) {
+				commerceOrder =
+					_commerceOrderHttpHelper.getCurrentCommerceOrder(
+						httpServletRequest);
+			}
+
+			if (commerceOrder == null) {
+				commerceOrder = _commerceOrderHttpHelper.addCommerceOrder(
+					httpServletRequest);
+			}
+
+			ServiceContext serviceContext = ServiceContextFactory.getInstance(
+				CommerceOrderItem.class.getName(), httpServletRequest);
+
+			serviceContext.setScopeGroupId(commerceOrder.getGroupId());
+
+			_upsertCommerceOrderItems(
+				commerceOrder.getCommerceOrderId(), cartItemAdds,
+				commerceContext, serviceContext);
+
+			cart = _commerceCartResourceUtil.getCart(
+				commerceOrder.getCommerceOrderId(), themeDisplay.getLocale(),
+				commerceContext);
+		}
+		catch (Exception e) {
+			if (e instanceof CommerceOrderValidatorException) {
+				cart = new Cart(
+					_getCommerceOrderValidatorResultsMessages(
+						(CommerceOrderValidatorException)e));
+			}
+			else {
+				cart = new Cart(StringUtil.split(e.getLocalizedMessage()));
+			}
+		}
+
+		return getResponse(cart);
+	}
+
 	@Consumes(MediaType.APPLICATION_JSON)
 	@DELETE
 	@Path("/cart/cart-item/{id}")
@@ -354,6 +430,26 @@ public class CommerceCartResource {
 		return errorMessages;
 	}
 
+	private void _upsertCommerceOrderItems(
+			long commerceOrderId, List<CartItemAdd> cartItemAdds,
+			CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException {
+
+		List<CommerceOrderItemLine> commerceOrderItemLines = new ArrayList<>(
+			cartItemAdds.size());
+
+		for (CartItemAdd cartItemAdd : cartItemAdds) {
+			commerceOrderItemLines.add(
+				new CommerceOrderItemLine(
+					cartItemAdd.getProductId(), cartItemAdd.getQuantity(),
+					cartItemAdd.getOptions()));
+		}
+
+		_commerceOrderItemService.upsertCommerceOrderItems(
+			commerceOrderId, commerceOrderItemLines, commerceContext,
+			serviceContext);
+	}
+
 	private static final ObjectMapper _OBJECT_MAPPER = new ObjectMapper() {
 		{
 			configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
@@ -36,8 +36,10 @@ import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.util.ArrayUtil;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -91,10 +93,36 @@ public class CommerceCartResourceUtil {
 		List<CommerceOrderItem> commerceOrderItems =
 			commerceOrder.getCommerceOrderItems();
 
+		Map<Integer, long[]> quantityCPInstanceIds = new HashMap<>();
+
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			long[] cpInstanceIds = quantityCPInstanceIds.getOrDefault(
+				commerceOrderItem.getQuantity(), new long[0]);
+
+			quantityCPInstanceIds.put(
+				commerceOrderItem.getQuantity(),
+				ArrayUtil.append(
+					cpInstanceIds, commerceOrderItem.getCPInstanceId()));
+		}
+
+		Map<Integer, Map<Long, PriceModel>> quantityPriceModels =
+			new HashMap<>();
+
+		for (Map.Entry<Integer, long[]> entry :
+				quantityCPInstanceIds.entrySet()) {
+
+			quantityPriceModels.put(
+				entry.getKey(),
+				_productHelper.getPrices(
+					entry.getValue(), entry.getKey(), commerceContext, locale));
+		}
+
 		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
-			PriceModel prices = _productHelper.getPrice(
-				commerceOrderItem.getCPInstanceId(),
-				commerceOrderItem.getQuantity(), commerceContext, locale);
+			Map<Long, PriceModel> priceModels = quantityPriceModels.get(
+				commerceOrderItem.getQuantity());
+
+			PriceModel prices = priceModels.get(
+				commerceOrderItem.getCPInstanceId());
 
 			ProductSettingsModel settings =
 				_productHelper.getProductSettingsModel(
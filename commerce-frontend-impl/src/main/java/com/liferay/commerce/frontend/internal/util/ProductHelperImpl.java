@@ -31,7 +31,9 @@ import com.liferay.portal.kernel.exception.PortalException;
 
 import java.math.BigDecimal;
 
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
@@ -55,31 +57,28 @@ public class ProductHelperImpl implements ProductHelper {
 			return null;
 		}
 
-		CommerceMoney unitPrice = commerceProductPrice.getUnitPrice();
+		return _getPriceModel(commerceProductPrice, locale);
+	}
 
-		PriceModel priceModel = new PriceModel(unitPrice.format(locale));
+	public Map<Long, PriceModel> getPrices(
+			long[] cpInstanceIds, int quantity, CommerceContext commerceContext,
+			Locale locale)
+		throws PortalException {
 
-		CommerceMoney unitPromoPrice = commerceProductPrice.getUnitPromoPrice();
+		Map<Long, PriceModel> priceModels = new HashMap<>();
 
-		BigDecimal promoPrice = unitPromoPrice.getPrice();
+		Map<Long, CommerceProductPrice> commerceProductPrices =
+			_commerceProductPriceCalculation.getCommerceProductPrices(
+				cpInstanceIds, quantity, true, commerceContext);
 
-		if ((promoPrice != null) &&
-			(promoPrice.compareTo(BigDecimal.ZERO) > 0) &&
-			(promoPrice.compareTo(unitPrice.getPrice()) < 0)) {
+		for (Map.Entry<Long, CommerceProductPrice> entry :
+				commerceProductPrices.entrySet()) {
 
-			priceModel.setPromoPrice(unitPromoPrice.format(locale));
+			priceModels.put(
+				entry.getKey(), _getPriceModel(entry.getValue(), locale));
 		}
 
-		CommerceDiscountValue discountValue =
-			commerceProductPrice.getDiscountValue();
-
-		if (discountValue != null) {
-			CommerceMoney discountAmount = discountValue.getDiscountAmount();
-
-			priceModel.setDiscount(discountAmount.format(locale));
-		}
-
-		return priceModel;
+		return priceModels;
 	}
 
 	public ProductSettingsModel getProductSettingsModel(long cpInstanceId)
@@ -129,6 +128,37 @@ public class ProductHelperImpl implements ProductHelper {
 		return productSettingsModel;
 	}
 
+	private PriceModel _getPriceModel(
+			CommerceProductPrice commerceProductPrice, Locale locale)
+		throws PortalException {
+
+		CommerceMoney unitPrice = commerceProductPrice.getUnitPrice();
+
+		PriceModel priceModel = new PriceModel(unitPrice.format(locale));
+
+		CommerceMoney unitPromoPrice = commerceProductPrice.getUnitPromoPrice();
+
+		BigDecimal promoPrice = unitPromoPrice.getPrice();
+
+		if ((promoPrice != null) &&
+			(promoPrice.compareTo(BigDecimal.ZERO) > 0) &&
+			(promoPrice.compareTo(unitPrice.getPrice()) < 0)) {
+
+			priceModel.setPromoPrice(unitPromoPrice.format(locale));
+		}
+
+		CommerceDiscountValue discountValue =
+			commerceProductPrice.getDiscountValue();
+
+		if (discountValue != null) {
+			CommerceMoney discountAmount = discountValue.getDiscountAmount();
+
+			priceModel.setDiscount(discountAmount.format(locale));
+		}
+
+		return priceModel;
+	}
+
 	@Reference
 	private CommerceProductPriceCalculation _commerceProductPriceCalculation;
 
@@ -51,6 +51,10 @@ public interface CommerceMediaResolver {
 			boolean secure)
 		throws PortalException;
 
+	public String getUrl(
+			long cpAttachmentFileEntryId, int width, int height, String format)
+		throws PortalException;
+
 	public void sendMediaBytes(
 			HttpServletRequest httpServletRequest,
 			HttpServletResponse httpServletResponse)
@@ -72,6 +72,17 @@ public class CommerceMediaResolverUtil {
 		return commerceMediaResolver.getUrl(cpAttachmentFileEntryId);
 	}
 
+	public static String getUrl(
+			long cpAttachmentFileEntryId, int width, int height, String format)
+		throws PortalException {
+
+		CommerceMediaResolver commerceMediaResolver =
+			_serviceTracker.getService();
+
+		return commerceMediaResolver.getUrl(
+			cpAttachmentFileEntryId, width, height, format);
+	}
+
 	public static void sendMediaBytes(
 			HttpServletRequest httpServletRequest,
 			HttpServletResponse httpServletResponse)
@@ -18,7 +18,9 @@ import com.liferay.commerce.account.model.CommerceAccount;
 import com.liferay.commerce.account.util.CommerceAccountHelper;
 import com.liferay.commerce.media.CommerceMediaResolver;
 import com.liferay.commerce.media.constants.CommerceMediaConstants;
+import com.liferay.commerce.media.internal.configuration.CommerceMediaConfiguration;
 import com.liferay.commerce.media.internal.configuration.CommerceMediaDefaultImageConfiguration;
+import com.liferay.commerce.media.internal.image.CommerceMediaDerivativeCache;
 import com.liferay.commerce.product.model.CPAttachmentFileEntry;
 import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.product.model.CPRule;
@@ -34,6 +36,7 @@ import com.liferay.document.library.kernel.service.DLAppLocalService;
 import com.liferay.petra.string.CharPool;
 import com.liferay.petra.string.StringBundler;
 import com.liferay.petra.string.StringPool;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
@@ -43,6 +46,7 @@ import com.liferay.portal.kernel.security.permission.ActionKeys;
 import com.liferay.portal.kernel.security.permission.PermissionThreadLocal;
 import com.liferay.portal.kernel.security.permission.resource.ModelResourcePermission;
 import com.liferay.portal.kernel.service.UserLocalService;
+import com.liferay.portal.kernel.servlet.HttpHeaders;
 import com.liferay.portal.kernel.servlet.PortalSessionThreadLocal;
 import com.liferay.portal.kernel.servlet.ServletResponseUtil;
 import com.liferay.portal.kernel.settings.GroupServiceSettingsLocator;
@@ -53,11 +57,17 @@ import com.liferay.portal.kernel.util.Http;
 import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.Portal;
 import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Time;
 import com.liferay.portal.kernel.util.URLCodec;
+import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.util.WebKeys;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 
+import java.nio.channels.FileChannel;
+
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -66,13 +76,18 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
 /**
  * @author Alec Sloan
  */
-@Component(service = CommerceMediaResolver.class)
+@Component(
+	configurationPid = "com.liferay.commerce.media.internal.configuration.CommerceMediaConfiguration",
+	service = CommerceMediaResolver.class
+)
 public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 
 	@Override
@@ -128,7 +143,7 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 			boolean secure)
 		throws PortalException {
 
-		StringBundler sb = new StringBundler(13);
+		StringBundler sb = new StringBundler(17);
 
 		sb.append(_portal.getPathModule());
 		sb.append(StringPool.SLASH);
@@ -194,9 +209,46 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 		sb.append("?download=");
 		sb.append(download);
 
+		int[][] derivativeSizes =
+			_commerceMediaDerivativeCache.getDerivativeSizes();
+
+		if (thumbnail && (derivativeSizes.length > 0)) {
+			sb.append("&width=");
+			sb.append(derivativeSizes[0][0]);
+			sb.append("&height=");
+			sb.append(derivativeSizes[0][1]);
+		}
+
 		return _html.escape(sb.toString());
 	}
 
+	@Override
+	public String getUrl(
+			long cpAttachmentFileEntryId, int width, int height, String format)
+		throws PortalException {
+
+		StringBundler sb = new StringBundler(7);
+
+		sb.append(getUrl(cpAttachmentFileEntryId, false, false));
+
+		if (width > 0) {
+			sb.append(_html.escape("&width="));
+			sb.append(width);
+		}
+
+		if (height > 0) {
+			sb.append(_html.escape("&height="));
+			sb.append(height);
+		}
+
+		if (Validator.isNotNull(format)) {
+			sb.append(_html.escape("&format="));
+			sb.append(URLCodec.encodeURL(format));
+		}
+
+		return sb.toString();
+	}
+
 	@Override
 	public void sendMediaBytes(
 			HttpServletRequest httpServletRequest,
@@ -264,10 +316,9 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 				return;
 			}
 
-			ServletResponseUtil.sendFile(
-				httpServletRequest, httpServletResponse,
-				fileEntry.getFileName(), getBytes(fileEntry),
-				fileEntry.getMimeType(), contentDisposition);
+			sendFileEntry(
+				httpServletRequest, httpServletResponse, fileEntry,
+				contentDisposition);
 		}
 		catch (PortalException pe) {
 			_log.error(pe, pe);
@@ -276,6 +327,16 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 		}
 	}
 
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		CommerceMediaConfiguration commerceMediaConfiguration =
+			ConfigurableUtil.createConfigurable(
+				CommerceMediaConfiguration.class, properties);
+
+		_cacheControl = commerceMediaConfiguration.cacheControl();
+	}
+
 	protected byte[] getBytes(FileEntry fileEntry)
 		throws IOException, PortalException {
 
@@ -336,10 +397,9 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 				return;
 			}
 
-			ServletResponseUtil.sendFile(
-				httpServletRequest, httpServletResponse,
-				fileEntry.getFileName(), getBytes(fileEntry),
-				fileEntry.getMimeType(), contentDisposition);
+			sendFileEntry(
+				httpServletRequest, httpServletResponse, fileEntry,
+				contentDisposition);
 		}
 		catch (PortalException pe) {
 			_log.error(pe, pe);
@@ -348,6 +408,115 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 		}
 	}
 
+	/**
+	 * Streams the file entry's content without loading it in memory. The
+	 * response carries an entity tag based on the file version and the last
+	 * modified date, so conditional requests are answered with
+	 * <code>304 Not Modified</code>, and byte range requests are honored
+	 * unless their <code>If-Range</code> header names another version, in
+	 * which case the whole content is sent.
+	 * Images requested with a <code>width</code>, <code>height</code> or
+	 * <code>format</code> parameter are served from the derivative cache
+	 * instead, in the closest configured size and under a file name whose
+	 * extension matches the served format.
+	 */
+	protected void sendFileEntry(
+			HttpServletRequest httpServletRequest,
+			HttpServletResponse httpServletResponse, FileEntry fileEntry,
+			String contentDisposition)
+		throws IOException, PortalException {
+
+		int width = ParamUtil.getInteger(httpServletRequest, "width");
+		int height = ParamUtil.getInteger(httpServletRequest, "height");
+		String format = ParamUtil.getString(httpServletRequest, "format");
+
+		String derivativeContentType = null;
+
+		if ((width > 0) || (height > 0) || Validator.isNotNull(format)) {
+			int[] derivativeSize =
+				_commerceMediaDerivativeCache.getDerivativeSize(width, height);
+
+			if (derivativeSize != null) {
+				width = derivativeSize[0];
+				height = derivativeSize[1];
+
+				derivativeContentType =
+					_commerceMediaDerivativeCache.getContentType(
+						fileEntry, format);
+			}
+		}
+
+		String eTag = null;
+
+		if (derivativeContentType != null) {
+			eTag = _getETag(fileEntry, width, height, format);
+		}
+		else {
+			eTag = _getETag(fileEntry);
+		}
+
+		Date modifiedDate = fileEntry.getModifiedDate();
+
+		long lastModified =
+			(modifiedDate.getTime() / Time.SECOND) * Time.SECOND;
+
+		if (Validator.isNotNull(_cacheControl)) {
+			httpServletResponse.setHeader(
+				HttpHeaders.CACHE_CONTROL, _cacheControl);
+		}
+
+		httpServletResponse.setHeader(HttpHeaders.ETAG, eTag);
+		httpServletResponse.setDateHeader(
+			HttpHeaders.LAST_MODIFIED, lastModified);
+
+		if (_isNotModified(httpServletRequest, eTag, lastModified)) {
+			httpServletResponse.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+
+			return;
+		}
+
+		if (derivativeContentType != null) {
+			FileInputStream fileInputStream =
+				_commerceMediaDerivativeCache.getInputStream(
+					fileEntry, width, height, format);
+
+			FileChannel fileChannel = fileInputStream.getChannel();
+
+			String fileName = fileEntry.getFileName();
+
+			if (Validator.isNotNull(format)) {
+				fileName = StringBundler.concat(
+					_file.stripExtension(fileName), StringPool.PERIOD,
+					StringUtil.toLowerCase(format));
+			}
+
+			ServletResponseUtil.sendFile(
+				httpServletRequest, httpServletResponse, fileName,
+				fileInputStream, fileChannel.size(), derivativeContentType,
+				contentDisposition);
+
+			return;
+		}
+
+		if (Validator.isNotNull(
+				httpServletRequest.getHeader(HttpHeaders.RANGE)) &&
+			_isIfRangeMatched(httpServletRequest, eTag, lastModified)) {
+
+			ServletResponseUtil.sendFileWithRangeHeader(
+				httpServletRequest, httpServletResponse,
+				fileEntry.getFileName(), fileEntry.getContentStream(),
+				fileEntry.getSize(), fileEntry.getMimeType(),
+				contentDisposition);
+
+			return;
+		}
+
+		ServletResponseUtil.sendFile(
+			httpServletRequest, httpServletResponse, fileEntry.getFileName(),
+			fileEntry.getContentStream(), fileEntry.getSize(),
+			fileEntry.getMimeType(), contentDisposition);
+	}
+
 	protected void setCPRules(
 			HttpServletRequest httpServletRequest, long groupId)
 		throws PortalException {
@@ -379,12 +548,127 @@ public class DefaultCommerceMediaResolver implements CommerceMediaResolver {
 		CPRulesThreadLocal.setCPRules(cpRules);
 	}
 
+	private String _getETag(FileEntry fileEntry) {
+		StringBundler sb = new StringBundler(5);
+
+		sb.append(StringPool.QUOTE);
+		sb.append(fileEntry.getFileEntryId());
+		sb.append(StringPool.DASH);
+		sb.append(fileEntry.getVersion());
+		sb.append(StringPool.QUOTE);
+
+		return sb.toString();
+	}
+
+	private String _getETag(
+		FileEntry fileEntry, int width, int height, String format) {
+
+		StringBundler sb = new StringBundler(11);
+
+		sb.append(StringPool.QUOTE);
+		sb.append(fileEntry.getFileEntryId());
+		sb.append(StringPool.DASH);
+		sb.append(fileEntry.getVersion());
+		sb.append(StringPool.DASH);
+		sb.append(width);
+		sb.append("x");
+		sb.append(height);
+		sb.append(StringPool.DASH);
+		sb.append(URLCodec.encodeURL(StringUtil.toLowerCase(format)));
+		sb.append(StringPool.QUOTE);
+
+		return sb.toString();
+	}
+
+	/**
+	 * Returns <code>true</code> if the request has no <code>If-Range</code>
+	 * header, or if it holds the current entity tag or last modified date.
+	 * Weak entity tags never match, as range requests need a strong
+	 * validator.
+	 */
+	private boolean _isIfRangeMatched(
+		HttpServletRequest httpServletRequest, String eTag,
+		long lastModified) {
+
+		String ifRange = httpServletRequest.getHeader(_IF_RANGE);
+
+		if (Validator.isNull(ifRange)) {
+			return true;
+		}
+
+		if (ifRange.startsWith(StringPool.QUOTE) || ifRange.startsWith("W/")) {
+			return ifRange.equals(eTag);
+		}
+
+		try {
+			if (httpServletRequest.getDateHeader(_IF_RANGE) == lastModified) {
+				return true;
+			}
+		}
+		catch (IllegalArgumentException iae) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(iae, iae);
+			}
+		}
+
+		return false;
+	}
+
+	private boolean _isNotModified(
+		HttpServletRequest httpServletRequest, String eTag,
+		long lastModified) {
+
+		String ifNoneMatch = httpServletRequest.getHeader(
+			HttpHeaders.IF_NONE_MATCH);
+
+		if (Validator.isNotNull(ifNoneMatch)) {
+			for (String curETag : StringUtil.split(ifNoneMatch)) {
+				curETag = StringUtil.trim(curETag);
+
+				if (curETag.startsWith("W/")) {
+					curETag = curETag.substring(2);
+				}
+
+				if (curETag.equals(StringPool.STAR) || curETag.equals(eTag)) {
+					return true;
+				}
+			}
+
+			return false;
+		}
+
+		long ifModifiedSince = -1;
+
+		try {
+			ifModifiedSince = httpServletRequest.getDateHeader(
+				HttpHeaders.IF_MODIFIED_SINCE);
+		}
+		catch (IllegalArgumentException iae) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(iae, iae);
+			}
+		}
+
+		if ((ifModifiedSince != -1) && (lastModified <= ifModifiedSince)) {
+			return true;
+		}
+
+		return false;
+	}
+
+	private static final String _IF_RANGE = "If-Range";
+
 	private static final Log _log = LogFactoryUtil.getLog(
 		DefaultCommerceMediaResolver.class);
 
+	private volatile String _cacheControl;
+
 	@Reference
 	private CommerceAccountHelper _commerceAccountHelper;
 
+	@Reference
+	private CommerceMediaDerivativeCache _commerceMediaDerivativeCache;
+
 	@Reference
 	private CommerceUserSegmentHelper _commerceUserSegmentHelper;
 
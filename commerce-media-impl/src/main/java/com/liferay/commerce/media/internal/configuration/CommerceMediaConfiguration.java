@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.media.internal.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+
+import com.liferay.portal.configuration.metatype.annotations.ExtendedObjectClassDefinition;
+
+/**
+ * @author Alec Sloan
+ */
+@ExtendedObjectClassDefinition(category = "catalog")
+@Meta.OCD(
+	id = "com.liferay.commerce.media.internal.configuration.CommerceMediaConfiguration",
+	localization = "content/Language",
+	name = "commerce-media-configuration-name"
+)
+public interface CommerceMediaConfiguration {
+
+	@Meta.AD(
+		deflt = "private, max-age=3600", name = "cache-control",
+		required = false
+	)
+	public String cacheControl();
+
+	@Meta.AD(
+		deflt = "512", name = "derivative-cache-max-size", required = false
+	)
+	public int derivativeCacheMaxSize();
+
+	@Meta.AD(
+		deflt = "2048", name = "derivative-max-dimension", required = false
+	)
+	public int derivativeMaxDimension();
+
+	@Meta.AD(deflt = "300x300", name = "derivative-sizes", required = false)
+	public String[] derivativeSizes();
+
+}
@@ -0,0 +1,510 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.media.internal.image;
+
+import com.liferay.commerce.media.internal.configuration.CommerceMediaConfiguration;
+import com.liferay.document.library.kernel.service.DLAppLocalService;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.image.ImageBag;
+import com.liferay.portal.kernel.image.ImageToolUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.repository.model.FileEntry;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.SystemProperties;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.awt.image.RenderedImage;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Generates resized and converted copies of product images on first request
+ * and keeps them on disk, keyed by file entry, file version, size and format.
+ * The least recently used copies are deleted once the cache exceeds its
+ * configured size. Only the configured sizes are generated, and concurrent
+ * requests for a derivative that is being generated wait for it instead of
+ * generating it again.
+ *
+ * @author Alec Sloan
+ */
+@Component(
+	configurationPid = "com.liferay.commerce.media.internal.configuration.CommerceMediaConfiguration",
+	immediate = true, service = CommerceMediaDerivativeCache.class
+)
+public class CommerceMediaDerivativeCache {
+
+	/**
+	 * Returns the content type of the derivatives of the file entry in the
+	 * format, or <code>null</code> if no derivative can be generated for them.
+	 */
+	public String getContentType(FileEntry fileEntry, String format) {
+		if (Validator.isNull(format)) {
+			format = fileEntry.getExtension();
+		}
+
+		String contentType = _contentTypes.get(StringUtil.toLowerCase(format));
+
+		if ((contentType == null) ||
+			!_contentTypes.containsValue(fileEntry.getMimeType())) {
+
+			return null;
+		}
+
+		return contentType;
+	}
+
+	/**
+	 * Returns the configured size to serve for the requested width and height,
+	 * as a pair of width and height, or <code>null</code> if no size is
+	 * configured. The smallest configured size covering the request is chosen,
+	 * or the largest one if none covers it. A request without width and height
+	 * keeps the original dimensions.
+	 */
+	public int[] getDerivativeSize(int width, int height) {
+		width = Math.min(Math.max(width, 0), _derivativeMaxDimension);
+		height = Math.min(Math.max(height, 0), _derivativeMaxDimension);
+
+		if ((width == 0) && (height == 0)) {
+			return new int[] {0, 0};
+		}
+
+		int[] coveringDerivativeSize = null;
+		int[] largestDerivativeSize = null;
+
+		for (int[] derivativeSize : _derivativeSizes) {
+			if ((derivativeSize[0] <= 0) || (derivativeSize[1] <= 0)) {
+				continue;
+			}
+
+			if ((largestDerivativeSize == null) ||
+				(_getArea(derivativeSize) > _getArea(largestDerivativeSize))) {
+
+				largestDerivativeSize = derivativeSize;
+			}
+
+			if ((derivativeSize[0] >= width) && (derivativeSize[1] >= height) &&
+				((coveringDerivativeSize == null) ||
+				 (_getArea(derivativeSize) <
+					 _getArea(coveringDerivativeSize)))) {
+
+				coveringDerivativeSize = derivativeSize;
+			}
+		}
+
+		if (coveringDerivativeSize != null) {
+			return coveringDerivativeSize;
+		}
+
+		return largestDerivativeSize;
+	}
+
+	/**
+	 * Returns the sizes to use when no size is requested explicitly, as pairs
+	 * of width and height.
+	 */
+	public int[][] getDerivativeSizes() {
+		return _derivativeSizes;
+	}
+
+	/**
+	 * Opens the derivative of the file entry in the configured size returned
+	 * by {@link #getDerivativeSize(int, int)} for the width and height,
+	 * generating it if it is not cached yet.
+	 */
+	public FileInputStream getInputStream(
+			FileEntry fileEntry, int width, int height, String format)
+		throws IOException, PortalException {
+
+		int[] derivativeSize = getDerivativeSize(width, height);
+
+		if (derivativeSize == null) {
+			throw new IllegalArgumentException(
+				"No derivative size is configured");
+		}
+
+		width = derivativeSize[0];
+		height = derivativeSize[1];
+
+		if (Validator.isNull(format)) {
+			format = fileEntry.getExtension();
+		}
+
+		format = StringUtil.toLowerCase(format);
+
+		File file = _getFile(fileEntry, width, height, format);
+
+		try {
+			return new FileInputStream(file);
+		}
+		catch (FileNotFoundException fnfe) {
+
+			// The derivative was evicted before it could be opened
+
+			_removeFile(file.getName());
+
+			return new FileInputStream(
+				_getFile(fileEntry, width, height, format));
+		}
+	}
+
+	/**
+	 * Generates, in the background, the derivatives of the file entry in the
+	 * configured sizes.
+	 */
+	public void pregenerateDerivatives(long fileEntryId) {
+		_executorService.submit(
+			() -> {
+				try {
+					FileEntry fileEntry = _dlAppLocalService.getFileEntry(
+						fileEntryId);
+
+					if (getContentType(fileEntry, null) == null) {
+						return;
+					}
+
+					for (int[] derivativeSize : _derivativeSizes) {
+						getInputStream(
+							fileEntry, derivativeSize[0], derivativeSize[1],
+							null).close();
+					}
+				}
+				catch (Exception e) {
+					_log.error(
+						"Unable to generate derivatives of file entry " +
+							fileEntryId,
+						e);
+				}
+			});
+	}
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		CommerceMediaConfiguration commerceMediaConfiguration =
+			ConfigurableUtil.createConfigurable(
+				CommerceMediaConfiguration.class, properties);
+
+		_derivativeCacheMaxSize =
+			commerceMediaConfiguration.derivativeCacheMaxSize() * 1024L *
+				1024L;
+		_derivativeMaxDimension =
+			commerceMediaConfiguration.derivativeMaxDimension();
+		_derivativeSizes = _getDerivativeSizes(
+			commerceMediaConfiguration.derivativeSizes());
+
+		if (_executorService == null) {
+			_executorService = Executors.newSingleThreadExecutor(
+				new NamedThreadFactory(
+					CommerceMediaDerivativeCache.class.getName(),
+					Thread.MIN_PRIORITY,
+					CommerceMediaDerivativeCache.class.getClassLoader()));
+		}
+
+		_derivativesDir.mkdirs();
+
+		File[] files = _derivativesDir.listFiles();
+
+		if (files == null) {
+			return;
+		}
+
+		Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+
+		synchronized (_fileSizes) {
+			_fileSizes.clear();
+
+			_totalSize = 0;
+
+			for (File file : files) {
+				if (file.getName().endsWith(_TEMP_FILE_SUFFIX)) {
+					file.delete();
+
+					continue;
+				}
+
+				_fileSizes.put(file.getName(), file.length());
+
+				_totalSize += file.length();
+			}
+
+			_evict();
+		}
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_executorService.shutdownNow();
+
+		_executorService = null;
+	}
+
+	private void _evict() {
+		Iterator<Map.Entry<String, Long>> iterator =
+			_fileSizes.entrySet().iterator();
+
+		while ((_totalSize > _derivativeCacheMaxSize) && iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();
+
+			iterator.remove();
+
+			_totalSize -= entry.getValue();
+
+			File file = new File(_derivativesDir, entry.getKey());
+
+			file.delete();
+		}
+	}
+
+	private byte[] _generate(
+			FileEntry fileEntry, int width, int height, String contentType)
+		throws IOException, PortalException {
+
+		ImageBag imageBag = null;
+
+		try (InputStream inputStream = fileEntry.getContentStream()) {
+			imageBag = ImageToolUtil.read(inputStream);
+		}
+
+		RenderedImage renderedImage = imageBag.getRenderedImage();
+
+		if (renderedImage == null) {
+			throw new IOException(
+				"Unable to read image of file entry " +
+					fileEntry.getFileEntryId());
+		}
+
+		if ((width > 0) || (height > 0)) {
+			renderedImage = ImageToolUtil.scale(renderedImage, height, width);
+		}
+
+		return ImageToolUtil.getBytes(renderedImage, contentType);
+	}
+
+	private File _generateFile(
+			FileEntry fileEntry, int width, int height, String format,
+			String fileName)
+		throws IOException, PortalException {
+
+		String contentType = getContentType(fileEntry, format);
+
+		if (contentType == null) {
+			throw new IllegalArgumentException(
+				"Unable to generate derivatives of file entry " +
+					fileEntry.getFileEntryId() + " in format " + format);
+		}
+
+		byte[] bytes = _generate(fileEntry, width, height, contentType);
+
+		File file = new File(_derivativesDir, fileName);
+
+		File tempFile = File.createTempFile(
+			fileName, _TEMP_FILE_SUFFIX, _derivativesDir);
+
+		try {
+			Files.write(tempFile.toPath(), bytes);
+
+			Files.move(
+				tempFile.toPath(), file.toPath(),
+				StandardCopyOption.ATOMIC_MOVE,
+				StandardCopyOption.REPLACE_EXISTING);
+		}
+		finally {
+			tempFile.delete();
+		}
+
+		synchronized (_fileSizes) {
+			Long previousSize = _fileSizes.put(fileName, (long)bytes.length);
+
+			_totalSize += bytes.length - GetterUtil.getLong(previousSize);
+
+			_evict();
+		}
+
+		return file;
+	}
+
+	private long _getArea(int[] derivativeSize) {
+		return (long)derivativeSize[0] * derivativeSize[1];
+	}
+
+	private int[][] _getDerivativeSizes(String[] derivativeSizes) {
+		int[][] sizes = new int[derivativeSizes.length][];
+
+		for (int i = 0; i < derivativeSizes.length; i++) {
+			String[] dimensions = StringUtil.split(
+				StringUtil.toLowerCase(derivativeSizes[i]), 'x');
+
+			if (dimensions.length != 2) {
+				sizes[i] = new int[] {0, 0};
+
+				continue;
+			}
+
+			sizes[i] = new int[] {
+				GetterUtil.getInteger(dimensions[0]),
+				GetterUtil.getInteger(dimensions[1])
+			};
+		}
+
+		return sizes;
+	}
+
+	private File _getFile(
+			FileEntry fileEntry, int width, int height, String format)
+		throws IOException, PortalException {
+
+		StringBundler sb = new StringBundler(9);
+
+		sb.append(fileEntry.getFileEntryId());
+		sb.append(StringPool.DASH);
+		sb.append(fileEntry.getVersion());
+		sb.append(StringPool.DASH);
+		sb.append(width);
+		sb.append("x");
+		sb.append(height);
+		sb.append(StringPool.PERIOD);
+		sb.append(format);
+
+		String fileName = sb.toString();
+
+		File file = new File(_derivativesDir, fileName);
+
+		synchronized (_fileSizes) {
+			if ((_fileSizes.get(fileName) != null) && file.exists()) {
+				return file;
+			}
+		}
+
+		FutureTask<File> futureTask = new FutureTask<>(
+			() -> _generateFile(fileEntry, width, height, format, fileName));
+
+		Future<File> future = _futures.putIfAbsent(fileName, futureTask);
+
+		if (future == null) {
+			future = futureTask;
+
+			try {
+				futureTask.run();
+			}
+			finally {
+				_futures.remove(fileName, futureTask);
+			}
+		}
+
+		try {
+			return future.get();
+		}
+		catch (ExecutionException ee) {
+			Throwable cause = ee.getCause();
+
+			if (cause instanceof IOException) {
+				throw (IOException)cause;
+			}
+
+			if (cause instanceof PortalException) {
+				throw (PortalException)cause;
+			}
+
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+
+			throw new IOException(cause);
+		}
+		catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+
+			throw new InterruptedIOException(
+				"Interrupted while waiting for derivative " + fileName);
+		}
+	}
+
+	private void _removeFile(String fileName) {
+		synchronized (_fileSizes) {
+			Long size = _fileSizes.remove(fileName);
+
+			if (size != null) {
+				_totalSize -= size;
+			}
+		}
+	}
+
+	private static final String _TEMP_FILE_SUFFIX = ".tmp";
+
+	private static final Map<String, String> _contentTypes =
+		new HashMap<String, String>() {
+			{
+				put("gif", "image/gif");
+				put("jpeg", "image/jpeg");
+				put("jpg", "image/jpeg");
+				put("png", "image/png");
+			}
+		};
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CommerceMediaDerivativeCache.class);
+
+	private volatile long _derivativeCacheMaxSize;
+	private volatile int _derivativeMaxDimension;
+	private final File _derivativesDir = new File(
+		SystemProperties.get(SystemProperties.TMP_DIR),
+		"liferay/commerce_media_derivatives");
+	private volatile int[][] _derivativeSizes;
+
+	@Reference
+	private DLAppLocalService _dlAppLocalService;
+
+	private volatile ExecutorService _executorService;
+	private final Map<String, Long> _fileSizes = new LinkedHashMap<>(
+		16, 0.75F, true);
+	private final ConcurrentMap<String, Future<File>> _futures =
+		new ConcurrentHashMap<>();
+	private long _totalSize;
+
+}
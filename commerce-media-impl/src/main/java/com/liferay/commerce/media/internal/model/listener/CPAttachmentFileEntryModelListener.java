@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.media.internal.model.listener;
+
+import com.liferay.commerce.media.internal.image.CommerceMediaDerivativeCache;
+import com.liferay.commerce.product.model.CPAttachmentFileEntry;
+import com.liferay.commerce.product.model.CPAttachmentFileEntryConstants;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alec Sloan
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CPAttachmentFileEntryModelListener
+	extends BaseModelListener<CPAttachmentFileEntry> {
+
+	@Override
+	public void onAfterCreate(CPAttachmentFileEntry cpAttachmentFileEntry) {
+		_pregenerateDerivatives(cpAttachmentFileEntry);
+	}
+
+	@Override
+	public void onAfterUpdate(CPAttachmentFileEntry cpAttachmentFileEntry) {
+		_pregenerateDerivatives(cpAttachmentFileEntry);
+	}
+
+	private void _pregenerateDerivatives(
+		CPAttachmentFileEntry cpAttachmentFileEntry) {
+
+		if (cpAttachmentFileEntry.getType() !=
+				CPAttachmentFileEntryConstants.TYPE_IMAGE) {
+
+			return;
+		}
+
+		long fileEntryId = cpAttachmentFileEntry.getFileEntryId();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_commerceMediaDerivativeCache.pregenerateDerivatives(
+					fileEntryId);
+
+				return null;
+			});
+	}
+
+	@Reference
+	private CommerceMediaDerivativeCache _commerceMediaDerivativeCache;
+
+}
@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.cache;
+
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.service.CommercePriceEntryLocalService;
+import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.ProjectionFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps, for each price list and SKU, the ID of the price entry that applies
+ * once the parent price lists are taken into account, so that resolving an
+ * inherited price does not walk the price list hierarchy on every request.
+ *
+ * <p>
+ * Every resolution is an immutable value of its own, keyed by the price list,
+ * the SKU and a token of the price list. When a price entry is added or
+ * removed, or when the hierarchy changes, the tokens of the affected price
+ * list and of its descendants are removed once the transaction commits, so
+ * that their resolutions are no longer read and are eventually evicted. Tokens
+ * are taken before reading the database, so a resolution computed from data
+ * read before a commit is stored under the token that the commit removed.
+ * Like the tokens of <code>CommercePriceGenerationUtil</code>, each cluster
+ * node generates its own tokens and only their removal is replicated.
+ * </p>
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommercePriceEntryResolutionCache.class)
+public class CommercePriceEntryResolutionCache {
+
+	public static final String CACHE_NAME =
+		CommercePriceEntryResolutionCache.class.getName();
+
+	/**
+	 * Returns the ID of the price entry of the SKU in the price list or, if
+	 * the price list has none, in its closest ancestor that has one. Returns
+	 * <code>0</code> if no price list of the hierarchy has an entry for the
+	 * SKU.
+	 */
+	public long getCommercePriceEntryId(
+		long commercePriceListId, String cpInstanceUuid) {
+
+		return _getCommercePriceEntryId(
+			commercePriceListId, cpInstanceUuid, new HashSet<Long>());
+	}
+
+	/**
+	 * Drops the resolutions of the price list and of its descendants once the
+	 * current transaction commits. Must be called whenever the parent of a
+	 * price list changes or a price list is removed.
+	 */
+	public void invalidateCommercePriceList(long commercePriceListId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				long[] commercePriceListIds =
+					_getDescendantCommercePriceListIds(commercePriceListId);
+
+				_generationsPortalCache.remove(_HIERARCHY_GENERATION_KEY);
+
+				for (long curCommercePriceListId : commercePriceListIds) {
+					_generationsPortalCache.remove(curCommercePriceListId);
+				}
+
+				return null;
+			});
+	}
+
+	/**
+	 * Invalidates the cached price list hierarchy once the current transaction
+	 * commits. Must be called whenever a price list is added.
+	 */
+	public void invalidateHierarchy() {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.remove(_HIERARCHY_GENERATION_KEY);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Drops the resolutions of the price entry's price list and of its
+	 * descendants once the current transaction commits. Must be called
+	 * whenever a price entry is added or removed.
+	 */
+	public void updateCommercePriceEntry(
+		CommercePriceEntry commercePriceEntry) {
+
+		long commercePriceListId = commercePriceEntry.getCommercePriceListId();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				for (long curCommercePriceListId :
+						_getDescendantCommercePriceListIds(
+							commercePriceListId)) {
+
+					_generationsPortalCache.remove(curCommercePriceListId);
+				}
+
+				return null;
+			});
+	}
+
+	private long _getCommercePriceEntryId(
+		long commercePriceListId, String cpInstanceUuid,
+		Set<Long> commercePriceListIds) {
+
+		String key = _getKey(
+			_getGeneration(commercePriceListId), commercePriceListId,
+			cpInstanceUuid);
+
+		Long commercePriceEntryId = _portalCache.get(key);
+
+		if (commercePriceEntryId != null) {
+			return commercePriceEntryId;
+		}
+
+		commercePriceEntryId = _resolveCommercePriceEntryId(
+			commercePriceListId, cpInstanceUuid, commercePriceListIds);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, key, commercePriceEntryId);
+
+		return commercePriceEntryId;
+	}
+
+	/**
+	 * Returns the price list and its descendants, every price list appearing
+	 * after its parent.
+	 */
+	private long[] _getDescendantCommercePriceListIds(
+		long commercePriceListId) {
+
+		String key = _getKey(
+			_getGeneration(_HIERARCHY_GENERATION_KEY), commercePriceListId);
+
+		long[] commercePriceListIds = _descendantsPortalCache.get(key);
+
+		if (commercePriceListIds != null) {
+			return commercePriceListIds;
+		}
+
+		List<Long> descendantCommercePriceListIds = new ArrayList<>();
+
+		descendantCommercePriceListIds.add(commercePriceListId);
+
+		Set<Long> visitedCommercePriceListIds = new HashSet<>(
+			descendantCommercePriceListIds);
+
+		for (int i = 0; i < descendantCommercePriceListIds.size(); i++) {
+			DynamicQuery dynamicQuery =
+				_commercePriceListLocalService.dynamicQuery();
+
+			Property parentCommercePriceListIdProperty =
+				PropertyFactoryUtil.forName("parentCommercePriceListId");
+
+			dynamicQuery.add(
+				parentCommercePriceListIdProperty.eq(
+					descendantCommercePriceListIds.get(i)));
+
+			dynamicQuery.setProjection(
+				ProjectionFactoryUtil.property("commercePriceListId"));
+
+			List<Long> childCommercePriceListIds =
+				_commercePriceListLocalService.dynamicQuery(dynamicQuery);
+
+			for (Long childCommercePriceListId : childCommercePriceListIds) {
+				if (visitedCommercePriceListIds.add(childCommercePriceListId)) {
+					descendantCommercePriceListIds.add(
+						childCommercePriceListId);
+				}
+			}
+		}
+
+		commercePriceListIds = new long[descendantCommercePriceListIds.size()];
+
+		for (int i = 0; i < commercePriceListIds.length; i++) {
+			commercePriceListIds[i] = descendantCommercePriceListIds.get(i);
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_descendantsPortalCache, key, commercePriceListIds);
+
+		return commercePriceListIds;
+	}
+
+	private String _getGeneration(long key) {
+		String generation = _generationsPortalCache.get(key);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_generationsPortalCache, key, generation);
+		}
+
+		return generation;
+	}
+
+	private String _getKey(String generation, long commercePriceListId) {
+		return generation + StringPool.POUND + commercePriceListId;
+	}
+
+	private String _getKey(
+		String generation, long commercePriceListId, String cpInstanceUuid) {
+
+		return _getKey(generation, commercePriceListId) + StringPool.POUND +
+			cpInstanceUuid;
+	}
+
+	private long _resolveCommercePriceEntryId(
+		long commercePriceListId, String cpInstanceUuid,
+		Set<Long> commercePriceListIds) {
+
+		if (!commercePriceListIds.add(commercePriceListId)) {
+			return 0;
+		}
+
+		CommercePriceEntry commercePriceEntry =
+			_commercePriceEntryLocalService.fetchCommercePriceEntry(
+				commercePriceListId, cpInstanceUuid);
+
+		if (commercePriceEntry != null) {
+			return commercePriceEntry.getCommercePriceEntryId();
+		}
+
+		CommercePriceList commercePriceList =
+			_commercePriceListLocalService.fetchCommercePriceList(
+				commercePriceListId);
+
+		if ((commercePriceList == null) ||
+			(commercePriceList.getParentCommercePriceListId() == 0)) {
+
+			return 0;
+		}
+
+		return _getCommercePriceEntryId(
+			commercePriceList.getParentCommercePriceListId(), cpInstanceUuid,
+			commercePriceListIds);
+	}
+
+	/**
+	 * The key of the token of the price list hierarchy in the tokens cache,
+	 * which no price list can have as ID.
+	 */
+	private static final long _HIERARCHY_GENERATION_KEY = 0;
+
+	private static final PortalCache<String, long[]> _descendantsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".descendants");
+	private static final PortalCache<Long, String> _generationsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".generations");
+	private static final PortalCache<String, Long> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommercePriceEntryLocalService _commercePriceEntryLocalService;
+
+	@Reference
+	private CommercePriceListLocalService _commercePriceListLocalService;
+
+}
@@ -0,0 +1,314 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.cache;
+
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.model.CommercePriceListAccountRel;
+import com.liferay.commerce.price.list.model.CommercePriceListUserSegmentEntryRel;
+import com.liferay.commerce.price.list.service.CommercePriceListAccountRelLocalService;
+import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
+import com.liferay.commerce.price.list.service.CommercePriceListUserSegmentEntryRelLocalService;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps, for each group, the approved price lists in descending priority
+ * order together with their account and user segment rels, so that the price
+ * list of an account can be resolved without querying the search index. When
+ * a price list or one of its rels changes, only that price list is reloaded
+ * into a copy of its group's entry once the transaction commits. Entries are
+ * keyed by the group and a token of the group that each cluster node
+ * generates locally, and that commit replaces the token, so that an entry read
+ * before it is never read again.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommercePriceListCache.class)
+public class CommercePriceListCache {
+
+	public static final String CACHE_NAME =
+		CommercePriceListCache.class.getName();
+
+	/**
+	 * Returns the ID of the price list with the highest priority that applies
+	 * to the account and user segments, or <code>0</code> if none applies.
+	 */
+	public long getCommercePriceListId(
+		long groupId, long commerceAccountId,
+		long[] commerceUserSegmentEntryIds) {
+
+		GroupCacheEntry groupCacheEntry = _getGroupCacheEntry(groupId);
+
+		Date now = new Date();
+
+		for (CommercePriceListCacheEntry commercePriceListCacheEntry :
+				groupCacheEntry._commercePriceListCacheEntries) {
+
+			if (commercePriceListCacheEntry.matches(
+					commerceAccountId, commerceUserSegmentEntryIds, now)) {
+
+				return commercePriceListCacheEntry.getCommercePriceListId();
+			}
+		}
+
+		return 0;
+	}
+
+	public void invalidate(long groupId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.remove(groupId);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Removes the price list from the cached entry of its group once the
+	 * current transaction commits. Must be called whenever a price list is
+	 * removed.
+	 */
+	public void removeCommercePriceList(CommercePriceList commercePriceList) {
+		long commercePriceListId = commercePriceList.getCommercePriceListId();
+		long groupId = commercePriceList.getGroupId();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_updateGroupCacheEntry(groupId, commercePriceListId, null);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Refreshes the price list in the cached entry of its group once the
+	 * current transaction commits. Must be called whenever a price list or one
+	 * of its rels is added or updated.
+	 */
+	public void updateCommercePriceList(long commercePriceListId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				CommercePriceList commercePriceList =
+					_commercePriceListLocalService.fetchCommercePriceList(
+						commercePriceListId);
+
+				if (commercePriceList == null) {
+					return null;
+				}
+
+				CommercePriceListCacheEntry commercePriceListCacheEntry = null;
+
+				if (commercePriceList.isApproved()) {
+					commercePriceListCacheEntry =
+						_createCommercePriceListCacheEntry(commercePriceList);
+				}
+
+				_updateGroupCacheEntry(
+					commercePriceList.getGroupId(), commercePriceListId,
+					commercePriceListCacheEntry);
+
+				return null;
+			});
+	}
+
+	private CommercePriceListCacheEntry _createCommercePriceListCacheEntry(
+		CommercePriceList commercePriceList) {
+
+		long commercePriceListId = commercePriceList.getCommercePriceListId();
+
+		List<CommercePriceListAccountRel> commercePriceListAccountRels =
+			_commercePriceListAccountRelLocalService.
+				getCommercePriceListAccountRels(commercePriceListId);
+
+		Stream<CommercePriceListAccountRel> commercePriceListAccountRelStream =
+			commercePriceListAccountRels.stream();
+
+		long[] commerceAccountIds = commercePriceListAccountRelStream.mapToLong(
+			CommercePriceListAccountRel::getCommerceAccountId
+		).toArray();
+
+		List<CommercePriceListUserSegmentEntryRel>
+			commercePriceListUserSegmentEntryRels =
+				_commercePriceListUserSegmentEntryRelLocalService.
+					getCommercePriceListUserSegmentEntryRels(
+						commercePriceListId);
+
+		Stream<CommercePriceListUserSegmentEntryRel>
+			commercePriceListUserSegmentEntryRelStream =
+				commercePriceListUserSegmentEntryRels.stream();
+
+		long[] commerceUserSegmentEntryIds =
+			commercePriceListUserSegmentEntryRelStream.mapToLong(
+				CommercePriceListUserSegmentEntryRel::
+					getCommerceUserSegmentEntryId
+			).toArray();
+
+		return new CommercePriceListCacheEntry(
+			commercePriceList, commerceAccountIds, commerceUserSegmentEntryIds);
+	}
+
+	private String _getGeneration(long groupId) {
+		String generation = _generationsPortalCache.get(groupId);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_generationsPortalCache, groupId, generation);
+		}
+
+		return generation;
+	}
+
+	private GroupCacheEntry _getGroupCacheEntry(long groupId) {
+		String key = _getKey(groupId);
+
+		GroupCacheEntry groupCacheEntry = _portalCache.get(key);
+
+		if (groupCacheEntry != null) {
+			return groupCacheEntry;
+		}
+
+		List<CommercePriceListCacheEntry> commercePriceListCacheEntries =
+			new ArrayList<>();
+
+		List<CommercePriceList> commercePriceLists =
+			_commercePriceListLocalService.getCommercePriceLists(
+				groupId, WorkflowConstants.STATUS_APPROVED, QueryUtil.ALL_POS,
+				QueryUtil.ALL_POS, null);
+
+		for (CommercePriceList commercePriceList : commercePriceLists) {
+			commercePriceListCacheEntries.add(
+				_createCommercePriceListCacheEntry(commercePriceList));
+		}
+
+		groupCacheEntry = new GroupCacheEntry(commercePriceListCacheEntries);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, key, groupCacheEntry);
+
+		return groupCacheEntry;
+	}
+
+	private String _getKey(long groupId) {
+		return _getGeneration(groupId) + StringPool.POUND + groupId;
+	}
+
+	/**
+	 * Replaces the price list in a copy of the group's cached entry, removing
+	 * it if the cache entry is <code>null</code>. The group's token is
+	 * replaced, the other cluster nodes dropping theirs, and the patched copy
+	 * is kept under the new token on the local node only.
+	 */
+	private void _updateGroupCacheEntry(
+		long groupId, long commercePriceListId,
+		CommercePriceListCacheEntry commercePriceListCacheEntry) {
+
+		GroupCacheEntry groupCacheEntry = _portalCache.get(_getKey(groupId));
+
+		_generationsPortalCache.remove(groupId);
+
+		if (groupCacheEntry == null) {
+			return;
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, _getKey(groupId),
+			groupCacheEntry.update(
+				commercePriceListId, commercePriceListCacheEntry));
+	}
+
+	private static final PortalCache<Long, String> _generationsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".generations");
+	private static final PortalCache<String, GroupCacheEntry> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommercePriceListAccountRelLocalService
+		_commercePriceListAccountRelLocalService;
+
+	@Reference
+	private CommercePriceListLocalService _commercePriceListLocalService;
+
+	@Reference
+	private CommercePriceListUserSegmentEntryRelLocalService
+		_commercePriceListUserSegmentEntryRelLocalService;
+
+	private static class GroupCacheEntry implements Serializable {
+
+		private GroupCacheEntry(
+			List<CommercePriceListCacheEntry> commercePriceListCacheEntries) {
+
+			_commercePriceListCacheEntries = new ArrayList<>(
+				commercePriceListCacheEntries);
+
+			_commercePriceListCacheEntries.sort(
+				Comparator.comparingDouble(
+					CommercePriceListCacheEntry::getPriority
+				).reversed());
+		}
+
+		private GroupCacheEntry update(
+			long commercePriceListId,
+			CommercePriceListCacheEntry commercePriceListCacheEntry) {
+
+			List<CommercePriceListCacheEntry> commercePriceListCacheEntries =
+				new ArrayList<>(_commercePriceListCacheEntries.size() + 1);
+
+			for (CommercePriceListCacheEntry curCommercePriceListCacheEntry :
+					_commercePriceListCacheEntries) {
+
+				if (curCommercePriceListCacheEntry.getCommercePriceListId() !=
+						commercePriceListId) {
+
+					commercePriceListCacheEntries.add(
+						curCommercePriceListCacheEntry);
+				}
+			}
+
+			if (commercePriceListCacheEntry != null) {
+				commercePriceListCacheEntries.add(commercePriceListCacheEntry);
+			}
+
+			return new GroupCacheEntry(commercePriceListCacheEntries);
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<CommercePriceListCacheEntry>
+			_commercePriceListCacheEntries;
+
+	}
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.cache;
+
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.portal.kernel.util.ArrayUtil;
+
+import java.io.Serializable;
+
+import java.util.Date;
+
+/**
+ * Holds what is needed to decide, without querying the search index, whether
+ * an approved price list applies to an account and a set of user segments.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CommercePriceListCacheEntry implements Serializable {
+
+	public CommercePriceListCacheEntry(
+		CommercePriceList commercePriceList, long[] commerceAccountIds,
+		long[] commerceUserSegmentEntryIds) {
+
+		_commercePriceListId = commercePriceList.getCommercePriceListId();
+		_priority = commercePriceList.getPriority();
+		_displayDate = commercePriceList.getDisplayDate();
+		_expirationDate = commercePriceList.getExpirationDate();
+		_commerceAccountIds = commerceAccountIds;
+		_commerceUserSegmentEntryIds = commerceUserSegmentEntryIds;
+	}
+
+	public long getCommercePriceListId() {
+		return _commercePriceListId;
+	}
+
+	public double getPriority() {
+		return _priority;
+	}
+
+	/**
+	 * Mirrors the filters applied by <code>CommercePriceListIndexer</code>:
+	 * the price list applies if it is related to the account, or if all of its
+	 * user segments are among the given ones. Without an account and user
+	 * segments every price list applies. The display and expiration dates are
+	 * also checked, so that lists waiting for the scheduled status check are
+	 * not used outside of their window.
+	 */
+	public boolean matches(
+		long commerceAccountId, long[] commerceUserSegmentEntryIds, Date now) {
+
+		if (((_displayDate != null) && now.before(_displayDate)) ||
+			((_expirationDate != null) && !now.before(_expirationDate))) {
+
+			return false;
+		}
+
+		boolean hasCommerceUserSegmentEntryIds = ArrayUtil.isNotEmpty(
+			commerceUserSegmentEntryIds);
+
+		if ((commerceAccountId <= 0) && !hasCommerceUserSegmentEntryIds) {
+			return true;
+		}
+
+		if ((commerceAccountId > 0) &&
+			ArrayUtil.contains(_commerceAccountIds, commerceAccountId)) {
+
+			return true;
+		}
+
+		if (hasCommerceUserSegmentEntryIds &&
+			ArrayUtil.isNotEmpty(_commerceUserSegmentEntryIds) &&
+			ArrayUtil.containsAll(
+				commerceUserSegmentEntryIds, _commerceUserSegmentEntryIds)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final long[] _commerceAccountIds;
+	private final long _commercePriceListId;
+	private final long[] _commerceUserSegmentEntryIds;
+	private final Date _displayDate;
+	private final Date _expirationDate;
+	private final double _priority;
+
+}
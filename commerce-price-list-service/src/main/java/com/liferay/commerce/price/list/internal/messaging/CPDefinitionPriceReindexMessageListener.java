@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.price.list.internal.messaging;
+
+import com.liferay.commerce.price.list.constants.CommercePriceListDestinationNames;
+import com.liferay.commerce.price.list.internal.search.CPDefinitionPriceReindexer;
+import com.liferay.commerce.price.list.service.CommercePriceEntryLocalService;
+import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.service.CPDefinitionLocalService;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.ProjectionFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageListener;
+import com.liferay.portal.kernel.search.Indexer;
+import com.liferay.portal.kernel.search.IndexerRegistryUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Reindexes, outside of the request that changed them, the product
+ * definitions affected by a change of a price list or of a currency, queued
+ * by {@link CPDefinitionPriceReindexer}. The definitions are read and
+ * reindexed in pages, so that a large group does not hold all of them in
+ * memory at once.
+ *
+ * @author Marco Leo
+ */
+@Component(
+	immediate = true,
+	property = "destination.name=" + CommercePriceListDestinationNames.PRICE_REINDEX,
+	service = MessageListener.class
+)
+public class CPDefinitionPriceReindexMessageListener
+	extends BaseMessageListener {
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		long commerceCurrencyId = message.getLong("commerceCurrencyId");
+
+		if (commerceCurrencyId > 0) {
+			_reindexCommerceCurrency(commerceCurrencyId);
+		}
+
+		long groupId = message.getLong("groupId");
+
+		if (groupId > 0) {
+			_reindexGroup(groupId);
+		}
+	}
+
+	private void _reindexCommerceCurrency(long commerceCurrencyId) {
+		DynamicQuery commercePriceListDynamicQuery =
+			_commercePriceListLocalService.dynamicQuery();
+
+		commercePriceListDynamicQuery.add(
+			RestrictionsFactoryUtil.eq(
+				"commerceCurrencyId", commerceCurrencyId));
+		commercePriceListDynamicQuery.setProjection(
+			ProjectionFactoryUtil.property("commercePriceListId"));
+
+		List<Long> commercePriceListIds =
+			_commercePriceListLocalService.dynamicQuery(
+				commercePriceListDynamicQuery);
+
+		Set<Long> cProductIds = new LinkedHashSet<>();
+
+		for (int i = 0; i < commercePriceListIds.size(); i += _BATCH_SIZE) {
+			DynamicQuery commercePriceEntryDynamicQuery =
+				_commercePriceEntryLocalService.dynamicQuery();
+
+			Property commercePriceListIdProperty = PropertyFactoryUtil.forName(
+				"commercePriceListId");
+
+			commercePriceEntryDynamicQuery.add(
+				commercePriceListIdProperty.in(
+					commercePriceListIds.subList(
+						i,
+						Math.min(
+							i + _BATCH_SIZE, commercePriceListIds.size()))));
+
+			commercePriceEntryDynamicQuery.setProjection(
+				ProjectionFactoryUtil.distinct(
+					ProjectionFactoryUtil.property("CProductId")));
+
+			List<Long> curCProductIds =
+				_commercePriceEntryLocalService.dynamicQuery(
+					commercePriceEntryDynamicQuery);
+
+			cProductIds.addAll(curCProductIds);
+		}
+
+		List<Long> cProductIdsList = new ArrayList<>(cProductIds);
+
+		for (int i = 0; i < cProductIdsList.size(); i += _BATCH_SIZE) {
+			_cpDefinitionPriceReindexer.reindexCProducts(
+				cProductIdsList.subList(
+					i, Math.min(i + _BATCH_SIZE, cProductIdsList.size())));
+		}
+	}
+
+	private void _reindexGroup(long groupId) {
+		Indexer<CPDefinition> indexer = IndexerRegistryUtil.nullSafeGetIndexer(
+			CPDefinition.class);
+
+		int count = _cpDefinitionLocalService.getCPDefinitionsCount(
+			groupId, WorkflowConstants.STATUS_APPROVED);
+
+		for (int start = 0; start < count; start += _BATCH_SIZE) {
+			indexer.reindex(
+				_cpDefinitionLocalService.getCPDefinitions(
+					groupId, WorkflowConstants.STATUS_APPROVED, start,
+					start + _BATCH_SIZE));
+		}
+	}
+
+	private static final int _BATCH_SIZE = 500;
+
+	@Reference
+	private CommercePriceEntryLocalService _commercePriceEntryLocalService;
+
+	@Reference
+	private CommercePriceListLocalService _commercePriceListLocalService;
+
+	@Reference
+	private CPDefinitionLocalService _cpDefinitionLocalService;
+
+	@Reference
+	private CPDefinitionPriceReindexer _cpDefinitionPriceReindexer;
+
+}
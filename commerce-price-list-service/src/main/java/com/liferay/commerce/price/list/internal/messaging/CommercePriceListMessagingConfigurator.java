@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.price.list.internal.messaging;
+
+import com.liferay.commerce.price.list.constants.CommercePriceListDestinationNames;
+import com.liferay.portal.kernel.messaging.Destination;
+import com.liferay.portal.kernel.messaging.DestinationConfiguration;
+import com.liferay.portal.kernel.messaging.DestinationFactory;
+import com.liferay.portal.kernel.util.HashMapDictionary;
+
+import java.util.Dictionary;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Registers the destination of the price reindexes. The destination is
+ * serial, so that the reindexes of a group triggered by several price list
+ * changes do not run concurrently.
+ *
+ * @author Marco Leo
+ */
+@Component(
+	immediate = true, service = CommercePriceListMessagingConfigurator.class
+)
+public class CommercePriceListMessagingConfigurator {
+
+	@Activate
+	protected void activate(BundleContext bundleContext) {
+		DestinationConfiguration destinationConfiguration =
+			DestinationConfiguration.createSerialDestinationConfiguration(
+				CommercePriceListDestinationNames.PRICE_REINDEX);
+
+		Destination destination = _destinationFactory.createDestination(
+			destinationConfiguration);
+
+		Dictionary<String, Object> dictionary = new HashMapDictionary<>();
+
+		dictionary.put("destination.name", destination.getName());
+
+		_priceReindexServiceRegistration = bundleContext.registerService(
+			Destination.class, destination, dictionary);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		if (_priceReindexServiceRegistration != null) {
+			_priceReindexServiceRegistration.unregister();
+		}
+	}
+
+	@Reference
+	private DestinationFactory _destinationFactory;
+
+	private volatile ServiceRegistration<Destination>
+		_priceReindexServiceRegistration;
+
+}
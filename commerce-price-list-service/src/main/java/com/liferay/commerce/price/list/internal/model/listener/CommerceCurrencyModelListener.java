@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.price.list.internal.model.listener;
+
+import com.liferay.commerce.currency.model.CommerceCurrency;
+import com.liferay.commerce.currency.service.CommerceCurrencyLocalService;
+import com.liferay.commerce.price.list.internal.search.CPDefinitionPriceReindexer;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import java.math.BigDecimal;
+
+import java.util.Objects;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Reindexes the products having prices in the price lists of a currency when
+ * the conversion of the currency to the primary currency changes, since
+ * their documents hold their prices converted to the primary currency.
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceCurrencyModelListener
+	extends BaseModelListener<CommerceCurrency> {
+
+	@Override
+	public void onBeforeUpdate(CommerceCurrency commerceCurrency) {
+		CommerceCurrency originalCommerceCurrency =
+			_commerceCurrencyLocalService.fetchCommerceCurrency(
+				commerceCurrency.getCommerceCurrencyId());
+
+		if ((originalCommerceCurrency == null) ||
+			_isConversionChanged(originalCommerceCurrency, commerceCurrency)) {
+
+			_cpDefinitionPriceReindexer.reindexCommerceCurrency(
+				commerceCurrency.getCommerceCurrencyId());
+		}
+	}
+
+	private boolean _isConversionChanged(
+		CommerceCurrency originalCommerceCurrency,
+		CommerceCurrency commerceCurrency) {
+
+		if ((originalCommerceCurrency.isPrimary() !=
+				commerceCurrency.isPrimary()) ||
+			!Objects.equals(
+				originalCommerceCurrency.getRoundingMode(),
+				commerceCurrency.getRoundingMode())) {
+
+			return true;
+		}
+
+		BigDecimal originalRate = originalCommerceCurrency.getRate();
+		BigDecimal rate = commerceCurrency.getRate();
+
+		if ((originalRate == null) || (rate == null)) {
+			if (originalRate == rate) {
+				return false;
+			}
+
+			return true;
+		}
+
+		if (originalRate.compareTo(rate) != 0) {
+			return true;
+		}
+
+		return false;
+	}
+
+	@Reference
+	private CommerceCurrencyLocalService _commerceCurrencyLocalService;
+
+	@Reference
+	private CPDefinitionPriceReindexer _cpDefinitionPriceReindexer;
+
+}
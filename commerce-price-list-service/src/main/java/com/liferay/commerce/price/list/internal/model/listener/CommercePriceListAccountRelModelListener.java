@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.model.listener;
+
+import com.liferay.commerce.price.list.internal.cache.CommercePriceListCache;
+import com.liferay.commerce.price.list.model.CommercePriceListAccountRel;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommercePriceListAccountRelModelListener
+	extends BaseModelListener<CommercePriceListAccountRel> {
+
+	@Override
+	public void onAfterCreate(
+		CommercePriceListAccountRel commercePriceListAccountRel) {
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceListAccountRel.getCommercePriceListId());
+	}
+
+	@Override
+	public void onAfterRemove(
+		CommercePriceListAccountRel commercePriceListAccountRel) {
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceListAccountRel.getCommercePriceListId());
+	}
+
+	@Override
+	public void onAfterUpdate(
+		CommercePriceListAccountRel commercePriceListAccountRel) {
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceListAccountRel.getCommercePriceListId());
+	}
+
+	@Reference
+	private CommercePriceListCache _commercePriceListCache;
+
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.model.listener;
+
+import com.liferay.commerce.price.list.internal.cache.CommercePriceEntryResolutionCache;
+import com.liferay.commerce.price.list.internal.cache.CommercePriceListCache;
+import com.liferay.commerce.price.list.internal.search.CPDefinitionPriceReindexer;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommercePriceListModelListener
+	extends BaseModelListener<CommercePriceList> {
+
+	@Override
+	public void onAfterCreate(CommercePriceList commercePriceList) {
+		_commercePriceEntryResolutionCache.invalidateHierarchy();
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceList.getCommercePriceListId());
+
+		_cpDefinitionPriceReindexer.reindexGroup(
+			commercePriceList.getGroupId());
+	}
+
+	@Override
+	public void onAfterRemove(CommercePriceList commercePriceList) {
+		_commercePriceEntryResolutionCache.invalidateCommercePriceList(
+			commercePriceList.getCommercePriceListId());
+
+		_commercePriceListCache.removeCommercePriceList(commercePriceList);
+	}
+
+	@Override
+	public void onAfterUpdate(CommercePriceList commercePriceList) {
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceList.getCommercePriceListId());
+	}
+
+	@Override
+	public void onBeforeUpdate(CommercePriceList commercePriceList) {
+		CommercePriceList originalCommercePriceList =
+			_commercePriceListLocalService.fetchCommercePriceList(
+				commercePriceList.getCommercePriceListId());
+
+		if ((originalCommercePriceList == null) ||
+			(originalCommercePriceList.getCommerceCurrencyId() !=
+				commercePriceList.getCommerceCurrencyId()) ||
+			(originalCommercePriceList.getParentCommercePriceListId() !=
+				commercePriceList.getParentCommercePriceListId())) {
+
+			_commercePriceEntryResolutionCache.invalidateCommercePriceList(
+				commercePriceList.getCommercePriceListId());
+
+			_cpDefinitionPriceReindexer.reindexGroup(
+				commercePriceList.getGroupId());
+		}
+	}
+
+	@Reference
+	private CommercePriceEntryResolutionCache
+		_commercePriceEntryResolutionCache;
+
+	@Reference
+	private CommercePriceListCache _commercePriceListCache;
+
+	@Reference
+	private CommercePriceListLocalService _commercePriceListLocalService;
+
+	@Reference
+	private CPDefinitionPriceReindexer _cpDefinitionPriceReindexer;
+
+}
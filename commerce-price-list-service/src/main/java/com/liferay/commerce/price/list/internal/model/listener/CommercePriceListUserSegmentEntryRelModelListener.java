@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.model.listener;
+
+import com.liferay.commerce.price.list.internal.cache.CommercePriceListCache;
+import com.liferay.commerce.price.list.model.CommercePriceListUserSegmentEntryRel;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommercePriceListUserSegmentEntryRelModelListener
+	extends BaseModelListener<CommercePriceListUserSegmentEntryRel> {
+
+	@Override
+	public void onAfterCreate(
+		CommercePriceListUserSegmentEntryRel
+			commercePriceListUserSegmentEntryRel) {
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceListUserSegmentEntryRel.getCommercePriceListId());
+	}
+
+	@Override
+	public void onAfterRemove(
+		CommercePriceListUserSegmentEntryRel
+			commercePriceListUserSegmentEntryRel) {
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceListUserSegmentEntryRel.getCommercePriceListId());
+	}
+
+	@Override
+	public void onAfterUpdate(
+		CommercePriceListUserSegmentEntryRel
+			commercePriceListUserSegmentEntryRel) {
+
+		_commercePriceListCache.updateCommercePriceList(
+			commercePriceListUserSegmentEntryRel.getCommercePriceListId());
+	}
+
+	@Reference
+	private CommercePriceListCache _commercePriceListCache;
+
+}
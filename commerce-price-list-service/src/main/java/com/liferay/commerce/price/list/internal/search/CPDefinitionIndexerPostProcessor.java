@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.price.list.internal.search;
+
+import com.liferay.commerce.currency.model.CommerceCurrency;
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
+import com.liferay.commerce.product.constants.CPField;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.util.CPDefinitionIndexerBatchThreadLocal;
+import com.liferay.portal.kernel.search.BaseIndexerPostProcessor;
+import com.liferay.portal.kernel.search.Document;
+import com.liferay.portal.kernel.search.IndexerPostProcessor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Stores in the product definition document the lowest and highest prices of
+ * its approved SKUs, so that products can be filtered and sorted by price
+ * without resolving prices at query time. Besides the base prices, the
+ * document gets, for every price list of the product's group, the lowest
+ * effective price converted to the primary currency: SKUs without an entry in
+ * the price list or in one of its ancestors contribute their base price, so
+ * that every product can be sorted within a price list.
+ *
+ * <p>
+ * When the definitions are reindexed in pages, the SKUs, price entries, price
+ * lists and currencies are loaded once for the whole page.
+ * </p>
+ *
+ * @author Marco Leo
+ */
+@Component(
+	immediate = true,
+	property = "indexer.class.name=com.liferay.commerce.product.model.CPDefinition",
+	service = IndexerPostProcessor.class
+)
+public class CPDefinitionIndexerPostProcessor extends BaseIndexerPostProcessor {
+
+	@Override
+	public void postProcessDocument(Document document, Object obj)
+		throws Exception {
+
+		CPDefinition cpDefinition = (CPDefinition)obj;
+
+		CPDefinitionPriceBatchData cpDefinitionPriceBatchData =
+			CPDefinitionIndexerBatchThreadLocal.getValue(
+				CPDefinitionPriceBatchData.class.getName(),
+				_cpDefinitionPriceBatchDataLoader::load);
+
+		if ((cpDefinitionPriceBatchData == null) ||
+			!cpDefinitionPriceBatchData.contains(
+				cpDefinition.getCPDefinitionId())) {
+
+			cpDefinitionPriceBatchData = _cpDefinitionPriceBatchDataLoader.load(
+				Collections.singletonList(cpDefinition));
+		}
+
+		List<CPInstance> cpInstances =
+			cpDefinitionPriceBatchData.getCPInstances(
+				cpDefinition.getCPDefinitionId());
+
+		if (cpInstances.isEmpty()) {
+			return;
+		}
+
+		PriceRange priceRange = new PriceRange();
+
+		for (CPInstance cpInstance : cpInstances) {
+			priceRange.add(cpInstance.getPrice(), cpInstance.getPromoPrice());
+		}
+
+		_addPriceFields(document, priceRange);
+
+		Map<Long, Map<String, CommercePriceEntry>> commercePriceEntriesMap =
+			cpDefinitionPriceBatchData.getCommercePriceEntries(
+				cpDefinition.getCProductId());
+		Map<Long, CommercePriceList> commercePriceListsMap =
+			cpDefinitionPriceBatchData.getCommercePriceLists(
+				cpDefinition.getGroupId());
+
+		Map<Long, BigDecimal> pricesMap = new HashMap<>();
+
+		List<Long> commercePriceListIds = new ArrayList<>();
+
+		for (long commercePriceListId : commercePriceListsMap.keySet()) {
+			BigDecimal minPrice = null;
+
+			for (CPInstance cpInstance : cpInstances) {
+				BigDecimal price = cpInstance.getPrice();
+
+				CommercePriceEntry commercePriceEntry = _getCommercePriceEntry(
+					commercePriceListId, cpInstance.getCPInstanceUuid(),
+					commercePriceEntriesMap, commercePriceListsMap);
+
+				if (commercePriceEntry != null) {
+					BigDecimal primaryPrice = pricesMap.computeIfAbsent(
+						commercePriceEntry.getCommercePriceEntryId(),
+						commercePriceEntryId -> _getPrimaryPrice(
+							commercePriceEntry, commercePriceListsMap,
+							cpDefinitionPriceBatchData));
+
+					if (primaryPrice != null) {
+						price = primaryPrice;
+					}
+				}
+
+				if (price == null) {
+					price = BigDecimal.ZERO;
+				}
+
+				if ((minPrice == null) || (price.compareTo(minPrice) < 0)) {
+					minPrice = price;
+				}
+			}
+
+			document.addNumberSortable(
+				CPField.getPriceListPrimaryCurrencyFieldName(
+					commercePriceListId, CPField.MIN_PRICE),
+				minPrice);
+
+			commercePriceListIds.add(commercePriceListId);
+		}
+
+		document.addKeyword(
+			CPField.COMMERCE_PRICE_LIST_IDS,
+			commercePriceListIds.toArray(new Long[0]));
+	}
+
+	private void _addPriceFields(Document document, PriceRange priceRange) {
+		document.addNumberSortable(CPField.MAX_PRICE, priceRange._maxPrice);
+		document.addNumberSortable(CPField.MIN_PRICE, priceRange._minPrice);
+
+		if (priceRange._maxPromoPrice != null) {
+			document.addNumberSortable(
+				CPField.MAX_PROMO_PRICE, priceRange._maxPromoPrice);
+			document.addNumberSortable(
+				CPField.MIN_PROMO_PRICE, priceRange._minPromoPrice);
+		}
+	}
+
+	/**
+	 * Returns the price entry of the SKU in the price list or, if the price
+	 * list has none, in its closest ancestor that has one, the same way prices
+	 * are resolved at runtime.
+	 */
+	private CommercePriceEntry _getCommercePriceEntry(
+		long commercePriceListId, String cpInstanceUuid,
+		Map<Long, Map<String, CommercePriceEntry>> commercePriceEntriesMap,
+		Map<Long, CommercePriceList> commercePriceListsMap) {
+
+		Set<Long> commercePriceListIds = new HashSet<>();
+
+		while (commercePriceListIds.add(commercePriceListId)) {
+			Map<String, CommercePriceEntry> priceListCommercePriceEntries =
+				commercePriceEntriesMap.get(commercePriceListId);
+
+			if ((priceListCommercePriceEntries != null) &&
+				priceListCommercePriceEntries.containsKey(cpInstanceUuid)) {
+
+				return priceListCommercePriceEntries.get(cpInstanceUuid);
+			}
+
+			CommercePriceList commercePriceList = commercePriceListsMap.get(
+				commercePriceListId);
+
+			if (commercePriceList == null) {
+				return null;
+			}
+
+			commercePriceListId =
+				commercePriceList.getParentCommercePriceListId();
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the price of the price entry for a quantity of one, converted to
+	 * the primary currency, or <code>null</code> if the currency of its price
+	 * list is unknown.
+	 */
+	private BigDecimal _getPrimaryPrice(
+		CommercePriceEntry commercePriceEntry,
+		Map<Long, CommercePriceList> commercePriceListsMap,
+		CPDefinitionPriceBatchData cpDefinitionPriceBatchData) {
+
+		CommercePriceList commercePriceList = commercePriceListsMap.get(
+			commercePriceEntry.getCommercePriceListId());
+
+		if (commercePriceList == null) {
+			return null;
+		}
+
+		CommerceCurrency commerceCurrency =
+			cpDefinitionPriceBatchData.getCommerceCurrency(
+				commercePriceList.getCommerceCurrencyId());
+
+		if (commerceCurrency == null) {
+			return null;
+		}
+
+		BigDecimal price = commercePriceEntry.getPrice();
+
+		CommerceTierPriceEntry commerceTierPriceEntry =
+			cpDefinitionPriceBatchData.getCommerceTierPriceEntry(
+				commercePriceEntry.getCommercePriceEntryId());
+
+		if (commerceTierPriceEntry != null) {
+			price = commerceTierPriceEntry.getPrice();
+		}
+
+		if ((price == null) || commerceCurrency.isPrimary()) {
+			return price;
+		}
+
+		return price.divide(
+			commerceCurrency.getRate(),
+			RoundingMode.valueOf(commerceCurrency.getRoundingMode()));
+	}
+
+	@Reference
+	private CPDefinitionPriceBatchDataLoader _cpDefinitionPriceBatchDataLoader;
+
+	private static class PriceRange {
+
+		public void add(BigDecimal price, BigDecimal promoPrice) {
+			if (price == null) {
+				price = BigDecimal.ZERO;
+			}
+
+			if ((_maxPrice == null) || (price.compareTo(_maxPrice) > 0)) {
+				_maxPrice = price;
+			}
+
+			if ((_minPrice == null) || (price.compareTo(_minPrice) < 0)) {
+				_minPrice = price;
+			}
+
+			if ((promoPrice == null) ||
+				(promoPrice.compareTo(BigDecimal.ZERO) <= 0)) {
+
+				return;
+			}
+
+			if ((_maxPromoPrice == null) ||
+				(promoPrice.compareTo(_maxPromoPrice) > 0)) {
+
+				_maxPromoPrice = promoPrice;
+			}
+
+			if ((_minPromoPrice == null) ||
+				(promoPrice.compareTo(_minPromoPrice) < 0)) {
+
+				_minPromoPrice = promoPrice;
+			}
+		}
+
+		private BigDecimal _maxPrice;
+		private BigDecimal _maxPromoPrice;
+		private BigDecimal _minPrice;
+		private BigDecimal _minPromoPrice;
+
+	}
+
+}
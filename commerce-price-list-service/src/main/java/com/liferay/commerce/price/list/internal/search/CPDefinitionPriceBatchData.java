@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.price.list.internal.search;
+
+import com.liferay.commerce.currency.model.CommerceCurrency;
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
+import com.liferay.commerce.product.model.CPInstance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the approved SKUs, price entries, price lists and currencies of a page
+ * of product definitions, loaded by {@link CPDefinitionPriceBatchDataLoader},
+ * that <code>CPDefinitionIndexerPostProcessor</code> needs to add their prices
+ * to their documents.
+ *
+ * @author Marco Leo
+ */
+public class CPDefinitionPriceBatchData {
+
+	public boolean contains(long cpDefinitionId) {
+		return _cpInstances.containsKey(cpDefinitionId);
+	}
+
+	public CommerceCurrency getCommerceCurrency(long commerceCurrencyId) {
+		return _commerceCurrencies.get(commerceCurrencyId);
+	}
+
+	/**
+	 * Returns the price entries of the product, mapped by price list ID and
+	 * then by SKU UUID.
+	 */
+	public Map<Long, Map<String, CommercePriceEntry>> getCommercePriceEntries(
+		long cProductId) {
+
+		Map<Long, Map<String, CommercePriceEntry>> commercePriceEntries =
+			_commercePriceEntries.get(cProductId);
+
+		if (commercePriceEntries == null) {
+			return Collections.emptyMap();
+		}
+
+		return commercePriceEntries;
+	}
+
+	public Map<Long, CommercePriceList> getCommercePriceLists(long groupId) {
+		Map<Long, CommercePriceList> commercePriceLists =
+			_commercePriceLists.get(groupId);
+
+		if (commercePriceLists == null) {
+			return Collections.emptyMap();
+		}
+
+		return commercePriceLists;
+	}
+
+	/**
+	 * Returns the tier price entry that applies to a quantity of one, or
+	 * <code>null</code> if the price entry has none.
+	 */
+	public CommerceTierPriceEntry getCommerceTierPriceEntry(
+		long commercePriceEntryId) {
+
+		return _commerceTierPriceEntries.get(commercePriceEntryId);
+	}
+
+	public List<CPInstance> getCPInstances(long cpDefinitionId) {
+		List<CPInstance> cpInstances = _cpInstances.get(cpDefinitionId);
+
+		if (cpInstances == null) {
+			return Collections.emptyList();
+		}
+
+		return cpInstances;
+	}
+
+	protected void addCommerceCurrency(CommerceCurrency commerceCurrency) {
+		_commerceCurrencies.put(
+			commerceCurrency.getCommerceCurrencyId(), commerceCurrency);
+	}
+
+	protected void addCommercePriceEntry(
+		CommercePriceEntry commercePriceEntry) {
+
+		Map<Long, Map<String, CommercePriceEntry>> commercePriceEntries =
+			_commercePriceEntries.computeIfAbsent(
+				commercePriceEntry.getCProductId(), key -> new HashMap<>());
+
+		Map<String, CommercePriceEntry> priceListCommercePriceEntries =
+			commercePriceEntries.computeIfAbsent(
+				commercePriceEntry.getCommercePriceListId(),
+				key -> new HashMap<>());
+
+		priceListCommercePriceEntries.put(
+			commercePriceEntry.getCPInstanceUuid(), commercePriceEntry);
+	}
+
+	protected void addCommercePriceList(CommercePriceList commercePriceList) {
+		Map<Long, CommercePriceList> commercePriceLists =
+			_commercePriceLists.computeIfAbsent(
+				commercePriceList.getGroupId(), key -> new HashMap<>());
+
+		commercePriceLists.put(
+			commercePriceList.getCommercePriceListId(), commercePriceList);
+	}
+
+	protected void addCommerceTierPriceEntry(
+		CommerceTierPriceEntry commerceTierPriceEntry) {
+
+		_commerceTierPriceEntries.putIfAbsent(
+			commerceTierPriceEntry.getCommercePriceEntryId(),
+			commerceTierPriceEntry);
+	}
+
+	protected void addCPInstance(CPInstance cpInstance) {
+		List<CPInstance> cpInstances = _cpInstances.computeIfAbsent(
+			cpInstance.getCPDefinitionId(), key -> new ArrayList<>());
+
+		cpInstances.add(cpInstance);
+	}
+
+	protected void setCPDefinitionIds(List<Long> cpDefinitionIds) {
+		for (long cpDefinitionId : cpDefinitionIds) {
+			_cpInstances.putIfAbsent(cpDefinitionId, new ArrayList<>());
+		}
+	}
+
+	private final Map<Long, CommerceCurrency> _commerceCurrencies =
+		new HashMap<>();
+	private final Map<Long, Map<Long, Map<String, CommercePriceEntry>>>
+		_commercePriceEntries = new HashMap<>();
+	private final Map<Long, Map<Long, CommercePriceList>> _commercePriceLists =
+		new HashMap<>();
+	private final Map<Long, CommerceTierPriceEntry> _commerceTierPriceEntries =
+		new HashMap<>();
+	private final Map<Long, List<CPInstance>> _cpInstances = new HashMap<>();
+
+}
@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.price.list.internal.search;
+
+import com.liferay.commerce.currency.model.CommerceCurrency;
+import com.liferay.commerce.currency.service.CommerceCurrencyLocalService;
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
+import com.liferay.commerce.price.list.service.CommercePriceEntryLocalService;
+import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
+import com.liferay.commerce.price.list.service.CommerceTierPriceEntryLocalService;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Loads everything that <code>CPDefinitionIndexerPostProcessor</code> reads
+ * for a page of product definitions with one IN query per entity type and per
+ * 500 IDs, instead of querying the SKUs, price entries and price lists of each
+ * definition one by one.
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CPDefinitionPriceBatchDataLoader.class)
+public class CPDefinitionPriceBatchDataLoader {
+
+	public CPDefinitionPriceBatchData load(List<CPDefinition> cpDefinitions) {
+		CPDefinitionPriceBatchData cpDefinitionPriceBatchData =
+			new CPDefinitionPriceBatchData();
+
+		List<Long> cpDefinitionIds = new ArrayList<>(cpDefinitions.size());
+		Set<Long> cProductIds = new LinkedHashSet<>();
+		Set<Long> groupIds = new LinkedHashSet<>();
+
+		for (CPDefinition cpDefinition : cpDefinitions) {
+			cpDefinitionIds.add(cpDefinition.getCPDefinitionId());
+			cProductIds.add(cpDefinition.getCProductId());
+			groupIds.add(cpDefinition.getGroupId());
+		}
+
+		cpDefinitionPriceBatchData.setCPDefinitionIds(cpDefinitionIds);
+
+		_loadCPInstances(cpDefinitionPriceBatchData, cpDefinitionIds);
+		_loadCommercePriceEntries(cpDefinitionPriceBatchData, cProductIds);
+		_loadCommercePriceLists(cpDefinitionPriceBatchData, groupIds);
+
+		return cpDefinitionPriceBatchData;
+	}
+
+	private <T> List<T> _getModels(
+		Supplier<DynamicQuery> dynamicQuerySupplier,
+		Function<DynamicQuery, List<T>> dynamicQueryFunction,
+		String propertyName, Collection<Long> ids) {
+
+		List<T> models = new ArrayList<>();
+
+		List<Long> idsList = new ArrayList<>(ids);
+
+		for (int i = 0; i < idsList.size(); i += _IN_CLAUSE_MAX_SIZE) {
+			DynamicQuery dynamicQuery = dynamicQuerySupplier.get();
+
+			Property property = PropertyFactoryUtil.forName(propertyName);
+
+			dynamicQuery.add(
+				property.in(
+					idsList.subList(
+						i,
+						Math.min(i + _IN_CLAUSE_MAX_SIZE, idsList.size()))));
+
+			models.addAll(dynamicQueryFunction.apply(dynamicQuery));
+		}
+
+		return models;
+	}
+
+	private void _loadCommercePriceEntries(
+		CPDefinitionPriceBatchData cpDefinitionPriceBatchData,
+		Set<Long> cProductIds) {
+
+		List<CommercePriceEntry> commercePriceEntries = _getModels(
+			_commercePriceEntryLocalService::dynamicQuery,
+			_commercePriceEntryLocalService::dynamicQuery, "CProductId",
+			cProductIds);
+
+		Set<Long> commercePriceEntryIds = new LinkedHashSet<>();
+
+		for (CommercePriceEntry commercePriceEntry : commercePriceEntries) {
+			cpDefinitionPriceBatchData.addCommercePriceEntry(
+				commercePriceEntry);
+
+			if (commercePriceEntry.isHasTierPrice()) {
+				commercePriceEntryIds.add(
+					commercePriceEntry.getCommercePriceEntryId());
+			}
+		}
+
+		List<CommerceTierPriceEntry> commerceTierPriceEntries = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_commerceTierPriceEntryLocalService.dynamicQuery();
+
+				dynamicQuery.add(RestrictionsFactoryUtil.le("minQuantity", 1));
+				dynamicQuery.addOrder(OrderFactoryUtil.desc("minQuantity"));
+
+				return dynamicQuery;
+			},
+			_commerceTierPriceEntryLocalService::dynamicQuery,
+			"commercePriceEntryId", commercePriceEntryIds);
+
+		for (CommerceTierPriceEntry commerceTierPriceEntry :
+				commerceTierPriceEntries) {
+
+			cpDefinitionPriceBatchData.addCommerceTierPriceEntry(
+				commerceTierPriceEntry);
+		}
+	}
+
+	private void _loadCommercePriceLists(
+		CPDefinitionPriceBatchData cpDefinitionPriceBatchData,
+		Set<Long> groupIds) {
+
+		List<CommercePriceList> commercePriceLists = _getModels(
+			_commercePriceListLocalService::dynamicQuery,
+			_commercePriceListLocalService::dynamicQuery, "groupId", groupIds);
+
+		Set<Long> commerceCurrencyIds = new LinkedHashSet<>();
+
+		for (CommercePriceList commercePriceList : commercePriceLists) {
+			cpDefinitionPriceBatchData.addCommercePriceList(commercePriceList);
+
+			commerceCurrencyIds.add(commercePriceList.getCommerceCurrencyId());
+		}
+
+		List<CommerceCurrency> commerceCurrencies = _getModels(
+			_commerceCurrencyLocalService::dynamicQuery,
+			_commerceCurrencyLocalService::dynamicQuery, "commerceCurrencyId",
+			commerceCurrencyIds);
+
+		for (CommerceCurrency commerceCurrency : commerceCurrencies) {
+			cpDefinitionPriceBatchData.addCommerceCurrency(commerceCurrency);
+		}
+	}
+
+	private void _loadCPInstances(
+		CPDefinitionPriceBatchData cpDefinitionPriceBatchData,
+		List<Long> cpDefinitionIds) {
+
+		List<CPInstance> cpInstances = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpInstanceLocalService.dynamicQuery();
+
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq(
+						"status", WorkflowConstants.STATUS_APPROVED));
+
+				return dynamicQuery;
+			},
+			_cpInstanceLocalService::dynamicQuery, "CPDefinitionId",
+			cpDefinitionIds);
+
+		for (CPInstance cpInstance : cpInstances) {
+			cpDefinitionPriceBatchData.addCPInstance(cpInstance);
+		}
+	}
+
+	private static final int _IN_CLAUSE_MAX_SIZE = 500;
+
+	@Reference
+	private CommerceCurrencyLocalService _commerceCurrencyLocalService;
+
+	@Reference
+	private CommercePriceEntryLocalService _commercePriceEntryLocalService;
+
+	@Reference
+	private CommercePriceListLocalService _commercePriceListLocalService;
+
+	@Reference
+	private CommerceTierPriceEntryLocalService
+		_commerceTierPriceEntryLocalService;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
+}
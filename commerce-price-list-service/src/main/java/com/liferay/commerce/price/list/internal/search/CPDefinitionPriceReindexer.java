@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.price.list.internal.search;
+
+import com.liferay.commerce.price.list.constants.CommercePriceListDestinationNames;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CProduct;
+import com.liferay.commerce.product.service.CPDefinitionLocalService;
+import com.liferay.commerce.product.service.CProductLocalService;
+import com.liferay.petra.lang.CentralizedThreadLocal;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBusUtil;
+import com.liferay.portal.kernel.search.Indexer;
+import com.liferay.portal.kernel.search.IndexerRegistryUtil;
+import com.liferay.portal.kernel.transaction.NewTransactionLifecycleListener;
+import com.liferay.portal.kernel.transaction.TransactionAttribute;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.transaction.TransactionLifecycleListener;
+import com.liferay.portal.kernel.transaction.TransactionStatus;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Reindexes the product definitions whose indexed prices are affected by a
+ * price change once the current transaction commits. Products changed several
+ * times in the same transaction, for example by a price entry and its tier
+ * price entries, are reindexed only once, together in a single request: every
+ * change registers a commit callback, and the first one to run reindexes all
+ * the pending products. The pending products of a transaction that rolls back
+ * are discarded.
+ *
+ * <p>
+ * Changes affecting a whole group or currency are not reindexed in the
+ * request thread, but queued to the {@link
+ * CommercePriceListDestinationNames#PRICE_REINDEX} destination.
+ * </p>
+ *
+ * @author Marco Leo
+ */
+@Component(
+	immediate = true,
+	service = {
+		CPDefinitionPriceReindexer.class, TransactionLifecycleListener.class
+	}
+)
+public class CPDefinitionPriceReindexer
+	extends NewTransactionLifecycleListener {
+
+	/**
+	 * Queues, once the current transaction commits, the reindex of the
+	 * products having prices in the price lists of the currency. Must be
+	 * called whenever the rate or the primary flag of a currency changes, so
+	 * that the prices converted to the primary currency are updated.
+	 */
+	public void reindexCommerceCurrency(long commerceCurrencyId) {
+		_sendMessage("commerceCurrencyId", commerceCurrencyId);
+	}
+
+	/**
+	 * Reindexes the published product definition of the product once the
+	 * current transaction commits.
+	 */
+	public void reindexCProduct(long cProductId) {
+		Set<Long> cProductIds = _cProductIdsThreadLocal.get();
+
+		cProductIds.add(cProductId);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				Set<Long> pendingCProductIds = _cProductIdsThreadLocal.get();
+
+				if (pendingCProductIds.isEmpty()) {
+					return null;
+				}
+
+				_cProductIdsThreadLocal.remove();
+
+				reindexCProducts(pendingCProductIds);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Reindexes the published product definitions of the products.
+	 */
+	public void reindexCProducts(Collection<Long> cProductIds) {
+		List<CPDefinition> cpDefinitions = new ArrayList<>(cProductIds.size());
+
+		for (long cProductId : cProductIds) {
+			CProduct cProduct = _cProductLocalService.fetchCProduct(cProductId);
+
+			if (cProduct == null) {
+				continue;
+			}
+
+			CPDefinition cpDefinition =
+				_cpDefinitionLocalService.fetchCPDefinition(
+					cProduct.getPublishedCPDefinitionId());
+
+			if (cpDefinition != null) {
+				cpDefinitions.add(cpDefinition);
+			}
+		}
+
+		if (cpDefinitions.isEmpty()) {
+			return;
+		}
+
+		Indexer<CPDefinition> indexer = IndexerRegistryUtil.nullSafeGetIndexer(
+			CPDefinition.class);
+
+		indexer.reindex(cpDefinitions);
+	}
+
+	/**
+	 * Queues, once the current transaction commits, the reindex of every
+	 * published product definition of the group. Must be called whenever a
+	 * price list is added or moved, so that the products of the group get
+	 * the prices resolved in the price list.
+	 */
+	public void reindexGroup(long groupId) {
+		_sendMessage("groupId", groupId);
+	}
+
+	@Override
+	protected void doRollbacked(
+		TransactionAttribute transactionAttribute,
+		TransactionStatus transactionStatus, Throwable throwable) {
+
+		_cProductIdsThreadLocal.remove();
+	}
+
+	private void _sendMessage(String key, long value) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				Message message = new Message();
+
+				message.put(key, value);
+
+				MessageBusUtil.sendMessage(
+					CommercePriceListDestinationNames.PRICE_REINDEX, message);
+
+				return null;
+			});
+	}
+
+	private static final ThreadLocal<Set<Long>> _cProductIdsThreadLocal =
+		new CentralizedThreadLocal<>(
+			CPDefinitionPriceReindexer.class.getName() + "._cProductIds",
+			HashSet::new);
+
+	@Reference
+	private CPDefinitionLocalService _cpDefinitionLocalService;
+
+	@Reference
+	private CProductLocalService _cProductLocalService;
+
+}
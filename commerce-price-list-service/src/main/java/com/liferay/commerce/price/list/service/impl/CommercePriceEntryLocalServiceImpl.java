@@ -16,8 +16,9 @@ package com.liferay.commerce.price.list.service.impl;
 
 import com.liferay.commerce.price.list.exception.DuplicateCommercePriceEntryException;
 import com.liferay.commerce.price.list.exception.NoSuchPriceEntryException;
+import com.liferay.commerce.price.list.internal.cache.CommercePriceEntryResolutionCache;
+import com.liferay.commerce.price.list.internal.search.CPDefinitionPriceReindexer;
 import com.liferay.commerce.price.list.model.CommercePriceEntry;
-import com.liferay.commerce.price.list.model.CommercePriceList;
 import com.liferay.commerce.price.list.service.base.CommercePriceEntryLocalServiceBaseImpl;
 import com.liferay.commerce.product.exception.NoSuchCPInstanceException;
 import com.liferay.commerce.product.model.CPDefinition;
@@ -153,7 +154,13 @@ public class CommercePriceEntryLocalServiceImpl
 		commercePriceEntry.setCProductId(cProductId);
 		commercePriceEntry.setCPInstanceUuid(cpInstanceUuid);
 
-		return commercePriceEntryPersistence.update(commercePriceEntry);
+		commercePriceEntryPersistence.update(commercePriceEntry);
+
+		// Commerce product definition
+
+		reindexCPDefinition(cProductId);
+
+		return commercePriceEntry;
 	}
 
 	@Override
@@ -221,6 +228,10 @@ public class CommercePriceEntryLocalServiceImpl
 		expandoRowLocalService.deleteRows(
 			commercePriceEntry.getCommercePriceEntryId());
 
+		// Commerce product definition
+
+		reindexCPDefinition(commercePriceEntry.getCProductId());
+
 		return commercePriceEntry;
 	}
 
@@ -295,27 +306,21 @@ public class CommercePriceEntryLocalServiceImpl
 	public CommercePriceEntry fetchCommercePriceEntry(
 		long commercePriceListId, String cpInstanceUuid, boolean useAncestor) {
 
-		CommercePriceEntry commercePriceEntry =
-			commercePriceEntryLocalService.fetchCommercePriceEntry(
+		if (!useAncestor) {
+			return commercePriceEntryLocalService.fetchCommercePriceEntry(
 				commercePriceListId, cpInstanceUuid);
-
-		if (!useAncestor || (commercePriceEntry != null)) {
-			return commercePriceEntry;
 		}
 
-		CommercePriceList commercePriceList =
-			commercePriceListLocalService.fetchCommercePriceList(
-				commercePriceListId);
-
-		if ((commercePriceList == null) ||
-			(commercePriceList.getParentCommercePriceListId() == 0)) {
+		long commercePriceEntryId =
+			_commercePriceEntryResolutionCache.getCommercePriceEntryId(
+				commercePriceListId, cpInstanceUuid);
 
+		if (commercePriceEntryId == 0) {
 			return null;
 		}
 
-		return commercePriceEntryLocalService.fetchCommercePriceEntry(
-			commercePriceList.getParentCommercePriceListId(), cpInstanceUuid,
-			useAncestor);
+		return commercePriceEntryPersistence.fetchByPrimaryKey(
+			commercePriceEntryId);
 	}
 
 	@Override
@@ -472,7 +477,11 @@ public class CommercePriceEntryLocalServiceImpl
 
 		commercePriceEntry.setHasTierPrice(hasTierPrice);
 
-		return commercePriceEntryPersistence.update(commercePriceEntry);
+		commercePriceEntryPersistence.update(commercePriceEntry);
+
+		reindexCPDefinition(commercePriceEntry.getCProductId());
+
+		return commercePriceEntry;
 	}
 
 	@Indexable(type = IndexableType.REINDEX)
@@ -490,7 +499,11 @@ public class CommercePriceEntryLocalServiceImpl
 		commercePriceEntry.setPrice(price);
 		commercePriceEntry.setPromoPrice(promoPrice);
 
-		return commercePriceEntryPersistence.update(commercePriceEntry);
+		commercePriceEntryPersistence.update(commercePriceEntry);
+
+		reindexCPDefinition(commercePriceEntry.getCProductId());
+
+		return commercePriceEntry;
 	}
 
 	@Indexable(type = IndexableType.REINDEX)
@@ -729,6 +742,15 @@ public class CommercePriceEntryLocalServiceImpl
 			"Unable to fix the search index after 10 attempts");
 	}
 
+	/**
+	 * Reindexes the published product definition once the current transaction
+	 * commits, so that the prices stored in its search document reflect the
+	 * price entry changes.
+	 */
+	protected void reindexCPDefinition(long cProductId) {
+		_cpDefinitionPriceReindexer.reindexCProduct(cProductId);
+	}
+
 	protected void validate(long commercePriceListId, String cpInstanceUuid)
 		throws PortalException {
 
@@ -747,9 +769,16 @@ public class CommercePriceEntryLocalServiceImpl
 	private static final Log _log = LogFactoryUtil.getLog(
 		CommercePriceEntryLocalServiceImpl.class);
 
+	@ServiceReference(type = CommercePriceEntryResolutionCache.class)
+	private CommercePriceEntryResolutionCache
+		_commercePriceEntryResolutionCache;
+
 	@ServiceReference(type = CPDefinitionLocalService.class)
 	private CPDefinitionLocalService _cpDefinitionLocalService;
 
+	@ServiceReference(type = CPDefinitionPriceReindexer.class)
+	private CPDefinitionPriceReindexer _cpDefinitionPriceReindexer;
+
 	@ServiceReference(type = CPInstanceLocalService.class)
 	private CPInstanceLocalService _cpInstanceLocalService;
 
@@ -57,10 +57,6 @@ public class CommercePriceListAccountRelLocalServiceImpl
 
 		reindexCommercePriceList(commercePriceListId);
 
-		// Cache
-
-		commercePriceListLocalService.cleanPriceListCache(groupId);
-
 		return commercePriceListAccountRelPersistence.update(
 			commercePriceListAccountRel);
 	}
@@ -83,11 +79,6 @@ public class CommercePriceListAccountRelLocalServiceImpl
 		reindexCommercePriceList(
 			commercePriceListAccountRel.getCommercePriceListId());
 
-		// Cache
-
-		commercePriceListLocalService.cleanPriceListCache(
-			commercePriceListAccountRel.getGroupId());
-
 		return commercePriceListAccountRel;
 	}
 
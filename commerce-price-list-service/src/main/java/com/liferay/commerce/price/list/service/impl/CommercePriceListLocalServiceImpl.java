@@ -20,18 +20,15 @@ import com.liferay.commerce.price.list.exception.CommercePriceListCurrencyExcept
 import com.liferay.commerce.price.list.exception.CommercePriceListDisplayDateException;
 import com.liferay.commerce.price.list.exception.CommercePriceListExpirationDateException;
 import com.liferay.commerce.price.list.exception.NoSuchPriceListException;
+import com.liferay.commerce.price.list.internal.cache.CommercePriceListCache;
 import com.liferay.commerce.price.list.model.CommercePriceList;
 import com.liferay.commerce.price.list.service.base.CommercePriceListLocalServiceBaseImpl;
-import com.liferay.petra.string.StringPool;
-import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
-import com.liferay.portal.kernel.cache.PortalCache;
 import com.liferay.portal.kernel.dao.orm.QueryDefinition;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
-import com.liferay.portal.kernel.model.Group;
 import com.liferay.portal.kernel.model.SystemEventConstants;
 import com.liferay.portal.kernel.model.User;
 import com.liferay.portal.kernel.search.BaseModelSearchResult;
@@ -46,14 +43,12 @@ import com.liferay.portal.kernel.search.QueryConfig;
 import com.liferay.portal.kernel.search.SearchContext;
 import com.liferay.portal.kernel.search.SearchException;
 import com.liferay.portal.kernel.search.Sort;
-import com.liferay.portal.kernel.search.SortFactoryUtil;
 import com.liferay.portal.kernel.service.ServiceContext;
 import com.liferay.portal.kernel.systemevent.SystemEvent;
 import com.liferay.portal.kernel.util.Constants;
 import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.kernel.util.PortalUtil;
-import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import com.liferay.portal.kernel.workflow.WorkflowHandlerRegistryUtil;
@@ -169,8 +164,6 @@ public class CommercePriceListLocalServiceImpl
 		commercePriceList = startWorkflowInstance(
 			user.getUserId(), commercePriceList, serviceContext);
 
-		cleanPriceListCache(groupId);
-
 		return commercePriceList;
 	}
 
@@ -219,7 +212,7 @@ public class CommercePriceListLocalServiceImpl
 
 	@Override
 	public void cleanPriceListCache(long groupId) {
-		MultiVMPoolUtil.removePortalCache("PRICE_LISTS_" + groupId);
+		_commercePriceListCache.invalidate(groupId);
 	}
 
 	@Indexable(type = IndexableType.DELETE)
@@ -262,8 +255,6 @@ public class CommercePriceListLocalServiceImpl
 			CommercePriceList.class.getName(),
 			commercePriceList.getCommercePriceListId());
 
-		cleanPriceListCache(commercePriceList.getGroupId());
-
 		return commercePriceList;
 	}
 
@@ -304,54 +295,17 @@ public class CommercePriceListLocalServiceImpl
 			long[] commerceUserSegmentEntryIds)
 		throws PortalException {
 
-		Group group = groupLocalService.getGroup(groupId);
-
-		String cacheKey =
-			commerceAccountId + StringPool.POUND +
-				StringUtil.merge(commerceUserSegmentEntryIds);
-
-		PortalCache<String, Serializable> portalCache =
-			MultiVMPoolUtil.getPortalCache("PRICE_LISTS_" + groupId);
-
-		boolean priceListCalculated = GetterUtil.getBoolean(
-			portalCache.get(cacheKey + "_calculated"));
-
-		CommercePriceList commercePriceList =
-			(CommercePriceList)portalCache.get(cacheKey);
-
-		if (priceListCalculated) {
-			return Optional.ofNullable(commercePriceList);
-		}
-
-		SearchContext searchContext = buildSearchContext(
-			group.getCompanyId(), groupId, commerceAccountId,
-			commerceUserSegmentEntryIds);
-
-		Indexer<CommercePriceList> indexer =
-			IndexerRegistryUtil.nullSafeGetIndexer(CommercePriceList.class);
-
-		Hits hits = indexer.search(searchContext, Field.ENTRY_CLASS_PK);
-
-		List<Document> documents = hits.toList();
-
-		if (documents.isEmpty()) {
-			portalCache.put(cacheKey + "_calculated", true);
+		long commercePriceListId =
+			_commercePriceListCache.getCommercePriceListId(
+				groupId, commerceAccountId, commerceUserSegmentEntryIds);
 
+		if (commercePriceListId <= 0) {
 			return Optional.empty();
 		}
 
-		Document document = documents.get(0);
-
-		long commercePriceListId = GetterUtil.getLong(
-			document.get(Field.ENTRY_CLASS_PK));
-
-		commercePriceList = fetchCommercePriceList(commercePriceListId);
-
-		portalCache.put(cacheKey, commercePriceList);
-
-		portalCache.put(cacheKey + "_calculated", true);
-
-		return Optional.ofNullable(commercePriceList);
+		return Optional.ofNullable(
+			commercePriceListPersistence.fetchByPrimaryKey(
+				commercePriceListId));
 	}
 
 	@Override
@@ -473,8 +427,6 @@ public class CommercePriceListLocalServiceImpl
 		commercePriceList = startWorkflowInstance(
 			user.getUserId(), commercePriceList, serviceContext);
 
-		cleanPriceListCache(commercePriceList.getGroupId());
-
 		return commercePriceList;
 	}
 
@@ -510,8 +462,6 @@ public class CommercePriceListLocalServiceImpl
 
 			commercePriceListPersistence.update(commercePriceList);
 
-			cleanPriceListCache(commercePriceList.getGroupId());
-
 			doReindex(commercePriceList.getCommercePriceListId());
 		}
 	}
@@ -526,8 +476,6 @@ public class CommercePriceListLocalServiceImpl
 
 		commercePriceListPersistence.update(commercePriceList);
 
-		cleanPriceListCache(commercePriceList.getGroupId());
-
 		return commercePriceList;
 	}
 
@@ -575,8 +523,6 @@ public class CommercePriceListLocalServiceImpl
 
 		commercePriceListPersistence.update(commercePriceList);
 
-		cleanPriceListCache(commercePriceList.getGroupId());
-
 		return commercePriceList;
 	}
 
@@ -688,39 +634,6 @@ public class CommercePriceListLocalServiceImpl
 			externalReferenceCode, neverExpire, serviceContext);
 	}
 
-	protected SearchContext buildSearchContext(
-		long companyId, long groupId, long commerceAccountId,
-		long[] commerceUserSegmentEntryIds) {
-
-		SearchContext searchContext = new SearchContext();
-
-		Map<String, Serializable> attributes = new HashMap<>();
-
-		attributes.put(Field.STATUS, WorkflowConstants.STATUS_APPROVED);
-		attributes.put("commerceAccountId", commerceAccountId);
-		attributes.put(
-			"commerceUserSegmentEntryIds", commerceUserSegmentEntryIds);
-
-		searchContext.setAttributes(attributes);
-
-		searchContext.setCompanyId(companyId);
-		searchContext.setStart(0);
-		searchContext.setEnd(1);
-		searchContext.setGroupIds(new long[] {groupId});
-
-		QueryConfig queryConfig = searchContext.getQueryConfig();
-
-		queryConfig.setHighlightEnabled(false);
-		queryConfig.setScoreEnabled(false);
-
-		Sort sort = SortFactoryUtil.create(
-			Field.PRIORITY + "_Number_sortable", true);
-
-		searchContext.setSorts(sort);
-
-		return searchContext;
-	}
-
 	protected SearchContext buildSearchContext(
 		long companyId, long groupId, String keywords, int status, int start,
 		int end, Sort sort) {
@@ -783,8 +696,6 @@ public class CommercePriceListLocalServiceImpl
 				userId, commercePriceList.getCommercePriceListId(),
 				WorkflowConstants.STATUS_APPROVED, serviceContext,
 				new HashMap<String, Serializable>());
-
-			cleanPriceListCache(commercePriceList.getGroupId());
 		}
 	}
 
@@ -818,8 +729,6 @@ public class CommercePriceListLocalServiceImpl
 					userId, commercePriceList.getCommercePriceListId(),
 					WorkflowConstants.STATUS_EXPIRED, serviceContext,
 					new HashMap<String, Serializable>());
-
-				cleanPriceListCache(commercePriceList.getGroupId());
 			}
 		}
 	}
@@ -921,4 +830,7 @@ public class CommercePriceListLocalServiceImpl
 	@ServiceReference(type = CommerceCurrencyLocalService.class)
 	private CommerceCurrencyLocalService _commerceCurrencyLocalService;
 
+	@ServiceReference(type = CommercePriceListCache.class)
+	private CommercePriceListCache _commercePriceListCache;
+
 }
\ No newline at end of file
@@ -67,10 +67,6 @@ public class CommercePriceListUserSegmentEntryRelLocalServiceImpl
 
 		reindexCommerceUserSegmentEntry(commercePriceListId);
 
-		// Cache
-
-		commercePriceListLocalService.cleanPriceListCache(groupId);
-
 		return commercePriceListUserSegmentEntryRelPersistence.update(
 			commercePriceListUserSegmentEntryRel);
 	}
@@ -96,11 +92,6 @@ public class CommercePriceListUserSegmentEntryRelLocalServiceImpl
 			commercePriceListUserSegmentEntryRel.
 				getCommercePriceListUserSegmentEntryRelId());
 
-		// Cache
-
-		commercePriceListLocalService.cleanPriceListCache(
-			commercePriceListUserSegmentEntryRel.getGroupId());
-
 		return commercePriceListUserSegmentEntryRel;
 	}
 
@@ -186,11 +177,6 @@ public class CommercePriceListUserSegmentEntryRelLocalServiceImpl
 		reindexCommerceUserSegmentEntry(
 			commercePriceListUserSegmentEntryRel.getCommercePriceListId());
 
-		// Cache
-
-		commercePriceListLocalService.cleanPriceListCache(
-			serviceContext.getScopeGroupId());
-
 		return commercePriceListUserSegmentEntryRelPersistence.update(
 			commercePriceListUserSegmentEntryRel);
 	}
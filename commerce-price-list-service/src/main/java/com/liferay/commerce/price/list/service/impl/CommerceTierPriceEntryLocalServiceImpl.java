@@ -17,6 +17,7 @@ package com.liferay.commerce.price.list.service.impl;
 import com.liferay.commerce.price.list.exception.DuplicateCommerceTierPriceEntryException;
 import com.liferay.commerce.price.list.exception.NoSuchPriceEntryException;
 import com.liferay.commerce.price.list.exception.NoSuchTierPriceEntryException;
+import com.liferay.commerce.price.list.internal.search.CPDefinitionPriceReindexer;
 import com.liferay.commerce.price.list.model.CommercePriceEntry;
 import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
 import com.liferay.commerce.price.list.service.base.CommerceTierPriceEntryLocalServiceBaseImpl;
@@ -50,6 +51,7 @@ import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.kernel.util.StringBundler;
 import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.spring.extender.service.ServiceReference;
 
 import java.io.Serializable;
 
@@ -165,6 +167,10 @@ public class CommerceTierPriceEntryLocalServiceImpl
 		expandoRowLocalService.deleteRows(
 			commerceTierPriceEntry.getCommerceTierPriceEntryId());
 
+		// Commerce product definition
+
+		reindexCPDefinition(commerceTierPriceEntry.getCommercePriceEntryId());
+
 		return commerceTierPriceEntry;
 	}
 
@@ -292,7 +298,11 @@ public class CommerceTierPriceEntryLocalServiceImpl
 		commerceTierPriceEntry.setMinQuantity(minQuantity);
 		commerceTierPriceEntry.setExpandoBridgeAttributes(serviceContext);
 
-		return commerceTierPriceEntryPersistence.update(commerceTierPriceEntry);
+		commerceTierPriceEntryPersistence.update(commerceTierPriceEntry);
+
+		reindexCPDefinition(commerceTierPriceEntry.getCommercePriceEntryId());
+
+		return commerceTierPriceEntry;
 	}
 
 	@Indexable(type = IndexableType.REINDEX)
@@ -511,6 +521,22 @@ public class CommerceTierPriceEntryLocalServiceImpl
 			"Unable to fix the search index after 10 attempts");
 	}
 
+	/**
+	 * Reindexes the published product definition of the price entry once the
+	 * current transaction commits, so that the prices stored in its search
+	 * document reflect the tier price changes.
+	 */
+	protected void reindexCPDefinition(long commercePriceEntryId) {
+		CommercePriceEntry commercePriceEntry =
+			_commercePriceEntryPersistence.fetchByPrimaryKey(
+				commercePriceEntryId);
+
+		if (commercePriceEntry != null) {
+			_cpDefinitionPriceReindexer.reindexCProduct(
+				commercePriceEntry.getCProductId());
+		}
+	}
+
 	protected void validate(
 			long commerceTierPriceEntryId, long commercePriceEntryId,
 			int minQuantity)
@@ -541,4 +567,7 @@ public class CommerceTierPriceEntryLocalServiceImpl
 	@BeanReference(type = CommercePriceEntryPersistence.class)
 	private CommercePriceEntryPersistence _commercePriceEntryPersistence;
 
+	@ServiceReference(type = CPDefinitionPriceReindexer.class)
+	private CPDefinitionPriceReindexer _cpDefinitionPriceReindexer;
+
 }
\ No newline at end of file
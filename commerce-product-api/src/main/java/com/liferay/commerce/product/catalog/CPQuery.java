@@ -24,6 +24,8 @@ import com.liferay.portal.kernel.util.StringUtil;
 
 import java.io.Serializable;
 
+import java.math.BigDecimal;
+
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -36,7 +38,7 @@ public class CPQuery {
 
 	public static final String[] ORDER_BY_COLUMNS = {
 		"name", "createDate", "modifiedDate", "publishDate", "expirationDate",
-		"priority"
+		"priority", "price"
 	};
 
 	public static String checkOrderByCol(String orderByCol) {
@@ -116,6 +118,18 @@ public class CPQuery {
 		return _attributes;
 	}
 
+	public long getCommercePriceListId() {
+		return _commercePriceListId;
+	}
+
+	public BigDecimal getMaxPrice() {
+		return _maxPrice;
+	}
+
+	public BigDecimal getMinPrice() {
+		return _minPrice;
+	}
+
 	public long[] getNotAllCategoryIds() {
 		return _notAllCategoryIds;
 	}
@@ -211,6 +225,33 @@ public class CPQuery {
 		}
 	}
 
+	/**
+	 * Sets the price list whose prices are used by the price filters and the
+	 * price sort. When no price list is set, the SKU prices are used.
+	 */
+	public void setCommercePriceListId(long commercePriceListId) {
+		_commercePriceListId = commercePriceListId;
+		_toString = null;
+	}
+
+	/**
+	 * Sets the upper bound, in the primary currency, of the lowest price of the
+	 * products to return.
+	 */
+	public void setMaxPrice(BigDecimal maxPrice) {
+		_maxPrice = maxPrice;
+		_toString = null;
+	}
+
+	/**
+	 * Sets the lower bound, in the primary currency, of the lowest price of the
+	 * products to return.
+	 */
+	public void setMinPrice(BigDecimal minPrice) {
+		_minPrice = minPrice;
+		_toString = null;
+	}
+
 	public void setNotAllCategoryIds(long[] notAllCategoryIds) {
 		_notAllCategoryIds = notAllCategoryIds;
 
@@ -275,7 +316,7 @@ public class CPQuery {
 			return _toString;
 		}
 
-		StringBundler sb = new StringBundler(27);
+		StringBundler sb = new StringBundler(33);
 
 		sb.append("{allCategoryIds=");
 		sb.append(StringUtil.merge(_allCategoryIds));
@@ -287,6 +328,12 @@ public class CPQuery {
 		sb.append(StringUtil.merge(_anyCategoryIds));
 		sb.append(", anyTagIds=");
 		sb.append(StringUtil.merge(_anyTagIds));
+		sb.append(", commercePriceListId=");
+		sb.append(_commercePriceListId);
+		sb.append(", maxPrice=");
+		sb.append(_maxPrice);
+		sb.append(", minPrice=");
+		sb.append(_minPrice);
 		sb.append(", notAllCategoryIds=");
 		sb.append(StringUtil.merge(_notAllCategoryIds));
 		sb.append(", notAllTagIds=");
@@ -366,6 +413,9 @@ public class CPQuery {
 	private long[] _anyCategoryIds = new long[0];
 	private long[] _anyTagIds = new long[0];
 	private Map<String, Serializable> _attributes = new HashMap<>();
+	private long _commercePriceListId;
+	private BigDecimal _maxPrice;
+	private BigDecimal _minPrice;
 	private long[] _notAllCategoryIds = new long[0];
 	private long[] _notAllTagIds = new long[0];
 	private long[][] _notAllTagIdsArray = new long[0][];
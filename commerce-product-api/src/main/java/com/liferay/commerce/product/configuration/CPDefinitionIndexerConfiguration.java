@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.configuration;
+
+import aQute.bnd.annotation.metatype.Meta;
+
+import com.liferay.portal.configuration.metatype.annotations.ExtendedObjectClassDefinition;
+
+/**
+ * @author Marco Leo
+ */
+@ExtendedObjectClassDefinition(
+	category = "catalog", scope = ExtendedObjectClassDefinition.Scope.SYSTEM
+)
+@Meta.OCD(
+	id = "com.liferay.commerce.product.configuration.CPDefinitionIndexerConfiguration",
+	localization = "content/Language",
+	name = "cp-definition-indexer-configuration-name"
+)
+public interface CPDefinitionIndexerConfiguration {
+
+	@Meta.AD(deflt = "500", name = "reindex-batch-size", required = false)
+	public int reindexBatchSize();
+
+	@Meta.AD(deflt = "1", name = "reindex-partitions", required = false)
+	public int reindexPartitions();
+
+	@Meta.AD(deflt = "true", name = "use-bulk-reindex", required = false)
+	public boolean useBulkReindex();
+
+}
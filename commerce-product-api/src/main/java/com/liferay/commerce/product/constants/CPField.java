@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.constants;
+
+/**
+ * Names of the price fields added to the product definition search document.
+ * Fields without a price list are computed from the SKU prices and are
+ * expressed in the primary currency.
+ *
+ * @author Marco Leo
+ */
+public class CPField {
+
+	public static final String COMMERCE_PRICE_LIST_IDS = "commercePriceListIds";
+
+	public static final String MAX_PRICE = "maxPrice";
+
+	public static final String MAX_PROMO_PRICE = "maxPromoPrice";
+
+	public static final String MIN_PRICE = "minPrice";
+
+	public static final String MIN_PROMO_PRICE = "minPromoPrice";
+
+	/**
+	 * Returns the name of the field holding the price, in the currency of the
+	 * price list, of the SKUs that have an entry in the price list.
+	 */
+	public static String getPriceListFieldName(
+		long commercePriceListId, String fieldName) {
+
+		return "priceList_" + commercePriceListId + "_" + fieldName;
+	}
+
+	/**
+	 * Returns the name of the field holding the price, converted to the primary
+	 * currency, that the price list resolves for the product. SKUs without an
+	 * entry in the price list contribute their own price.
+	 */
+	public static String getPriceListPrimaryCurrencyFieldName(
+		long commercePriceListId, String fieldName) {
+
+		return getPriceListFieldName(commercePriceListId, fieldName) +
+			"_primary";
+	}
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.product.util;
+
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.petra.lang.CentralizedThreadLocal;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Exposes to the indexer post processors the page of product definitions
+ * being indexed, so that they can load what they need for the whole page once
+ * instead of querying it for every document.
+ *
+ * @author Marco Leo
+ */
+public class CPDefinitionIndexerBatchThreadLocal {
+
+	/**
+	 * Returns the page of product definitions being indexed, or
+	 * <code>null</code> if the definitions are indexed one by one.
+	 */
+	public static List<CPDefinition> getCPDefinitions() {
+		return _cpDefinitions.get();
+	}
+
+	/**
+	 * Returns the value that the function computes from the page of product
+	 * definitions being indexed, computing it only once per page and key.
+	 * Returns <code>null</code> if the definitions are indexed one by one.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T getValue(
+		String key, Function<List<CPDefinition>, T> function) {
+
+		List<CPDefinition> cpDefinitions = _cpDefinitions.get();
+
+		if (cpDefinitions == null) {
+			return null;
+		}
+
+		Map<String, Object> values = _values.get();
+
+		return (T)values.computeIfAbsent(
+			key, curKey -> function.apply(cpDefinitions));
+	}
+
+	public static void remove() {
+		_cpDefinitions.remove();
+		_values.remove();
+	}
+
+	public static void setCPDefinitions(List<CPDefinition> cpDefinitions) {
+		_cpDefinitions.set(Collections.unmodifiableList(cpDefinitions));
+		_values.remove();
+	}
+
+	private static final ThreadLocal<List<CPDefinition>> _cpDefinitions =
+		new CentralizedThreadLocal<>(
+			CPDefinitionIndexerBatchThreadLocal.class.getName() +
+				"._cpDefinitions");
+	private static final ThreadLocal<Map<String, Object>> _values =
+		new CentralizedThreadLocal<>(
+			CPDefinitionIndexerBatchThreadLocal.class.getName() + "._values",
+			HashMap::new);
+
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.util;
+
+import com.liferay.petra.lang.CentralizedThreadLocal;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+public class CPInstanceBuildThreadLocal {
+
+	/**
+	 * Returns <code>true</code> while the SKUs of a product definition are
+	 * being generated in bulk. Model listeners may skip their per-SKU work in
+	 * that case, since the product definition is updated once when the build
+	 * completes.
+	 */
+	public static boolean isBuildInProcess() {
+		return _buildInProcess.get();
+	}
+
+	public static void setBuildInProcess(boolean buildInProcess) {
+		_buildInProcess.set(buildInProcess);
+	}
+
+	private static final ThreadLocal<Boolean> _buildInProcess =
+		new CentralizedThreadLocal<>(
+			CPInstanceBuildThreadLocal.class.getName() + "._buildInProcess",
+			() -> Boolean.FALSE);
+
+}
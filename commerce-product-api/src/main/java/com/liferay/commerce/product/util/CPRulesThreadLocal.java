@@ -19,22 +19,74 @@ import com.liferay.petra.lang.CentralizedThreadLocal;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * @author Andrea Di Giorgi
  */
 public class CPRulesThreadLocal {
 
+	/**
+	 * Discards the commerce product rules of the current request and their
+	 * supplier. Must be called once the request is processed, so that the
+	 * supplier does not keep the request alive or serve its rules to the next
+	 * request of the thread.
+	 */
+	public static void clear() {
+		_cpRules.remove();
+		_cpRulesSupplier.remove();
+	}
+
+	/**
+	 * Returns the commerce product rules of the current request. If they have
+	 * not been set yet, they are computed by the supplier registered with
+	 * {@link #setCPRulesSupplier(Supplier)}, if any, and memoized.
+	 */
 	public static List<CPRule> getCPRules() {
+		List<CPRule> cpRules = _cpRules.get();
+
+		if (cpRules != null) {
+			return cpRules;
+		}
+
+		Supplier<List<CPRule>> cpRulesSupplier = _cpRulesSupplier.get();
+
+		if (cpRulesSupplier == null) {
+			return null;
+		}
+
+		_cpRulesSupplier.remove();
+
+		cpRules = cpRulesSupplier.get();
+
+		if (cpRules != null) {
+			setCPRules(cpRules);
+		}
+
 		return _cpRules.get();
 	}
 
 	public static void setCPRules(List<CPRule> cpRules) {
 		_cpRules.set(Collections.unmodifiableList(cpRules));
+		_cpRulesSupplier.remove();
+	}
+
+	/**
+	 * Defers the computation of the commerce product rules of the current
+	 * request to their first access, discarding the rules set before.
+	 */
+	public static void setCPRulesSupplier(
+		Supplier<List<CPRule>> cpRulesSupplier) {
+
+		_cpRules.remove();
+		_cpRulesSupplier.set(cpRulesSupplier);
 	}
 
 	private static final ThreadLocal<List<CPRule>> _cpRules =
 		new CentralizedThreadLocal<>(
 			CPRulesThreadLocal.class.getName() + "._cpRules");
+	private static final ThreadLocal<Supplier<List<CPRule>>>
+		_cpRulesSupplier = new CentralizedThreadLocal<>(
+			CPRulesThreadLocal.class.getName() + "._cpRulesSupplier");
 
 }
\ No newline at end of file
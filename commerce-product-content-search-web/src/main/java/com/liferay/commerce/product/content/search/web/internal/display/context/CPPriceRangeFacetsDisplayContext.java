@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.content.search.web.internal.display.context;
+
+import com.liferay.commerce.product.content.search.web.internal.portlet.CPPriceRangeFacetsPortlet;
+import com.liferay.commerce.product.content.search.web.internal.util.CPPriceRangeFacetsUtil;
+import com.liferay.portal.kernel.search.facet.Facet;
+import com.liferay.portal.kernel.search.facet.collector.FacetCollector;
+import com.liferay.portal.kernel.search.facet.collector.TermCollector;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.search.web.portlet.shared.search.PortletSharedSearchResponse;
+
+import java.math.BigDecimal;
+
+import java.util.Optional;
+
+import javax.portlet.RenderRequest;
+
+/**
+ * @author Marco Leo
+ */
+public class CPPriceRangeFacetsDisplayContext {
+
+	public CPPriceRangeFacetsDisplayContext(
+		RenderRequest renderRequest, Facet facet, String[] ranges,
+		PortletSharedSearchResponse portletSharedSearchResponse) {
+
+		_renderRequest = renderRequest;
+		_facet = facet;
+		_ranges = ranges;
+		_portletSharedSearchResponse = portletSharedSearchResponse;
+	}
+
+	public Facet getFacet() {
+		return _facet;
+	}
+
+	public int getFrequency(String range) {
+		if (_facet == null) {
+			return 0;
+		}
+
+		FacetCollector facetCollector = _facet.getFacetCollector();
+
+		if (facetCollector == null) {
+			return 0;
+		}
+
+		TermCollector termCollector = facetCollector.getTermCollector(range);
+
+		if (termCollector == null) {
+			return 0;
+		}
+
+		return termCollector.getFrequency();
+	}
+
+	public String getLabel(String range) {
+		BigDecimal[] bounds = CPPriceRangeFacetsUtil.getBounds(range);
+
+		if (bounds == null) {
+			return range;
+		}
+
+		return bounds[0].toPlainString() + " - " + bounds[1].toPlainString();
+	}
+
+	public String[] getRanges() {
+		return _ranges;
+	}
+
+	public boolean isSelected(String range) {
+		Optional<String[]> parameterValuesOptional =
+			_portletSharedSearchResponse.getParameterValues(
+				CPPriceRangeFacetsPortlet.PARAMETER_NAME, _renderRequest);
+
+		if (parameterValuesOptional.isPresent()) {
+			String[] parameterValues = parameterValuesOptional.get();
+
+			return ArrayUtil.contains(parameterValues, range);
+		}
+
+		return false;
+	}
+
+	private final Facet _facet;
+	private final PortletSharedSearchResponse _portletSharedSearchResponse;
+	private final String[] _ranges;
+	private final RenderRequest _renderRequest;
+
+}
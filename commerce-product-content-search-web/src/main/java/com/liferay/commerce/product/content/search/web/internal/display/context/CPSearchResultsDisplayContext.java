@@ -14,6 +14,8 @@
 
 package com.liferay.commerce.product.content.search.web.internal.display.context;
 
+import com.liferay.commerce.price.CommerceProductPriceCalculation;
+import com.liferay.commerce.price.CommerceProductPriceRequestUtil;
 import com.liferay.commerce.product.catalog.CPCatalogEntry;
 import com.liferay.commerce.product.constants.CPPortletKeys;
 import com.liferay.commerce.product.content.render.list.CPContentListRenderer;
@@ -58,6 +60,7 @@ import javax.servlet.http.HttpServletRequest;
 public class CPSearchResultsDisplayContext {
 
 	public CPSearchResultsDisplayContext(
+			CommerceProductPriceCalculation commerceProductPriceCalculation,
 			CPContentListEntryRendererRegistry
 				cpContentListEntryRendererRegistry,
 			CPContentListRendererRegistry cpContentListRendererRegistry,
@@ -67,6 +70,7 @@ public class CPSearchResultsDisplayContext {
 			PortletSharedSearchResponse portletSharedSearchResponse)
 		throws ConfigurationException {
 
+		_commerceProductPriceCalculation = commerceProductPriceCalculation;
 		_cpContentListEntryRendererRegistry =
 			cpContentListEntryRendererRegistry;
 		_cpContentListRendererRegistry = cpContentListRendererRegistry;
@@ -143,6 +147,10 @@ public class CPSearchResultsDisplayContext {
 		List<CPCatalogEntry> cpCatalogEntries = getCPCatalogEntries(
 			_portletSharedSearchResponse.getDocuments());
 
+		CommerceProductPriceRequestUtil.prefetchCommerceProductPrices(
+			_httpServletRequest, _commerceProductPriceCalculation,
+			cpCatalogEntries);
+
 		return new CPDataSourceResult(
 			cpCatalogEntries, _portletSharedSearchResponse.getTotalHits());
 	}
@@ -317,6 +325,8 @@ public class CPSearchResultsDisplayContext {
 		return urlString;
 	}
 
+	private final CommerceProductPriceCalculation
+		_commerceProductPriceCalculation;
 	private final CPContentListEntryRendererRegistry
 		_cpContentListEntryRendererRegistry;
 	private final CPContentListRendererRegistry _cpContentListRendererRegistry;
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.content.search.web.internal.portlet;
+
+import com.liferay.commerce.constants.CommerceWebKeys;
+import com.liferay.commerce.context.CommerceContext;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.product.constants.CPField;
+import com.liferay.commerce.product.constants.CPPortletKeys;
+import com.liferay.commerce.product.content.search.web.internal.display.context.CPPriceRangeFacetsDisplayContext;
+import com.liferay.commerce.product.content.search.web.internal.util.CPPriceRangeFacetsUtil;
+import com.liferay.commerce.product.search.CPDefinitionIndexer;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.json.JSONArray;
+import com.liferay.portal.kernel.json.JSONFactoryUtil;
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.portlet.bridges.mvc.MVCPortlet;
+import com.liferay.portal.kernel.search.SearchContext;
+import com.liferay.portal.kernel.search.facet.Facet;
+import com.liferay.portal.kernel.search.facet.RangeFacet;
+import com.liferay.portal.kernel.search.facet.config.FacetConfiguration;
+import com.liferay.portal.kernel.util.Portal;
+import com.liferay.portal.kernel.util.WebKeys;
+import com.liferay.portal.search.web.portlet.shared.search.PortletSharedSearchContributor;
+import com.liferay.portal.search.web.portlet.shared.search.PortletSharedSearchRequest;
+import com.liferay.portal.search.web.portlet.shared.search.PortletSharedSearchResponse;
+import com.liferay.portal.search.web.portlet.shared.search.PortletSharedSearchSettings;
+
+import java.io.IOException;
+
+import java.math.BigDecimal;
+
+import java.util.Optional;
+
+import javax.portlet.Portlet;
+import javax.portlet.PortletException;
+import javax.portlet.PortletPreferences;
+import javax.portlet.PortletRequest;
+import javax.portlet.RenderRequest;
+import javax.portlet.RenderResponse;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Lets shoppers narrow the search results to products whose lowest price falls
+ * in a range. Both the counts and the filter use the prices stored in the
+ * product definition document, in the price list of the current commerce
+ * context when there is one, so that no price is resolved at query time.
+ *
+ * @author Marco Leo
+ */
+@Component(
+	property = {
+		"com.liferay.portlet.add-default-resource=true",
+		"com.liferay.portlet.css-class-wrapper=portlet-cp-price-range-facets",
+		"com.liferay.portlet.display-category=commerce",
+		"com.liferay.portlet.instanceable=true",
+		"com.liferay.portlet.layout-cacheable=true",
+		"com.liferay.portlet.preferences-owned-by-group=true",
+		"com.liferay.portlet.private-request-attributes=false",
+		"com.liferay.portlet.private-session-attributes=false",
+		"com.liferay.portlet.restore-current-view=false",
+		"com.liferay.portlet.use-default-template=true",
+		"javax.portlet.display-name=Price Range Facets",
+		"javax.portlet.expiration-cache=0",
+		"javax.portlet.init-param.template-path=/META-INF/resources/",
+		"javax.portlet.init-param.view-template=/price_range_facets/view.jsp",
+		"javax.portlet.name=" + CPPortletKeys.CP_PRICE_RANGE_FACETS,
+		"javax.portlet.resource-bundle=content.Language",
+		"javax.portlet.security-role-ref=guest,power-user,user",
+		"javax.portlet.supports.mime-type=text/html"
+	},
+	service = {Portlet.class, PortletSharedSearchContributor.class}
+)
+public class CPPriceRangeFacetsPortlet
+	extends MVCPortlet implements PortletSharedSearchContributor {
+
+	public static final String PARAMETER_NAME = "priceRange";
+
+	@Override
+	public void contribute(
+		PortletSharedSearchSettings portletSharedSearchSettings) {
+
+		RenderRequest renderRequest =
+			portletSharedSearchSettings.getRenderRequest();
+
+		try {
+			SearchContext searchContext =
+				portletSharedSearchSettings.getSearchContext();
+
+			long commercePriceListId = getCommercePriceListId(renderRequest);
+
+			portletSharedSearchSettings.addFacet(
+				getFacet(searchContext, commercePriceListId, renderRequest));
+
+			Optional<String[]> parameterValuesOptional =
+				portletSharedSearchSettings.getParameterValues(PARAMETER_NAME);
+
+			if (!parameterValuesOptional.isPresent()) {
+				return;
+			}
+
+			String[] parameterValues = parameterValuesOptional.get();
+
+			BigDecimal[] bounds = CPPriceRangeFacetsUtil.getBounds(
+				parameterValues[0]);
+
+			if (bounds == null) {
+				return;
+			}
+
+			searchContext.setAttribute(
+				CPDefinitionIndexer.ATTRIBUTE_COMMERCE_PRICE_LIST_ID,
+				commercePriceListId);
+			searchContext.setAttribute(
+				CPDefinitionIndexer.ATTRIBUTE_MAX_PRICE, bounds[1]);
+			searchContext.setAttribute(
+				CPDefinitionIndexer.ATTRIBUTE_MIN_PRICE, bounds[0]);
+		}
+		catch (Exception e) {
+			_log.error(e, e);
+		}
+	}
+
+	@Override
+	public void render(
+			RenderRequest renderRequest, RenderResponse renderResponse)
+		throws IOException, PortletException {
+
+		PortletSharedSearchResponse portletSharedSearchResponse =
+			portletSharedSearchRequest.search(renderRequest);
+
+		try {
+			Facet facet = portletSharedSearchResponse.getFacet(
+				getFieldName(getCommercePriceListId(renderRequest)));
+
+			CPPriceRangeFacetsDisplayContext cpPriceRangeFacetsDisplayContext =
+				new CPPriceRangeFacetsDisplayContext(
+					renderRequest, facet, getRanges(renderRequest),
+					portletSharedSearchResponse);
+
+			renderRequest.setAttribute(
+				WebKeys.PORTLET_DISPLAY_CONTEXT,
+				cpPriceRangeFacetsDisplayContext);
+		}
+		catch (Exception e) {
+			_log.error(e, e);
+		}
+
+		super.render(renderRequest, renderResponse);
+	}
+
+	protected long getCommercePriceListId(PortletRequest portletRequest)
+		throws PortalException {
+
+		HttpServletRequest httpServletRequest =
+			_portal.getHttpServletRequest(portletRequest);
+
+		CommerceContext commerceContext =
+			(CommerceContext)httpServletRequest.getAttribute(
+				CommerceWebKeys.COMMERCE_CONTEXT);
+
+		if (commerceContext == null) {
+			return 0;
+		}
+
+		Optional<CommercePriceList> commercePriceListOptional =
+			commerceContext.getCommercePriceList();
+
+		if (!commercePriceListOptional.isPresent()) {
+			return 0;
+		}
+
+		CommercePriceList commercePriceList = commercePriceListOptional.get();
+
+		return commercePriceList.getCommercePriceListId();
+	}
+
+	protected Facet getFacet(
+		SearchContext searchContext, long commercePriceListId,
+		PortletRequest portletRequest) {
+
+		String fieldName = getFieldName(commercePriceListId);
+
+		FacetConfiguration facetConfiguration = new FacetConfiguration();
+
+		facetConfiguration.setFieldName(fieldName);
+
+		JSONObject dataJSONObject = JSONFactoryUtil.createJSONObject();
+
+		JSONArray rangesJSONArray = JSONFactoryUtil.createJSONArray();
+
+		for (String range : getRanges(portletRequest)) {
+			JSONObject rangeJSONObject = JSONFactoryUtil.createJSONObject();
+
+			rangeJSONObject.put("label", range);
+			rangeJSONObject.put("range", range);
+
+			rangesJSONArray.put(rangeJSONObject);
+		}
+
+		dataJSONObject.put("ranges", rangesJSONArray);
+
+		facetConfiguration.setDataJSONObject(dataJSONObject);
+
+		RangeFacet rangeFacet = new RangeFacet(searchContext);
+
+		rangeFacet.setFacetConfiguration(facetConfiguration);
+		rangeFacet.setFieldName(fieldName);
+
+		return rangeFacet;
+	}
+
+	/**
+	 * Returns the name of the field holding the lowest price of the product,
+	 * in the primary currency of the price list if there is one.
+	 */
+	protected String getFieldName(long commercePriceListId) {
+		if (commercePriceListId > 0) {
+			return CPField.getPriceListPrimaryCurrencyFieldName(
+				commercePriceListId, CPField.MIN_PRICE);
+		}
+
+		return CPField.MIN_PRICE;
+	}
+
+	protected String[] getRanges(PortletRequest portletRequest) {
+		PortletPreferences portletPreferences = portletRequest.getPreferences();
+
+		String[] ranges = portletPreferences.getValues("ranges", _RANGES);
+
+		if ((ranges == null) || (ranges.length == 0)) {
+			return _RANGES;
+		}
+
+		return ranges;
+	}
+
+	@Reference
+	protected PortletSharedSearchRequest portletSharedSearchRequest;
+
+	private static final String[] _RANGES = {
+		"[0 TO 50]", "[50 TO 100]", "[100 TO 250]", "[250 TO 500]",
+		"[500 TO 1000]"
+	};
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CPPriceRangeFacetsPortlet.class);
+
+	@Reference
+	private Portal _portal;
+
+}
@@ -15,6 +15,7 @@
 package com.liferay.commerce.product.content.search.web.internal.portlet;
 
 import com.liferay.asset.kernel.model.AssetCategory;
+import com.liferay.commerce.price.CommerceProductPriceCalculation;
 import com.liferay.commerce.product.constants.CPPortletKeys;
 import com.liferay.commerce.product.content.constants.CPContentWebKeys;
 import com.liferay.commerce.product.content.render.list.CPContentListRendererRegistry;
@@ -120,6 +121,7 @@ public class CPSearchResultsPortlet
 		try {
 			CPSearchResultsDisplayContext cpSearchResultsDisplayContext =
 				new CPSearchResultsDisplayContext(
+					_commerceProductPriceCalculation,
 					_cpContentListEntryRendererRegistry,
 					_cpContentListRendererRegistry, _cpDefinitionHelper,
 					_cpTypeServicesTracker, httpServletRequest,
@@ -244,6 +246,9 @@ public class CPSearchResultsPortlet
 	private static final Log _log = LogFactoryUtil.getLog(
 		CPSearchResultsPortlet.class);
 
+	@Reference
+	private CommerceProductPriceCalculation _commerceProductPriceCalculation;
+
 	@Reference
 	private CPContentHelper _cpContentHelper;
 
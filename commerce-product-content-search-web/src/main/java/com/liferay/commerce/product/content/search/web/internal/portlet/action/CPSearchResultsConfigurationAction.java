@@ -14,6 +14,7 @@
 
 package com.liferay.commerce.product.content.search.web.internal.portlet.action;
 
+import com.liferay.commerce.price.CommerceProductPriceCalculation;
 import com.liferay.commerce.product.constants.CPPortletKeys;
 import com.liferay.commerce.product.content.render.list.CPContentListRendererRegistry;
 import com.liferay.commerce.product.content.render.list.entry.CPContentListEntryRendererRegistry;
@@ -61,6 +62,7 @@ public class CPSearchResultsConfigurationAction
 		try {
 			CPSearchResultsDisplayContext cpSearchResultsDisplayContext =
 				new CPSearchResultsDisplayContext(
+					_commerceProductPriceCalculation,
 					_cpContentListEntryRendererRegistry,
 					_cpContentListRendererRegistry, _cpDefinitionHelper,
 					_cpTypeServicesTracker, httpServletRequest,
@@ -88,6 +90,9 @@ public class CPSearchResultsConfigurationAction
 	private static final Log _log = LogFactoryUtil.getLog(
 		CPSearchResultsConfigurationAction.class);
 
+	@Reference
+	private CommerceProductPriceCalculation _commerceProductPriceCalculation;
+
 	@Reference
 	private CPContentListEntryRendererRegistry
 		_cpContentListEntryRendererRegistry;
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.content.search.web.internal.util;
+
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.math.BigDecimal;
+
+/**
+ * @author Marco Leo
+ */
+public class CPPriceRangeFacetsUtil {
+
+	/**
+	 * Returns the lower and the upper bound of a range in the
+	 * <code>[lower TO upper]</code> syntax, or <code>null</code> if the range
+	 * is not valid.
+	 */
+	public static BigDecimal[] getBounds(String range) {
+		if (Validator.isNull(range) || !range.startsWith("[") ||
+			!range.endsWith("]")) {
+
+			return null;
+		}
+
+		String[] bounds = StringUtil.split(
+			range.substring(1, range.length() - 1), " TO ");
+
+		if (bounds.length != 2) {
+			return null;
+		}
+
+		try {
+			return new BigDecimal[] {
+				new BigDecimal(bounds[0].trim()),
+				new BigDecimal(bounds[1].trim())
+			};
+		}
+		catch (NumberFormatException nfe) {
+			return null;
+		}
+	}
+
+}
@@ -33,8 +33,10 @@ page import="com.liferay.commerce.product.content.render.list.CPContentListRende
 page import="com.liferay.commerce.product.content.render.list.entry.CPContentListEntryRenderer" %><%@
 page import="com.liferay.commerce.product.content.search.web.internal.constants.CPSearchResultsConstants" %><%@
 page import="com.liferay.commerce.product.content.search.web.internal.display.context.CPOptionFacetsDisplayContext" %><%@
+page import="com.liferay.commerce.product.content.search.web.internal.display.context.CPPriceRangeFacetsDisplayContext" %><%@
 page import="com.liferay.commerce.product.content.search.web.internal.display.context.CPSearchResultsDisplayContext" %><%@
 page import="com.liferay.commerce.product.content.search.web.internal.display.context.CPSpecificationOptionFacetsDisplayContext" %><%@
+page import="com.liferay.commerce.product.content.search.web.internal.portlet.CPPriceRangeFacetsPortlet" %><%@
 page import="com.liferay.commerce.product.content.search.web.internal.portlet.CPSearchResultsPortlet" %><%@
 page import="com.liferay.commerce.product.data.source.CPDataSourceResult" %><%@
 page import="com.liferay.commerce.product.type.CPType" %><%@
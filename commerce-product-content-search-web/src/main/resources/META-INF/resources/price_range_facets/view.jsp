@@ -0,0 +1,86 @@
+<%--
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+--%>
+
+<%@ include file="/init.jsp" %>
+
+<style>
+	.facet-checkbox-label {
+		display: block;
+	}
+</style>
+
+<%
+CPPriceRangeFacetsDisplayContext cpPriceRangeFacetsDisplayContext = (CPPriceRangeFacetsDisplayContext)request.getAttribute(WebKeys.PORTLET_DISPLAY_CONTEXT);
+
+String[] ranges = cpPriceRangeFacetsDisplayContext.getRanges();
+%>
+
+<liferay-ui:panel-container
+	extended="<%= true %>"
+	markupView="lexicon"
+	persistState="<%= true %>"
+>
+	<liferay-ui:panel
+		collapsible="<%= true %>"
+		cssClass="search-facet"
+		markupView="lexicon"
+		persistState="<%= true %>"
+		title="price-range"
+	>
+		<aui:form method="post" name="priceRangeFacetForm">
+			<aui:input cssClass="facet-parameter-name" name="facet-parameter-name" type="hidden" value="<%= CPPriceRangeFacetsPortlet.PARAMETER_NAME %>" />
+
+			<aui:fieldset>
+				<ul class="list-unstyled">
+
+				<%
+				for (int i = 0; i < ranges.length; i++) {
+					String range = ranges[i];
+				%>
+
+					<li class="facet-value">
+						<label class="facet-checkbox-label" for="<portlet:namespace />term_<%= i %>">
+							<input
+								class="facet-term"
+								data-term-id="<%= HtmlUtil.escapeAttribute(range) %>"
+								id="<portlet:namespace />term_<%= i %>"
+								name="<portlet:namespace />term_<%= i %>"
+								onChange="Liferay.Search.FacetUtil.changeSelection(event);"
+								type="checkbox"
+								<%= cpPriceRangeFacetsDisplayContext.isSelected(range) ? "checked" : "" %>
+							/>
+
+							<span class="term-name">
+								<%= HtmlUtil.escape(cpPriceRangeFacetsDisplayContext.getLabel(range)) %>
+							</span>
+
+							<small class="term-count">
+								(<%= cpPriceRangeFacetsDisplayContext.getFrequency(range) %>)
+							</small>
+						</label>
+					</li>
+
+				<%
+				}
+				%>
+
+				</ul>
+			</aui:fieldset>
+		</aui:form>
+	</liferay-ui:panel>
+</liferay-ui:panel-container>
+
+<aui:script use="liferay-search-facet-util"></aui:script>
@@ -14,6 +14,8 @@
 
 package com.liferay.commerce.product.content.web.internal.display.context;
 
+import com.liferay.commerce.price.CommerceProductPriceCalculation;
+import com.liferay.commerce.price.CommerceProductPriceRequestUtil;
 import com.liferay.commerce.product.catalog.CPCatalogEntry;
 import com.liferay.commerce.product.catalog.CPQuery;
 import com.liferay.commerce.product.content.render.list.CPContentListRendererRegistry;
@@ -53,6 +55,7 @@ import javax.servlet.http.HttpServletRequest;
 public class CPPublisherDisplayContext extends BaseCPPublisherDisplayContext {
 
 	public CPPublisherDisplayContext(
+			CommerceProductPriceCalculation commerceProductPriceCalculation,
 			CPContentListEntryRendererRegistry contentListEntryRendererRegistry,
 			CPContentListRendererRegistry cpContentListRendererRegistry,
 			CPDataSourceRegistry cpDataSourceRegistry,
@@ -66,6 +69,7 @@ public class CPPublisherDisplayContext extends BaseCPPublisherDisplayContext {
 			contentListEntryRendererRegistry, cpContentListRendererRegistry,
 			cpPublisherWebHelper, cpTypeServicesTracker, httpServletRequest);
 
+		_commerceProductPriceCalculation = commerceProductPriceCalculation;
 		_cpDataSourceRegistry = cpDataSourceRegistry;
 		_cpDefinitionHelper = cpDefinitionHelper;
 	}
@@ -123,6 +127,13 @@ public class CPPublisherDisplayContext extends BaseCPPublisherDisplayContext {
 				results, catalogEntries.size());
 		}
 
+		if (cpDataSourceResult != null) {
+			CommerceProductPriceRequestUtil.prefetchCommerceProductPrices(
+				cpContentRequestHelper.getRequest(),
+				_commerceProductPriceCalculation,
+				cpDataSourceResult.getCPCatalogEntries());
+		}
+
 		return cpDataSourceResult;
 	}
 
@@ -205,6 +216,8 @@ public class CPPublisherDisplayContext extends BaseCPPublisherDisplayContext {
 		return cpDataSourceResult;
 	}
 
+	private final CommerceProductPriceCalculation
+		_commerceProductPriceCalculation;
 	private final CPDataSourceRegistry _cpDataSourceRegistry;
 	private final CPDefinitionHelper _cpDefinitionHelper;
 	private SearchContainer<CPCatalogEntry> _searchContainer;
@@ -14,6 +14,7 @@
 
 package com.liferay.commerce.product.content.web.internal.portlet;
 
+import com.liferay.commerce.price.CommerceProductPriceCalculation;
 import com.liferay.commerce.product.constants.CPPortletKeys;
 import com.liferay.commerce.product.content.render.list.CPContentListRendererRegistry;
 import com.liferay.commerce.product.content.render.list.entry.CPContentListEntryRendererRegistry;
@@ -81,6 +82,7 @@ public class CPPublisherPortlet extends MVCPortlet {
 
 			CPPublisherDisplayContext cpPublisherDisplayContext =
 				new CPPublisherDisplayContext(
+					_commerceProductPriceCalculation,
 					_cpContentListEntryRendererRegistry,
 					_cpContentListRendererRegistry, _cpDataSourceRegistry,
 					_cpDefinitionHelper, _cpPublisherWebHelper,
@@ -99,6 +101,9 @@ public class CPPublisherPortlet extends MVCPortlet {
 	private static final Log _log = LogFactoryUtil.getLog(
 		CPPublisherPortlet.class);
 
+	@Reference
+	private CommerceProductPriceCalculation _commerceProductPriceCalculation;
+
 	@Reference
 	private CPContentListEntryRendererRegistry
 		_cpContentListEntryRendererRegistry;
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.definitions.web.internal.background.task;
+
+import com.liferay.portal.kernel.backgroundtask.BackgroundTask;
+import com.liferay.portal.kernel.backgroundtask.display.BaseBackgroundTaskDisplay;
+import com.liferay.portal.kernel.template.TemplateResource;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Reports the share of the SKU combinations processed so far, as sent by the
+ * SKU build through the background task status.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CPInstancesBuilderBackgroundTaskDisplay
+	extends BaseBackgroundTaskDisplay {
+
+	public CPInstancesBuilderBackgroundTaskDisplay(
+		BackgroundTask backgroundTask) {
+
+		super(backgroundTask);
+	}
+
+	@Override
+	public int getPercentage() {
+		if (!hasBackgroundTaskStatus()) {
+			return PERCENTAGE_NONE;
+		}
+
+		long totalCount = getBackgroundTaskStatusAttributeLong("totalCount");
+
+		if (totalCount <= 0) {
+			return PERCENTAGE_NONE;
+		}
+
+		long count = getBackgroundTaskStatusAttributeLong("count");
+
+		return (int)Math.min(
+			(count * PERCENTAGE_MAX) / totalCount, PERCENTAGE_MAX);
+	}
+
+	@Override
+	protected TemplateResource getTemplateResource() {
+		return null;
+	}
+
+	@Override
+	protected Map<String, Object> getTemplateVars() {
+		return Collections.emptyMap();
+	}
+
+}
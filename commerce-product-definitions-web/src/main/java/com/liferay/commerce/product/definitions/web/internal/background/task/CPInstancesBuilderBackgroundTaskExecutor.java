@@ -0,0 +1,91 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.definitions.web.internal.background.task;
+
+import com.liferay.commerce.product.service.CPInstanceService;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTask;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskResult;
+import com.liferay.portal.kernel.backgroundtask.BaseBackgroundTaskExecutor;
+import com.liferay.portal.kernel.backgroundtask.display.BackgroundTaskDisplay;
+import com.liferay.portal.kernel.service.ServiceContext;
+import com.liferay.portal.kernel.util.GetterUtil;
+
+import java.io.Serializable;
+
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Generates the SKUs of every combination of a product definition's SKU
+ * contributor options outside the request that asked for them, reporting the
+ * number of combinations processed so far.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(
+	immediate = true,
+	property = "background.task.executor.class.name=com.liferay.commerce.product.definitions.web.internal.background.task.CPInstancesBuilderBackgroundTaskExecutor",
+	service = BackgroundTaskExecutor.class
+)
+public class CPInstancesBuilderBackgroundTaskExecutor
+	extends BaseBackgroundTaskExecutor {
+
+	public CPInstancesBuilderBackgroundTaskExecutor() {
+		setBackgroundTaskStatusMessageTranslator(
+			new CPInstancesBuilderBackgroundTaskStatusMessageTranslator());
+		setSerial(true);
+	}
+
+	@Override
+	public BackgroundTaskExecutor clone() {
+		return this;
+	}
+
+	@Override
+	public BackgroundTaskResult execute(BackgroundTask backgroundTask)
+		throws Exception {
+
+		Map<String, Serializable> taskContextMap =
+			backgroundTask.getTaskContextMap();
+
+		ServiceContext serviceContext = new ServiceContext();
+
+		serviceContext.setCompanyId(backgroundTask.getCompanyId());
+		serviceContext.setLanguageId(
+			GetterUtil.getString(taskContextMap.get("languageId")));
+		serviceContext.setScopeGroupId(backgroundTask.getGroupId());
+		serviceContext.setUserId(backgroundTask.getUserId());
+
+		_cpInstanceService.buildCPInstances(
+			GetterUtil.getLong(taskContextMap.get("cpDefinitionId")),
+			serviceContext);
+
+		return BackgroundTaskResult.SUCCESS;
+	}
+
+	@Override
+	public BackgroundTaskDisplay getBackgroundTaskDisplay(
+		BackgroundTask backgroundTask) {
+
+		return new CPInstancesBuilderBackgroundTaskDisplay(backgroundTask);
+	}
+
+	@Reference
+	private CPInstanceService _cpInstanceService;
+
+}
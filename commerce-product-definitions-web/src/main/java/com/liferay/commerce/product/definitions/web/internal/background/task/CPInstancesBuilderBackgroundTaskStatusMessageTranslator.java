@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.definitions.web.internal.background.task;
+
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatus;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatusMessageTranslator;
+import com.liferay.portal.kernel.messaging.Message;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+public class CPInstancesBuilderBackgroundTaskStatusMessageTranslator
+	implements BackgroundTaskStatusMessageTranslator {
+
+	@Override
+	public void translate(
+		BackgroundTaskStatus backgroundTaskStatus, Message message) {
+
+		backgroundTaskStatus.setAttribute("count", message.getLong("count"));
+		backgroundTaskStatus.setAttribute(
+			"totalCount", message.getLong("totalCount"));
+	}
+
+}
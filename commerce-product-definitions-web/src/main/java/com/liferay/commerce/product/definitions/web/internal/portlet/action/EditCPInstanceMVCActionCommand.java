@@ -15,13 +15,18 @@
 package com.liferay.commerce.product.definitions.web.internal.portlet.action;
 
 import com.liferay.commerce.product.constants.CPPortletKeys;
+import com.liferay.commerce.product.definitions.web.internal.background.task.CPInstancesBuilderBackgroundTaskExecutor;
 import com.liferay.commerce.product.exception.CPDefinitionIgnoreSKUCombinationsException;
 import com.liferay.commerce.product.exception.CPInstanceJsonException;
 import com.liferay.commerce.product.exception.CPInstanceSkuException;
 import com.liferay.commerce.product.exception.NoSuchSkuContributorCPDefinitionOptionRelException;
 import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CPDefinitionOptionRel;
 import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.service.CPDefinitionOptionRelService;
+import com.liferay.commerce.product.service.CPDefinitionOptionValueRelService;
 import com.liferay.commerce.product.service.CPInstanceService;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskManager;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.portlet.PortletProvider;
 import com.liferay.portal.kernel.portlet.PortletProviderUtil;
@@ -38,9 +43,14 @@ import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.UnicodeProperties;
 import com.liferay.portal.kernel.util.WebKeys;
 
+import java.io.Serializable;
+
 import java.math.BigDecimal;
 
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import javax.portlet.ActionRequest;
 import javax.portlet.ActionResponse;
@@ -72,7 +82,27 @@ public class EditCPInstanceMVCActionCommand extends BaseMVCActionCommand {
 		ServiceContext serviceContext = ServiceContextFactory.getInstance(
 			CPInstance.class.getName(), actionRequest);
 
-		_cpInstanceService.buildCPInstances(cpDefinitionId, serviceContext);
+		if (_getCombinationsCount(cpDefinitionId) <=
+				_BUILD_CP_INSTANCES_SYNCHRONOUSLY_MAX_COUNT) {
+
+			_cpInstanceService.buildCPInstances(cpDefinitionId, serviceContext);
+
+			return;
+		}
+
+		ThemeDisplay themeDisplay = (ThemeDisplay)actionRequest.getAttribute(
+			WebKeys.THEME_DISPLAY);
+
+		Map<String, Serializable> taskContextMap = new HashMap<>();
+
+		taskContextMap.put("cpDefinitionId", cpDefinitionId);
+		taskContextMap.put("languageId", themeDisplay.getLanguageId());
+
+		_backgroundTaskManager.addBackgroundTask(
+			themeDisplay.getUserId(), themeDisplay.getScopeGroupId(),
+			CPInstance.class.getName(),
+			CPInstancesBuilderBackgroundTaskExecutor.class.getName(),
+			taskContextMap, serviceContext);
 	}
 
 	protected void deleteCPInstances(ActionRequest actionRequest)
@@ -319,6 +349,43 @@ public class EditCPInstanceMVCActionCommand extends BaseMVCActionCommand {
 			serviceContext);
 	}
 
+	private long _getCombinationsCount(long cpDefinitionId)
+		throws PortalException {
+
+		List<CPDefinitionOptionRel> cpDefinitionOptionRels =
+			_cpDefinitionOptionRelService.getCPDefinitionOptionRels(
+				cpDefinitionId, true);
+
+		if (cpDefinitionOptionRels.isEmpty()) {
+			return 0;
+		}
+
+		long count = 1;
+
+		for (CPDefinitionOptionRel cpDefinitionOptionRel :
+				cpDefinitionOptionRels) {
+
+			count *= _cpDefinitionOptionValueRelService.
+				getCPDefinitionOptionValueRelsCount(
+					cpDefinitionOptionRel.getCPDefinitionOptionRelId());
+		}
+
+		return count;
+	}
+
+	private static final long _BUILD_CP_INSTANCES_SYNCHRONOUSLY_MAX_COUNT =
+		1000;
+
+	@Reference
+	private BackgroundTaskManager _backgroundTaskManager;
+
+	@Reference
+	private CPDefinitionOptionRelService _cpDefinitionOptionRelService;
+
+	@Reference
+	private CPDefinitionOptionValueRelService
+		_cpDefinitionOptionValueRelService;
+
 	@Reference
 	private CPInstanceService _cpInstanceService;
 
@@ -0,0 +1,329 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.internal.cache;
+
+import com.liferay.commerce.product.model.CPDefinitionOptionRel;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.service.CPDefinitionOptionRelLocalService;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.json.JSONArray;
+import com.liferay.portal.kernel.json.JSONFactory;
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.io.Serializable;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Maps, for each product definition, every combination of SKU contributor
+ * option values to the approved and published SKU that has it, so that the
+ * product configurator can resolve the selected SKU without querying the
+ * search index. Entries are keyed by the product definition and a token of
+ * the product definition that each cluster node generates locally. When the
+ * SKUs or SKU contributor options of the product definition change, the token
+ * is removed once the transaction commits, so that an entry built from data
+ * read before that commit is never read again.
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CPInstanceOptionCombinationCache.class)
+public class CPInstanceOptionCombinationCache {
+
+	public static final String CACHE_NAME =
+		CPInstanceOptionCombinationCache.class.getName();
+
+	/**
+	 * Returns the ID of the only SKU having all the option values in the
+	 * serialized DDM form values, or <code>0</code> if no SKU or more than one
+	 * SKU has them. Complete selections are resolved with a single lookup,
+	 * partial ones by scanning the SKUs of the product definition.
+	 */
+	public long getCPInstanceId(
+			long cpDefinitionId, String serializedDDMFormValues)
+		throws PortalException {
+
+		CPDefinitionCacheEntry cpDefinitionCacheEntry =
+			_getCPDefinitionCacheEntry(cpDefinitionId);
+
+		if (Validator.isNull(serializedDDMFormValues)) {
+			serializedDDMFormValues = "[]";
+		}
+
+		JSONArray jsonArray = _jsonFactory.createJSONArray(
+			serializedDDMFormValues);
+
+		Map<Long, Long> optionValues = new TreeMap<>();
+
+		Set<Long> skuContributorCPDefinitionOptionRelIds =
+			cpDefinitionCacheEntry._skuContributorCPDefinitionOptionRelIds;
+
+		for (int i = 0; i < jsonArray.length(); i++) {
+			JSONObject jsonObject = jsonArray.getJSONObject(i);
+
+			long cpDefinitionOptionRelId = jsonObject.getLong("key");
+
+			if (!skuContributorCPDefinitionOptionRelIds.contains(
+					cpDefinitionOptionRelId)) {
+
+				continue;
+			}
+
+			JSONArray valuesJSONArray = _jsonFactory.createJSONArray(
+				jsonObject.getString("value"));
+
+			if (valuesJSONArray.length() == 0) {
+				continue;
+			}
+
+			optionValues.put(
+				cpDefinitionOptionRelId,
+				GetterUtil.getLong(valuesJSONArray.getString(0)));
+		}
+
+		Long cpInstanceId = cpDefinitionCacheEntry._cpInstanceIds.get(
+			_getKey(optionValues));
+
+		if (cpInstanceId != null) {
+			return cpInstanceId;
+		}
+
+		long matchingCPInstanceId = 0;
+
+		Set<Map.Entry<Long, Long>> optionValueEntries = optionValues.entrySet();
+
+		Map<Long, Map<Long, Long>> cpInstanceOptionValuesMap =
+			cpDefinitionCacheEntry._cpInstanceOptionValues;
+
+		for (Map.Entry<Long, Map<Long, Long>> entry :
+				cpInstanceOptionValuesMap.entrySet()) {
+
+			Map<Long, Long> cpInstanceOptionValues = entry.getValue();
+
+			Set<Map.Entry<Long, Long>> cpInstanceOptionValueEntries =
+				cpInstanceOptionValues.entrySet();
+
+			if (!cpInstanceOptionValueEntries.containsAll(optionValueEntries)) {
+
+				continue;
+			}
+
+			if (matchingCPInstanceId > 0) {
+				return 0;
+			}
+
+			matchingCPInstanceId = entry.getKey();
+		}
+
+		return matchingCPInstanceId;
+	}
+
+	public void invalidate(long cpDefinitionId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.remove(cpDefinitionId);
+
+				return null;
+			});
+	}
+
+	private CPDefinitionCacheEntry _getCPDefinitionCacheEntry(
+			long cpDefinitionId)
+		throws PortalException {
+
+		String key = _getKey(cpDefinitionId);
+
+		CPDefinitionCacheEntry cpDefinitionCacheEntry = _portalCache.get(key);
+
+		if (cpDefinitionCacheEntry != null) {
+			return cpDefinitionCacheEntry;
+		}
+
+		Map<String, Long> cpInstanceIds = new HashMap<>();
+		Map<Long, Map<Long, Long>> cpInstanceOptionValues =
+			new LinkedHashMap<>();
+		Set<Long> skuContributorCPDefinitionOptionRelIds = new HashSet<>();
+
+		List<CPDefinitionOptionRel> cpDefinitionOptionRels =
+			_cpDefinitionOptionRelLocalService.getCPDefinitionOptionRels(
+				cpDefinitionId, true);
+
+		for (CPDefinitionOptionRel cpDefinitionOptionRel :
+				cpDefinitionOptionRels) {
+
+			skuContributorCPDefinitionOptionRelIds.add(
+				cpDefinitionOptionRel.getCPDefinitionOptionRelId());
+		}
+
+		List<CPInstance> cpInstances =
+			_cpInstanceLocalService.getCPDefinitionInstances(
+				cpDefinitionId, WorkflowConstants.STATUS_APPROVED,
+				QueryUtil.ALL_POS, QueryUtil.ALL_POS, null);
+
+		for (CPInstance cpInstance : cpInstances) {
+			if (!cpInstance.isPublished()) {
+				continue;
+			}
+
+			Map<Long, Long> optionValues = _getOptionValues(
+				cpInstance.getJson(), skuContributorCPDefinitionOptionRelIds);
+
+			cpInstanceOptionValues.put(
+				cpInstance.getCPInstanceId(), optionValues);
+
+			String key = _getKey(optionValues);
+
+			if (cpInstanceIds.containsKey(key)) {
+				cpInstanceIds.put(key, 0L);
+			}
+			else {
+				cpInstanceIds.put(key, cpInstance.getCPInstanceId());
+			}
+		}
+
+		cpDefinitionCacheEntry = new CPDefinitionCacheEntry(
+			cpInstanceIds, cpInstanceOptionValues,
+			skuContributorCPDefinitionOptionRelIds);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, key, cpDefinitionCacheEntry);
+
+		return cpDefinitionCacheEntry;
+	}
+
+	private String _getGeneration(long cpDefinitionId) {
+		String generation = _generationsPortalCache.get(cpDefinitionId);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_generationsPortalCache, cpDefinitionId, generation);
+		}
+
+		return generation;
+	}
+
+	private String _getKey(long cpDefinitionId) {
+		return _getGeneration(cpDefinitionId) + StringPool.POUND +
+			cpDefinitionId;
+	}
+
+	private String _getKey(Map<Long, Long> optionValues) {
+		StringBundler sb = new StringBundler(optionValues.size() * 4);
+
+		for (Map.Entry<Long, Long> entry : optionValues.entrySet()) {
+			sb.append(entry.getKey());
+			sb.append(StringPool.EQUAL);
+			sb.append(entry.getValue());
+			sb.append(StringPool.SEMICOLON);
+		}
+
+		return sb.toString();
+	}
+
+	private Map<Long, Long> _getOptionValues(
+			String json, Set<Long> skuContributorCPDefinitionOptionRelIds)
+		throws PortalException {
+
+		Map<Long, Long> optionValues = new TreeMap<>();
+
+		if (Validator.isNull(json)) {
+			return optionValues;
+		}
+
+		JSONArray jsonArray = _jsonFactory.createJSONArray(json);
+
+		for (int i = 0; i < jsonArray.length(); i++) {
+			JSONObject jsonObject = jsonArray.getJSONObject(i);
+
+			long cpDefinitionOptionRelId = jsonObject.getLong("key");
+
+			JSONArray valueJSONArray = jsonObject.getJSONArray("value");
+
+			if (!skuContributorCPDefinitionOptionRelIds.contains(
+					cpDefinitionOptionRelId) ||
+				(valueJSONArray == null) || (valueJSONArray.length() == 0)) {
+
+				continue;
+			}
+
+			optionValues.put(
+				cpDefinitionOptionRelId,
+				GetterUtil.getLong(valueJSONArray.getString(0)));
+		}
+
+		return optionValues;
+	}
+
+	private static final PortalCache<Long, String> _generationsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".generations");
+	private static final PortalCache<String, CPDefinitionCacheEntry>
+		_portalCache = PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CPDefinitionOptionRelLocalService
+		_cpDefinitionOptionRelLocalService;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
+	@Reference
+	private JSONFactory _jsonFactory;
+
+	private static class CPDefinitionCacheEntry implements Serializable {
+
+		private CPDefinitionCacheEntry(
+			Map<String, Long> cpInstanceIds,
+			Map<Long, Map<Long, Long>> cpInstanceOptionValues,
+			Set<Long> skuContributorCPDefinitionOptionRelIds) {
+
+			_cpInstanceIds = cpInstanceIds;
+			_cpInstanceOptionValues = cpInstanceOptionValues;
+			_skuContributorCPDefinitionOptionRelIds =
+				skuContributorCPDefinitionOptionRelIds;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final Map<String, Long> _cpInstanceIds;
+		private final Map<Long, Map<Long, Long>> _cpInstanceOptionValues;
+		private final Set<Long> _skuContributorCPDefinitionOptionRelIds;
+
+	}
+
+}
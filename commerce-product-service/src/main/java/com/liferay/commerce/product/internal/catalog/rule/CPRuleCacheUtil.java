@@ -58,9 +58,11 @@ public class CPRuleCacheUtil {
 
 		PortalCacheHelperUtil.putWithoutReplicator(
 			_accountGroupCPRuleIdsKeyPortalCache, accountGroupCPRuleIdsKey,
-			commerceUserSegmentEntryIds);
+			commerceUserSegmentEntryIds, _TIME_TO_LIVE);
 	}
 
+	private static final int _TIME_TO_LIVE = 300;
+
 	private static final PortalCache<AccountGroupCPRuleIdsKey, long[]>
 		_accountGroupCPRuleIdsKeyPortalCache =
 			PortalCacheHelperUtil.getPortalCache(
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.internal.catalog.rule;
+
+import com.liferay.commerce.product.catalog.rule.CPRuleType;
+import com.liferay.commerce.product.catalog.rule.CPRuleTypeRegistry;
+import com.liferay.commerce.product.model.CPRule;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.search.filter.BooleanFilter;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps, for each group, the filters compiled from every combination of
+ * commerce product rules that applied to a catalog search, so that searches
+ * do not need to read the rules' type settings and asset category rels
+ * again.
+ *
+ * <p>
+ * Every filter is a value of its own, keyed by the group, the rules and a
+ * token of the group that each cluster node generates locally. When the rule
+ * model listeners invalidate a group, its token is removed once the
+ * transaction commits and only that removal is replicated, so the group's
+ * filters are no longer read and are eventually evicted. The token is taken
+ * before the rules are read, so a filter compiled from data read before a
+ * commit is stored under the token that the commit removed.
+ * </p>
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CPRulesFilterCache.class)
+public class CPRulesFilterCache {
+
+	public static final String CACHE_NAME = CPRulesFilterCache.class.getName();
+
+	/**
+	 * Returns the filter that products must match to be visible under the
+	 * rules. The returned filter is shared and must not be modified.
+	 */
+	public BooleanFilter getBooleanFilter(long groupId, List<CPRule> cpRules)
+		throws PortalException {
+
+		Stream<CPRule> stream = cpRules.stream();
+
+		LongStream longStream = stream.mapToLong(CPRule::getCPRuleId);
+
+		String key =
+			_getGeneration(groupId) + StringPool.POUND + groupId +
+				StringPool.POUND +
+					StringUtil.merge(longStream.sorted().toArray());
+
+		BooleanFilter booleanFilter = _portalCache.get(key);
+
+		if (booleanFilter != null) {
+			return booleanFilter;
+		}
+
+		booleanFilter = new BooleanFilter();
+
+		for (CPRule cpRule : cpRules) {
+			CPRuleType cpRuleType = _cpRuleTypeRegistry.getCPRuleType(
+				cpRule.getType());
+
+			cpRuleType.postProcessContextBooleanFilter(booleanFilter, cpRule);
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, key, booleanFilter);
+
+		return booleanFilter;
+	}
+
+	public void invalidate(long groupId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.remove(groupId);
+
+				return null;
+			});
+	}
+
+	private String _getGeneration(long groupId) {
+		String generation = _generationsPortalCache.get(groupId);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_generationsPortalCache, groupId, generation);
+		}
+
+		return generation;
+	}
+
+	private static final PortalCache<Long, String> _generationsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".generations");
+	private static final PortalCache<String, BooleanFilter> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CPRuleTypeRegistry _cpRuleTypeRegistry;
+
+}
@@ -17,15 +17,17 @@ package com.liferay.commerce.product.internal.events;
 import com.liferay.commerce.account.model.CommerceAccount;
 import com.liferay.commerce.account.util.CommerceAccountHelper;
 import com.liferay.commerce.product.catalog.rule.CPRuleHelper;
+import com.liferay.commerce.product.model.CPRule;
 import com.liferay.commerce.product.util.CPRulesThreadLocal;
 import com.liferay.portal.kernel.events.Action;
-import com.liferay.portal.kernel.events.ActionException;
 import com.liferay.portal.kernel.events.LifecycleAction;
 import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.util.ParamUtil;
 import com.liferay.portal.kernel.util.Portal;
 
 import java.util.Collections;
+import java.util.List;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -34,6 +36,14 @@ import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
 
 /**
+ * Registers, for each request, how to compute its commerce product rules.
+ * They are only resolved when something reads them from {@link
+ * CPRulesThreadLocal}, so requests that never touch the catalog do not pay
+ * for the user segment and rule lookups. If they cannot be resolved, the
+ * request fails when it first reads them, since no rules would show restricted
+ * products. {@link CPRulesPostAction} discards them once the request is
+ * processed.
+ *
  * @author Andrea Di Giorgi
  */
 @Component(
@@ -46,41 +56,47 @@ public class CPRulesPreAction extends Action {
 
 	@Override
 	public void run(
-			HttpServletRequest httpServletRequest,
-			HttpServletResponse httpServletResponse)
-		throws ActionException {
+		HttpServletRequest httpServletRequest,
+		HttpServletResponse httpServletResponse) {
 
-		try {
-			long groupId = ParamUtil.getLong(httpServletRequest, "groupId", -1);
+		CPRulesThreadLocal.setCPRulesSupplier(
+			() -> {
+				try {
+					return _getCPRules(httpServletRequest);
+				}
+				catch (PortalException pe) {
+					throw new SystemException(
+						"Unable to initialize product rules", pe);
+				}
+			});
+	}
 
-			if (groupId == -1) {
-				groupId = _portal.getScopeGroupId(httpServletRequest);
-			}
+	private List<CPRule> _getCPRules(HttpServletRequest httpServletRequest)
+		throws PortalException {
 
-			long commerceAccountId = ParamUtil.getLong(
-				httpServletRequest, "commerceAccountId", -99);
+		long groupId = ParamUtil.getLong(httpServletRequest, "groupId", -1);
 
-			if (commerceAccountId == -99) {
-				CommerceAccount commerceAccount =
-					_commerceAccountHelper.getCurrentCommerceAccount(
-						groupId, httpServletRequest);
+		if (groupId == -1) {
+			groupId = _portal.getScopeGroupId(httpServletRequest);
+		}
 
-				if (commerceAccount == null) {
-					CPRulesThreadLocal.setCPRules(Collections.emptyList());
+		long commerceAccountId = ParamUtil.getLong(
+			httpServletRequest, "commerceAccountId", -99);
 
-					return;
-				}
+		if (commerceAccountId == -99) {
+			CommerceAccount commerceAccount =
+				_commerceAccountHelper.getCurrentCommerceAccount(
+					groupId, httpServletRequest);
 
-				commerceAccountId = commerceAccount.getCommerceAccountId();
+			if (commerceAccount == null) {
+				return Collections.emptyList();
 			}
 
-			_cpRuleHelper.initializeCPRules(
-				_portal.getUserId(httpServletRequest), commerceAccountId,
-				groupId);
-		}
-		catch (PortalException pe) {
-			throw new ActionException(pe);
+			commerceAccountId = commerceAccount.getCommerceAccountId();
 		}
+
+		return _cpRuleHelper.initializeCPRules(
+			_portal.getUserId(httpServletRequest), commerceAccountId, groupId);
 	}
 
 	@Reference
@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.internal.model.listener;
+
+import com.liferay.commerce.product.internal.cache.CPInstanceOptionCombinationCache;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.util.CPInstanceBuildThreadLocal;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CPInstanceModelListener extends BaseModelListener<CPInstance> {
+
+	@Override
+	public void onAfterCreate(CPInstance cpInstance) {
+		if (CPInstanceBuildThreadLocal.isBuildInProcess()) {
+			return;
+		}
+
+		_cpInstanceOptionCombinationCache.invalidate(
+			cpInstance.getCPDefinitionId());
+	}
+
+	@Override
+	public void onAfterRemove(CPInstance cpInstance) {
+		_cpInstanceOptionCombinationCache.invalidate(
+			cpInstance.getCPDefinitionId());
+	}
+
+	@Override
+	public void onAfterUpdate(CPInstance cpInstance) {
+		_cpInstanceOptionCombinationCache.invalidate(
+			cpInstance.getCPDefinitionId());
+	}
+
+	@Reference
+	private CPInstanceOptionCombinationCache _cpInstanceOptionCombinationCache;
+
+}
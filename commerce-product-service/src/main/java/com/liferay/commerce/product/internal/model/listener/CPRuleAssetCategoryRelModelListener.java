@@ -0,0 +1,50 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.internal.model.listener;
+
+import com.liferay.commerce.product.internal.catalog.rule.CPRulesFilterCache;
+import com.liferay.commerce.product.model.CPRuleAssetCategoryRel;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CPRuleAssetCategoryRelModelListener
+	extends BaseModelListener<CPRuleAssetCategoryRel> {
+
+	@Override
+	public void onAfterCreate(CPRuleAssetCategoryRel cpRuleAssetCategoryRel) {
+		_cpRulesFilterCache.invalidate(cpRuleAssetCategoryRel.getGroupId());
+	}
+
+	@Override
+	public void onAfterRemove(CPRuleAssetCategoryRel cpRuleAssetCategoryRel) {
+		_cpRulesFilterCache.invalidate(cpRuleAssetCategoryRel.getGroupId());
+	}
+
+	@Override
+	public void onAfterUpdate(CPRuleAssetCategoryRel cpRuleAssetCategoryRel) {
+		_cpRulesFilterCache.invalidate(cpRuleAssetCategoryRel.getGroupId());
+	}
+
+	@Reference
+	private CPRulesFilterCache _cpRulesFilterCache;
+
+}
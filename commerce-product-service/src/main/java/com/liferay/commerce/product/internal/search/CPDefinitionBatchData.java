@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.internal.search;
+
+import com.liferay.commerce.product.model.CPAttachmentFileEntry;
+import com.liferay.commerce.product.model.CPDefinitionOptionRel;
+import com.liferay.commerce.product.model.CPDefinitionOptionValueRel;
+import com.liferay.commerce.product.model.CPDefinitionSpecificationOptionValue;
+import com.liferay.commerce.product.model.CPOption;
+import com.liferay.commerce.product.model.CPSpecificationOption;
+import com.liferay.commerce.product.model.CProduct;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the child entities of a page of product definitions, loaded by
+ * {@link CPDefinitionBatchDataLoader}, that <code>CPDefinitionIndexer</code>
+ * needs to build their documents.
+ *
+ * @author Marco Leo
+ */
+public class CPDefinitionBatchData {
+
+	public boolean contains(long cpDefinitionId) {
+		return _languageIds.containsKey(cpDefinitionId);
+	}
+
+	public List<CPDefinitionOptionRel> getCPDefinitionOptionRels(
+		long cpDefinitionId) {
+
+		return _getList(_cpDefinitionOptionRels, cpDefinitionId);
+	}
+
+	public List<CPDefinitionOptionValueRel> getCPDefinitionOptionValueRels(
+		long cpDefinitionOptionRelId) {
+
+		return _getList(_cpDefinitionOptionValueRels, cpDefinitionOptionRelId);
+	}
+
+	public List<CPDefinitionSpecificationOptionValue>
+		getCPDefinitionSpecificationOptionValues(long cpDefinitionId) {
+
+		return _getList(_cpDefinitionSpecificationOptionValues, cpDefinitionId);
+	}
+
+	public CPOption getCPOption(long cpOptionId) {
+		return _cpOptions.get(cpOptionId);
+	}
+
+	public CProduct getCProduct(long cProductId) {
+		return _cProducts.get(cProductId);
+	}
+
+	public CPSpecificationOption getCPSpecificationOption(
+		long cpSpecificationOptionId) {
+
+		return _cpSpecificationOptions.get(cpSpecificationOptionId);
+	}
+
+	public CPAttachmentFileEntry getDefaultImage(long cpDefinitionId) {
+		return _defaultImages.get(cpDefinitionId);
+	}
+
+	public List<String> getLanguageIds(long cpDefinitionId) {
+		return _getList(_languageIds, cpDefinitionId);
+	}
+
+	public Map<String, String> getLanguageIdToUrlTitleMap(long cpDefinitionId) {
+		Map<String, String> languageIdToUrlTitleMap =
+			_languageIdToUrlTitleMaps.get(cpDefinitionId);
+
+		if (languageIdToUrlTitleMap == null) {
+			return Collections.emptyMap();
+		}
+
+		return languageIdToUrlTitleMap;
+	}
+
+	public String[] getReverseCPDefinitionIds(long cProductId, String type) {
+		Map<String, List<String>> reverseCPDefinitionIds =
+			_reverseCPDefinitionIds.get(cProductId);
+
+		if (reverseCPDefinitionIds == null) {
+			return new String[0];
+		}
+
+		List<String> cpDefinitionIds = _getList(reverseCPDefinitionIds, type);
+
+		return cpDefinitionIds.toArray(new String[cpDefinitionIds.size()]);
+	}
+
+	public String[] getSKUs(long cpDefinitionId) {
+		List<String> skus = _getList(_skus, cpDefinitionId);
+
+		return skus.toArray(new String[skus.size()]);
+	}
+
+	protected void addCPDefinitionOptionRel(
+		CPDefinitionOptionRel cpDefinitionOptionRel) {
+
+		_addToList(
+			_cpDefinitionOptionRels, cpDefinitionOptionRel.getCPDefinitionId(),
+			cpDefinitionOptionRel);
+	}
+
+	protected void addCPDefinitionOptionValueRel(
+		CPDefinitionOptionValueRel cpDefinitionOptionValueRel) {
+
+		_addToList(
+			_cpDefinitionOptionValueRels,
+			cpDefinitionOptionValueRel.getCPDefinitionOptionRelId(),
+			cpDefinitionOptionValueRel);
+	}
+
+	protected void addCPDefinitionSpecificationOptionValue(
+		CPDefinitionSpecificationOptionValue
+			cpDefinitionSpecificationOptionValue) {
+
+		_addToList(
+			_cpDefinitionSpecificationOptionValues,
+			cpDefinitionSpecificationOptionValue.getCPDefinitionId(),
+			cpDefinitionSpecificationOptionValue);
+	}
+
+	protected void addCPOption(CPOption cpOption) {
+		_cpOptions.put(cpOption.getCPOptionId(), cpOption);
+	}
+
+	protected void addCProduct(CProduct cProduct) {
+		_cProducts.put(cProduct.getCProductId(), cProduct);
+	}
+
+	protected void addCPSpecificationOption(
+		CPSpecificationOption cpSpecificationOption) {
+
+		_cpSpecificationOptions.put(
+			cpSpecificationOption.getCPSpecificationOptionId(),
+			cpSpecificationOption);
+	}
+
+	protected void addDefaultImage(
+		long cpDefinitionId, CPAttachmentFileEntry cpAttachmentFileEntry) {
+
+		_defaultImages.putIfAbsent(cpDefinitionId, cpAttachmentFileEntry);
+	}
+
+	protected void addLanguageId(long cpDefinitionId, String languageId) {
+		_addToList(_languageIds, cpDefinitionId, languageId);
+	}
+
+	protected void addReverseCPDefinitionId(
+		long cProductId, String type, long cpDefinitionId) {
+
+		Map<String, List<String>> reverseCPDefinitionIds =
+			_reverseCPDefinitionIds.computeIfAbsent(
+				cProductId, key -> new HashMap<>());
+
+		_addToList(
+			reverseCPDefinitionIds, type, String.valueOf(cpDefinitionId));
+	}
+
+	protected void addSKU(long cpDefinitionId, String sku) {
+		_addToList(_skus, cpDefinitionId, sku);
+	}
+
+	protected void addUrlTitle(
+		long cpDefinitionId, String languageId, String urlTitle) {
+
+		Map<String, String> languageIdToUrlTitleMap =
+			_languageIdToUrlTitleMaps.computeIfAbsent(
+				cpDefinitionId, key -> new HashMap<>());
+
+		languageIdToUrlTitleMap.put(languageId, urlTitle);
+	}
+
+	protected void setCPDefinitionIds(List<Long> cpDefinitionIds) {
+		for (long cpDefinitionId : cpDefinitionIds) {
+			_languageIds.putIfAbsent(cpDefinitionId, new ArrayList<>());
+		}
+	}
+
+	private <K, V> void _addToList(Map<K, List<V>> map, K key, V value) {
+		List<V> list = map.computeIfAbsent(key, k -> new ArrayList<>());
+
+		list.add(value);
+	}
+
+	private <K, V> List<V> _getList(Map<K, List<V>> map, K key) {
+		List<V> list = map.get(key);
+
+		if (list == null) {
+			return Collections.emptyList();
+		}
+
+		return list;
+	}
+
+	private final Map<Long, List<CPDefinitionOptionRel>>
+		_cpDefinitionOptionRels = new HashMap<>();
+	private final Map<Long, List<CPDefinitionOptionValueRel>>
+		_cpDefinitionOptionValueRels = new HashMap<>();
+	private final Map<Long, List<CPDefinitionSpecificationOptionValue>>
+		_cpDefinitionSpecificationOptionValues = new HashMap<>();
+	private final Map<Long, CPOption> _cpOptions = new HashMap<>();
+	private final Map<Long, CProduct> _cProducts = new HashMap<>();
+	private final Map<Long, CPSpecificationOption> _cpSpecificationOptions =
+		new HashMap<>();
+	private final Map<Long, CPAttachmentFileEntry> _defaultImages =
+		new HashMap<>();
+	private final Map<Long, List<String>> _languageIds = new HashMap<>();
+	private final Map<Long, Map<String, String>> _languageIdToUrlTitleMaps =
+		new HashMap<>();
+	private final Map<Long, Map<String, List<String>>> _reverseCPDefinitionIds =
+		new HashMap<>();
+	private final Map<Long, List<String>> _skus = new HashMap<>();
+
+}
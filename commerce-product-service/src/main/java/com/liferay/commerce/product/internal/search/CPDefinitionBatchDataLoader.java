@@ -0,0 +1,451 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.product.internal.search;
+
+import com.liferay.commerce.product.model.CPAttachmentFileEntry;
+import com.liferay.commerce.product.model.CPAttachmentFileEntryConstants;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CPDefinitionLink;
+import com.liferay.commerce.product.model.CPDefinitionLocalization;
+import com.liferay.commerce.product.model.CPDefinitionOptionRel;
+import com.liferay.commerce.product.model.CPDefinitionOptionValueRel;
+import com.liferay.commerce.product.model.CPDefinitionSpecificationOptionValue;
+import com.liferay.commerce.product.model.CPFriendlyURLEntry;
+import com.liferay.commerce.product.model.CPOption;
+import com.liferay.commerce.product.model.CPSpecificationOption;
+import com.liferay.commerce.product.model.CProduct;
+import com.liferay.commerce.product.service.CPAttachmentFileEntryLocalService;
+import com.liferay.commerce.product.service.CPDefinitionLinkLocalService;
+import com.liferay.commerce.product.service.CPDefinitionLocalService;
+import com.liferay.commerce.product.service.CPDefinitionOptionRelLocalService;
+import com.liferay.commerce.product.service.CPDefinitionOptionValueRelLocalService;
+import com.liferay.commerce.product.service.CPDefinitionSpecificationOptionValueLocalService;
+import com.liferay.commerce.product.service.CPFriendlyURLEntryLocalService;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.commerce.product.service.CPOptionLocalService;
+import com.liferay.commerce.product.service.CPSpecificationOptionLocalService;
+import com.liferay.commerce.product.service.CProductLocalService;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.DynamicQueryFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.ProjectionFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.ProjectionList;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.service.ClassNameLocalService;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Loads everything that <code>CPDefinitionIndexer</code> reads for a page of
+ * product definitions with one IN query per child entity type and per 500
+ * IDs, instead of querying the children of each definition one by one.
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CPDefinitionBatchDataLoader.class)
+public class CPDefinitionBatchDataLoader {
+
+	public CPDefinitionBatchData load(List<CPDefinition> cpDefinitions) {
+		CPDefinitionBatchData cpDefinitionBatchData =
+			new CPDefinitionBatchData();
+
+		List<Long> cpDefinitionIds = new ArrayList<>(cpDefinitions.size());
+		Map<Long, Long> groupIds = new HashMap<>();
+		Set<Long> cProductIds = new LinkedHashSet<>();
+		List<Long> skuCPDefinitionIds = new ArrayList<>(cpDefinitions.size());
+
+		for (CPDefinition cpDefinition : cpDefinitions) {
+			cpDefinitionIds.add(cpDefinition.getCPDefinitionId());
+			groupIds.put(
+				cpDefinition.getCPDefinitionId(), cpDefinition.getGroupId());
+			cProductIds.add(cpDefinition.getCProductId());
+
+			if (cpDefinition.getStatus() !=
+					WorkflowConstants.STATUS_IN_TRASH) {
+
+				skuCPDefinitionIds.add(cpDefinition.getCPDefinitionId());
+			}
+		}
+
+		cpDefinitionBatchData.setCPDefinitionIds(cpDefinitionIds);
+
+		_loadLanguageIds(cpDefinitionBatchData, cpDefinitionIds);
+		_loadUrlTitles(cpDefinitionBatchData, cpDefinitionIds, groupIds);
+		_loadCPDefinitionOptionRels(cpDefinitionBatchData, cpDefinitionIds);
+		_loadSKUs(cpDefinitionBatchData, skuCPDefinitionIds);
+		_loadCPDefinitionSpecificationOptionValues(
+			cpDefinitionBatchData, cpDefinitionIds);
+		_loadCProducts(cpDefinitionBatchData, cProductIds);
+		_loadDefaultImages(cpDefinitionBatchData, cpDefinitionIds);
+
+		return cpDefinitionBatchData;
+	}
+
+	private <T> List<T> _getModels(
+		Supplier<DynamicQuery> dynamicQuerySupplier,
+		Function<DynamicQuery, List<T>> dynamicQueryFunction,
+		String propertyName, Collection<Long> ids) {
+
+		List<T> models = new ArrayList<>();
+
+		List<Long> idsList = new ArrayList<>(ids);
+
+		for (int i = 0; i < idsList.size(); i += _IN_CLAUSE_MAX_SIZE) {
+			DynamicQuery dynamicQuery = dynamicQuerySupplier.get();
+
+			Property property = PropertyFactoryUtil.forName(propertyName);
+
+			dynamicQuery.add(
+				property.in(
+					idsList.subList(
+						i,
+						Math.min(i + _IN_CLAUSE_MAX_SIZE, idsList.size()))));
+
+			models.addAll(dynamicQueryFunction.apply(dynamicQuery));
+		}
+
+		return models;
+	}
+
+	private void _loadCPDefinitionOptionRels(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		List<Long> cpDefinitionIds) {
+
+		List<CPDefinitionOptionRel> cpDefinitionOptionRels = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpDefinitionOptionRelLocalService.dynamicQuery();
+
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq("facetable", true));
+				dynamicQuery.addOrder(OrderFactoryUtil.asc("priority"));
+
+				return dynamicQuery;
+			},
+			_cpDefinitionOptionRelLocalService::dynamicQuery, "CPDefinitionId",
+			cpDefinitionIds);
+
+		Set<Long> cpDefinitionOptionRelIds = new LinkedHashSet<>();
+		Set<Long> cpOptionIds = new LinkedHashSet<>();
+
+		for (CPDefinitionOptionRel cpDefinitionOptionRel :
+				cpDefinitionOptionRels) {
+
+			cpDefinitionBatchData.addCPDefinitionOptionRel(
+				cpDefinitionOptionRel);
+
+			cpDefinitionOptionRelIds.add(
+				cpDefinitionOptionRel.getCPDefinitionOptionRelId());
+			cpOptionIds.add(cpDefinitionOptionRel.getCPOptionId());
+		}
+
+		List<CPDefinitionOptionValueRel> cpDefinitionOptionValueRels =
+			_getModels(
+				() -> {
+					DynamicQuery dynamicQuery =
+						_cpDefinitionOptionValueRelLocalService.dynamicQuery();
+
+					dynamicQuery.addOrder(OrderFactoryUtil.asc("priority"));
+
+					return dynamicQuery;
+				},
+				_cpDefinitionOptionValueRelLocalService::dynamicQuery,
+				"CPDefinitionOptionRelId", cpDefinitionOptionRelIds);
+
+		for (CPDefinitionOptionValueRel cpDefinitionOptionValueRel :
+				cpDefinitionOptionValueRels) {
+
+			cpDefinitionBatchData.addCPDefinitionOptionValueRel(
+				cpDefinitionOptionValueRel);
+		}
+
+		List<CPOption> cpOptions = _getModels(
+			_cpOptionLocalService::dynamicQuery,
+			_cpOptionLocalService::dynamicQuery, "CPOptionId", cpOptionIds);
+
+		for (CPOption cpOption : cpOptions) {
+			cpDefinitionBatchData.addCPOption(cpOption);
+		}
+	}
+
+	private void _loadCPDefinitionSpecificationOptionValues(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		List<Long> cpDefinitionIds) {
+
+		List<CPDefinitionSpecificationOptionValue>
+			cpDefinitionSpecificationOptionValues = _getModels(
+				() -> {
+					DynamicQuery dynamicQuery =
+						_cpDefinitionSpecificationOptionValueLocalService.
+							dynamicQuery();
+
+					dynamicQuery.addOrder(OrderFactoryUtil.asc("priority"));
+
+					return dynamicQuery;
+				},
+				_cpDefinitionSpecificationOptionValueLocalService::dynamicQuery,
+				"CPDefinitionId", cpDefinitionIds);
+
+		Set<Long> cpSpecificationOptionIds = new LinkedHashSet<>();
+
+		for (CPDefinitionSpecificationOptionValue
+				cpDefinitionSpecificationOptionValue :
+					cpDefinitionSpecificationOptionValues) {
+
+			cpDefinitionBatchData.addCPDefinitionSpecificationOptionValue(
+				cpDefinitionSpecificationOptionValue);
+
+			cpSpecificationOptionIds.add(
+				cpDefinitionSpecificationOptionValue.
+					getCPSpecificationOptionId());
+		}
+
+		List<CPSpecificationOption> cpSpecificationOptions = _getModels(
+			_cpSpecificationOptionLocalService::dynamicQuery,
+			_cpSpecificationOptionLocalService::dynamicQuery,
+			"CPSpecificationOptionId", cpSpecificationOptionIds);
+
+		for (CPSpecificationOption cpSpecificationOption :
+				cpSpecificationOptions) {
+
+			cpDefinitionBatchData.addCPSpecificationOption(
+				cpSpecificationOption);
+		}
+	}
+
+	private void _loadCProducts(
+		CPDefinitionBatchData cpDefinitionBatchData, Set<Long> cProductIds) {
+
+		List<CProduct> cProducts = _getModels(
+			_cProductLocalService::dynamicQuery,
+			_cProductLocalService::dynamicQuery, "CProductId", cProductIds);
+
+		for (CProduct cProduct : cProducts) {
+			cpDefinitionBatchData.addCProduct(cProduct);
+		}
+
+		List<CPDefinitionLink> cpDefinitionLinks = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpDefinitionLinkLocalService.dynamicQuery();
+
+				dynamicQuery.addOrder(OrderFactoryUtil.asc("priority"));
+
+				return dynamicQuery;
+			},
+			_cpDefinitionLinkLocalService::dynamicQuery, "CProductId",
+			cProductIds);
+
+		for (CPDefinitionLink cpDefinitionLink : cpDefinitionLinks) {
+			cpDefinitionBatchData.addReverseCPDefinitionId(
+				cpDefinitionLink.getCProductId(), cpDefinitionLink.getType(),
+				cpDefinitionLink.getCPDefinitionId());
+		}
+	}
+
+	private void _loadDefaultImages(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		List<Long> cpDefinitionIds) {
+
+		long classNameId = _classNameLocalService.getClassNameId(
+			CPDefinition.class);
+
+		List<CPAttachmentFileEntry> cpAttachmentFileEntries = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpAttachmentFileEntryLocalService.dynamicQuery();
+
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq("classNameId", classNameId));
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq(
+						"type", CPAttachmentFileEntryConstants.TYPE_IMAGE));
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq(
+						"status", WorkflowConstants.STATUS_APPROVED));
+				dynamicQuery.addOrder(OrderFactoryUtil.asc("priority"));
+
+				return dynamicQuery;
+			},
+			_cpAttachmentFileEntryLocalService::dynamicQuery, "classPK",
+			cpDefinitionIds);
+
+		for (CPAttachmentFileEntry cpAttachmentFileEntry :
+				cpAttachmentFileEntries) {
+
+			cpDefinitionBatchData.addDefaultImage(
+				cpAttachmentFileEntry.getClassPK(), cpAttachmentFileEntry);
+		}
+	}
+
+	private void _loadLanguageIds(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		List<Long> cpDefinitionIds) {
+
+		List<Object[]> results = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery = DynamicQueryFactoryUtil.forClass(
+					CPDefinitionLocalization.class,
+					CPDefinitionBatchDataLoader.class.getClassLoader());
+
+				ProjectionList projectionList =
+					ProjectionFactoryUtil.projectionList();
+
+				projectionList.add(
+					ProjectionFactoryUtil.property("CPDefinitionId"));
+				projectionList.add(
+					ProjectionFactoryUtil.property("languageId"));
+
+				dynamicQuery.setProjection(projectionList);
+
+				return dynamicQuery;
+			},
+			_cpDefinitionLocalService::dynamicQuery, "CPDefinitionId",
+			cpDefinitionIds);
+
+		for (Object[] result : results) {
+			cpDefinitionBatchData.addLanguageId(
+				(Long)result[0], (String)result[1]);
+		}
+	}
+
+	private void _loadSKUs(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		List<Long> cpDefinitionIds) {
+
+		List<Object[]> results = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpInstanceLocalService.dynamicQuery();
+
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq(
+						"status", WorkflowConstants.STATUS_APPROVED));
+
+				ProjectionList projectionList =
+					ProjectionFactoryUtil.projectionList();
+
+				projectionList.add(
+					ProjectionFactoryUtil.property("CPDefinitionId"));
+				projectionList.add(ProjectionFactoryUtil.property("sku"));
+
+				dynamicQuery.setProjection(projectionList);
+
+				return dynamicQuery;
+			},
+			_cpInstanceLocalService::dynamicQuery, "CPDefinitionId",
+			cpDefinitionIds);
+
+		for (Object[] result : results) {
+			cpDefinitionBatchData.addSKU((Long)result[0], (String)result[1]);
+		}
+	}
+
+	private void _loadUrlTitles(
+		CPDefinitionBatchData cpDefinitionBatchData, List<Long> cpDefinitionIds,
+		Map<Long, Long> groupIds) {
+
+		long classNameId = _classNameLocalService.getClassNameId(
+			CPDefinition.class);
+
+		List<CPFriendlyURLEntry> cpFriendlyURLEntries = _getModels(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpFriendlyURLEntryLocalService.dynamicQuery();
+
+				dynamicQuery.add(
+					RestrictionsFactoryUtil.eq("classNameId", classNameId));
+				dynamicQuery.add(RestrictionsFactoryUtil.eq("main", true));
+
+				return dynamicQuery;
+			},
+			_cpFriendlyURLEntryLocalService::dynamicQuery, "classPK",
+			cpDefinitionIds);
+
+		for (CPFriendlyURLEntry cpFriendlyURLEntry : cpFriendlyURLEntries) {
+			long cpDefinitionId = cpFriendlyURLEntry.getClassPK();
+
+			Long groupId = groupIds.get(cpDefinitionId);
+
+			if ((groupId == null) ||
+				(groupId != cpFriendlyURLEntry.getGroupId())) {
+
+				continue;
+			}
+
+			cpDefinitionBatchData.addUrlTitle(
+				cpDefinitionId, cpFriendlyURLEntry.getLanguageId(),
+				cpFriendlyURLEntry.getUrlTitle());
+		}
+	}
+
+	private static final int _IN_CLAUSE_MAX_SIZE = 500;
+
+	@Reference
+	private ClassNameLocalService _classNameLocalService;
+
+	@Reference
+	private CPAttachmentFileEntryLocalService
+		_cpAttachmentFileEntryLocalService;
+
+	@Reference
+	private CPDefinitionLinkLocalService _cpDefinitionLinkLocalService;
+
+	@Reference
+	private CPDefinitionLocalService _cpDefinitionLocalService;
+
+	@Reference
+	private CPDefinitionOptionRelLocalService
+		_cpDefinitionOptionRelLocalService;
+
+	@Reference
+	private CPDefinitionOptionValueRelLocalService
+		_cpDefinitionOptionValueRelLocalService;
+
+	@Reference
+	private CPDefinitionSpecificationOptionValueLocalService
+		_cpDefinitionSpecificationOptionValueLocalService;
+
+	@Reference
+	private CPFriendlyURLEntryLocalService _cpFriendlyURLEntryLocalService;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
+	@Reference
+	private CPOptionLocalService _cpOptionLocalService;
+
+	@Reference
+	private CProductLocalService _cProductLocalService;
+
+	@Reference
+	private CPSpecificationOptionLocalService
+		_cpSpecificationOptionLocalService;
+
+}
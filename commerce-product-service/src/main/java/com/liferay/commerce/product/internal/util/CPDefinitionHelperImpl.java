@@ -17,6 +17,7 @@ package com.liferay.commerce.product.internal.util;
 import com.liferay.commerce.product.catalog.CPCatalogEntry;
 import com.liferay.commerce.product.catalog.CPQuery;
 import com.liferay.commerce.product.constants.CPConstants;
+import com.liferay.commerce.product.constants.CPField;
 import com.liferay.commerce.product.constants.CPPortletKeys;
 import com.liferay.commerce.product.data.source.CPDataSourceResult;
 import com.liferay.commerce.product.internal.catalog.DatabaseCPCatalogEntryImpl;
@@ -129,6 +130,22 @@ public class CPDefinitionHelperImpl implements CPDefinitionHelper {
 		searchContext.setAttribute(
 			CPDefinitionIndexer.FIELD_PUBLISHED, Boolean.TRUE);
 
+		if (cpQuery.getCommercePriceListId() > 0) {
+			searchContext.setAttribute(
+				CPDefinitionIndexer.ATTRIBUTE_COMMERCE_PRICE_LIST_ID,
+				cpQuery.getCommercePriceListId());
+		}
+
+		if (cpQuery.getMaxPrice() != null) {
+			searchContext.setAttribute(
+				CPDefinitionIndexer.ATTRIBUTE_MAX_PRICE, cpQuery.getMaxPrice());
+		}
+
+		if (cpQuery.getMinPrice() != null) {
+			searchContext.setAttribute(
+				CPDefinitionIndexer.ATTRIBUTE_MIN_PRICE, cpQuery.getMinPrice());
+		}
+
 		searchContext.setEnd(end);
 		searchContext.setGroupIds(new long[] {groupId});
 
@@ -222,7 +239,9 @@ public class CPDefinitionHelperImpl implements CPDefinitionHelper {
 			cpFriendlyURLEntry.getUrlTitle();
 	}
 
-	private String _getOrderByCol(String sortField, Locale locale) {
+	private String _getOrderByCol(
+		String sortField, long commercePriceListId, Locale locale) {
+
 		if (sortField.equals("modifiedDate")) {
 			sortField = Field.MODIFIED_DATE;
 		}
@@ -230,23 +249,38 @@ public class CPDefinitionHelperImpl implements CPDefinitionHelper {
 			sortField = Field.getSortableFieldName(
 				"localized_name_".concat(LocaleUtil.toLanguageId(locale)));
 		}
+		else if (sortField.equals("price")) {
+			if (commercePriceListId > 0) {
+				sortField = CPField.getPriceListPrimaryCurrencyFieldName(
+					commercePriceListId, CPField.MIN_PRICE);
+			}
+			else {
+				sortField = CPField.MIN_PRICE;
+			}
+		}
 
 		return sortField;
 	}
 
-	private Sort _getSort(String orderByType, String sortField, Locale locale) {
+	private Sort _getSort(
+		String orderByType, String sortField, long commercePriceListId,
+		Locale locale) {
+
 		int sortType = _getSortType(sortField);
 
 		return SortFactoryUtil.getSort(
-			CPDefinition.class, sortType, _getOrderByCol(sortField, locale),
+			CPDefinition.class, sortType,
+			_getOrderByCol(sortField, commercePriceListId, locale),
 			orderByType);
 	}
 
 	private Sort[] _getSorts(CPQuery cpQuery, Locale locale) {
 		Sort sort1 = _getSort(
-			cpQuery.getOrderByType1(), cpQuery.getOrderByCol1(), locale);
+			cpQuery.getOrderByType1(), cpQuery.getOrderByCol1(),
+			cpQuery.getCommercePriceListId(), locale);
 		Sort sort2 = _getSort(
-			cpQuery.getOrderByType2(), cpQuery.getOrderByCol2(), locale);
+			cpQuery.getOrderByType2(), cpQuery.getOrderByCol2(),
+			cpQuery.getCommercePriceListId(), locale);
 
 		return new Sort[] {sort1, sort2};
 	}
@@ -261,7 +295,9 @@ public class CPDefinitionHelperImpl implements CPDefinitionHelper {
 
 			sortType = Sort.LONG_TYPE;
 		}
-		else if (fieldType.equals(Field.PRIORITY)) {
+		else if (fieldType.equals(Field.PRIORITY) ||
+				 fieldType.equals("price")) {
+
 			sortType = Sort.DOUBLE_TYPE;
 		}
 
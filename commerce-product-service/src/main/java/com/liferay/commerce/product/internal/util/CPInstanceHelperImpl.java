@@ -17,6 +17,7 @@ package com.liferay.commerce.product.internal.util;
 import com.liferay.commerce.media.CommerceMediaResolver;
 import com.liferay.commerce.product.catalog.CPCatalogEntry;
 import com.liferay.commerce.product.catalog.CPSku;
+import com.liferay.commerce.product.internal.cache.CPInstanceOptionCombinationCache;
 import com.liferay.commerce.product.internal.catalog.CPSkuImpl;
 import com.liferay.commerce.product.model.CPAttachmentFileEntry;
 import com.liferay.commerce.product.model.CPAttachmentFileEntryConstants;
@@ -326,85 +327,15 @@ public class CPInstanceHelperImpl implements CPInstanceHelper {
 			long cpDefinitionId, String serializedDDMFormValues)
 		throws Exception {
 
-		CPDefinition cpDefinition = _cpDefinitionService.getCPDefinition(
-			cpDefinitionId);
-
-		if (Validator.isNull(serializedDDMFormValues)) {
-			serializedDDMFormValues = "[]";
-		}
-
-		JSONArray jsonArray = _jsonFactory.createJSONArray(
-			serializedDDMFormValues);
-
-		Indexer<CPInstance> indexer = IndexerRegistryUtil.nullSafeGetIndexer(
-			CPInstance.class);
-
-		SearchContext searchContext = new SearchContext();
-
-		Map<String, Serializable> attributes = new HashMap<>();
-
-		attributes.put(
-			CPInstanceIndexer.FIELD_CP_DEFINITION_ID, cpDefinitionId);
-		attributes.put(Field.STATUS, WorkflowConstants.STATUS_APPROVED);
-		attributes.put(CPInstanceIndexer.FIELD_PUBLISHED, Boolean.TRUE);
-
-		List<String> optionsKeys = new ArrayList<>();
-
-		for (int i = 0; i < jsonArray.length(); i++) {
-			JSONObject jsonObject = jsonArray.getJSONObject(i);
+		_cpDefinitionService.getCPDefinition(cpDefinitionId);
 
-			String key = jsonObject.getString("key");
-
-			long cpDefinitionOptionRelId = GetterUtil.getLong(key);
-
-			CPDefinitionOptionRel cpDefinitionOptionRel =
-				_cpDefinitionOptionRelLocalService.getCPDefinitionOptionRel(
-					cpDefinitionOptionRelId);
-
-			if (!cpDefinitionOptionRel.isSkuContributor()) {
-				continue;
-			}
+		long cpInstanceId = _cpInstanceOptionCombinationCache.getCPInstanceId(
+			cpDefinitionId, serializedDDMFormValues);
 
-			String fieldName = "ATTRIBUTE_" + key + "_VALUE_ID";
-
-			JSONArray valuesJSONArray = _jsonFactory.createJSONArray(
-				jsonObject.getString("value"));
-
-			if (valuesJSONArray.length() == 0) {
-				continue;
-			}
-
-			String value = valuesJSONArray.getString(0);
-
-			optionsKeys.add(fieldName);
-			attributes.put(fieldName, value);
-		}
-
-		attributes.put("OPTIONS", ArrayUtil.toStringArray(optionsKeys));
-
-		searchContext.setAttributes(attributes);
-
-		searchContext.setCompanyId(cpDefinition.getCompanyId());
-		searchContext.setGroupIds(new long[] {cpDefinition.getGroupId()});
-
-		QueryConfig queryConfig = searchContext.getQueryConfig();
-
-		queryConfig.setHighlightEnabled(false);
-		queryConfig.setScoreEnabled(false);
-
-		Hits hits = indexer.search(searchContext);
-
-		Document[] documents = hits.getDocs();
-
-		if (documents.length != 1) {
+		if (cpInstanceId <= 0) {
 			return null;
 		}
 
-		Document document = documents[0];
-
-		long cpInstanceId = GetterUtil.getLong(
-			document.get(Field.ENTRY_CLASS_PK));
-
 		return _cpInstanceService.fetchCPInstance(cpInstanceId);
 	}
 
@@ -854,6 +785,9 @@ public class CPInstanceHelperImpl implements CPInstanceHelper {
 	@Reference
 	private CPDefinitionService _cpDefinitionService;
 
+	@Reference
+	private CPInstanceOptionCombinationCache _cpInstanceOptionCombinationCache;
+
 	@Reference
 	private CPInstanceService _cpInstanceService;
 
@@ -17,8 +17,13 @@ package com.liferay.commerce.product.search;
 import com.liferay.commerce.media.CommerceMediaResolver;
 import com.liferay.commerce.product.catalog.rule.CPRuleType;
 import com.liferay.commerce.product.catalog.rule.CPRuleTypeRegistry;
+import com.liferay.commerce.product.configuration.CPDefinitionIndexerConfiguration;
 import com.liferay.commerce.product.constants.CPActionKeys;
 import com.liferay.commerce.product.constants.CPConstants;
+import com.liferay.commerce.product.constants.CPField;
+import com.liferay.commerce.product.internal.catalog.rule.CPRulesFilterCache;
+import com.liferay.commerce.product.internal.search.CPDefinitionBatchData;
+import com.liferay.commerce.product.internal.search.CPDefinitionBatchDataLoader;
 import com.liferay.commerce.product.links.CPDefinitionLinkTypeRegistry;
 import com.liferay.commerce.product.model.CPAttachmentFileEntry;
 import com.liferay.commerce.product.model.CPDefinition;
@@ -34,8 +39,18 @@ import com.liferay.commerce.product.service.CPDefinitionLinkLocalService;
 import com.liferay.commerce.product.service.CPDefinitionLocalService;
 import com.liferay.commerce.product.service.CPFriendlyURLEntryLocalService;
 import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.commerce.product.util.CPDefinitionIndexerBatchThreadLocal;
 import com.liferay.commerce.product.util.CPRulesThreadLocal;
+import com.liferay.petra.lang.CentralizedThreadLocal;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
 import com.liferay.portal.kernel.dao.orm.IndexableActionableDynamicQuery;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.ProjectionFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.ProjectionList;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.language.LanguageUtil;
 import com.liferay.portal.kernel.log.Log;
@@ -51,7 +66,10 @@ import com.liferay.portal.kernel.search.Indexer;
 import com.liferay.portal.kernel.search.SearchContext;
 import com.liferay.portal.kernel.search.Summary;
 import com.liferay.portal.kernel.search.filter.BooleanFilter;
+import com.liferay.portal.kernel.search.filter.RangeTermFilter;
 import com.liferay.portal.kernel.search.filter.TermsFilter;
+import com.liferay.portal.kernel.security.auth.CompanyThreadLocal;
+import com.liferay.portal.kernel.security.auth.PrincipalThreadLocal;
 import com.liferay.portal.kernel.security.permission.PermissionChecker;
 import com.liferay.portal.kernel.security.permission.PermissionThreadLocal;
 import com.liferay.portal.kernel.security.permission.resource.PortletResourcePermission;
@@ -68,27 +86,46 @@ import com.liferay.portal.kernel.workflow.WorkflowConstants;
 
 import java.io.Serializable;
 
+import java.math.BigDecimal;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.portlet.PortletRequest;
 import javax.portlet.PortletResponse;
 
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 import org.osgi.service.component.annotations.Reference;
 
 /**
  * @author Marco Leo
  */
-@Component(immediate = true, service = Indexer.class)
+@Component(
+	configurationPid = "com.liferay.commerce.product.configuration.CPDefinitionIndexerConfiguration",
+	immediate = true, service = Indexer.class
+)
 public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 
+	public static final String ATTRIBUTE_COMMERCE_PRICE_LIST_ID =
+		"commercePriceListId";
+
 	public static final String ATTRIBUTE_FILTER_BY_CP_RULES = "filterByCPRules";
 
+	public static final String ATTRIBUTE_MAX_PRICE = "maxPrice";
+
+	public static final String ATTRIBUTE_MIN_PRICE = "minPrice";
+
 	public static final String CLASS_NAME = CPDefinition.class.getName();
 
 	public static final String FIELD_DEFAULT_IMAGE_FILE_ENTRY_ID =
@@ -218,6 +255,17 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 				Field.ENTRY_CLASS_PK, excludedCPDefinitionId,
 				BooleanClauseOccur.MUST_NOT);
 		}
+
+		if (attributes.containsKey(ATTRIBUTE_MAX_PRICE) ||
+			attributes.containsKey(ATTRIBUTE_MIN_PRICE)) {
+
+			addPriceFilter(
+				contextBooleanFilter,
+				GetterUtil.getLong(
+					attributes.get(ATTRIBUTE_COMMERCE_PRICE_LIST_ID)),
+				(BigDecimal)attributes.get(ATTRIBUTE_MIN_PRICE),
+				(BigDecimal)attributes.get(ATTRIBUTE_MAX_PRICE));
+		}
 	}
 
 	@Override
@@ -252,6 +300,67 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 		}
 	}
 
+	/**
+	 * Reindexes the product definitions in pages of the configured batch size,
+	 * the same way as a bulk reindex of the company, so that their child
+	 * entities, and the data that the indexer post processors need, are loaded
+	 * once per page.
+	 */
+	@Override
+	public void reindex(Collection<CPDefinition> cpDefinitions) {
+		if (_indexWriterHelper.isIndexReadOnly() || !isIndexerEnabled() ||
+			cpDefinitions.isEmpty()) {
+
+			return;
+		}
+
+		CPDefinitionIndexerConfiguration cpDefinitionIndexerConfiguration =
+			_cpDefinitionIndexerConfiguration;
+
+		int batchSize = Math.max(
+			1, cpDefinitionIndexerConfiguration.reindexBatchSize());
+
+		Map<Long, List<CPDefinition>> companyCPDefinitions =
+			new LinkedHashMap<>();
+
+		for (CPDefinition cpDefinition : cpDefinitions) {
+			List<CPDefinition> curCPDefinitions =
+				companyCPDefinitions.computeIfAbsent(
+					cpDefinition.getCompanyId(),
+					companyId -> new ArrayList<>());
+
+			curCPDefinitions.add(cpDefinition);
+		}
+
+		for (Map.Entry<Long, List<CPDefinition>> entry :
+				companyCPDefinitions.entrySet()) {
+
+			List<CPDefinition> curCPDefinitions = entry.getValue();
+
+			for (int i = 0; i < curCPDefinitions.size(); i += batchSize) {
+				int end = Math.min(i + batchSize, curCPDefinitions.size());
+
+				try {
+					_reindexCPDefinitions(
+						entry.getKey(), curCPDefinitions.subList(i, end));
+				}
+				catch (Exception e) {
+					_log.error(
+						"Unable to reindex commerce product definitions of " +
+							"company " + entry.getKey(),
+						e);
+				}
+			}
+		}
+	}
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		_cpDefinitionIndexerConfiguration = ConfigurableUtil.createConfigurable(
+			CPDefinitionIndexerConfiguration.class, properties);
+	}
+
 	protected void addCPRulesFilters(BooleanFilter booleanFilter, long groupId)
 		throws PortalException {
 
@@ -275,16 +384,70 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 				Field.ENTRY_CLASS_PK, "-1", BooleanClauseOccur.MUST);
 		}
 		else {
-			for (CPRule cpRule : cpRules) {
-				CPRuleType cpRuleType = _cpRuleTypeRegistry.getCPRuleType(
-					cpRule.getType());
+			BooleanFilter cpRulesBooleanFilter =
+				_cpRulesFilterCache.getBooleanFilter(groupId, cpRules);
 
-				cpRuleType.postProcessContextBooleanFilter(
-					booleanFilter, cpRule);
+			if (cpRulesBooleanFilter.hasClauses()) {
+				booleanFilter.add(
+					cpRulesBooleanFilter, BooleanClauseOccur.MUST);
 			}
 		}
 	}
 
+	/**
+	 * Filters by the lowest effective price of the product in the price list.
+	 * Products whose document has no price for the price list, because they
+	 * were indexed before the price list was added, are filtered by the lowest
+	 * price of their SKUs.
+	 */
+	protected void addPriceFilter(
+		BooleanFilter booleanFilter, long commercePriceListId,
+		BigDecimal minPrice, BigDecimal maxPrice) {
+
+		String lowerBound = null;
+
+		if (minPrice != null) {
+			lowerBound = minPrice.toPlainString();
+		}
+
+		String upperBound = null;
+
+		if (maxPrice != null) {
+			upperBound = maxPrice.toPlainString();
+		}
+
+		RangeTermFilter minPriceRangeTermFilter = new RangeTermFilter(
+			CPField.MIN_PRICE, true, true, lowerBound, upperBound);
+
+		if (commercePriceListId <= 0) {
+			booleanFilter.add(minPriceRangeTermFilter, BooleanClauseOccur.MUST);
+
+			return;
+		}
+
+		BooleanFilter cpInstancePriceBooleanFilter = new BooleanFilter();
+
+		cpInstancePriceBooleanFilter.add(
+			minPriceRangeTermFilter, BooleanClauseOccur.MUST);
+		cpInstancePriceBooleanFilter.addTerm(
+			CPField.COMMERCE_PRICE_LIST_IDS,
+			String.valueOf(commercePriceListId), BooleanClauseOccur.MUST_NOT);
+
+		RangeTermFilter priceListMinPriceRangeTermFilter = new RangeTermFilter(
+			CPField.getPriceListPrimaryCurrencyFieldName(
+				commercePriceListId, CPField.MIN_PRICE),
+			true, true, lowerBound, upperBound);
+
+		BooleanFilter priceBooleanFilter = new BooleanFilter();
+
+		priceBooleanFilter.add(
+			cpInstancePriceBooleanFilter, BooleanClauseOccur.SHOULD);
+		priceBooleanFilter.add(
+			priceListMinPriceRangeTermFilter, BooleanClauseOccur.SHOULD);
+
+		booleanFilter.add(priceBooleanFilter, BooleanClauseOccur.MUST);
+	}
+
 	@Override
 	protected void doDelete(CPDefinition cpDefinition) throws Exception {
 		deleteDocument(
@@ -299,22 +462,25 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 			_log.debug("Indexing definition " + cpDefinition);
 		}
 
+		CPDefinitionBatchData cpDefinitionBatchData =
+			_cpDefinitionBatchDataThreadLocal.get();
+
+		if ((cpDefinitionBatchData != null) &&
+			!cpDefinitionBatchData.contains(cpDefinition.getCPDefinitionId())) {
+
+			cpDefinitionBatchData = null;
+		}
+
 		Document document = getBaseModelDocument(CLASS_NAME, cpDefinition);
 
 		String cpDefinitionDefaultLanguageId =
 			LocalizationUtil.getDefaultLanguageId(cpDefinition.getName());
 
-		List<String> languageIds =
-			_cpDefinitionLocalService.getCPDefinitionLocalizationLanguageIds(
-				cpDefinition.getCPDefinitionId());
-
-		long classNameId = _classNameLocalService.getClassNameId(
-			CPDefinition.class);
+		List<String> languageIds = _getLanguageIds(
+			cpDefinitionBatchData, cpDefinition);
 
 		Map<String, String> languageIdToUrlTitleMap =
-			_cpFriendlyURLEntryLocalService.getLanguageIdToUrlTitleMap(
-				cpDefinition.getGroupId(), classNameId,
-				cpDefinition.getCPDefinitionId());
+			_getLanguageIdToUrlTitleMap(cpDefinitionBatchData, cpDefinition);
 
 		for (String languageId : languageIds) {
 			String description = cpDefinition.getDescription(languageId);
@@ -383,7 +549,7 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 		List<Long> optionIds = new ArrayList<>();
 
 		List<CPDefinitionOptionRel> cpDefinitionOptionRels =
-			cpDefinition.getCPDefinitionOptionRels();
+			_getCPDefinitionOptionRels(cpDefinitionBatchData, cpDefinition);
 
 		for (CPDefinitionOptionRel cpDefinitionOptionRel :
 				cpDefinitionOptionRels) {
@@ -392,13 +558,19 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 				continue;
 			}
 
-			CPOption cpOption = cpDefinitionOptionRel.getCPOption();
+			CPOption cpOption = _getCPOption(
+				cpDefinitionBatchData, cpDefinitionOptionRel);
+
+			if (cpOption == null) {
+				continue;
+			}
 
 			optionNames.add(cpOption.getKey());
 			optionIds.add(cpOption.getCPOptionId());
 
 			List<CPDefinitionOptionValueRel> cpDefinitionOptionValueRels =
-				cpDefinitionOptionRel.getCPDefinitionOptionValueRels();
+				_getCPDefinitionOptionValueRels(
+					cpDefinitionBatchData, cpDefinitionOptionRel);
 
 			List<String> optionValueNames = new ArrayList<>();
 			List<Long> optionValueIds = new ArrayList<>();
@@ -454,8 +626,7 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 			FIELD_OPTION_NAMES, ArrayUtil.toStringArray(optionNames));
 		document.addNumber(FIELD_OPTION_IDS, ArrayUtil.toLongArray(optionIds));
 
-		String[] skus = _cpInstanceLocalService.getSKUs(
-			cpDefinition.getCPDefinitionId());
+		String[] skus = _getSKUs(cpDefinitionBatchData, cpDefinition);
 
 		document.addText(FIELD_SKUS, skus);
 
@@ -464,16 +635,20 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 
 		List<CPDefinitionSpecificationOptionValue>
 			cpDefinitionSpecificationOptionValues =
-				cpDefinition.getCPDefinitionSpecificationOptionValues();
+				_getCPDefinitionSpecificationOptionValues(
+					cpDefinitionBatchData, cpDefinition);
 
 		for (CPDefinitionSpecificationOptionValue
 				cpDefinitionSpecificationOptionValue :
 					cpDefinitionSpecificationOptionValues) {
 
 			CPSpecificationOption cpSpecificationOption =
-				cpDefinitionSpecificationOptionValue.getCPSpecificationOption();
+				_getCPSpecificationOption(
+					cpDefinitionBatchData,
+					cpDefinitionSpecificationOptionValue);
 
-			if (!cpSpecificationOption.isFacetable()) {
+			if ((cpSpecificationOption == null) ||
+				!cpSpecificationOption.isFacetable()) {
 				continue;
 			}
 
@@ -537,7 +712,7 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 			FIELD_SPECIFICATION_IDS,
 			ArrayUtil.toLongArray(specificationOptionIds));
 
-		CProduct cProduct = cpDefinition.getCProduct();
+		CProduct cProduct = _getCProduct(cpDefinitionBatchData, cpDefinition);
 
 		List<String> types = _cpDefinitionLinkTypeRegistry.getTypes();
 
@@ -546,17 +721,16 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 				continue;
 			}
 
-			String[] linkedProductIds = getReverseCPDefinitionIds(
-				cProduct.getCProductId(), type);
+			String[] linkedProductIds = _getReverseCPDefinitionIds(
+				cpDefinitionBatchData, cProduct.getCProductId(), type);
 
 			document.addKeyword(type, linkedProductIds);
 		}
 
 		long cpAttachmentFileEntryId = 0;
 
-		CPAttachmentFileEntry cpAttachmentFileEntry =
-			_cpDefinitionLocalService.getDefaultImage(
-				cpDefinition.getCPDefinitionId());
+		CPAttachmentFileEntry cpAttachmentFileEntry = _getDefaultImage(
+			cpDefinitionBatchData, cpDefinition);
 
 		if (cpAttachmentFileEntry != null) {
 			document.addNumber(
@@ -659,10 +833,300 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 		return reverseCPDefinitionIdsArray;
 	}
 
-	protected void reindexCPDefinitions(long companyId) throws PortalException {
+	/**
+	 * Reindexes the company's product definitions. Unless bulk reindexing is
+	 * disabled, the ID range is split into the configured number of
+	 * partitions, reindexed in parallel. Each partition is read in pages whose
+	 * child entities are loaded together and whose documents are sent in a
+	 * single bulk request. The number of documents and the elapsed time are
+	 * logged for both paths, so that they can be compared on the same catalog.
+	 */
+	protected void reindexCPDefinitions(long companyId) throws Exception {
+		CPDefinitionIndexerConfiguration cpDefinitionIndexerConfiguration =
+			_cpDefinitionIndexerConfiguration;
+
+		long startTime = System.currentTimeMillis();
+
+		int count = 0;
+
+		if (cpDefinitionIndexerConfiguration.useBulkReindex()) {
+			count = _bulkReindexCPDefinitions(
+				companyId, cpDefinitionIndexerConfiguration);
+		}
+		else {
+			count = _reindexCPDefinitions(companyId);
+		}
+
+		if (_log.isInfoEnabled()) {
+			StringBundler sb = new StringBundler(8);
+
+			sb.append("Reindexed ");
+			sb.append(count);
+			sb.append(" product definitions of company ");
+			sb.append(companyId);
+			sb.append(" in ");
+			sb.append(System.currentTimeMillis() - startTime);
+			sb.append(" ms with bulk reindex ");
+
+			if (cpDefinitionIndexerConfiguration.useBulkReindex()) {
+				sb.append("enabled");
+			}
+			else {
+				sb.append("disabled");
+			}
+
+			_log.info(sb.toString());
+		}
+	}
+
+	private int _bulkReindexCPDefinitions(
+			long companyId,
+			CPDefinitionIndexerConfiguration cpDefinitionIndexerConfiguration)
+		throws Exception {
+
+		DynamicQuery dynamicQuery = _cpDefinitionLocalService.dynamicQuery();
+
+		dynamicQuery.add(RestrictionsFactoryUtil.eq("companyId", companyId));
+
+		ProjectionList projectionList = ProjectionFactoryUtil.projectionList();
+
+		projectionList.add(ProjectionFactoryUtil.min("CPDefinitionId"));
+		projectionList.add(ProjectionFactoryUtil.max("CPDefinitionId"));
+
+		dynamicQuery.setProjection(projectionList);
+
+		List<Object[]> results = _cpDefinitionLocalService.dynamicQuery(
+			dynamicQuery);
+
+		if (results.isEmpty()) {
+			return 0;
+		}
+
+		Object[] result = results.get(0);
+
+		if (result[0] == null) {
+			return 0;
+		}
+
+		long minCPDefinitionId = (Long)result[0];
+		long maxCPDefinitionId = (Long)result[1];
+
+		int batchSize = Math.max(
+			1, cpDefinitionIndexerConfiguration.reindexBatchSize());
+
+		int partitions = (int)Math.min(
+			Math.max(1, cpDefinitionIndexerConfiguration.reindexPartitions()),
+			maxCPDefinitionId - minCPDefinitionId + 1);
+
+		if (partitions == 1) {
+			return _reindexCPDefinitions(
+				companyId, minCPDefinitionId, maxCPDefinitionId, batchSize);
+		}
+
+		long partitionSize =
+			((maxCPDefinitionId - minCPDefinitionId) / partitions) + 1;
+
+		PermissionChecker permissionChecker =
+			PermissionThreadLocal.getPermissionChecker();
+		String name = PrincipalThreadLocal.getName();
+
+		ExecutorService executorService = Executors.newFixedThreadPool(
+			partitions);
+
+		try {
+			List<Future<Integer>> futures = new ArrayList<>(partitions);
+
+			for (int i = 0; i < partitions; i++) {
+				long startCPDefinitionId =
+					minCPDefinitionId + (i * partitionSize);
+
+				long endCPDefinitionId = Math.min(
+					startCPDefinitionId + partitionSize - 1, maxCPDefinitionId);
+
+				futures.add(
+					executorService.submit(
+						() -> {
+							CompanyThreadLocal.setCompanyId(companyId);
+							PermissionThreadLocal.setPermissionChecker(
+								permissionChecker);
+							PrincipalThreadLocal.setName(name);
+
+							return _reindexCPDefinitions(
+								companyId, startCPDefinitionId,
+								endCPDefinitionId, batchSize);
+						}));
+			}
+
+			int count = 0;
+
+			for (Future<Integer> future : futures) {
+				count += future.get();
+			}
+
+			return count;
+		}
+		finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private List<CPDefinitionOptionRel> _getCPDefinitionOptionRels(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		CPDefinition cpDefinition) {
+
+		if (cpDefinitionBatchData == null) {
+			return cpDefinition.getCPDefinitionOptionRels();
+		}
+
+		return cpDefinitionBatchData.getCPDefinitionOptionRels(
+			cpDefinition.getCPDefinitionId());
+	}
+
+	private List<CPDefinitionOptionValueRel> _getCPDefinitionOptionValueRels(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		CPDefinitionOptionRel cpDefinitionOptionRel) {
+
+		if (cpDefinitionBatchData == null) {
+			return cpDefinitionOptionRel.getCPDefinitionOptionValueRels();
+		}
+
+		return cpDefinitionBatchData.getCPDefinitionOptionValueRels(
+			cpDefinitionOptionRel.getCPDefinitionOptionRelId());
+	}
+
+	private List<CPDefinitionSpecificationOptionValue>
+		_getCPDefinitionSpecificationOptionValues(
+			CPDefinitionBatchData cpDefinitionBatchData,
+			CPDefinition cpDefinition) {
+
+		if (cpDefinitionBatchData == null) {
+			return cpDefinition.getCPDefinitionSpecificationOptionValues();
+		}
+
+		return cpDefinitionBatchData.getCPDefinitionSpecificationOptionValues(
+			cpDefinition.getCPDefinitionId());
+	}
+
+	private CPOption _getCPOption(
+			CPDefinitionBatchData cpDefinitionBatchData,
+			CPDefinitionOptionRel cpDefinitionOptionRel)
+		throws PortalException {
+
+		if (cpDefinitionBatchData == null) {
+			return cpDefinitionOptionRel.getCPOption();
+		}
+
+		return cpDefinitionBatchData.getCPOption(
+			cpDefinitionOptionRel.getCPOptionId());
+	}
+
+	private CProduct _getCProduct(
+			CPDefinitionBatchData cpDefinitionBatchData,
+			CPDefinition cpDefinition)
+		throws PortalException {
+
+		CProduct cProduct = null;
+
+		if (cpDefinitionBatchData != null) {
+			cProduct = cpDefinitionBatchData.getCProduct(
+				cpDefinition.getCProductId());
+		}
+
+		if (cProduct == null) {
+			cProduct = cpDefinition.getCProduct();
+		}
+
+		return cProduct;
+	}
+
+	private CPSpecificationOption _getCPSpecificationOption(
+			CPDefinitionBatchData cpDefinitionBatchData,
+			CPDefinitionSpecificationOptionValue
+				cpDefinitionSpecificationOptionValue)
+		throws PortalException {
+
+		if (cpDefinitionBatchData == null) {
+			return cpDefinitionSpecificationOptionValue.
+				getCPSpecificationOption();
+		}
+
+		return cpDefinitionBatchData.getCPSpecificationOption(
+			cpDefinitionSpecificationOptionValue.getCPSpecificationOptionId());
+	}
+
+	private CPAttachmentFileEntry _getDefaultImage(
+			CPDefinitionBatchData cpDefinitionBatchData,
+			CPDefinition cpDefinition)
+		throws PortalException {
+
+		if (cpDefinitionBatchData == null) {
+			return _cpDefinitionLocalService.getDefaultImage(
+				cpDefinition.getCPDefinitionId());
+		}
+
+		return cpDefinitionBatchData.getDefaultImage(
+			cpDefinition.getCPDefinitionId());
+	}
+
+	private List<String> _getLanguageIds(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		CPDefinition cpDefinition) {
+
+		if (cpDefinitionBatchData == null) {
+			return _cpDefinitionLocalService.
+				getCPDefinitionLocalizationLanguageIds(
+					cpDefinition.getCPDefinitionId());
+		}
+
+		return cpDefinitionBatchData.getLanguageIds(
+			cpDefinition.getCPDefinitionId());
+	}
+
+	private Map<String, String> _getLanguageIdToUrlTitleMap(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		CPDefinition cpDefinition) {
+
+		if (cpDefinitionBatchData == null) {
+			return _cpFriendlyURLEntryLocalService.getLanguageIdToUrlTitleMap(
+				cpDefinition.getGroupId(),
+				_classNameLocalService.getClassNameId(CPDefinition.class),
+				cpDefinition.getCPDefinitionId());
+		}
+
+		return cpDefinitionBatchData.getLanguageIdToUrlTitleMap(
+			cpDefinition.getCPDefinitionId());
+	}
+
+	private String[] _getReverseCPDefinitionIds(
+		CPDefinitionBatchData cpDefinitionBatchData, long cProductId,
+		String type) {
+
+		if (cpDefinitionBatchData == null) {
+			return getReverseCPDefinitionIds(cProductId, type);
+		}
+
+		return cpDefinitionBatchData.getReverseCPDefinitionIds(
+			cProductId, type);
+	}
+
+	private String[] _getSKUs(
+		CPDefinitionBatchData cpDefinitionBatchData,
+		CPDefinition cpDefinition) {
+
+		if (cpDefinitionBatchData == null) {
+			return _cpInstanceLocalService.getSKUs(
+				cpDefinition.getCPDefinitionId());
+		}
+
+		return cpDefinitionBatchData.getSKUs(cpDefinition.getCPDefinitionId());
+	}
+
+	private int _reindexCPDefinitions(long companyId) throws PortalException {
 		final IndexableActionableDynamicQuery indexableActionableDynamicQuery =
 			_cpDefinitionLocalService.getIndexableActionableDynamicQuery();
 
+		AtomicInteger count = new AtomicInteger();
+
 		indexableActionableDynamicQuery.setCompanyId(companyId);
 		indexableActionableDynamicQuery.setPerformActionMethod(
 			(CPDefinition cpDefinition) -> {
@@ -670,6 +1134,8 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 					Document document = getDocument(cpDefinition);
 
 					indexableActionableDynamicQuery.addDocuments(document);
+
+					count.incrementAndGet();
 				}
 				catch (PortalException pe) {
 					if (_log.isWarnEnabled()) {
@@ -683,17 +1149,114 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 		indexableActionableDynamicQuery.setSearchEngineId(getSearchEngineId());
 
 		indexableActionableDynamicQuery.performActions();
+
+		return count.get();
+	}
+
+	private int _reindexCPDefinitions(
+			long companyId, long startCPDefinitionId, long endCPDefinitionId,
+			int batchSize)
+		throws Exception {
+
+		int count = 0;
+		long lastCPDefinitionId = startCPDefinitionId - 1;
+
+		while (true) {
+			DynamicQuery dynamicQuery =
+				_cpDefinitionLocalService.dynamicQuery();
+
+			Property property = PropertyFactoryUtil.forName("CPDefinitionId");
+
+			dynamicQuery.add(
+				RestrictionsFactoryUtil.eq("companyId", companyId));
+			dynamicQuery.add(property.gt(lastCPDefinitionId));
+			dynamicQuery.add(property.le(endCPDefinitionId));
+
+			dynamicQuery.addOrder(OrderFactoryUtil.asc("CPDefinitionId"));
+
+			List<CPDefinition> cpDefinitions =
+				_cpDefinitionLocalService.dynamicQuery(
+					dynamicQuery, 0, batchSize);
+
+			if (cpDefinitions.isEmpty()) {
+				return count;
+			}
+
+			count += _reindexCPDefinitions(companyId, cpDefinitions);
+
+			if (cpDefinitions.size() < batchSize) {
+				return count;
+			}
+
+			CPDefinition cpDefinition = cpDefinitions.get(
+				cpDefinitions.size() - 1);
+
+			lastCPDefinitionId = cpDefinition.getCPDefinitionId();
+		}
+	}
+
+	private int _reindexCPDefinitions(
+			long companyId, List<CPDefinition> cpDefinitions)
+		throws Exception {
+
+		List<Document> documents = new ArrayList<>(cpDefinitions.size());
+
+		_cpDefinitionBatchDataThreadLocal.set(
+			_cpDefinitionBatchDataLoader.load(cpDefinitions));
+
+		CPDefinitionIndexerBatchThreadLocal.setCPDefinitions(cpDefinitions);
+
+		try {
+			for (CPDefinition cpDefinition : cpDefinitions) {
+				try {
+					documents.add(getDocument(cpDefinition));
+				}
+				catch (PortalException pe) {
+					if (_log.isWarnEnabled()) {
+						_log.warn(
+							"Unable to index commerce product definition " +
+								cpDefinition.getCPDefinitionId(),
+							pe);
+					}
+				}
+			}
+		}
+		finally {
+			_cpDefinitionBatchDataThreadLocal.remove();
+
+			CPDefinitionIndexerBatchThreadLocal.remove();
+		}
+
+		if (documents.isEmpty()) {
+			return 0;
+		}
+
+		_indexWriterHelper.updateDocuments(
+			getSearchEngineId(), companyId, documents, isCommitImmediately());
+
+		return documents.size();
 	}
 
 	private static final Log _log = LogFactoryUtil.getLog(
 		CPDefinitionIndexer.class);
 
+	private static final ThreadLocal<CPDefinitionBatchData>
+		_cpDefinitionBatchDataThreadLocal = new CentralizedThreadLocal<>(
+			CPDefinitionIndexer.class.getName() +
+				"._cpDefinitionBatchDataThreadLocal");
+
 	@Reference
 	private ClassNameLocalService _classNameLocalService;
 
 	@Reference
 	private CommerceMediaResolver _commerceMediaResolver;
 
+	@Reference
+	private CPDefinitionBatchDataLoader _cpDefinitionBatchDataLoader;
+
+	private volatile CPDefinitionIndexerConfiguration
+		_cpDefinitionIndexerConfiguration;
+
 	@Reference
 	private CPDefinitionLinkLocalService _cpDefinitionLinkLocalService;
 
@@ -709,6 +1272,9 @@ public class CPDefinitionIndexer extends BaseIndexer<CPDefinition> {
 	@Reference
 	private CPInstanceLocalService _cpInstanceLocalService;
 
+	@Reference
+	private CPRulesFilterCache _cpRulesFilterCache;
+
 	@Reference
 	private CPRuleTypeRegistry _cpRuleTypeRegistry;
 
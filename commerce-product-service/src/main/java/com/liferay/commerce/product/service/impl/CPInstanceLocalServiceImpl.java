@@ -19,6 +19,7 @@ import com.liferay.commerce.product.exception.CPInstanceExpirationDateException;
 import com.liferay.commerce.product.exception.CPInstanceJsonException;
 import com.liferay.commerce.product.exception.CPInstanceSkuException;
 import com.liferay.commerce.product.exception.NoSuchSkuContributorCPDefinitionOptionRelException;
+import com.liferay.commerce.product.internal.cache.CPInstanceOptionCombinationCache;
 import com.liferay.commerce.product.internal.util.SKUCombinationsIterator;
 import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.product.model.CPDefinitionOptionRel;
@@ -27,10 +28,19 @@ import com.liferay.commerce.product.model.CPInstance;
 import com.liferay.commerce.product.model.CProduct;
 import com.liferay.commerce.product.search.CPInstanceIndexer;
 import com.liferay.commerce.product.service.base.CPInstanceLocalServiceBaseImpl;
+import com.liferay.commerce.product.util.CPInstanceBuildThreadLocal;
 import com.liferay.commerce.product.util.DDMFormValuesUtil;
+import com.liferay.counter.kernel.model.Counter;
 import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskConstants;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskStatusMessageSenderUtil;
+import com.liferay.portal.kernel.backgroundtask.BackgroundTaskThreadLocal;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.ProjectionFactoryUtil;
 import com.liferay.portal.kernel.dao.orm.QueryDefinition;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Session;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.exception.SystemException;
 import com.liferay.portal.kernel.json.JSONArray;
@@ -38,6 +48,7 @@ import com.liferay.portal.kernel.json.JSONFactoryUtil;
 import com.liferay.portal.kernel.json.JSONObject;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.Message;
 import com.liferay.portal.kernel.model.SystemEventConstants;
 import com.liferay.portal.kernel.model.User;
 import com.liferay.portal.kernel.search.BaseModelSearchResult;
@@ -53,7 +64,9 @@ import com.liferay.portal.kernel.search.SearchContext;
 import com.liferay.portal.kernel.search.SearchException;
 import com.liferay.portal.kernel.search.Sort;
 import com.liferay.portal.kernel.service.ServiceContext;
+import com.liferay.portal.kernel.service.WorkflowDefinitionLinkLocalService;
 import com.liferay.portal.kernel.systemevent.SystemEvent;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
 import com.liferay.portal.kernel.util.CalendarFactoryUtil;
 import com.liferay.portal.kernel.util.Constants;
 import com.liferay.portal.kernel.util.GetterUtil;
@@ -66,6 +79,7 @@ import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
 import com.liferay.portal.kernel.workflow.WorkflowConstants;
 import com.liferay.portal.kernel.workflow.WorkflowHandlerRegistryUtil;
+import com.liferay.portal.spring.extender.service.ServiceReference;
 
 import java.io.Serializable;
 
@@ -75,9 +89,12 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @author Marco Leo
@@ -271,6 +288,8 @@ public class CPInstanceLocalServiceImpl extends CPInstanceLocalServiceBaseImpl {
 			throw new NoSuchSkuContributorCPDefinitionOptionRelException();
 		}
 
+		long totalCount = 1;
+
 		for (CPDefinitionOptionRel cpDefinitionOptionRel :
 				cpDefinitionOptionRels) {
 
@@ -287,67 +306,68 @@ public class CPInstanceLocalServiceImpl extends CPInstanceLocalServiceBaseImpl {
 
 			combinationGeneratorMap.put(
 				cpDefinitionOptionRel, cpDefinitionOptionValueRelArray);
+
+			totalCount *= cpDefinitionOptionValueRelArray.length;
 		}
 
-		SKUCombinationsIterator iterator = new SKUCombinationsIterator(
-			combinationGeneratorMap);
+		Set<String> skus = _getSkus(cpDefinitionId);
 
-		while (iterator.hasNext()) {
-			CPDefinitionOptionValueRel[]
-				cpDefinitionOptionValueRels = iterator.next();
+		// SKUs that create a new version of the product definition, go through
+		// a workflow or replace the single SKU of the product definition are
+		// added one by one
 
-			JSONArray jsonArray = JSONFactoryUtil.createJSONArray();
+		if (cpDefinition.isIgnoreSKUCombinations() ||
+			cpDefinitionLocalService.isVersionable(cpDefinitionId) ||
+			_workflowDefinitionLinkLocalService.hasWorkflowDefinitionLink(
+				cpDefinition.getCompanyId(), serviceContext.getScopeGroupId(),
+				CPInstance.class.getName())) {
 
-			StringBundler skuSB = new StringBundler(
-				cpDefinitionOptionValueRels.length + 1);
+			_buildCPInstances(
+				cpDefinition, combinationGeneratorMap, skus, neverExpire,
+				totalCount, serviceContext);
 
-			for (CPDefinitionOptionValueRel cpDefinitionOptionValueRel :
-					cpDefinitionOptionValueRels) {
+			return;
+		}
 
-				skuSB.append(
-					StringUtil.toUpperCase(
-						cpDefinitionOptionValueRel.getName(
-							serviceContext.getLanguageId())));
+		boolean buildInProcess = CPInstanceBuildThreadLocal.isBuildInProcess();
 
-				JSONObject jsonObject = JSONFactoryUtil.createJSONObject();
+		CPInstanceBuildThreadLocal.setBuildInProcess(true);
 
-				JSONArray valueJSONArray = JSONFactoryUtil.createJSONArray();
+		List<Long> cpInstanceIds = null;
 
-				valueJSONArray.put(String.valueOf(cpDefinitionOptionValueRel.
-					getCPDefinitionOptionValueRelId()));
+		try {
+			cpInstanceIds = _addCPInstances(
+				cpDefinition, combinationGeneratorMap, skus, totalCount,
+				serviceContext);
+		}
+		finally {
+			CPInstanceBuildThreadLocal.setBuildInProcess(buildInProcess);
+		}
 
-				jsonObject.put(
-					"key",
-					cpDefinitionOptionValueRel.getCPDefinitionOptionRelId());
-				jsonObject.put("value", valueJSONArray);
+		if (cpInstanceIds.isEmpty()) {
+			return;
+		}
 
-				jsonArray.put(jsonObject);
-			}
+		// Notify the model listeners of the product definition once instead
+		// of once per SKU
 
-			CPInstance cpInstance = cpInstancePersistence.fetchByC_S(
-				cpDefinitionId, skuSB.toString());
+		cpDefinition = cpDefinitionPersistence.findByPrimaryKey(
+			cpDefinitionId);
 
-			if (cpInstance != null) {
-				continue;
-			}
+		cpDefinition.setModifiedDate(new Date());
 
-			try {
-				addCPInstance(
-					cpDefinitionId, skuSB.toString(), StringPool.BLANK,
-					StringPool.BLANK, true, jsonArray.toString(),
-					cpDefinition.getWidth(), cpDefinition.getHeight(),
-					cpDefinition.getDepth(), cpDefinition.getWeight(),
-					BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, true,
-					cpDefinition.getDisplayDate(),
-					cpDefinition.getExpirationDate(), neverExpire,
-					serviceContext);
-			}
-			catch (CPInstanceJsonException cpije) {
-				if (_log.isDebugEnabled()) {
-					_log.debug(cpije, cpije);
-				}
-			}
-		}
+		cpDefinitionPersistence.update(cpDefinition);
+
+		_cpInstanceOptionCombinationCache.invalidate(cpDefinitionId);
+
+		List<Long> reindexCPInstanceIds = cpInstanceIds;
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_reindexCPInstances(cpDefinitionId, reindexCPInstanceIds);
+
+				return null;
+			});
 	}
 
 	@Override
@@ -1271,10 +1291,381 @@ public class CPInstanceLocalServiceImpl extends CPInstanceLocalServiceBaseImpl {
 		}
 	}
 
+	/**
+	 * Inserts the SKUs of the combinations that do not have one yet in chunks,
+	 * without going through {@link #addCPInstance}, and returns their IDs. The
+	 * approved SKUs of the product definition are loaded once and the statuses
+	 * a workflowless publication would have assigned are set directly.
+	 */
+	private List<Long> _addCPInstances(
+			CPDefinition cpDefinition,
+			Map<CPDefinitionOptionRel, CPDefinitionOptionValueRel[]>
+				combinationGeneratorMap,
+			Set<String> skus, long totalCount, ServiceContext serviceContext)
+		throws PortalException {
+
+		User user = userLocalService.getUser(serviceContext.getUserId());
+		Date now = new Date();
+
+		Date displayDate = cpDefinition.getDisplayDate();
+		Date expirationDate = cpDefinition.getExpirationDate();
+
+		int status = WorkflowConstants.STATUS_APPROVED;
+
+		if ((displayDate != null) && now.before(displayDate)) {
+			status = WorkflowConstants.STATUS_SCHEDULED;
+		}
+
+		boolean publish = false;
+
+		if (serviceContext.getWorkflowAction() ==
+				WorkflowConstants.ACTION_PUBLISH) {
+
+			publish = true;
+		}
+
+		Map<String, List<Long>> approvedCPInstanceIdsMap = new HashMap<>();
+
+		if (publish) {
+			List<CPInstance> cpInstances = cpInstancePersistence.findByC_ST(
+				cpDefinition.getCPDefinitionId(),
+				WorkflowConstants.STATUS_APPROVED);
+
+			for (CPInstance cpInstance : cpInstances) {
+				if (Validator.isNotNull(cpInstance.getJson())) {
+					List<Long> approvedCPInstanceIds =
+						approvedCPInstanceIdsMap.computeIfAbsent(
+							_getOptionValuesKey(
+								JSONFactoryUtil.createJSONArray(
+									cpInstance.getJson())),
+							key -> new ArrayList<>());
+
+					approvedCPInstanceIds.add(cpInstance.getCPInstanceId());
+
+					continue;
+				}
+
+				updateStatus(
+					serviceContext.getUserId(), cpInstance.getCPInstanceId(),
+					WorkflowConstants.STATUS_INACTIVE, serviceContext,
+					new HashMap<String, Serializable>());
+
+				publish = false;
+			}
+		}
+
+		List<Long> cpInstanceIds = new ArrayList<>();
+		Map<String, JSONArray> jsonArrays = new LinkedHashMap<>();
+
+		long count = 0;
+
+		SKUCombinationsIterator iterator = new SKUCombinationsIterator(
+			combinationGeneratorMap);
+
+		while (iterator.hasNext()) {
+			CPDefinitionOptionValueRel[]
+				cpDefinitionOptionValueRels = iterator.next();
+
+			count++;
+
+			String sku = _getSku(
+				cpDefinitionOptionValueRels, serviceContext.getLanguageId());
+
+			if (skus.add(sku)) {
+				jsonArrays.put(sku, _getJSONArray(cpDefinitionOptionValueRels));
+			}
+
+			if (jsonArrays.isEmpty() ||
+				((jsonArrays.size() < _BATCH_SIZE) && iterator.hasNext())) {
+
+				continue;
+			}
+
+			int size = jsonArrays.size();
+
+			long cpInstanceId =
+				counterLocalService.increment(Counter.class.getName(), size) -
+					size;
+
+			for (Map.Entry<String, JSONArray> entry : jsonArrays.entrySet()) {
+				JSONArray jsonArray = entry.getValue();
+
+				// Replacing approved SKUs with the same option values resets
+				// the workflow action, as validate does for single SKUs
+
+				if (publish && (status == WorkflowConstants.STATUS_APPROVED)) {
+					List<Long> approvedCPInstanceIds =
+						approvedCPInstanceIdsMap.remove(
+							_getOptionValuesKey(jsonArray));
+
+					if (approvedCPInstanceIds != null) {
+						for (long approvedCPInstanceId :
+								approvedCPInstanceIds) {
+
+							updateStatus(
+								serviceContext.getUserId(),
+								approvedCPInstanceId,
+								WorkflowConstants.STATUS_EXPIRED,
+								serviceContext,
+								new HashMap<String, Serializable>());
+						}
+
+						publish = false;
+					}
+				}
+
+				CPInstance cpInstance = cpInstancePersistence.create(
+					++cpInstanceId);
+
+				cpInstance.setUuid(serviceContext.getUuid());
+				cpInstance.setGroupId(serviceContext.getScopeGroupId());
+				cpInstance.setCompanyId(user.getCompanyId());
+				cpInstance.setUserId(user.getUserId());
+				cpInstance.setUserName(user.getFullName());
+				cpInstance.setCPDefinitionId(cpDefinition.getCPDefinitionId());
+				cpInstance.setCPInstanceUuid(PortalUUIDUtil.generate());
+				cpInstance.setSku(entry.getKey());
+				cpInstance.setGtin(StringPool.BLANK);
+				cpInstance.setManufacturerPartNumber(StringPool.BLANK);
+				cpInstance.setPurchasable(true);
+				cpInstance.setJson(jsonArray.toString());
+				cpInstance.setWidth(cpDefinition.getWidth());
+				cpInstance.setHeight(cpDefinition.getHeight());
+				cpInstance.setDepth(cpDefinition.getDepth());
+				cpInstance.setWeight(cpDefinition.getWeight());
+				cpInstance.setPrice(BigDecimal.ZERO);
+				cpInstance.setPromoPrice(BigDecimal.ZERO);
+				cpInstance.setCost(BigDecimal.ZERO);
+				cpInstance.setPublished(true);
+				cpInstance.setExternalReferenceCode(StringPool.BLANK);
+				cpInstance.setDisplayDate(displayDate);
+				cpInstance.setExpirationDate(expirationDate);
+				cpInstance.setSubscriptionLength(1);
+				cpInstance.setSubscriptionType(StringPool.BLANK);
+
+				if (publish) {
+					cpInstance.setStatus(status);
+
+					if ((status == WorkflowConstants.STATUS_APPROVED) &&
+						(expirationDate != null) &&
+						expirationDate.before(now)) {
+
+						cpInstance.setExpirationDate(null);
+					}
+				}
+				else if ((expirationDate == null) ||
+						 expirationDate.after(now)) {
+
+					cpInstance.setStatus(WorkflowConstants.STATUS_DRAFT);
+				}
+				else {
+					cpInstance.setStatus(WorkflowConstants.STATUS_EXPIRED);
+				}
+
+				cpInstance.setStatusByUserId(user.getUserId());
+				cpInstance.setStatusByUserName(user.getFullName());
+				cpInstance.setStatusDate(serviceContext.getModifiedDate(now));
+				cpInstance.setExpandoBridgeAttributes(serviceContext);
+
+				cpInstancePersistence.update(cpInstance);
+
+				cpInstanceIds.add(cpInstance.getCPInstanceId());
+			}
+
+			jsonArrays.clear();
+
+			Session session = cpInstancePersistence.getCurrentSession();
+
+			session.flush();
+
+			session.clear();
+
+			_sendBackgroundTaskStatusMessage(count, totalCount);
+		}
+
+		_sendBackgroundTaskStatusMessage(count, totalCount);
+
+		return cpInstanceIds;
+	}
+
+	private void _buildCPInstances(
+			CPDefinition cpDefinition,
+			Map<CPDefinitionOptionRel, CPDefinitionOptionValueRel[]>
+				combinationGeneratorMap,
+			Set<String> skus, boolean neverExpire, long totalCount,
+			ServiceContext serviceContext)
+		throws PortalException {
+
+		long count = 0;
+
+		SKUCombinationsIterator iterator = new SKUCombinationsIterator(
+			combinationGeneratorMap);
+
+		while (iterator.hasNext()) {
+			CPDefinitionOptionValueRel[]
+				cpDefinitionOptionValueRels = iterator.next();
+
+			count++;
+
+			if ((count % _BATCH_SIZE) == 0) {
+				_sendBackgroundTaskStatusMessage(count, totalCount);
+			}
+
+			String sku = _getSku(
+				cpDefinitionOptionValueRels, serviceContext.getLanguageId());
+
+			if (!skus.add(sku)) {
+				continue;
+			}
+
+			JSONArray jsonArray = _getJSONArray(cpDefinitionOptionValueRels);
+
+			try {
+				addCPInstance(
+					cpDefinition.getCPDefinitionId(), sku, StringPool.BLANK,
+					StringPool.BLANK, true, jsonArray.toString(),
+					cpDefinition.getWidth(), cpDefinition.getHeight(),
+					cpDefinition.getDepth(), cpDefinition.getWeight(),
+					BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, true,
+					cpDefinition.getDisplayDate(),
+					cpDefinition.getExpirationDate(), neverExpire,
+					serviceContext);
+			}
+			catch (CPInstanceJsonException cpije) {
+				if (_log.isDebugEnabled()) {
+					_log.debug(cpije, cpije);
+				}
+			}
+		}
+
+		_sendBackgroundTaskStatusMessage(count, totalCount);
+	}
+
+	private JSONArray _getJSONArray(
+		CPDefinitionOptionValueRel[] cpDefinitionOptionValueRels) {
+
+		JSONArray jsonArray = JSONFactoryUtil.createJSONArray();
+
+		for (CPDefinitionOptionValueRel cpDefinitionOptionValueRel :
+				cpDefinitionOptionValueRels) {
+
+			JSONObject jsonObject = JSONFactoryUtil.createJSONObject();
+
+			JSONArray valueJSONArray = JSONFactoryUtil.createJSONArray();
+
+			valueJSONArray.put(String.valueOf(cpDefinitionOptionValueRel.
+				getCPDefinitionOptionValueRelId()));
+
+			jsonObject.put(
+				"key", cpDefinitionOptionValueRel.getCPDefinitionOptionRelId());
+			jsonObject.put("value", valueJSONArray);
+
+			jsonArray.put(jsonObject);
+		}
+
+		return jsonArray;
+	}
+
+	/**
+	 * Returns a key that is equal for two JSON arrays exactly when {@link
+	 * DDMFormValuesUtil#equals(String, String)} considers them equal.
+	 */
+	private String _getOptionValuesKey(JSONArray jsonArray) {
+		Map<String, String> optionValues = new TreeMap<>();
+
+		for (int i = 0; i < jsonArray.length(); i++) {
+			JSONObject jsonObject = jsonArray.getJSONObject(i);
+
+			optionValues.put(
+				jsonObject.getString("key"), jsonObject.getString("value"));
+		}
+
+		return optionValues.toString() + StringPool.POUND + jsonArray.length();
+	}
+
+	private String _getSku(
+		CPDefinitionOptionValueRel[] cpDefinitionOptionValueRels,
+		String languageId) {
+
+		StringBundler sb = new StringBundler(
+			cpDefinitionOptionValueRels.length);
+
+		for (CPDefinitionOptionValueRel cpDefinitionOptionValueRel :
+				cpDefinitionOptionValueRels) {
+
+			sb.append(
+				StringUtil.toUpperCase(
+					cpDefinitionOptionValueRel.getName(languageId)));
+		}
+
+		return sb.toString();
+	}
+
+	private Set<String> _getSkus(long cpDefinitionId) {
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.eq("CPDefinitionId", cpDefinitionId));
+		dynamicQuery.setProjection(ProjectionFactoryUtil.property("sku"));
+
+		List<String> skus = cpInstanceLocalService.dynamicQuery(dynamicQuery);
+
+		return new HashSet<>(skus);
+	}
+
+	private void _reindexCPInstances(
+			long cpDefinitionId, List<Long> cpInstanceIds)
+		throws PortalException {
+
+		Indexer<CPInstance> indexer = IndexerRegistryUtil.nullSafeGetIndexer(
+			CPInstance.class);
+
+		for (int i = 0; i < cpInstanceIds.size(); i += _BATCH_SIZE) {
+			List<Long> curCPInstanceIds = cpInstanceIds.subList(
+				i, Math.min(i + _BATCH_SIZE, cpInstanceIds.size()));
+
+			Map<Serializable, CPInstance> cpInstances =
+				cpInstancePersistence.fetchByPrimaryKeys(
+					new HashSet<Serializable>(curCPInstanceIds));
+
+			indexer.reindex(cpInstances.values());
+		}
+
+		reindexCPDefinition(cpDefinitionId);
+	}
+
+	private void _sendBackgroundTaskStatusMessage(
+		long count, long totalCount) {
+
+		if (!BackgroundTaskThreadLocal.hasBackgroundTask()) {
+			return;
+		}
+
+		Message message = new Message();
+
+		message.put(
+			BackgroundTaskConstants.BACKGROUND_TASK_ID,
+			BackgroundTaskThreadLocal.getBackgroundTaskId());
+		message.put("count", count);
+		message.put("totalCount", totalCount);
+
+		BackgroundTaskStatusMessageSenderUtil.sendBackgroundTaskStatusMessage(
+			message);
+	}
+
+	private static final int _BATCH_SIZE = 500;
+
 	private static final String[] _SELECTED_FIELD_NAMES =
 		{Field.ENTRY_CLASS_PK, Field.COMPANY_ID, Field.GROUP_ID, Field.UID};
 
 	private static final Log _log = LogFactoryUtil.getLog(
 		CPInstanceLocalServiceImpl.class);
 
+	@ServiceReference(type = CPInstanceOptionCombinationCache.class)
+	private CPInstanceOptionCombinationCache _cpInstanceOptionCombinationCache;
+
+	@ServiceReference(type = WorkflowDefinitionLinkLocalService.class)
+	private WorkflowDefinitionLinkLocalService
+		_workflowDefinitionLinkLocalService;
+
 }
\ No newline at end of file
@@ -42,4 +42,9 @@ public interface CommerceOrderConfiguration {
 	)
 	public int guestCartItemMaxAllowed();
 
+	@Meta.AD(
+		deflt = "60", name = "stock-counter-check-interval", required = false
+	)
+	public int stockCounterCheckInterval();
+
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.account;
+
+import com.liferay.commerce.account.model.CommerceAccountUserRel;
+import com.liferay.commerce.account.service.CommerceAccountOrganizationRelLocalService;
+import com.liferay.commerce.account.service.CommerceAccountUserRelLocalService;
+import com.liferay.petra.string.CharPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.model.Organization;
+import com.liferay.portal.kernel.service.OrganizationLocalService;
+import com.liferay.portal.kernel.service.UserLocalService;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.ListUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Maintains, for each user, the IDs of the commerce accounts whose orders the
+ * user can see: the accounts the user is a member of and the accounts of the
+ * user's organizations and of all their suborganizations. The set is computed
+ * once per user and invalidated by the listeners of account memberships,
+ * organization memberships and organization moves, so that the order finder
+ * does not need to walk the organization tree on every query.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommerceAccountVisibilityCache.class)
+public class CommerceAccountVisibilityCache {
+
+	public static final String CACHE_NAME =
+		CommerceAccountVisibilityCache.class.getName();
+
+	public long[] getCommerceAccountIds(long userId) {
+		long[] commerceAccountIds = _portalCache.get(userId);
+
+		if (commerceAccountIds != null) {
+			return commerceAccountIds;
+		}
+
+		commerceAccountIds = _getCommerceAccountIds(userId);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, userId, commerceAccountIds);
+
+		return commerceAccountIds;
+	}
+
+	public void invalidate(long userId) {
+		_portalCache.remove(userId);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_portalCache.remove(userId);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Discards the visible accounts of the members of the organization and of
+	 * its ancestor organizations, the only users affected when an account is
+	 * added to or removed from the organization, or when the organization is
+	 * moved or removed.
+	 */
+	public void invalidateOrganization(Organization organization) {
+		Set<Long> userIds = new HashSet<>();
+
+		for (long organizationId : _getOrganizationIds(organization)) {
+			for (long userId :
+					_userLocalService.getOrganizationUserIds(organizationId)) {
+
+				userIds.add(userId);
+			}
+		}
+
+		if (userIds.isEmpty()) {
+			return;
+		}
+
+		userIds.forEach(_portalCache::remove);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				userIds.forEach(_portalCache::remove);
+
+				return null;
+			});
+	}
+
+	private long[] _getCommerceAccountIds(long userId) {
+		Set<Long> commerceAccountIds = new HashSet<>();
+
+		List<CommerceAccountUserRel> commerceAccountUserRels =
+			_commerceAccountUserRelLocalService.
+				getCommerceAccountUserRelsByCommerceAccountUserId(userId);
+
+		for (CommerceAccountUserRel commerceAccountUserRel :
+				commerceAccountUserRels) {
+
+			commerceAccountIds.add(
+				commerceAccountUserRel.getCommerceAccountId());
+		}
+
+		List<Long> organizationIds = _getOrganizationIds(userId);
+
+		for (int i = 0; i < organizationIds.size(); i += _MAX_IN_SIZE) {
+			List<Long> subsetOrganizationIds = organizationIds.subList(
+				i, Math.min(i + _MAX_IN_SIZE, organizationIds.size()));
+
+			DynamicQuery dynamicQuery =
+				_commerceAccountOrganizationRelLocalService.dynamicQuery();
+
+			Property organizationIdProperty = PropertyFactoryUtil.forName(
+				"primaryKey.organizationId");
+
+			dynamicQuery.add(organizationIdProperty.in(subsetOrganizationIds));
+
+			dynamicQuery.setProjection(
+				PropertyFactoryUtil.forName("primaryKey.commerceAccountId"));
+
+			List<Long> subsetCommerceAccountIds =
+				_commerceAccountOrganizationRelLocalService.dynamicQuery(
+					dynamicQuery);
+
+			commerceAccountIds.addAll(subsetCommerceAccountIds);
+		}
+
+		return ArrayUtil.toLongArray(commerceAccountIds);
+	}
+
+	private Set<Long> _getOrganizationIds(Organization organization) {
+		Set<Long> organizationIds = new HashSet<>();
+
+		organizationIds.add(organization.getOrganizationId());
+
+		String treePath = organization.getTreePath();
+
+		if (treePath == null) {
+			return organizationIds;
+		}
+
+		String[] ancestorOrganizationIds = StringUtil.split(
+			treePath, CharPool.SLASH);
+
+		for (String ancestorOrganizationId : ancestorOrganizationIds) {
+			long organizationId = GetterUtil.getLong(ancestorOrganizationId);
+
+			if (organizationId > 0) {
+				organizationIds.add(organizationId);
+			}
+		}
+
+		return organizationIds;
+	}
+
+	private List<Long> _getOrganizationIds(long userId) {
+		List<Organization> organizations = ListUtil.copy(
+			_organizationLocalService.getUserOrganizations(userId));
+
+		organizations.sort(Comparator.comparing(Organization::getTreePath));
+
+		List<Long> organizationIds = new ArrayList<>();
+		List<String> treePaths = new ArrayList<>();
+
+		for (Organization organization : organizations) {
+			String treePath = organization.getTreePath();
+
+			if (treePath == null) {
+				continue;
+			}
+
+			if (!treePaths.isEmpty()) {
+				String lastTreePath = treePaths.get(treePaths.size() - 1);
+
+				if (treePath.startsWith(lastTreePath)) {
+					continue;
+				}
+			}
+
+			treePaths.add(treePath);
+
+			DynamicQuery dynamicQuery =
+				_organizationLocalService.dynamicQuery();
+
+			Property companyIdProperty = PropertyFactoryUtil.forName(
+				"companyId");
+
+			dynamicQuery.add(companyIdProperty.eq(organization.getCompanyId()));
+
+			Property treePathProperty = PropertyFactoryUtil.forName("treePath");
+
+			dynamicQuery.add(treePathProperty.like(treePath + "%"));
+
+			dynamicQuery.setProjection(
+				PropertyFactoryUtil.forName("organizationId"));
+
+			List<Long> descendantOrganizationIds =
+				_organizationLocalService.dynamicQuery(dynamicQuery);
+
+			organizationIds.addAll(descendantOrganizationIds);
+		}
+
+		return organizationIds;
+	}
+
+	private static final int _MAX_IN_SIZE = 1000;
+
+	private static final PortalCache<Long, long[]> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommerceAccountOrganizationRelLocalService
+		_commerceAccountOrganizationRelLocalService;
+
+	@Reference
+	private CommerceAccountUserRelLocalService
+		_commerceAccountUserRelLocalService;
+
+	@Reference
+	private OrganizationLocalService _organizationLocalService;
+
+	@Reference
+	private UserLocalService _userLocalService;
+
+}
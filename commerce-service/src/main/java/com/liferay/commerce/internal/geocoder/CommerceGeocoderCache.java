@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.geocoder;
+
+import com.liferay.commerce.model.CommerceAddress;
+import com.liferay.commerce.model.CommerceWarehouse;
+import com.liferay.commerce.service.CommerceAddressLocalService;
+import com.liferay.commerce.service.CommerceWarehouseLocalService;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.RestrictionsFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Time;
+
+import java.util.List;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Resolves the coordinates of an address without calling the geocoder when
+ * the same address was already geolocated. Coordinates are kept in a multi VM
+ * portal cache keyed by the normalized address, and on a cache miss they are
+ * looked up among the commerce addresses and warehouses that were already
+ * geolocated, so the tables themselves act as the persistent geocode store.
+ * Addresses the geocoder failed to resolve are remembered as well, so that
+ * they are not sent to the geocoder again until a backoff delay has elapsed.
+ *
+ * @author Andrea Di Giorgi
+ */
+@Component(immediate = true, service = CommerceGeocoderCache.class)
+public class CommerceGeocoderCache {
+
+	public static final String CACHE_NAME =
+		CommerceGeocoderCache.class.getName();
+
+	/**
+	 * Returns the latitude and longitude of the address, or <code>null</code>
+	 * if the address was never geolocated.
+	 */
+	public double[] getCoordinates(
+		String street, String city, String zip, long commerceRegionId,
+		long commerceCountryId) {
+
+		String key = _getKey(
+			street, city, zip, commerceRegionId, commerceCountryId);
+
+		double[] coordinates = _portalCache.get(key);
+
+		if (coordinates != null) {
+			return coordinates;
+		}
+
+		DynamicQuery dynamicQuery = _getDynamicQuery(
+			_commerceAddressLocalService.dynamicQuery(), street, city, zip,
+			commerceRegionId, commerceCountryId);
+
+		List<CommerceAddress> commerceAddresses =
+			_commerceAddressLocalService.dynamicQuery(dynamicQuery, 0, 1);
+
+		if (!commerceAddresses.isEmpty()) {
+			CommerceAddress commerceAddress = commerceAddresses.get(0);
+
+			coordinates = new double[] {
+				commerceAddress.getLatitude(), commerceAddress.getLongitude()
+			};
+		}
+		else {
+			dynamicQuery = _getDynamicQuery(
+				_commerceWarehouseLocalService.dynamicQuery(), street, city,
+				zip, commerceRegionId, commerceCountryId);
+
+			List<CommerceWarehouse> commerceWarehouses =
+				_commerceWarehouseLocalService.dynamicQuery(
+					dynamicQuery, 0, 1);
+
+			if (commerceWarehouses.isEmpty()) {
+				return null;
+			}
+
+			CommerceWarehouse commerceWarehouse = commerceWarehouses.get(0);
+
+			coordinates = new double[] {
+				commerceWarehouse.getLatitude(),
+				commerceWarehouse.getLongitude()
+			};
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, key, coordinates);
+
+		return coordinates;
+	}
+
+	/**
+	 * Returns <code>true</code> if the geocoder recently failed to resolve the
+	 * address and the address must not be sent to the geocoder yet.
+	 */
+	public boolean isFailed(
+		String street, String city, String zip, long commerceRegionId,
+		long commerceCountryId) {
+
+		long[] failure = _failuresPortalCache.get(
+			_getKey(street, city, zip, commerceRegionId, commerceCountryId));
+
+		if ((failure != null) && (System.currentTimeMillis() < failure[1])) {
+			return true;
+		}
+
+		return false;
+	}
+
+	public void putCoordinates(
+		String street, String city, String zip, long commerceRegionId,
+		long commerceCountryId, double latitude, double longitude) {
+
+		if ((latitude == 0) && (longitude == 0)) {
+			return;
+		}
+
+		String key = _getKey(
+			street, city, zip, commerceRegionId, commerceCountryId);
+
+		_failuresPortalCache.remove(key);
+
+		_portalCache.put(key, new double[] {latitude, longitude});
+	}
+
+	/**
+	 * Records that the geocoder failed to resolve the address. The address is
+	 * not sent to the geocoder again for one minute, a delay that doubles
+	 * after every further failure, up to one day.
+	 */
+	public void putFailure(
+		String street, String city, String zip, long commerceRegionId,
+		long commerceCountryId) {
+
+		String key = _getKey(
+			street, city, zip, commerceRegionId, commerceCountryId);
+
+		long[] failure = _failuresPortalCache.get(key);
+
+		long failureCount = 1;
+
+		if (failure != null) {
+			failureCount = failure[0] + 1;
+		}
+
+		long retryDelay = Math.min(
+			Time.MINUTE << Math.min(failureCount - 1, 20), Time.DAY);
+
+		_failuresPortalCache.put(
+			key,
+			new long[] {failureCount, System.currentTimeMillis() + retryDelay},
+			_FAILURES_TIME_TO_LIVE);
+	}
+
+	private DynamicQuery _getDynamicQuery(
+		DynamicQuery dynamicQuery, String street, String city, String zip,
+		long commerceRegionId, long commerceCountryId) {
+
+		Property street1Property = PropertyFactoryUtil.forName("street1");
+
+		dynamicQuery.add(street1Property.eq(GetterUtil.getString(street)));
+
+		Property cityProperty = PropertyFactoryUtil.forName("city");
+
+		dynamicQuery.add(cityProperty.eq(GetterUtil.getString(city)));
+
+		Property zipProperty = PropertyFactoryUtil.forName("zip");
+
+		dynamicQuery.add(zipProperty.eq(GetterUtil.getString(zip)));
+
+		Property commerceRegionIdProperty = PropertyFactoryUtil.forName(
+			"commerceRegionId");
+
+		dynamicQuery.add(commerceRegionIdProperty.eq(commerceRegionId));
+
+		Property commerceCountryIdProperty = PropertyFactoryUtil.forName(
+			"commerceCountryId");
+
+		dynamicQuery.add(commerceCountryIdProperty.eq(commerceCountryId));
+
+		Property latitudeProperty = PropertyFactoryUtil.forName("latitude");
+		Property longitudeProperty = PropertyFactoryUtil.forName("longitude");
+
+		dynamicQuery.add(
+			RestrictionsFactoryUtil.or(
+				latitudeProperty.ne(0D), longitudeProperty.ne(0D)));
+
+		return dynamicQuery;
+	}
+
+	private String _getKey(
+		String street, String city, String zip, long commerceRegionId,
+		long commerceCountryId) {
+
+		StringBundler sb = new StringBundler(9);
+
+		sb.append(_normalize(street));
+		sb.append(StringPool.POUND);
+		sb.append(_normalize(city));
+		sb.append(StringPool.POUND);
+		sb.append(_normalize(zip));
+		sb.append(StringPool.POUND);
+		sb.append(commerceRegionId);
+		sb.append(StringPool.POUND);
+		sb.append(commerceCountryId);
+
+		return sb.toString();
+	}
+
+	private String _normalize(String value) {
+		value = StringUtil.toLowerCase(GetterUtil.getString(value));
+
+		return value.trim();
+	}
+
+	private static final int _FAILURES_TIME_TO_LIVE = 2 * 24 * 60 * 60;
+
+	private static final PortalCache<String, long[]> _failuresPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".failures");
+	private static final PortalCache<String, double[]> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommerceAddressLocalService _commerceAddressLocalService;
+
+	@Reference
+	private CommerceWarehouseLocalService _commerceWarehouseLocalService;
+
+}
@@ -15,7 +15,6 @@
 package com.liferay.commerce.internal.inventory;
 
 import com.liferay.commerce.constants.CPDefinitionInventoryConstants;
-import com.liferay.commerce.constants.CommerceOrderConstants;
 import com.liferay.commerce.inventory.CPDefinitionInventoryEngine;
 import com.liferay.commerce.model.CPDAvailabilityEstimate;
 import com.liferay.commerce.model.CPDefinitionInventory;
@@ -24,7 +23,6 @@ import com.liferay.commerce.model.CommerceWarehouseItem;
 import com.liferay.commerce.product.model.CPInstance;
 import com.liferay.commerce.service.CPDAvailabilityEstimateLocalService;
 import com.liferay.commerce.service.CPDefinitionInventoryLocalService;
-import com.liferay.commerce.service.CommerceOrderItemLocalService;
 import com.liferay.commerce.service.CommerceWarehouseItemLocalService;
 import com.liferay.petra.string.StringPool;
 import com.liferay.portal.kernel.exception.PortalException;
@@ -169,16 +167,10 @@ public class CPDefinitionInventoryEngineImpl
 
 	@Override
 	public int getStockQuantity(CPInstance cpInstance) {
-		int warehouseCPInstanceQuantity =
-			_commerceWarehouseItemLocalService.getCPInstanceQuantity(
-				cpInstance.getCPInstanceId());
+		CommerceStockCounter commerceStockCounter =
+			_commerceStockCounterCache.getCommerceStockCounter(cpInstance);
 
-		int orderCPInstanceQuantity =
-			_commerceOrderItemLocalService.getCPInstanceQuantity(
-				cpInstance.getCPInstanceId(),
-				CommerceOrderConstants.ORDER_STATUS_COMPLETED);
-
-		return warehouseCPInstanceQuantity - orderCPInstanceQuantity;
+		return commerceStockCounter.getAvailableQuantity();
 	}
 
 	@Override
@@ -233,18 +225,13 @@ public class CPDefinitionInventoryEngineImpl
 	public int updateStockQuantity(
 		CommerceWarehouseItem commerceWarehouseItem, int quantity) {
 
-		quantity = commerceWarehouseItem.getQuantity() - quantity;
-
-		commerceWarehouseItem.setQuantity(quantity);
-
-		_commerceWarehouseItemLocalService.updateCommerceWarehouseItem(
-			commerceWarehouseItem);
-
-		return quantity;
+		return _commerceWarehouseItemLocalService.
+			decrementCommerceWarehouseItemQuantity(
+				commerceWarehouseItem, quantity);
 	}
 
 	@Reference
-	private CommerceOrderItemLocalService _commerceOrderItemLocalService;
+	private CommerceStockCounterCache _commerceStockCounterCache;
 
 	@Reference
 	private CommerceWarehouseItemLocalService
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.inventory;
+
+import java.io.Serializable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Holds the stock levels of a SKU: the quantity stored in each warehouse and
+ * the quantity reserved by order items that are neither shipped nor part of a
+ * completed order. Instances are immutable.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CommerceStockCounter implements Serializable {
+
+	public CommerceStockCounter(
+		Map<Long, Integer> warehouseQuantities, int reservedQuantity) {
+
+		_warehouseQuantities = new HashMap<>(warehouseQuantities);
+		_reservedQuantity = reservedQuantity;
+
+		int warehouseQuantity = 0;
+
+		for (int quantity : warehouseQuantities.values()) {
+			warehouseQuantity += quantity;
+		}
+
+		_warehouseQuantity = warehouseQuantity;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof CommerceStockCounter)) {
+			return false;
+		}
+
+		CommerceStockCounter commerceStockCounter = (CommerceStockCounter)obj;
+
+		if ((_reservedQuantity == commerceStockCounter._reservedQuantity) &&
+			_warehouseQuantities.equals(
+				commerceStockCounter._warehouseQuantities)) {
+
+			return true;
+		}
+
+		return false;
+	}
+
+	public int getAvailableQuantity() {
+		return _warehouseQuantity - _reservedQuantity;
+	}
+
+	public int getReservedQuantity() {
+		return _reservedQuantity;
+	}
+
+	public int getWarehouseQuantity() {
+		return _warehouseQuantity;
+	}
+
+	public int getWarehouseQuantity(long commerceWarehouseId) {
+		Integer quantity = _warehouseQuantities.get(commerceWarehouseId);
+
+		if (quantity == null) {
+			return 0;
+		}
+
+		return quantity;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(_reservedQuantity, _warehouseQuantities);
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final int _reservedQuantity;
+	private final int _warehouseQuantity;
+	private final HashMap<Long, Integer> _warehouseQuantities;
+
+}
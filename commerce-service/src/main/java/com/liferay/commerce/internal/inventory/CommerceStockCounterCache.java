@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.inventory;
+
+import com.liferay.commerce.constants.CommerceOrderConstants;
+import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.model.CommerceShipmentItem;
+import com.liferay.commerce.model.CommerceWarehouseItem;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.service.CPDefinitionLocalService;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.commerce.service.CommerceOrderItemLocalService;
+import com.liferay.commerce.service.CommerceWarehouseItemLocalService;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Caches a stock counter for every SKU whose stock quantity was requested, so
+ * that availability checks do not need to sum warehouse items and pending order
+ * items. Counters are built on first use and discarded once the transaction
+ * that changes a warehouse item, an order item, a shipment item or the status
+ * of an order of the SKU commits, to be rebuilt from the committed data on the
+ * next request. A counter whose build overlaps the discarding of its SKU is
+ * returned but not cached, since it may have read the data as they were before
+ * the commit. {@link #reconcile()} recomputes the cached counters from the
+ * source tables to repair counters cached by other cluster nodes while the
+ * change committed.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommerceStockCounterCache.class)
+public class CommerceStockCounterCache {
+
+	public static final String CACHE_NAME =
+		CommerceStockCounterCache.class.getName();
+
+	/**
+	 * Discards the counter of the order item's SKU once the current
+	 * transaction commits.
+	 */
+	public void addCommerceOrderItem(CommerceOrderItem commerceOrderItem) {
+		_invalidate(commerceOrderItem.getCPInstanceId());
+	}
+
+	/**
+	 * Discards the counter of the SKU of the shipment item's order item once
+	 * the current transaction commits, since shipped order items stop
+	 * reserving stock.
+	 */
+	public void addCommerceShipmentItem(
+		CommerceShipmentItem commerceShipmentItem) {
+
+		_invalidate(commerceShipmentItem);
+	}
+
+	public CommerceStockCounter getCommerceStockCounter(CPInstance cpInstance) {
+		long cpInstanceId = cpInstance.getCPInstanceId();
+
+		CommerceStockCounter commerceStockCounter = _portalCache.get(
+			cpInstanceId);
+
+		if (commerceStockCounter != null) {
+			return commerceStockCounter;
+		}
+
+		long invalidationCount = _getInvalidationCount(cpInstanceId);
+
+		commerceStockCounter = _createCommerceStockCounter(cpInstance);
+
+		_putCommerceStockCounter(
+			cpInstanceId, commerceStockCounter, invalidationCount);
+
+		return commerceStockCounter;
+	}
+
+	/**
+	 * Recomputes every cached counter and replaces the ones that differ from
+	 * the source tables.
+	 *
+	 * @return the number of counters that were replaced
+	 */
+	public int reconcile() {
+		int count = 0;
+
+		for (Long cpInstanceId : _portalCache.getKeys()) {
+			CommerceStockCounter commerceStockCounter = _portalCache.get(
+				cpInstanceId);
+
+			if (commerceStockCounter == null) {
+				continue;
+			}
+
+			CPInstance cpInstance = _cpInstanceLocalService.fetchCPInstance(
+				cpInstanceId);
+
+			if (cpInstance == null) {
+				_portalCache.remove(cpInstanceId);
+
+				continue;
+			}
+
+			long invalidationCount = _getInvalidationCount(cpInstanceId);
+
+			CommerceStockCounter newCommerceStockCounter =
+				_createCommerceStockCounter(cpInstance);
+
+			if (!newCommerceStockCounter.equals(commerceStockCounter)) {
+				_putCommerceStockCounter(
+					cpInstanceId, newCommerceStockCounter, invalidationCount);
+
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	/**
+	 * Discards the counter of the order item's SKU once the current
+	 * transaction commits.
+	 */
+	public void removeCommerceOrderItem(CommerceOrderItem commerceOrderItem) {
+		_invalidate(commerceOrderItem.getCPInstanceId());
+	}
+
+	/**
+	 * Discards the counter of the SKU of the shipment item's order item once
+	 * the current transaction commits, since order items without shipment
+	 * items reserve stock again.
+	 */
+	public void removeCommerceShipmentItem(
+		CommerceShipmentItem commerceShipmentItem) {
+
+		_invalidate(commerceShipmentItem);
+	}
+
+	public void removeCommerceWarehouseItem(
+		CommerceWarehouseItem commerceWarehouseItem) {
+
+		_invalidate(commerceWarehouseItem.getCPInstanceUuid());
+	}
+
+	/**
+	 * Discards the counters of the SKUs of the order's items once the current
+	 * transaction commits. Must be called whenever the order enters or leaves
+	 * the completed status.
+	 */
+	public void updateCommerceOrder(long commerceOrderId) {
+		List<CommerceOrderItem> commerceOrderItems =
+			_commerceOrderItemLocalService.getCommerceOrderItems(
+				commerceOrderId, QueryUtil.ALL_POS, QueryUtil.ALL_POS);
+
+		Set<Long> cpInstanceIds = new HashSet<>();
+
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			cpInstanceIds.add(commerceOrderItem.getCPInstanceId());
+		}
+
+		cpInstanceIds.forEach(this::_invalidate);
+	}
+
+	/**
+	 * Discards the counter of the order item's SKU once the current
+	 * transaction commits.
+	 */
+	public void updateCommerceOrderItem(CommerceOrderItem commerceOrderItem) {
+		_invalidate(commerceOrderItem.getCPInstanceId());
+	}
+
+	/**
+	 * Discards the counters of every SKU with the warehouse item's SKU UUID
+	 * once the current transaction commits.
+	 */
+	public void updateCommerceWarehouseItem(
+		CommerceWarehouseItem commerceWarehouseItem) {
+
+		_invalidate(commerceWarehouseItem.getCPInstanceUuid());
+	}
+
+	private CommerceStockCounter _createCommerceStockCounter(
+		CPInstance cpInstance) {
+
+		Map<Long, Integer> warehouseQuantities = new HashMap<>();
+
+		CPDefinition cpDefinition = _cpDefinitionLocalService.fetchCPDefinition(
+			cpInstance.getCPDefinitionId());
+
+		if (cpDefinition != null) {
+			List<CommerceWarehouseItem> commerceWarehouseItems =
+				_commerceWarehouseItemLocalService.
+					getCommerceWarehouseItemsByCPI_CPIU(
+						cpDefinition.getCProductId(),
+						cpInstance.getCPInstanceUuid());
+
+			for (CommerceWarehouseItem commerceWarehouseItem :
+					commerceWarehouseItems) {
+
+				warehouseQuantities.merge(
+					commerceWarehouseItem.getCommerceWarehouseId(),
+					commerceWarehouseItem.getQuantity(), Integer::sum);
+			}
+		}
+
+		return new CommerceStockCounter(
+			warehouseQuantities,
+			_getReservedQuantity(cpInstance.getCPInstanceId()));
+	}
+
+	private List<Long> _getCPInstanceIds(String cpInstanceUuid) {
+		DynamicQuery dynamicQuery = _cpInstanceLocalService.dynamicQuery();
+
+		Property cpInstanceUuidProperty = PropertyFactoryUtil.forName(
+			"CPInstanceUuid");
+
+		dynamicQuery.add(cpInstanceUuidProperty.eq(cpInstanceUuid));
+
+		dynamicQuery.setProjection(
+			PropertyFactoryUtil.forName("CPInstanceId"));
+
+		return _cpInstanceLocalService.dynamicQuery(dynamicQuery);
+	}
+
+	private long _getInvalidationCount(long cpInstanceId) {
+		return _invalidationCounts.get(
+			_getInvalidationCountIndex(cpInstanceId));
+	}
+
+	private int _getInvalidationCountIndex(long cpInstanceId) {
+		return (int)(cpInstanceId & (_INVALIDATION_COUNTS_SIZE - 1));
+	}
+
+	private int _getReservedQuantity(long cpInstanceId) {
+		return _commerceOrderItemLocalService.getCPInstanceQuantity(
+			cpInstanceId, CommerceOrderConstants.ORDER_STATUS_COMPLETED);
+	}
+
+	private void _invalidate(CommerceShipmentItem commerceShipmentItem) {
+		CommerceOrderItem commerceOrderItem =
+			_commerceOrderItemLocalService.fetchCommerceOrderItem(
+				commerceShipmentItem.getCommerceOrderItemId());
+
+		if (commerceOrderItem != null) {
+			_invalidate(commerceOrderItem.getCPInstanceId());
+		}
+	}
+
+	private void _invalidate(long cpInstanceId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_removeCommerceStockCounter(cpInstanceId);
+
+				return null;
+			});
+	}
+
+	private void _invalidate(String cpInstanceUuid) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				for (long cpInstanceId : _getCPInstanceIds(cpInstanceUuid)) {
+					_removeCommerceStockCounter(cpInstanceId);
+				}
+
+				return null;
+			});
+	}
+
+	/**
+	 * Caches the counter unless the SKU's counter was discarded since the
+	 * given invalidation count was read. The count is checked again after the
+	 * counter is cached, so that a counter cached while its SKU's counter is
+	 * being discarded is removed either by the discarding thread or by this
+	 * one.
+	 */
+	private void _putCommerceStockCounter(
+		long cpInstanceId, CommerceStockCounter commerceStockCounter,
+		long invalidationCount) {
+
+		if (invalidationCount != _getInvalidationCount(cpInstanceId)) {
+			return;
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, cpInstanceId, commerceStockCounter);
+
+		if (invalidationCount != _getInvalidationCount(cpInstanceId)) {
+			_portalCache.remove(cpInstanceId);
+		}
+	}
+
+	private void _removeCommerceStockCounter(long cpInstanceId) {
+		_invalidationCounts.incrementAndGet(
+			_getInvalidationCountIndex(cpInstanceId));
+
+		_portalCache.remove(cpInstanceId);
+	}
+
+	private static final int _INVALIDATION_COUNTS_SIZE = 1024;
+
+	private static final AtomicLongArray _invalidationCounts =
+		new AtomicLongArray(_INVALIDATION_COUNTS_SIZE);
+	private static final PortalCache<Long, CommerceStockCounter> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommerceOrderItemLocalService _commerceOrderItemLocalService;
+
+	@Reference
+	private CommerceWarehouseItemLocalService
+		_commerceWarehouseItemLocalService;
+
+	@Reference
+	private CPDefinitionLocalService _cpDefinitionLocalService;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
+}
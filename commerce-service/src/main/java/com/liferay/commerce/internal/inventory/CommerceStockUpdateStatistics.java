@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+
+package com.liferay.commerce.internal.inventory;
+
+import com.liferay.portal.kernel.util.StringBundler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.service.component.annotations.Component;
+
+/**
+ * Counts the warehouse item quantity decrements executed by this node and the
+ * time they spent in the database. Concurrent decrements of the same item wait
+ * for each other's row lock, so the update times grow with the contention on
+ * hot SKUs.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommerceStockUpdateStatistics.class)
+public class CommerceStockUpdateStatistics {
+
+	/**
+	 * Returns the longest time, in milliseconds, that a single update took.
+	 */
+	public long getMaxUpdateTime() {
+		return TimeUnit.NANOSECONDS.toMillis(_maxUpdateTime.get());
+	}
+
+	public long getUpdateCount() {
+		return _updateCount.sum();
+	}
+
+	/**
+	 * Returns the total time, in milliseconds, spent by all the updates.
+	 */
+	public long getUpdateTime() {
+		return TimeUnit.NANOSECONDS.toMillis(_updateTime.sum());
+	}
+
+	/**
+	 * Records an update that took the given time, in nanoseconds.
+	 */
+	public void recordUpdate(long time) {
+		_maxUpdateTime.accumulate(time);
+		_updateCount.increment();
+		_updateTime.add(time);
+	}
+
+	@Override
+	public String toString() {
+		StringBundler sb = new StringBundler(7);
+
+		sb.append("{maxUpdateTime=");
+		sb.append(getMaxUpdateTime());
+		sb.append(", updateCount=");
+		sb.append(getUpdateCount());
+		sb.append(", updateTime=");
+		sb.append(getUpdateTime());
+		sb.append("}");
+
+		return sb.toString();
+	}
+
+	private final LongAccumulator _maxUpdateTime = new LongAccumulator(
+		Math::max, 0);
+	private final LongAdder _updateCount = new LongAdder();
+	private final LongAdder _updateTime = new LongAdder();
+
+}
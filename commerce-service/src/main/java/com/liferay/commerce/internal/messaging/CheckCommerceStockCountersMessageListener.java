@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.messaging;
+
+import com.liferay.commerce.configuration.CommerceOrderConfiguration;
+import com.liferay.commerce.internal.inventory.CommerceStockCounterCache;
+import com.liferay.commerce.internal.inventory.CommerceStockUpdateStatistics;
+import com.liferay.portal.configuration.metatype.bnd.util.ConfigurableUtil;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.DestinationNames;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.module.framework.ModuleServiceLifecycle;
+import com.liferay.portal.kernel.scheduler.SchedulerEngineHelper;
+import com.liferay.portal.kernel.scheduler.SchedulerEntry;
+import com.liferay.portal.kernel.scheduler.SchedulerEntryImpl;
+import com.liferay.portal.kernel.scheduler.TimeUnit;
+import com.liferay.portal.kernel.scheduler.Trigger;
+import com.liferay.portal.kernel.scheduler.TriggerFactory;
+
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Activate;
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(
+	configurationPid = "com.liferay.commerce.configuration.CommerceOrderConfiguration",
+	immediate = true, service = CheckCommerceStockCountersMessageListener.class
+)
+public class CheckCommerceStockCountersMessageListener
+	extends BaseMessageListener {
+
+	@Activate
+	@Modified
+	protected void activate(Map<String, Object> properties) {
+		Class<?> clazz = getClass();
+
+		String className = clazz.getName();
+
+		CommerceOrderConfiguration commerceOrderConfiguration =
+			ConfigurableUtil.createConfigurable(
+				CommerceOrderConfiguration.class, properties);
+
+		Trigger trigger = _triggerFactory.createTrigger(
+			className, className, null, null,
+			commerceOrderConfiguration.stockCounterCheckInterval(),
+			TimeUnit.MINUTE);
+
+		SchedulerEntry schedulerEntry = new SchedulerEntryImpl(
+			className, trigger);
+
+		_schedulerEngineHelper.register(
+			this, schedulerEntry, DestinationNames.SCHEDULER_DISPATCH);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_schedulerEngineHelper.unregister(this);
+	}
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		int count = _commerceStockCounterCache.reconcile();
+
+		if ((count > 0) && _log.isWarnEnabled()) {
+			_log.warn("Reconciled " + count + " stock counters");
+		}
+
+		if (_log.isInfoEnabled()) {
+			_log.info(
+				"Stock update statistics " + _commerceStockUpdateStatistics);
+		}
+	}
+
+	@Reference(target = ModuleServiceLifecycle.PORTAL_INITIALIZED, unbind = "-")
+	protected void setModuleServiceLifecycle(
+		ModuleServiceLifecycle moduleServiceLifecycle) {
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CheckCommerceStockCountersMessageListener.class);
+
+	@Reference
+	private CommerceStockCounterCache _commerceStockCounterCache;
+
+	@Reference
+	private CommerceStockUpdateStatistics _commerceStockUpdateStatistics;
+
+	@Reference
+	private SchedulerEngineHelper _schedulerEngineHelper;
+
+	@Reference
+	private TriggerFactory _triggerFactory;
+
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.messaging;
+
+import com.liferay.commerce.constants.CommerceDestinationNames;
+import com.liferay.commerce.exception.CommerceGeocoderException;
+import com.liferay.commerce.internal.geocoder.CommerceGeocoderCache;
+import com.liferay.commerce.model.CommerceAddress;
+import com.liferay.commerce.model.CommerceWarehouse;
+import com.liferay.commerce.service.CommerceAddressLocalService;
+import com.liferay.commerce.service.CommerceWarehouseLocalService;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.messaging.BaseMessageListener;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Geolocates commerce addresses and warehouses outside of the request that
+ * created or updated them. Coordinates already known for the same address
+ * are reused, and the geocoder is only called for new addresses. Messages for
+ * entities whose coordinates are already up to date are ignored, which also
+ * stops the update made here from triggering another geolocation. Addresses
+ * the geocoder failed to resolve are skipped until their backoff delay has
+ * elapsed.
+ *
+ * @author Andrea Di Giorgi
+ */
+@Component(
+	immediate = true,
+	property = "destination.name=" + CommerceDestinationNames.GEOLOCATION,
+	service = MessageListener.class
+)
+public class CommerceGeolocationMessageListener extends BaseMessageListener {
+
+	@Override
+	protected void doReceive(Message message) throws Exception {
+		String className = message.getString("className");
+		long classPK = message.getLong("classPK");
+
+		try {
+			if (className.equals(CommerceAddress.class.getName())) {
+				_geolocateCommerceAddress(classPK);
+			}
+			else if (className.equals(CommerceWarehouse.class.getName())) {
+				_geolocateCommerceWarehouse(classPK);
+			}
+		}
+		catch (CommerceGeocoderException cge) {
+			if (_log.isWarnEnabled()) {
+				_log.warn(
+					"Unable to geolocate " + className + " " + classPK, cge);
+			}
+		}
+	}
+
+	private void _geolocateCommerceAddress(long commerceAddressId)
+		throws PortalException {
+
+		CommerceAddress commerceAddress =
+			_commerceAddressLocalService.fetchCommerceAddress(
+				commerceAddressId);
+
+		if (commerceAddress == null) {
+			return;
+		}
+
+		double[] coordinates = _commerceGeocoderCache.getCoordinates(
+			commerceAddress.getStreet1(), commerceAddress.getCity(),
+			commerceAddress.getZip(), commerceAddress.getCommerceRegionId(),
+			commerceAddress.getCommerceCountryId());
+
+		if (coordinates == null) {
+			if (_commerceGeocoderCache.isFailed(
+					commerceAddress.getStreet1(), commerceAddress.getCity(),
+					commerceAddress.getZip(),
+					commerceAddress.getCommerceRegionId(),
+					commerceAddress.getCommerceCountryId())) {
+
+				return;
+			}
+
+			try {
+				commerceAddress =
+					_commerceAddressLocalService.geolocateCommerceAddress(
+						commerceAddressId);
+			}
+			catch (CommerceGeocoderException cge) {
+				_commerceGeocoderCache.putFailure(
+					commerceAddress.getStreet1(), commerceAddress.getCity(),
+					commerceAddress.getZip(),
+					commerceAddress.getCommerceRegionId(),
+					commerceAddress.getCommerceCountryId());
+
+				throw cge;
+			}
+
+			_commerceGeocoderCache.putCoordinates(
+				commerceAddress.getStreet1(), commerceAddress.getCity(),
+				commerceAddress.getZip(), commerceAddress.getCommerceRegionId(),
+				commerceAddress.getCommerceCountryId(),
+				commerceAddress.getLatitude(), commerceAddress.getLongitude());
+
+			return;
+		}
+
+		if ((commerceAddress.getLatitude() == coordinates[0]) &&
+			(commerceAddress.getLongitude() == coordinates[1])) {
+
+			return;
+		}
+
+		commerceAddress.setLatitude(coordinates[0]);
+		commerceAddress.setLongitude(coordinates[1]);
+
+		_commerceAddressLocalService.updateCommerceAddress(commerceAddress);
+	}
+
+	private void _geolocateCommerceWarehouse(long commerceWarehouseId)
+		throws PortalException {
+
+		CommerceWarehouse commerceWarehouse =
+			_commerceWarehouseLocalService.fetchCommerceWarehouse(
+				commerceWarehouseId);
+
+		if (commerceWarehouse == null) {
+			return;
+		}
+
+		double[] coordinates = _commerceGeocoderCache.getCoordinates(
+			commerceWarehouse.getStreet1(), commerceWarehouse.getCity(),
+			commerceWarehouse.getZip(), commerceWarehouse.getCommerceRegionId(),
+			commerceWarehouse.getCommerceCountryId());
+
+		if (coordinates == null) {
+			if (_commerceGeocoderCache.isFailed(
+					commerceWarehouse.getStreet1(), commerceWarehouse.getCity(),
+					commerceWarehouse.getZip(),
+					commerceWarehouse.getCommerceRegionId(),
+					commerceWarehouse.getCommerceCountryId())) {
+
+				return;
+			}
+
+			try {
+				commerceWarehouse =
+					_commerceWarehouseLocalService.geolocateCommerceWarehouse(
+						commerceWarehouseId);
+			}
+			catch (CommerceGeocoderException cge) {
+				_commerceGeocoderCache.putFailure(
+					commerceWarehouse.getStreet1(), commerceWarehouse.getCity(),
+					commerceWarehouse.getZip(),
+					commerceWarehouse.getCommerceRegionId(),
+					commerceWarehouse.getCommerceCountryId());
+
+				throw cge;
+			}
+
+			_commerceGeocoderCache.putCoordinates(
+				commerceWarehouse.getStreet1(), commerceWarehouse.getCity(),
+				commerceWarehouse.getZip(),
+				commerceWarehouse.getCommerceRegionId(),
+				commerceWarehouse.getCommerceCountryId(),
+				commerceWarehouse.getLatitude(),
+				commerceWarehouse.getLongitude());
+
+			return;
+		}
+
+		if ((commerceWarehouse.getLatitude() == coordinates[0]) &&
+			(commerceWarehouse.getLongitude() == coordinates[1])) {
+
+			return;
+		}
+
+		commerceWarehouse.setLatitude(coordinates[0]);
+		commerceWarehouse.setLongitude(coordinates[1]);
+
+		_commerceWarehouseLocalService.updateCommerceWarehouse(
+			commerceWarehouse);
+	}
+
+	private static final Log _log = LogFactoryUtil.getLog(
+		CommerceGeolocationMessageListener.class);
+
+	@Reference
+	private CommerceAddressLocalService _commerceAddressLocalService;
+
+	@Reference
+	private CommerceGeocoderCache _commerceGeocoderCache;
+
+	@Reference
+	private CommerceWarehouseLocalService _commerceWarehouseLocalService;
+
+}
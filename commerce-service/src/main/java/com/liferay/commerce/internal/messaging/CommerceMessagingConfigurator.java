@@ -38,6 +38,8 @@ public class CommerceMessagingConfigurator {
 
 	@Activate
 	protected void activate(BundleContext bundleContext) {
+		_geolocationServiceRegistration = _registerDestination(
+			bundleContext, CommerceDestinationNames.GEOLOCATION);
 		_orderStatusServiceRegistration = _registerDestination(
 			bundleContext, CommerceDestinationNames.ORDER_STATUS);
 		_paymentStatusServiceRegistration = _registerDestination(
@@ -48,6 +50,10 @@ public class CommerceMessagingConfigurator {
 
 	@Deactivate
 	protected void deactivate() {
+		if (_geolocationServiceRegistration != null) {
+			_geolocationServiceRegistration.unregister();
+		}
+
 		if (_orderStatusServiceRegistration != null) {
 			_orderStatusServiceRegistration.unregister();
 		}
@@ -82,6 +88,8 @@ public class CommerceMessagingConfigurator {
 	@Reference
 	private DestinationFactory _destinationFactory;
 
+	private volatile ServiceRegistration<Destination>
+		_geolocationServiceRegistration;
 	private volatile ServiceRegistration<Destination>
 		_orderStatusServiceRegistration;
 	private volatile ServiceRegistration<Destination>
@@ -14,6 +14,7 @@
 
 package com.liferay.commerce.internal.model.listener;
 
+import com.liferay.commerce.internal.price.CPDefinitionPriceRangeCache;
 import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.service.CPDAvailabilityEstimateLocalService;
 import com.liferay.commerce.service.CPDefinitionInventoryLocalService;
@@ -31,6 +32,12 @@ import org.osgi.service.component.annotations.Reference;
 @Component(immediate = true, service = ModelListener.class)
 public class CPDefinitionModelListener extends BaseModelListener<CPDefinition> {
 
+	@Override
+	public void onAfterUpdate(CPDefinition cpDefinition) {
+		_cpDefinitionPriceRangeCache.invalidate(
+			cpDefinition.getCPDefinitionId());
+	}
+
 	@Override
 	public void onBeforeRemove(CPDefinition cpDefinition) {
 		long cpDefinitionId = cpDefinition.getCPDefinitionId();
@@ -47,4 +54,7 @@ public class CPDefinitionModelListener extends BaseModelListener<CPDefinition> {
 	private CPDefinitionInventoryLocalService
 		_cpDefinitionInventoryLocalService;
 
+	@Reference
+	private CPDefinitionPriceRangeCache _cpDefinitionPriceRangeCache;
+
 }
\ No newline at end of file
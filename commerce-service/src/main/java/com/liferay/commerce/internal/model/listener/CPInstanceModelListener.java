@@ -14,7 +14,10 @@
 
 package com.liferay.commerce.internal.model.listener;
 
+import com.liferay.commerce.internal.price.CPDefinitionPriceRangeCache;
+import com.liferay.commerce.internal.price.CommerceOrderItemPriceCache;
 import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.util.CPInstanceBuildThreadLocal;
 import com.liferay.commerce.service.CommerceOrderItemLocalService;
 import com.liferay.commerce.service.CommerceWarehouseItemLocalService;
 import com.liferay.portal.kernel.exception.PortalException;
@@ -33,6 +36,32 @@ import org.osgi.service.component.annotations.Reference;
 @Component(immediate = true, service = ModelListener.class)
 public class CPInstanceModelListener extends BaseModelListener<CPInstance> {
 
+	@Override
+	public void onAfterCreate(CPInstance cpInstance) {
+		if (CPInstanceBuildThreadLocal.isBuildInProcess()) {
+			return;
+		}
+
+		_cpDefinitionPriceRangeCache.updateCPInstance(
+			cpInstance.getCPDefinitionId(), cpInstance.getCPInstanceId());
+	}
+
+	@Override
+	public void onAfterRemove(CPInstance cpInstance) {
+		_commerceOrderItemPriceCache.invalidate();
+
+		_cpDefinitionPriceRangeCache.updateCPInstance(
+			cpInstance.getCPDefinitionId(), cpInstance.getCPInstanceId());
+	}
+
+	@Override
+	public void onAfterUpdate(CPInstance cpInstance) {
+		_commerceOrderItemPriceCache.invalidate();
+
+		_cpDefinitionPriceRangeCache.updateCPInstance(
+			cpInstance.getCPDefinitionId(), cpInstance.getCPInstanceId());
+	}
+
 	@Override
 	public void onBeforeRemove(CPInstance cpInstance) {
 		try {
@@ -56,8 +85,14 @@ public class CPInstanceModelListener extends BaseModelListener<CPInstance> {
 	@Reference
 	private CommerceOrderItemLocalService _commerceOrderItemLocalService;
 
+	@Reference
+	private CommerceOrderItemPriceCache _commerceOrderItemPriceCache;
+
 	@Reference
 	private CommerceWarehouseItemLocalService
 		_commerceWarehouseItemLocalService;
 
+	@Reference
+	private CPDefinitionPriceRangeCache _cpDefinitionPriceRangeCache;
+
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.model.listener;
+
+import com.liferay.commerce.account.model.CommerceAccountOrganizationRel;
+import com.liferay.commerce.internal.account.CommerceAccountVisibilityCache;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.model.Organization;
+import com.liferay.portal.kernel.service.OrganizationLocalService;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceAccountOrganizationRelModelListener
+	extends BaseModelListener<CommerceAccountOrganizationRel> {
+
+	@Override
+	public void onAfterCreate(
+		CommerceAccountOrganizationRel commerceAccountOrganizationRel) {
+
+		_invalidateOrganization(commerceAccountOrganizationRel);
+	}
+
+	@Override
+	public void onAfterRemove(
+		CommerceAccountOrganizationRel commerceAccountOrganizationRel) {
+
+		_invalidateOrganization(commerceAccountOrganizationRel);
+	}
+
+	private void _invalidateOrganization(
+		CommerceAccountOrganizationRel commerceAccountOrganizationRel) {
+
+		Organization organization = _organizationLocalService.fetchOrganization(
+			commerceAccountOrganizationRel.getOrganizationId());
+
+		if (organization != null) {
+			_commerceAccountVisibilityCache.invalidateOrganization(
+				organization);
+		}
+	}
+
+	@Reference
+	private CommerceAccountVisibilityCache _commerceAccountVisibilityCache;
+
+	@Reference
+	private OrganizationLocalService _organizationLocalService;
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.model.listener;
+
+import com.liferay.commerce.constants.CommerceDestinationNames;
+import com.liferay.commerce.model.CommerceAddress;
+import com.liferay.commerce.service.CommerceAddressLocalService;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBusUtil;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Andrea Di Giorgi
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceAddressModelListener
+	extends BaseModelListener<CommerceAddress> {
+
+	@Override
+	public void onAfterCreate(CommerceAddress commerceAddress) {
+		if (!commerceAddress.isGeolocated()) {
+			_geolocate(commerceAddress.getCommerceAddressId());
+		}
+	}
+
+	@Override
+	public void onBeforeUpdate(CommerceAddress commerceAddress) {
+		CommerceAddress originalCommerceAddress =
+			_commerceAddressLocalService.fetchCommerceAddress(
+				commerceAddress.getCommerceAddressId());
+
+		if (originalCommerceAddress != null) {
+			String originalAddress = _getAddress(originalCommerceAddress);
+
+			if (originalAddress.equals(_getAddress(commerceAddress))) {
+				return;
+			}
+		}
+
+		_geolocate(commerceAddress.getCommerceAddressId());
+	}
+
+	private void _geolocate(long commerceAddressId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				Message message = new Message();
+
+				message.put("className", CommerceAddress.class.getName());
+				message.put("classPK", commerceAddressId);
+
+				MessageBusUtil.sendMessage(
+					CommerceDestinationNames.GEOLOCATION, message);
+
+				return null;
+			});
+	}
+
+	private String _getAddress(CommerceAddress commerceAddress) {
+		StringBundler sb = new StringBundler(13);
+
+		sb.append(commerceAddress.getStreet1());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceAddress.getStreet2());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceAddress.getStreet3());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceAddress.getCity());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceAddress.getZip());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceAddress.getCommerceRegionId());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceAddress.getCommerceCountryId());
+
+		return sb.toString();
+	}
+
+	@Reference
+	private CommerceAddressLocalService _commerceAddressLocalService;
+
+}
@@ -15,6 +15,7 @@
 package com.liferay.commerce.internal.model.listener;
 
 import com.liferay.commerce.currency.model.CommerceCurrency;
+import com.liferay.commerce.internal.price.CommerceOrderItemPriceCache;
 import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
@@ -32,6 +33,11 @@ import org.osgi.service.component.annotations.Reference;
 public class CommerceCurrencyModelListener
 	extends BaseModelListener<CommerceCurrency> {
 
+	@Override
+	public void onAfterUpdate(CommerceCurrency commerceCurrency) {
+		_commerceOrderItemPriceCache.invalidate();
+	}
+
 	@Override
 	public void onBeforeRemove(CommerceCurrency commerceCurrency) {
 		try {
@@ -50,6 +56,9 @@ public class CommerceCurrencyModelListener
 	private static final Log _log = LogFactoryUtil.getLog(
 		CommerceCurrencyModelListener.class);
 
+	@Reference
+	private CommerceOrderItemPriceCache _commerceOrderItemPriceCache;
+
 	@Reference
 	private CommercePriceListLocalService _commercePriceListLocalService;
 
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.model.listener;
+
+import com.liferay.commerce.internal.inventory.CommerceStockCounterCache;
+import com.liferay.commerce.internal.price.CommerceOrderItemPriceCache;
+import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceOrderItemModelListener
+	extends BaseModelListener<CommerceOrderItem> {
+
+	@Override
+	public void onAfterCreate(CommerceOrderItem commerceOrderItem) {
+		_commerceStockCounterCache.addCommerceOrderItem(commerceOrderItem);
+	}
+
+	@Override
+	public void onAfterRemove(CommerceOrderItem commerceOrderItem) {
+		_commerceOrderItemPriceCache.removeCommerceOrderItem(
+			commerceOrderItem.getCommerceOrderItemId());
+	}
+
+	@Override
+	public void onBeforeRemove(CommerceOrderItem commerceOrderItem) {
+		_commerceStockCounterCache.removeCommerceOrderItem(commerceOrderItem);
+	}
+
+	@Reference
+	private CommerceOrderItemPriceCache _commerceOrderItemPriceCache;
+
+	@Reference
+	private CommerceStockCounterCache _commerceStockCounterCache;
+
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.model.listener;
+
+import com.liferay.commerce.internal.price.CPDefinitionPriceRangeCache;
+import com.liferay.commerce.internal.price.CommerceOrderItemPriceCache;
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
+import com.liferay.commerce.price.list.service.CommercePriceEntryLocalService;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceTierPriceEntryModelListener
+	extends BaseModelListener<CommerceTierPriceEntry> {
+
+	@Override
+	public void onAfterCreate(CommerceTierPriceEntry commerceTierPriceEntry) {
+		_commerceOrderItemPriceCache.invalidate();
+
+		_updateCPInstances(commerceTierPriceEntry);
+	}
+
+	@Override
+	public void onAfterRemove(CommerceTierPriceEntry commerceTierPriceEntry) {
+		_commerceOrderItemPriceCache.invalidate();
+
+		_updateCPInstances(commerceTierPriceEntry);
+	}
+
+	@Override
+	public void onAfterUpdate(CommerceTierPriceEntry commerceTierPriceEntry) {
+		_commerceOrderItemPriceCache.invalidate();
+
+		_updateCPInstances(commerceTierPriceEntry);
+	}
+
+	private void _updateCPInstances(
+		CommerceTierPriceEntry commerceTierPriceEntry) {
+
+		CommercePriceEntry commercePriceEntry =
+			_commercePriceEntryLocalService.fetchCommercePriceEntry(
+				commerceTierPriceEntry.getCommercePriceEntryId());
+
+		if (commercePriceEntry == null) {
+			return;
+		}
+
+		_cpDefinitionPriceRangeCache.updateCPInstances(
+			commercePriceEntry.getCPInstanceUuid());
+	}
+
+	@Reference
+	private CommerceOrderItemPriceCache _commerceOrderItemPriceCache;
+
+	@Reference
+	private CommercePriceEntryLocalService _commercePriceEntryLocalService;
+
+	@Reference
+	private CPDefinitionPriceRangeCache _cpDefinitionPriceRangeCache;
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.model.listener;
+
+import com.liferay.commerce.constants.CommerceDestinationNames;
+import com.liferay.commerce.model.CommerceWarehouse;
+import com.liferay.commerce.service.CommerceWarehouseLocalService;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBusUtil;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Andrea Di Giorgi
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class CommerceWarehouseModelListener
+	extends BaseModelListener<CommerceWarehouse> {
+
+	@Override
+	public void onAfterCreate(CommerceWarehouse commerceWarehouse) {
+		if (!commerceWarehouse.isGeolocated()) {
+			_geolocate(commerceWarehouse.getCommerceWarehouseId());
+		}
+	}
+
+	@Override
+	public void onBeforeUpdate(CommerceWarehouse commerceWarehouse) {
+		CommerceWarehouse originalCommerceWarehouse =
+			_commerceWarehouseLocalService.fetchCommerceWarehouse(
+				commerceWarehouse.getCommerceWarehouseId());
+
+		if (originalCommerceWarehouse != null) {
+			String originalAddress = _getAddress(originalCommerceWarehouse);
+
+			if (originalAddress.equals(_getAddress(commerceWarehouse))) {
+				return;
+			}
+		}
+
+		_geolocate(commerceWarehouse.getCommerceWarehouseId());
+	}
+
+	private void _geolocate(long commerceWarehouseId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				Message message = new Message();
+
+				message.put("className", CommerceWarehouse.class.getName());
+				message.put("classPK", commerceWarehouseId);
+
+				MessageBusUtil.sendMessage(
+					CommerceDestinationNames.GEOLOCATION, message);
+
+				return null;
+			});
+	}
+
+	private String _getAddress(CommerceWarehouse commerceWarehouse) {
+		StringBundler sb = new StringBundler(13);
+
+		sb.append(commerceWarehouse.getStreet1());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceWarehouse.getStreet2());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceWarehouse.getStreet3());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceWarehouse.getCity());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceWarehouse.getZip());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceWarehouse.getCommerceRegionId());
+		sb.append(StringPool.NEW_LINE);
+		sb.append(commerceWarehouse.getCommerceCountryId());
+
+		return sb.toString();
+	}
+
+	@Reference
+	private CommerceWarehouseLocalService _commerceWarehouseLocalService;
+
+}
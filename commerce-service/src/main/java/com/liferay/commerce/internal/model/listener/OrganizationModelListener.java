@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.model.listener;
+
+import com.liferay.commerce.internal.account.CommerceAccountVisibilityCache;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.model.Organization;
+import com.liferay.portal.kernel.service.OrganizationLocalService;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class OrganizationModelListener
+	extends BaseModelListener<Organization> {
+
+	@Override
+	public void onAfterRemove(Organization organization) {
+		_commerceAccountVisibilityCache.invalidateOrganization(organization);
+	}
+
+	@Override
+	public void onBeforeUpdate(Organization organization) {
+		Organization originalOrganization =
+			_organizationLocalService.fetchOrganization(
+				organization.getOrganizationId());
+
+		if ((originalOrganization == null) ||
+			(originalOrganization.getParentOrganizationId() ==
+				organization.getParentOrganizationId())) {
+
+			return;
+		}
+
+		_commerceAccountVisibilityCache.invalidateOrganization(
+			originalOrganization);
+
+		Organization parentOrganization =
+			_organizationLocalService.fetchOrganization(
+				organization.getParentOrganizationId());
+
+		if (parentOrganization != null) {
+			_commerceAccountVisibilityCache.invalidateOrganization(
+				parentOrganization);
+		}
+	}
+
+	@Reference
+	private CommerceAccountVisibilityCache _commerceAccountVisibilityCache;
+
+	@Reference
+	private OrganizationLocalService _organizationLocalService;
+
+}
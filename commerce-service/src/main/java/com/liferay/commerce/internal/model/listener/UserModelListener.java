@@ -14,12 +14,14 @@
 
 package com.liferay.commerce.internal.model.listener;
 
+import com.liferay.commerce.internal.account.CommerceAccountVisibilityCache;
 import com.liferay.commerce.service.CommerceAddressLocalService;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.model.BaseModelListener;
 import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.model.Organization;
 import com.liferay.portal.kernel.model.User;
 
 import org.osgi.service.component.annotations.Component;
@@ -31,6 +33,31 @@ import org.osgi.service.component.annotations.Reference;
 @Component(immediate = true, service = ModelListener.class)
 public class UserModelListener extends BaseModelListener<User> {
 
+	@Override
+	public void onAfterAddAssociation(
+		Object classPK, String associationClassName,
+		Object associationClassPK) {
+
+		if (associationClassName.equals(Organization.class.getName())) {
+			_commerceAccountVisibilityCache.invalidate((Long)classPK);
+		}
+	}
+
+	@Override
+	public void onAfterRemove(User user) {
+		_commerceAccountVisibilityCache.invalidate(user.getUserId());
+	}
+
+	@Override
+	public void onAfterRemoveAssociation(
+		Object classPK, String associationClassName,
+		Object associationClassPK) {
+
+		if (associationClassName.equals(Organization.class.getName())) {
+			_commerceAccountVisibilityCache.invalidate((Long)classPK);
+		}
+	}
+
 	@Override
 	public void onBeforeRemove(User user) {
 		try {
@@ -47,6 +74,9 @@ public class UserModelListener extends BaseModelListener<User> {
 	private static final Log _log = LogFactoryUtil.getLog(
 		UserModelListener.class);
 
+	@Reference
+	private CommerceAccountVisibilityCache _commerceAccountVisibilityCache;
+
 	@Reference
 	private CommerceAddressLocalService _commerceAddressLocalService;
 
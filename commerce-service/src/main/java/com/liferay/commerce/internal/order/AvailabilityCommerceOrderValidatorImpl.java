@@ -48,7 +48,7 @@ import org.osgi.service.component.annotations.Reference;
 	service = CommerceOrderValidator.class
 )
 public class AvailabilityCommerceOrderValidatorImpl
-	implements CommerceOrderValidator {
+	implements BulkCommerceOrderValidator {
 
 	public static final String KEY = "availability";
 
@@ -160,6 +160,64 @@ public class AvailabilityCommerceOrderValidatorImpl
 		return new CommerceOrderValidatorResult(true);
 	}
 
+	@Override
+	public CommerceOrderValidatorResult validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CommerceOrderValidationContext commerceOrderValidationContext)
+		throws PortalException {
+
+		CPInstance cpInstance = commerceOrderValidationContext.getCPInstance(
+			commerceOrderItem.getCPInstanceId());
+
+		if (cpInstance == null) {
+			return validate(locale, commerceOrderItem);
+		}
+
+		CPDefinition cpDefinition =
+			commerceOrderValidationContext.getCPDefinition(
+				cpInstance.getCPDefinitionId());
+
+		if (cpDefinition == null) {
+			return validate(locale, commerceOrderItem);
+		}
+
+		if (!cpDefinition.isApproved() || !cpInstance.isApproved() ||
+			!cpInstance.isPublished() || !cpInstance.isPurchasable()) {
+
+			return new CommerceOrderValidatorResult(
+				commerceOrderItem.getCommerceOrderItemId(), false,
+				_getLocalizedMessage(
+					locale, "the-product-is-no-longer-available"));
+		}
+
+		CPDefinitionInventory cpDefinitionInventory =
+			commerceOrderValidationContext.getCPDefinitionInventory(
+				cpDefinition.getCPDefinitionId());
+
+		CPDefinitionInventoryEngine cpDefinitionInventoryEngine =
+			_cpDefinitionInventoryEngineRegistry.getCPDefinitionInventoryEngine(
+				cpDefinitionInventory);
+
+		if (cpDefinitionInventoryEngine.isBackOrderAllowed(cpInstance)) {
+			return new CommerceOrderValidatorResult(true);
+		}
+
+		int availableQuantity = cpDefinitionInventoryEngine.getStockQuantity(
+			cpInstance);
+
+		int orderQuantity =
+			commerceOrderValidationContext.getCPInstanceQuantity(
+				commerceOrderItem.getCPInstanceId());
+
+		if (orderQuantity > availableQuantity) {
+			return new CommerceOrderValidatorResult(
+				commerceOrderItem.getCommerceOrderItemId(), false,
+				_getLocalizedMessage(locale, "that-quantity-unavailable"));
+		}
+
+		return new CommerceOrderValidatorResult(true);
+	}
+
 	private String _getLocalizedMessage(Locale locale, String key) {
 		ResourceBundle resourceBundle = ResourceBundleUtil.getBundle(
 			"content.Language", locale, getClass());
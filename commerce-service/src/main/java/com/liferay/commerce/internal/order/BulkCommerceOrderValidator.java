@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.order;
+
+import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.order.CommerceOrderValidator;
+import com.liferay.commerce.order.CommerceOrderValidatorResult;
+import com.liferay.portal.kernel.exception.PortalException;
+
+import java.util.Locale;
+
+/**
+ * Implemented by the order validators that can validate an order item from
+ * the inputs that {@link CommerceOrderValidatorRegistryImpl} loads once for
+ * the whole order.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public interface BulkCommerceOrderValidator extends CommerceOrderValidator {
+
+	public CommerceOrderValidatorResult validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CommerceOrderValidationContext commerceOrderValidationContext)
+		throws PortalException;
+
+}
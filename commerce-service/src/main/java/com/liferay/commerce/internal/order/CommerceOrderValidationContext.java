@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.order;
+
+import com.liferay.commerce.model.CPDefinitionInventory;
+import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.product.model.CPDefinition;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.model.CProduct;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds the inputs needed to validate the items of an order, loaded once for
+ * the whole order instead of once per item and validator.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CommerceOrderValidationContext {
+
+	public CommerceOrderValidationContext(
+		List<CommerceOrderItem> commerceOrderItems,
+		Map<Long, CPDefinitionInventory> cpDefinitionInventories,
+		Map<Long, CPDefinition> cpDefinitions,
+		Map<Long, CPInstance> cpInstances,
+		Map<Long, Integer> cpInstanceQuantities,
+		Map<Long, CProduct> cProducts) {
+
+		_commerceOrderItems = commerceOrderItems;
+		_cpDefinitionInventories = cpDefinitionInventories;
+		_cpDefinitions = cpDefinitions;
+		_cpInstances = cpInstances;
+		_cpInstanceQuantities = cpInstanceQuantities;
+		_cProducts = cProducts;
+	}
+
+	public List<CommerceOrderItem> getCommerceOrderItems() {
+		return _commerceOrderItems;
+	}
+
+	public CPDefinition getCPDefinition(long cpDefinitionId) {
+		return _cpDefinitions.get(cpDefinitionId);
+	}
+
+	public CPDefinitionInventory getCPDefinitionInventory(
+		long cpDefinitionId) {
+
+		return _cpDefinitionInventories.get(cpDefinitionId);
+	}
+
+	public CPInstance getCPInstance(long cpInstanceId) {
+		return _cpInstances.get(cpInstanceId);
+	}
+
+	/**
+	 * Returns the quantity of the SKU that is in orders which are not open
+	 * and has not been shipped yet.
+	 */
+	public int getCPInstanceQuantity(long cpInstanceId) {
+		Integer cpInstanceQuantity = _cpInstanceQuantities.get(cpInstanceId);
+
+		if (cpInstanceQuantity == null) {
+			return 0;
+		}
+
+		return cpInstanceQuantity;
+	}
+
+	public CProduct getCProduct(long cProductId) {
+		return _cProducts.get(cProductId);
+	}
+
+	private final List<CommerceOrderItem> _commerceOrderItems;
+	private final Map<Long, CPDefinitionInventory> _cpDefinitionInventories;
+	private final Map<Long, CPDefinition> _cpDefinitions;
+	private final Map<Long, Integer> _cpInstanceQuantities;
+	private final Map<Long, CPInstance> _cpInstances;
+	private final Map<Long, CProduct> _cProducts;
+
+}
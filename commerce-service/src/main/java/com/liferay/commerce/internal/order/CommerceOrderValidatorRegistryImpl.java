@@ -14,20 +14,36 @@
 
 package com.liferay.commerce.internal.order;
 
+import com.liferay.commerce.constants.CommerceOrderConstants;
 import com.liferay.commerce.internal.order.comparator.CommerceOrderValidatorServiceWrapperPriorityComparator;
+import com.liferay.commerce.model.CPDefinitionInventory;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.CommerceOrderItem;
 import com.liferay.commerce.order.CommerceOrderValidator;
 import com.liferay.commerce.order.CommerceOrderValidatorRegistry;
 import com.liferay.commerce.order.CommerceOrderValidatorResult;
+import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.model.CProduct;
+import com.liferay.commerce.product.service.CPDefinitionLocalService;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.commerce.product.service.CProductLocalService;
+import com.liferay.commerce.service.CPDefinitionInventoryLocalService;
+import com.liferay.commerce.service.CommerceOrderItemLocalService;
+import com.liferay.osgi.service.tracker.collections.map.PropertyServiceReferenceComparator;
+import com.liferay.osgi.service.tracker.collections.map.PropertyServiceReferenceMapper;
 import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerCustomizerFactory;
 import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerCustomizerFactory.ServiceWrapper;
 import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerMap;
 import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerMapFactory;
+import com.liferay.osgi.service.tracker.collections.map.ServiceTrackerMapListener;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.ListUtil;
 import com.liferay.portal.kernel.util.Validator;
 
@@ -35,16 +51,28 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Reference;
 
 /**
+ * Validates orders with the registered order validators. The validators are
+ * sorted by priority once and the sorted list is refreshed whenever the
+ * service tracker adds or removes a validator. When a whole order is
+ * validated, the SKUs, product definitions, inventory settings, products and
+ * pending SKU quantities of its items are loaded in bulk once, and passed to
+ * every {@link BulkCommerceOrderValidator}.
+ *
  * @author Alessio Antonio Rendina
  */
 @Component(immediate = true, service = CommerceOrderValidatorRegistry.class)
@@ -89,12 +117,16 @@ public class CommerceOrderValidatorRegistryImpl
 		List<CommerceOrderItem> commerceOrderItems =
 			commerceOrder.getCommerceOrderItems();
 
+		CommerceOrderValidationContext commerceOrderValidationContext =
+			_createCommerceOrderValidationContext(commerceOrderItems);
+
 		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
 			List<CommerceOrderValidatorResult>
 				filteredCommerceOrderValidatorResults = new ArrayList<>();
 
 			List<CommerceOrderValidatorResult> commerceOrderValidatorResults =
-				validate(locale, commerceOrderItem);
+				_validate(
+					locale, commerceOrderItem, commerceOrderValidationContext);
 
 			for (CommerceOrderValidatorResult commerceOrderValidatorResult :
 					commerceOrderValidatorResults) {
@@ -121,25 +153,19 @@ public class CommerceOrderValidatorRegistryImpl
 	@Override
 	public List<CommerceOrderValidator> getCommerceOrderValidators() {
 		List<CommerceOrderValidator> commerceOrderValidators =
-			new ArrayList<>();
-
-		List<ServiceWrapper<CommerceOrderValidator>>
-			commerceOrderValidatorServiceWrappers = ListUtil.fromCollection(
-				_serviceTrackerMap.values());
+			_commerceOrderValidators;
 
-		Collections.sort(
-			commerceOrderValidatorServiceWrappers,
-			_commerceOrderValidatorServiceWrapperPriorityComparator);
+		if (commerceOrderValidators != null) {
+			return commerceOrderValidators;
+		}
 
-		for (ServiceWrapper<CommerceOrderValidator>
-				commerceOrderValidatorServiceWrapper :
-					commerceOrderValidatorServiceWrappers) {
+		synchronized (this) {
+			if (_commerceOrderValidators == null) {
+				_commerceOrderValidators = _sortCommerceOrderValidators();
+			}
 
-			commerceOrderValidators.add(
-				commerceOrderValidatorServiceWrapper.getService());
+			return _commerceOrderValidators;
 		}
-
-		return Collections.unmodifiableList(commerceOrderValidators);
 	}
 
 	@Override
@@ -156,10 +182,13 @@ public class CommerceOrderValidatorRegistryImpl
 		List<CommerceOrderItem> commerceOrderItems =
 			commerceOrder.getCommerceOrderItems();
 
+		CommerceOrderValidationContext commerceOrderValidationContext =
+			_createCommerceOrderValidationContext(commerceOrderItems);
+
 		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
 			List<CommerceOrderValidatorResult>
-				itemCommerceOrderValidatorResults = validate(
-					locale, commerceOrderItem);
+				itemCommerceOrderValidatorResults = _validate(
+					locale, commerceOrderItem, commerceOrderValidationContext);
 
 			for (CommerceOrderValidatorResult commerceOrderValidatorResult :
 					itemCommerceOrderValidatorResults) {
@@ -226,10 +255,13 @@ public class CommerceOrderValidatorRegistryImpl
 	@Activate
 	protected void activate(BundleContext bundleContext) {
 		_serviceTrackerMap = ServiceTrackerMapFactory.openSingleValueMap(
-			bundleContext, CommerceOrderValidator.class,
-			"commerce.order.validator.key",
+			bundleContext, CommerceOrderValidator.class, null,
+			new PropertyServiceReferenceMapper<>(
+				"commerce.order.validator.key"),
 			ServiceTrackerCustomizerFactory.
-				<CommerceOrderValidator>serviceWrapper(bundleContext));
+				<CommerceOrderValidator>serviceWrapper(bundleContext),
+			new PropertyServiceReferenceComparator<>("service.ranking"),
+			new CommerceOrderValidatorServiceTrackerMapListener());
 	}
 
 	@Deactivate
@@ -237,6 +269,177 @@ public class CommerceOrderValidatorRegistryImpl
 		_serviceTrackerMap.close();
 	}
 
+	private CommerceOrderValidationContext
+		_createCommerceOrderValidationContext(
+			List<CommerceOrderItem> commerceOrderItems) {
+
+		Set<Long> cpInstanceIds = new HashSet<>();
+		Set<Long> cProductIds = new HashSet<>();
+
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			cpInstanceIds.add(commerceOrderItem.getCPInstanceId());
+			cProductIds.add(commerceOrderItem.getCProductId());
+		}
+
+		Map<Long, CPInstance> cpInstances = new HashMap<>();
+		Set<Long> cpDefinitionIds = new HashSet<>();
+
+		for (CPInstance cpInstance :
+				_dynamicQuery(
+					cpInstanceIds, "CPInstanceId",
+					_cpInstanceLocalService::dynamicQuery,
+					_cpInstanceLocalService::dynamicQuery)) {
+
+			cpInstances.put(cpInstance.getCPInstanceId(), cpInstance);
+			cpDefinitionIds.add(cpInstance.getCPDefinitionId());
+		}
+
+		Map<Long, CPDefinition> cpDefinitions = new HashMap<>();
+
+		for (CPDefinition cpDefinition :
+				_dynamicQuery(
+					cpDefinitionIds, "CPDefinitionId",
+					_cpDefinitionLocalService::dynamicQuery,
+					_cpDefinitionLocalService::dynamicQuery)) {
+
+			cpDefinitions.put(cpDefinition.getCPDefinitionId(), cpDefinition);
+		}
+
+		Map<Long, CPDefinitionInventory> cpDefinitionInventories =
+			new HashMap<>();
+
+		for (CPDefinitionInventory cpDefinitionInventory :
+				_dynamicQuery(
+					cpDefinitionIds, "CPDefinitionId",
+					_cpDefinitionInventoryLocalService::dynamicQuery,
+					_cpDefinitionInventoryLocalService::dynamicQuery)) {
+
+			cpDefinitionInventories.put(
+				cpDefinitionInventory.getCPDefinitionId(),
+				cpDefinitionInventory);
+		}
+
+		Map<Long, Integer> cpInstanceQuantities = new HashMap<>();
+
+		List<Long> cpInstanceIdsList = new ArrayList<>(cpInstanceIds);
+
+		for (int start = 0; start < cpInstanceIdsList.size();
+			 start += _BATCH_SIZE) {
+
+			int end = Math.min(start + _BATCH_SIZE, cpInstanceIdsList.size());
+
+			long[] batchCPInstanceIds = ArrayUtil.toLongArray(
+				cpInstanceIdsList.subList(start, end));
+
+			cpInstanceQuantities.putAll(
+				_commerceOrderItemLocalService.getCPInstanceQuantities(
+					batchCPInstanceIds,
+					CommerceOrderConstants.ORDER_STATUS_OPEN));
+		}
+
+		Map<Long, CProduct> cProducts = new HashMap<>();
+
+		for (CProduct cProduct :
+				_dynamicQuery(
+					cProductIds, "CProductId",
+					_cProductLocalService::dynamicQuery,
+					_cProductLocalService::dynamicQuery)) {
+
+			cProducts.put(cProduct.getCProductId(), cProduct);
+		}
+
+		return new CommerceOrderValidationContext(
+			commerceOrderItems, cpDefinitionInventories, cpDefinitions,
+			cpInstances, cpInstanceQuantities, cProducts);
+	}
+
+	private <T> List<T> _dynamicQuery(
+		Set<Long> primaryKeys, String primaryKeyName,
+		Supplier<DynamicQuery> dynamicQuerySupplier,
+		Function<DynamicQuery, List<T>> dynamicQueryFunction) {
+
+		List<T> models = new ArrayList<>();
+
+		List<Long> primaryKeysList = new ArrayList<>(primaryKeys);
+
+		for (int start = 0; start < primaryKeysList.size();
+			 start += _BATCH_SIZE) {
+
+			int end = Math.min(start + _BATCH_SIZE, primaryKeysList.size());
+
+			DynamicQuery dynamicQuery = dynamicQuerySupplier.get();
+
+			Property property = PropertyFactoryUtil.forName(primaryKeyName);
+
+			dynamicQuery.add(
+				property.in(primaryKeysList.subList(start, end)));
+
+			models.addAll(dynamicQueryFunction.apply(dynamicQuery));
+		}
+
+		return models;
+	}
+
+	private List<CommerceOrderValidator> _sortCommerceOrderValidators() {
+		List<CommerceOrderValidator> commerceOrderValidators =
+			new ArrayList<>();
+
+		List<ServiceWrapper<CommerceOrderValidator>>
+			commerceOrderValidatorServiceWrappers = ListUtil.fromCollection(
+				_serviceTrackerMap.values());
+
+		Collections.sort(
+			commerceOrderValidatorServiceWrappers,
+			_commerceOrderValidatorServiceWrapperPriorityComparator);
+
+		for (ServiceWrapper<CommerceOrderValidator>
+				commerceOrderValidatorServiceWrapper :
+					commerceOrderValidatorServiceWrappers) {
+
+			commerceOrderValidators.add(
+				commerceOrderValidatorServiceWrapper.getService());
+		}
+
+		return Collections.unmodifiableList(commerceOrderValidators);
+	}
+
+	private List<CommerceOrderValidatorResult> _validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CommerceOrderValidationContext commerceOrderValidationContext)
+		throws PortalException {
+
+		List<CommerceOrderValidatorResult> commerceOrderValidatorResults =
+			new ArrayList<>();
+
+		for (CommerceOrderValidator commerceOrderValidator :
+				getCommerceOrderValidators()) {
+
+			CommerceOrderValidatorResult commerceOrderValidatorResult = null;
+
+			if (commerceOrderValidator instanceof BulkCommerceOrderValidator) {
+				BulkCommerceOrderValidator bulkCommerceOrderValidator =
+					(BulkCommerceOrderValidator)commerceOrderValidator;
+
+				commerceOrderValidatorResult =
+					bulkCommerceOrderValidator.validate(
+						locale, commerceOrderItem,
+						commerceOrderValidationContext);
+			}
+			else {
+				commerceOrderValidatorResult = commerceOrderValidator.validate(
+					locale, commerceOrderItem);
+			}
+
+			if (!commerceOrderValidatorResult.isValid()) {
+				commerceOrderValidatorResults.add(commerceOrderValidatorResult);
+			}
+		}
+
+		return commerceOrderValidatorResults;
+	}
+
+	private static final int _BATCH_SIZE = 500;
+
 	private static final Log _log = LogFactoryUtil.getLog(
 		CommerceOrderValidatorRegistryImpl.class);
 
@@ -244,7 +447,60 @@ public class CommerceOrderValidatorRegistryImpl
 		_commerceOrderValidatorServiceWrapperPriorityComparator =
 			new CommerceOrderValidatorServiceWrapperPriorityComparator();
 
+	@Reference
+	private CommerceOrderItemLocalService _commerceOrderItemLocalService;
+
+	private volatile List<CommerceOrderValidator> _commerceOrderValidators;
+
+	@Reference
+	private CPDefinitionInventoryLocalService
+		_cpDefinitionInventoryLocalService;
+
+	@Reference
+	private CPDefinitionLocalService _cpDefinitionLocalService;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
+	@Reference
+	private CProductLocalService _cProductLocalService;
+
 	private ServiceTrackerMap<String, ServiceWrapper<CommerceOrderValidator>>
 		_serviceTrackerMap;
 
+	private class CommerceOrderValidatorServiceTrackerMapListener
+		implements ServiceTrackerMapListener
+			<String, CommerceOrderValidator,
+			 ServiceWrapper<CommerceOrderValidator>> {
+
+		@Override
+		public void keyEmitted(
+			ServiceTrackerMap<String, ServiceWrapper<CommerceOrderValidator>>
+				serviceTrackerMap,
+			String key, CommerceOrderValidator commerceOrderValidator,
+			ServiceWrapper<CommerceOrderValidator>
+				commerceOrderValidatorServiceWrapper) {
+
+			_resetCommerceOrderValidators();
+		}
+
+		@Override
+		public void keyRemoved(
+			ServiceTrackerMap<String, ServiceWrapper<CommerceOrderValidator>>
+				serviceTrackerMap,
+			String key, CommerceOrderValidator commerceOrderValidator,
+			ServiceWrapper<CommerceOrderValidator>
+				commerceOrderValidatorServiceWrapper) {
+
+			_resetCommerceOrderValidators();
+		}
+
+		private void _resetCommerceOrderValidators() {
+			synchronized (CommerceOrderValidatorRegistryImpl.this) {
+				_commerceOrderValidators = null;
+			}
+		}
+
+	}
+
 }
\ No newline at end of file
@@ -46,7 +46,7 @@ import org.osgi.service.component.annotations.Reference;
 	service = CommerceOrderValidator.class
 )
 public class DefaultCommerceOrderValidatorImpl
-	implements CommerceOrderValidator {
+	implements BulkCommerceOrderValidator {
 
 	public static final String KEY = "default";
 
@@ -132,6 +132,53 @@ public class DefaultCommerceOrderValidatorImpl
 			_cpDefinitionInventoryEngineRegistry.getCPDefinitionInventoryEngine(
 				cpDefinitionInventory);
 
+		return _validate(
+			locale, commerceOrderItem, cpInstance, cpDefinitionInventoryEngine);
+	}
+
+	@Override
+	public CommerceOrderValidatorResult validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CommerceOrderValidationContext commerceOrderValidationContext)
+		throws PortalException {
+
+		CPInstance cpInstance = commerceOrderValidationContext.getCPInstance(
+			commerceOrderItem.getCPInstanceId());
+
+		if (cpInstance == null) {
+			return validate(locale, commerceOrderItem);
+		}
+
+		CPDefinitionInventory cpDefinitionInventory =
+			commerceOrderValidationContext.getCPDefinitionInventory(
+				cpInstance.getCPDefinitionId());
+
+		CPDefinitionInventoryEngine cpDefinitionInventoryEngine =
+			_cpDefinitionInventoryEngineRegistry.getCPDefinitionInventoryEngine(
+				cpDefinitionInventory);
+
+		return _validate(
+			locale, commerceOrderItem, cpInstance, cpDefinitionInventoryEngine);
+	}
+
+	private String _getLocalizedMessage(
+		Locale locale, String key, Object[] arguments) {
+
+		ResourceBundle resourceBundle = ResourceBundleUtil.getBundle(
+			"content.Language", locale, getClass());
+
+		if (arguments == null) {
+			return LanguageUtil.get(resourceBundle, key);
+		}
+
+		return LanguageUtil.format(resourceBundle, key, arguments);
+	}
+
+	private CommerceOrderValidatorResult _validate(
+		Locale locale, CommerceOrderItem commerceOrderItem,
+		CPInstance cpInstance,
+		CPDefinitionInventoryEngine cpDefinitionInventoryEngine) {
+
 		if (cpDefinitionInventoryEngine.isBackOrderAllowed(cpInstance)) {
 			return new CommerceOrderValidatorResult(true);
 		}
@@ -175,19 +222,6 @@ public class DefaultCommerceOrderValidatorImpl
 		return new CommerceOrderValidatorResult(true);
 	}
 
-	private String _getLocalizedMessage(
-		Locale locale, String key, Object[] arguments) {
-
-		ResourceBundle resourceBundle = ResourceBundleUtil.getBundle(
-			"content.Language", locale, getClass());
-
-		if (arguments == null) {
-			return LanguageUtil.get(resourceBundle, key);
-		}
-
-		return LanguageUtil.format(resourceBundle, key, arguments);
-	}
-
 	@Reference
 	private CPDefinitionInventoryEngineRegistry
 		_cpDefinitionInventoryEngineRegistry;
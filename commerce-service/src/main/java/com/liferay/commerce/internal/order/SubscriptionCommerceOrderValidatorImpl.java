@@ -42,7 +42,7 @@ import org.osgi.service.component.annotations.Component;
 	service = CommerceOrderValidator.class
 )
 public class SubscriptionCommerceOrderValidatorImpl
-	implements CommerceOrderValidator {
+	implements BulkCommerceOrderValidator {
 
 	public static final String KEY = "subscription";
 
@@ -112,8 +112,31 @@ public class SubscriptionCommerceOrderValidatorImpl
 
 		CommerceOrder commerceOrder = commerceOrderItem.getCommerceOrder();
 
-		List<CommerceOrderItem> commerceOrderItems =
-			commerceOrder.getCommerceOrderItems();
+		return _validate(
+			locale, commerceOrderItem, commerceOrder.getCommerceOrderItems());
+	}
+
+	@Override
+	public CommerceOrderValidatorResult validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CommerceOrderValidationContext commerceOrderValidationContext)
+		throws PortalException {
+
+		return _validate(
+			locale, commerceOrderItem,
+			commerceOrderValidationContext.getCommerceOrderItems());
+	}
+
+	private String _getLocalizedMessage(Locale locale, String key) {
+		ResourceBundle resourceBundle = ResourceBundleUtil.getBundle(
+			"content.Language", locale, getClass());
+
+		return LanguageUtil.get(resourceBundle, key);
+	}
+
+	private CommerceOrderValidatorResult _validate(
+		Locale locale, CommerceOrderItem commerceOrderItem,
+		List<CommerceOrderItem> commerceOrderItems) {
 
 		if (commerceOrderItems.size() <= 1) {
 			return new CommerceOrderValidatorResult(true);
@@ -139,11 +162,4 @@ public class SubscriptionCommerceOrderValidatorImpl
 		return new CommerceOrderValidatorResult(true);
 	}
 
-	private String _getLocalizedMessage(Locale locale, String key) {
-		ResourceBundle resourceBundle = ResourceBundleUtil.getBundle(
-			"content.Language", locale, getClass());
-
-		return LanguageUtil.get(resourceBundle, key);
-	}
-
 }
\ No newline at end of file
@@ -44,7 +44,7 @@ import org.osgi.service.component.annotations.Reference;
 	service = CommerceOrderValidator.class
 )
 public class VersionCommerceOrderValidatorImpl
-	implements CommerceOrderValidator {
+	implements BulkCommerceOrderValidator {
 
 	public static final String KEY = "version";
 
@@ -70,35 +70,36 @@ public class VersionCommerceOrderValidatorImpl
 		if ((commerceOrderItem.getCPInstanceId() != 0) &&
 			(commerceOrderItem.getCProductId() != 0)) {
 
-			CPInstance cpInstance = commerceOrderItem.getCPInstance();
+			return _validate(
+				locale, commerceOrderItem, commerceOrderItem.getCPInstance(),
+				commerceOrderItem.getCProduct());
+		}
 
-			CProduct cProduct = commerceOrderItem.getCProduct();
+		return new CommerceOrderValidatorResult(true);
+	}
 
-			if ((cpInstance.getCPDefinitionId() !=
-					cProduct.getPublishedCPDefinitionId()) &&
-				(cProduct.getPublishedCPDefinitionId() != 0)) {
+	@Override
+	public CommerceOrderValidatorResult validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CommerceOrderValidationContext commerceOrderValidationContext)
+		throws PortalException {
 
-				boolean instanceUpdated = _updateInstance(
-					commerceOrderItem, cProduct);
+		if ((commerceOrderItem.getCPInstanceId() == 0) ||
+			(commerceOrderItem.getCProductId() == 0)) {
 
-				if (instanceUpdated) {
-					return new CommerceOrderValidatorResult(
-						commerceOrderItem.getCommerceOrderItemId(), false,
-						_getLocalizedMessage(
-							locale,
-							"this-product-will-be-automatically-updated-to-a-" +
-								"newer-version"));
-				}
+			return new CommerceOrderValidatorResult(true);
+		}
 
-				return new CommerceOrderValidatorResult(
-					commerceOrderItem.getCommerceOrderItemId(), false,
-					_getLocalizedMessage(
-						locale,
-						"there-is-a-newer-version-of-this-product-available"));
-			}
+		CPInstance cpInstance = commerceOrderValidationContext.getCPInstance(
+			commerceOrderItem.getCPInstanceId());
+		CProduct cProduct = commerceOrderValidationContext.getCProduct(
+			commerceOrderItem.getCProductId());
+
+		if ((cpInstance == null) || (cProduct == null)) {
+			return validate(locale, commerceOrderItem);
 		}
 
-		return new CommerceOrderValidatorResult(true);
+		return _validate(locale, commerceOrderItem, cpInstance, cProduct);
 	}
 
 	protected void setCommerceOrderItemLocalService(
@@ -139,6 +140,37 @@ public class VersionCommerceOrderValidatorImpl
 		return false;
 	}
 
+	private CommerceOrderValidatorResult _validate(
+			Locale locale, CommerceOrderItem commerceOrderItem,
+			CPInstance cpInstance, CProduct cProduct)
+		throws PortalException {
+
+		if ((cpInstance.getCPDefinitionId() !=
+				cProduct.getPublishedCPDefinitionId()) &&
+			(cProduct.getPublishedCPDefinitionId() != 0)) {
+
+			boolean instanceUpdated = _updateInstance(
+				commerceOrderItem, cProduct);
+
+			if (instanceUpdated) {
+				return new CommerceOrderValidatorResult(
+					commerceOrderItem.getCommerceOrderItemId(), false,
+					_getLocalizedMessage(
+						locale,
+						"this-product-will-be-automatically-updated-to-a-" +
+							"newer-version"));
+			}
+
+			return new CommerceOrderValidatorResult(
+				commerceOrderItem.getCommerceOrderItemId(), false,
+				_getLocalizedMessage(
+					locale,
+					"there-is-a-newer-version-of-this-product-available"));
+		}
+
+		return new CommerceOrderValidatorResult(true);
+	}
+
 	@Reference
 	private CommerceOrderItemLocalService _commerceOrderItemLocalService;
 
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.price;
+
+import java.io.Serializable;
+
+import java.math.BigDecimal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the unit price of every approved SKU of a product definition for a
+ * price list and quantity, together with the lowest and highest of them.
+ * Prices coming from a price list entry are kept in the currency of the price
+ * list, the others in the primary currency, so that currency rate changes do
+ * not invalidate the range.
+ *
+ * @author Marco Leo
+ */
+public class CPDefinitionPriceRange implements Serializable {
+
+	public CPDefinitionPriceRange(
+		long commercePriceListId, int quantity,
+		Map<Long, BigDecimal> cpInstancePrices,
+		Map<Long, BigDecimal> priceListPrices) {
+
+		_commercePriceListId = commercePriceListId;
+		_quantity = quantity;
+		_cpInstancePrices = cpInstancePrices;
+		_priceListPrices = priceListPrices;
+
+		for (BigDecimal price : cpInstancePrices.values()) {
+			if ((_maxCPInstancePrice == null) ||
+				(_maxCPInstancePrice.compareTo(price) < 0)) {
+
+				_maxCPInstancePrice = price;
+			}
+
+			if ((_minCPInstancePrice == null) ||
+				(_minCPInstancePrice.compareTo(price) > 0)) {
+
+				_minCPInstancePrice = price;
+			}
+		}
+
+		for (BigDecimal price : priceListPrices.values()) {
+			if ((_maxPriceListPrice == null) ||
+				(_maxPriceListPrice.compareTo(price) < 0)) {
+
+				_maxPriceListPrice = price;
+			}
+
+			if ((_minPriceListPrice == null) ||
+				(_minPriceListPrice.compareTo(price) > 0)) {
+
+				_minPriceListPrice = price;
+			}
+		}
+	}
+
+	public long getCommercePriceListId() {
+		return _commercePriceListId;
+	}
+
+	public BigDecimal getMaxCPInstancePrice() {
+		return _maxCPInstancePrice;
+	}
+
+	public BigDecimal getMaxPriceListPrice() {
+		return _maxPriceListPrice;
+	}
+
+	public BigDecimal getMinCPInstancePrice() {
+		return _minCPInstancePrice;
+	}
+
+	public BigDecimal getMinPriceListPrice() {
+		return _minPriceListPrice;
+	}
+
+	public int getQuantity() {
+		return _quantity;
+	}
+
+	/**
+	 * Returns a copy of this range where the SKU no longer contributes.
+	 */
+	public CPDefinitionPriceRange remove(long cpInstanceId) {
+		Map<Long, BigDecimal> cpInstancePrices = new HashMap<>(
+			_cpInstancePrices);
+		Map<Long, BigDecimal> priceListPrices = new HashMap<>(
+			_priceListPrices);
+
+		cpInstancePrices.remove(cpInstanceId);
+		priceListPrices.remove(cpInstanceId);
+
+		return new CPDefinitionPriceRange(
+			_commercePriceListId, _quantity, cpInstancePrices, priceListPrices);
+	}
+
+	/**
+	 * Returns a copy of this range where the SKU contributes the given price.
+	 */
+	public CPDefinitionPriceRange update(
+		long cpInstanceId, BigDecimal price, boolean priceListPrice) {
+
+		Map<Long, BigDecimal> cpInstancePrices = new HashMap<>(
+			_cpInstancePrices);
+		Map<Long, BigDecimal> priceListPrices = new HashMap<>(
+			_priceListPrices);
+
+		cpInstancePrices.remove(cpInstanceId);
+		priceListPrices.remove(cpInstanceId);
+
+		if (priceListPrice) {
+			priceListPrices.put(cpInstanceId, price);
+		}
+		else {
+			cpInstancePrices.put(cpInstanceId, price);
+		}
+
+		return new CPDefinitionPriceRange(
+			_commercePriceListId, _quantity, cpInstancePrices, priceListPrices);
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final long _commercePriceListId;
+	private final Map<Long, BigDecimal> _cpInstancePrices;
+	private BigDecimal _maxCPInstancePrice;
+	private BigDecimal _maxPriceListPrice;
+	private BigDecimal _minCPInstancePrice;
+	private BigDecimal _minPriceListPrice;
+	private final Map<Long, BigDecimal> _priceListPrices;
+	private final int _quantity;
+
+}
@@ -0,0 +1,307 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.price;
+
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+import com.liferay.portal.kernel.workflow.WorkflowConstants;
+
+import java.math.BigDecimal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Maintains, for each product definition, the lowest and highest unit price of
+ * its approved SKUs for every price list and quantity requested so far. Ranges
+ * are built on first use and then patched one SKU at a time when a SKU, price
+ * entry or tier price entry changes, so that the "from" price of a product
+ * never requires pricing all of its SKUs again.
+ *
+ * <p>
+ * Ranges are keyed by the product definition and a token of the product
+ * definition that each cluster node generates locally. Invalidating or
+ * patching the ranges of a product definition removes its token once the
+ * transaction commits, the other cluster nodes dropping their token as well,
+ * and the patched ranges are stored under a new token on the local node only.
+ * Ranges built from data read before that commit are stored under the removed
+ * token and are never read again.
+ * </p>
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CPDefinitionPriceRangeCache.class)
+public class CPDefinitionPriceRangeCache {
+
+	public static final String CACHE_NAME =
+		CPDefinitionPriceRangeCache.class.getName();
+
+	public CPDefinitionPriceRange getCPDefinitionPriceRange(
+		long cpDefinitionId, long commercePriceListId, int quantity) {
+
+		String key = _getKey(cpDefinitionId);
+
+		ArrayList<CPDefinitionPriceRange> cpDefinitionPriceRanges =
+			_portalCache.get(key);
+
+		if (cpDefinitionPriceRanges != null) {
+			for (CPDefinitionPriceRange cpDefinitionPriceRange :
+					cpDefinitionPriceRanges) {
+
+				if ((cpDefinitionPriceRange.getCommercePriceListId() ==
+						commercePriceListId) &&
+					(cpDefinitionPriceRange.getQuantity() == quantity)) {
+
+					return cpDefinitionPriceRange;
+				}
+			}
+
+			cpDefinitionPriceRanges = new ArrayList<>(cpDefinitionPriceRanges);
+		}
+		else {
+			cpDefinitionPriceRanges = new ArrayList<>();
+		}
+
+		CPDefinitionPriceRange cpDefinitionPriceRange =
+			_createCPDefinitionPriceRange(
+				cpDefinitionId, commercePriceListId, quantity);
+
+		cpDefinitionPriceRanges.add(cpDefinitionPriceRange);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, key, cpDefinitionPriceRanges);
+
+		return cpDefinitionPriceRange;
+	}
+
+	/**
+	 * Drops every cached range once the current transaction commits. Must be
+	 * called whenever the price list hierarchy changes, since ranges include
+	 * the prices inherited from ancestor price lists.
+	 */
+	public void invalidate() {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.removeAll();
+
+				return null;
+			});
+	}
+
+	/**
+	 * Drops the cached ranges of the product definition once the current
+	 * transaction commits.
+	 */
+	public void invalidate(long cpDefinitionId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.remove(cpDefinitionId);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Refreshes the contribution of the SKU to the ranges of its product
+	 * definition once the current transaction commits.
+	 */
+	public void updateCPInstance(long cpDefinitionId, long cpInstanceId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_updateCPInstance(cpDefinitionId, cpInstanceId);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Refreshes the contribution of every SKU with the given UUID, one per
+	 * product definition version, once the current transaction commits.
+	 */
+	public void updateCPInstances(String cpInstanceUuid) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				DynamicQuery dynamicQuery =
+					_cpInstanceLocalService.dynamicQuery();
+
+				Property cpInstanceUuidProperty = PropertyFactoryUtil.forName(
+					"CPInstanceUuid");
+
+				dynamicQuery.add(cpInstanceUuidProperty.eq(cpInstanceUuid));
+
+				List<CPInstance> cpInstances =
+					_cpInstanceLocalService.dynamicQuery(dynamicQuery);
+
+				for (CPInstance cpInstance : cpInstances) {
+					_updateCPInstance(
+						cpInstance.getCPDefinitionId(),
+						cpInstance.getCPInstanceId());
+				}
+
+				return null;
+			});
+	}
+
+	private CPDefinitionPriceRange _createCPDefinitionPriceRange(
+		long cpDefinitionId, long commercePriceListId, int quantity) {
+
+		List<CPInstance> cpInstances =
+			_cpInstanceLocalService.getCPDefinitionInstances(
+				cpDefinitionId, WorkflowConstants.STATUS_APPROVED,
+				QueryUtil.ALL_POS, QueryUtil.ALL_POS, null);
+
+		Map<String, CommercePriceEntry> commercePriceEntries =
+			Collections.emptyMap();
+		Map<Long, CommerceTierPriceEntry> commerceTierPriceEntries =
+			Collections.emptyMap();
+
+		if (commercePriceListId > 0) {
+			commercePriceEntries =
+				_commercePriceEntryHelper.getCommercePriceEntries(
+					commercePriceListId, cpInstances);
+			commerceTierPriceEntries =
+				_commercePriceEntryHelper.getCommerceTierPriceEntries(
+					commercePriceEntries.values(), quantity);
+		}
+
+		Map<Long, BigDecimal> cpInstancePrices = new HashMap<>();
+		Map<Long, BigDecimal> priceListPrices = new HashMap<>();
+
+		for (CPInstance cpInstance : cpInstances) {
+			CommercePriceEntry commercePriceEntry = commercePriceEntries.get(
+				cpInstance.getCPInstanceUuid());
+
+			if (commercePriceEntry == null) {
+				cpInstancePrices.put(
+					cpInstance.getCPInstanceId(), cpInstance.getPrice());
+
+				continue;
+			}
+
+			CommerceTierPriceEntry commerceTierPriceEntry =
+				commerceTierPriceEntries.get(
+					commercePriceEntry.getCommercePriceEntryId());
+
+			priceListPrices.put(
+				cpInstance.getCPInstanceId(),
+				_commercePriceEntryHelper.getPrice(
+					commercePriceEntry, commerceTierPriceEntry, false));
+		}
+
+		return new CPDefinitionPriceRange(
+			commercePriceListId, quantity, cpInstancePrices, priceListPrices);
+	}
+
+	private String _getGeneration(long cpDefinitionId) {
+		String generation = _generationsPortalCache.get(cpDefinitionId);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_generationsPortalCache, cpDefinitionId, generation);
+		}
+
+		return generation;
+	}
+
+	private String _getKey(long cpDefinitionId) {
+		return _getGeneration(cpDefinitionId) + StringPool.POUND +
+			cpDefinitionId;
+	}
+
+	private void _updateCPInstance(long cpDefinitionId, long cpInstanceId) {
+		ArrayList<CPDefinitionPriceRange> cpDefinitionPriceRanges =
+			_portalCache.get(_getKey(cpDefinitionId));
+
+		_generationsPortalCache.remove(cpDefinitionId);
+
+		if (cpDefinitionPriceRanges == null) {
+			return;
+		}
+
+		CPInstance cpInstance = _cpInstanceLocalService.fetchCPInstance(
+			cpInstanceId);
+
+		ArrayList<CPDefinitionPriceRange> newCPDefinitionPriceRanges =
+			new ArrayList<>(cpDefinitionPriceRanges.size());
+
+		for (CPDefinitionPriceRange cpDefinitionPriceRange :
+				cpDefinitionPriceRanges) {
+
+			if ((cpInstance == null) || !cpInstance.isApproved() ||
+				(cpInstance.getCPDefinitionId() != cpDefinitionId)) {
+
+				newCPDefinitionPriceRanges.add(
+					cpDefinitionPriceRange.remove(cpInstanceId));
+
+				continue;
+			}
+
+			BigDecimal price = null;
+
+			if (cpDefinitionPriceRange.getCommercePriceListId() > 0) {
+				price = _commercePriceEntryHelper.fetchPrice(
+					cpInstance, cpDefinitionPriceRange.getCommercePriceListId(),
+					cpDefinitionPriceRange.getQuantity(), false);
+			}
+
+			if (price != null) {
+				newCPDefinitionPriceRanges.add(
+					cpDefinitionPriceRange.update(cpInstanceId, price, true));
+			}
+			else {
+				newCPDefinitionPriceRanges.add(
+					cpDefinitionPriceRange.update(
+						cpInstanceId, cpInstance.getPrice(), false));
+			}
+		}
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, _getKey(cpDefinitionId), newCPDefinitionPriceRanges);
+	}
+
+	private static final PortalCache<Long, String> _generationsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".generations");
+	private static final PortalCache<String, ArrayList<CPDefinitionPriceRange>>
+		_portalCache = PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommercePriceEntryHelper _commercePriceEntryHelper;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.price;
+
+import com.liferay.commerce.account.model.CommerceAccount;
+import com.liferay.commerce.context.CommerceContext;
+import com.liferay.commerce.currency.model.CommerceCurrency;
+import com.liferay.commerce.discount.CommerceDiscountCalculation;
+import com.liferay.commerce.model.CommerceOrder;
+import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.price.CommercePriceGenerationUtil;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.DigestUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Remembers, for each order item, the pricing inputs its stored prices were
+ * calculated with: the SKU and the quantity of the item, and the order price
+ * key of the recalculation that priced it. The order price key combines the
+ * inputs shared by all the order's items: the account, the currency, the price
+ * list, the coupon code, the user segments, the product discounts whose rules
+ * hold for the order and the token of {@link CommercePriceGenerationUtil},
+ * which changes whenever price or discount data change. Repricing an order
+ * only needs to recalculate the items whose inputs differ from the current
+ * ones.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommerceOrderItemPriceCache.class)
+public class CommerceOrderItemPriceCache {
+
+	public static final String CACHE_NAME =
+		CommerceOrderItemPriceCache.class.getName();
+
+	/**
+	 * Returns the pricing inputs shared by all the order's items. Must be
+	 * called once per recalculation, before any item is repriced.
+	 */
+	public String getOrderPriceKey(
+			CommerceOrder commerceOrder, CommerceContext commerceContext)
+		throws PortalException {
+
+		long commerceAccountId = 0;
+
+		CommerceAccount commerceAccount = commerceContext.getCommerceAccount();
+
+		if (commerceAccount != null) {
+			commerceAccountId = commerceAccount.getCommerceAccountId();
+		}
+
+		long commerceCurrencyId = 0;
+
+		CommerceCurrency commerceCurrency =
+			commerceContext.getCommerceCurrency();
+
+		if (commerceCurrency != null) {
+			commerceCurrencyId = commerceCurrency.getCommerceCurrencyId();
+		}
+
+		long commercePriceListId = 0;
+
+		Optional<CommercePriceList> commercePriceListOptional =
+			commerceContext.getCommercePriceList();
+
+		if (commercePriceListOptional.isPresent()) {
+			CommercePriceList commercePriceList =
+				commercePriceListOptional.get();
+
+			commercePriceListId = commercePriceList.getCommercePriceListId();
+		}
+
+		long[] commerceUserSegmentEntryIds =
+			commerceContext.getCommerceUserSegmentEntryIds();
+
+		if (ArrayUtil.isEmpty(commerceUserSegmentEntryIds)) {
+			commerceUserSegmentEntryIds = new long[0];
+		}
+		else {
+			commerceUserSegmentEntryIds = Arrays.copyOf(
+				commerceUserSegmentEntryIds,
+				commerceUserSegmentEntryIds.length);
+
+			Arrays.sort(commerceUserSegmentEntryIds);
+		}
+
+		String commerceDiscountsKey =
+			_commerceDiscountCalculation.getOrderProductCommerceDiscountsKey(
+				commerceOrder, commerceContext);
+
+		if (commerceDiscountsKey == null) {
+			commerceDiscountsKey = _getCommerceOrderItemsKey(commerceOrder);
+		}
+
+		StringBundler sb = new StringBundler(15);
+
+		sb.append(CommercePriceGenerationUtil.getGeneration());
+		sb.append(StringPool.POUND);
+		sb.append(commerceAccountId);
+		sb.append(StringPool.POUND);
+		sb.append(commerceCurrencyId);
+		sb.append(StringPool.POUND);
+		sb.append(commercePriceListId);
+		sb.append(StringPool.POUND);
+		sb.append(commerceContext.getCouponCode());
+		sb.append(StringPool.POUND);
+		sb.append(StringUtil.merge(commerceUserSegmentEntryIds));
+		sb.append(StringPool.POUND);
+		sb.append(DigestUtil.digestHex(commerceDiscountsKey));
+
+		return sb.toString();
+	}
+
+	/**
+	 * Forgets the pricing inputs of every order item once the current
+	 * transaction commits, so that every item is repriced on the next
+	 * recalculation. Must be called whenever data that prices depend on
+	 * change.
+	 */
+	public void invalidate() {
+		CommercePriceGenerationUtil.invalidate();
+	}
+
+	/**
+	 * Returns <code>true</code> if the stored prices of the order item were
+	 * calculated with the same inputs as the given order price key.
+	 */
+	public boolean isPriced(
+		CommerceOrderItem commerceOrderItem, String orderPriceKey) {
+
+		String priceKey = _portalCache.get(
+			commerceOrderItem.getCommerceOrderItemId());
+
+		if (priceKey == null) {
+			return false;
+		}
+
+		return priceKey.equals(_getPriceKey(commerceOrderItem, orderPriceKey));
+	}
+
+	/**
+	 * Records, once the current transaction commits, that the stored prices
+	 * of the order item were calculated with the given order price key.
+	 */
+	public void putCommerceOrderItem(
+		CommerceOrderItem commerceOrderItem, String orderPriceKey) {
+
+		long commerceOrderItemId = commerceOrderItem.getCommerceOrderItemId();
+		String priceKey = _getPriceKey(commerceOrderItem, orderPriceKey);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_portalCache.put(commerceOrderItemId, priceKey);
+
+				return null;
+			});
+	}
+
+	public void removeCommerceOrderItem(long commerceOrderItemId) {
+		_portalCache.remove(commerceOrderItemId);
+	}
+
+	/**
+	 * Forgets the pricing inputs of the order's items immediately, so that
+	 * the next recalculation in the current transaction reprices all of them.
+	 */
+	public void removeCommerceOrderItems(CommerceOrder commerceOrder) {
+		for (CommerceOrderItem commerceOrderItem :
+				commerceOrder.getCommerceOrderItems()) {
+
+			_portalCache.remove(commerceOrderItem.getCommerceOrderItemId());
+		}
+	}
+
+	/**
+	 * Returns the SKUs and quantities of all the order's items, used in place
+	 * of the product discounts key when the discounts of the group cannot be
+	 * evaluated in memory.
+	 */
+	private String _getCommerceOrderItemsKey(CommerceOrder commerceOrder) {
+		List<CommerceOrderItem> commerceOrderItems = new ArrayList<>(
+			commerceOrder.getCommerceOrderItems());
+
+		commerceOrderItems.sort(
+			Comparator.comparingLong(
+				CommerceOrderItem::getCommerceOrderItemId));
+
+		StringBundler sb = new StringBundler(commerceOrderItems.size() * 6);
+
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			sb.append(commerceOrderItem.getCommerceOrderItemId());
+			sb.append(StringPool.COLON);
+			sb.append(commerceOrderItem.getCPInstanceId());
+			sb.append(StringPool.COLON);
+			sb.append(commerceOrderItem.getQuantity());
+			sb.append(StringPool.SEMICOLON);
+		}
+
+		return sb.toString();
+	}
+
+	private String _getPriceKey(
+		CommerceOrderItem commerceOrderItem, String orderPriceKey) {
+
+		StringBundler sb = new StringBundler(5);
+
+		sb.append(commerceOrderItem.getCPInstanceId());
+		sb.append(StringPool.POUND);
+		sb.append(commerceOrderItem.getQuantity());
+		sb.append(StringPool.POUND);
+		sb.append(orderPriceKey);
+
+		return sb.toString();
+	}
+
+	private static final PortalCache<Long, String> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommerceDiscountCalculation _commerceDiscountCalculation;
+
+}
@@ -0,0 +1,289 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.internal.price;
+
+import com.liferay.commerce.price.list.model.CommercePriceEntry;
+import com.liferay.commerce.price.list.model.CommercePriceList;
+import com.liferay.commerce.price.list.model.CommerceTierPriceEntry;
+import com.liferay.commerce.price.list.service.CommercePriceEntryLocalService;
+import com.liferay.commerce.price.list.service.CommercePriceListLocalService;
+import com.liferay.commerce.price.list.service.CommerceTierPriceEntryLocalService;
+import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
+import com.liferay.portal.kernel.util.ArrayUtil;
+
+import java.math.BigDecimal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Loads the price list entries of many SKUs with a bounded number of dynamic
+ * queries. SKUs without an entry in the price list fall back to the closest
+ * ancestor price list that has one. Ancestors are resolved directly against
+ * the database rather than through the price entry resolution cache, since
+ * the helper is also used by commit callbacks that may run before that cache
+ * has been refreshed.
+ *
+ * @author Marco Leo
+ */
+@Component(service = CommercePriceEntryHelper.class)
+public class CommercePriceEntryHelper {
+
+	/**
+	 * Returns the price list price of the SKU for the quantity, in the currency
+	 * of the price list, or <code>null</code> if the SKU has no entry in the
+	 * price list or in any of its ancestors.
+	 */
+	public BigDecimal fetchPrice(
+		CPInstance cpInstance, long commercePriceListId, int quantity,
+		boolean promo) {
+
+		CommercePriceEntry commercePriceEntry = _fetchCommercePriceEntry(
+			commercePriceListId, cpInstance.getCPInstanceUuid());
+
+		if (commercePriceEntry == null) {
+			return null;
+		}
+
+		CommerceTierPriceEntry commerceTierPriceEntry = null;
+
+		if (commercePriceEntry.isHasTierPrice()) {
+			commerceTierPriceEntry =
+				_commerceTierPriceEntryLocalService.
+					findClosestCommerceTierPriceEntry(
+						commercePriceEntry.getCommercePriceEntryId(), quantity);
+		}
+
+		return getPrice(commercePriceEntry, commerceTierPriceEntry, promo);
+	}
+
+	public Map<String, CommercePriceEntry> getCommercePriceEntries(
+		long commercePriceListId, List<CPInstance> cpInstances) {
+
+		Map<String, CommercePriceEntry> commercePriceEntries = new HashMap<>();
+
+		String[] cpInstanceUuids = new String[cpInstances.size()];
+
+		for (int i = 0; i < cpInstances.size(); i++) {
+			CPInstance cpInstance = cpInstances.get(i);
+
+			cpInstanceUuids[i] = cpInstance.getCPInstanceUuid();
+		}
+
+		int start = 0;
+
+		while (start < cpInstanceUuids.length) {
+			int end = Math.min(start + _BATCH_SIZE, cpInstanceUuids.length);
+
+			DynamicQuery dynamicQuery =
+				_commercePriceEntryLocalService.dynamicQuery();
+
+			Property commercePriceListIdProperty = PropertyFactoryUtil.forName(
+				"commercePriceListId");
+
+			dynamicQuery.add(
+				commercePriceListIdProperty.eq(commercePriceListId));
+
+			Property cpInstanceUuidProperty = PropertyFactoryUtil.forName(
+				"CPInstanceUuid");
+
+			dynamicQuery.add(
+				cpInstanceUuidProperty.in(
+					ArrayUtil.subset(cpInstanceUuids, start, end)));
+
+			List<CommercePriceEntry> commercePriceEntriesList =
+				_commercePriceEntryLocalService.dynamicQuery(dynamicQuery);
+
+			for (CommercePriceEntry commercePriceEntry :
+					commercePriceEntriesList) {
+
+				commercePriceEntries.put(
+					commercePriceEntry.getCPInstanceUuid(), commercePriceEntry);
+			}
+
+			start = end;
+		}
+
+		CommercePriceList commercePriceList =
+			_commercePriceListLocalService.fetchCommercePriceList(
+				commercePriceListId);
+
+		if ((commercePriceList == null) ||
+			(commercePriceList.getParentCommercePriceListId() == 0)) {
+
+			return commercePriceEntries;
+		}
+
+		for (String cpInstanceUuid : cpInstanceUuids) {
+			if (commercePriceEntries.containsKey(cpInstanceUuid)) {
+				continue;
+			}
+
+			CommercePriceEntry commercePriceEntry = _fetchCommercePriceEntry(
+				commercePriceList.getParentCommercePriceListId(),
+				cpInstanceUuid);
+
+			if (commercePriceEntry != null) {
+				commercePriceEntries.put(cpInstanceUuid, commercePriceEntry);
+			}
+		}
+
+		return commercePriceEntries;
+	}
+
+	public Map<Long, CommerceTierPriceEntry> getCommerceTierPriceEntries(
+		Collection<CommercePriceEntry> commercePriceEntries, int quantity) {
+
+		Map<Long, CommerceTierPriceEntry> commerceTierPriceEntries =
+			new HashMap<>();
+
+		List<Long> commercePriceEntryIds = new ArrayList<>();
+
+		for (CommercePriceEntry commercePriceEntry : commercePriceEntries) {
+			if (commercePriceEntry.isHasTierPrice()) {
+				commercePriceEntryIds.add(
+					commercePriceEntry.getCommercePriceEntryId());
+			}
+		}
+
+		int start = 0;
+
+		while (start < commercePriceEntryIds.size()) {
+			int end = Math.min(
+				start + _BATCH_SIZE, commercePriceEntryIds.size());
+
+			DynamicQuery dynamicQuery =
+				_commerceTierPriceEntryLocalService.dynamicQuery();
+
+			Property commercePriceEntryIdProperty = PropertyFactoryUtil.forName(
+				"commercePriceEntryId");
+
+			dynamicQuery.add(
+				commercePriceEntryIdProperty.in(
+					commercePriceEntryIds.subList(start, end)));
+
+			Property minQuantityProperty = PropertyFactoryUtil.forName(
+				"minQuantity");
+
+			dynamicQuery.add(minQuantityProperty.le(quantity));
+
+			List<CommerceTierPriceEntry> commerceTierPriceEntriesList =
+				_commerceTierPriceEntryLocalService.dynamicQuery(dynamicQuery);
+
+			for (CommerceTierPriceEntry commerceTierPriceEntry :
+					commerceTierPriceEntriesList) {
+
+				CommerceTierPriceEntry closestCommerceTierPriceEntry =
+					commerceTierPriceEntries.get(
+						commerceTierPriceEntry.getCommercePriceEntryId());
+
+				if ((closestCommerceTierPriceEntry == null) ||
+					(closestCommerceTierPriceEntry.getMinQuantity() <
+						commerceTierPriceEntry.getMinQuantity())) {
+
+					commerceTierPriceEntries.put(
+						commerceTierPriceEntry.getCommercePriceEntryId(),
+						commerceTierPriceEntry);
+				}
+			}
+
+			start = end;
+		}
+
+		return commerceTierPriceEntries;
+	}
+
+	public BigDecimal getPrice(
+		CommercePriceEntry commercePriceEntry,
+		CommerceTierPriceEntry commerceTierPriceEntry, boolean promo) {
+
+		BigDecimal price = null;
+
+		if (promo) {
+			price = commercePriceEntry.getPromoPrice();
+		}
+		else {
+			price = commercePriceEntry.getPrice();
+		}
+
+		if (commercePriceEntry.isHasTierPrice() &&
+			(commerceTierPriceEntry != null)) {
+
+			if (promo) {
+				price = commerceTierPriceEntry.getPromoPrice();
+			}
+			else {
+				price = commerceTierPriceEntry.getPrice();
+			}
+		}
+
+		return price;
+	}
+
+	private CommercePriceEntry _fetchCommercePriceEntry(
+		long commercePriceListId, String cpInstanceUuid) {
+
+		Set<Long> commercePriceListIds = new HashSet<>();
+
+		while ((commercePriceListId > 0) &&
+			   commercePriceListIds.add(commercePriceListId)) {
+
+			CommercePriceEntry commercePriceEntry =
+				_commercePriceEntryLocalService.fetchCommercePriceEntry(
+					commercePriceListId, cpInstanceUuid);
+
+			if (commercePriceEntry != null) {
+				return commercePriceEntry;
+			}
+
+			CommercePriceList commercePriceList =
+				_commercePriceListLocalService.fetchCommercePriceList(
+					commercePriceListId);
+
+			if (commercePriceList == null) {
+				return null;
+			}
+
+			commercePriceListId =
+				commercePriceList.getParentCommercePriceListId();
+		}
+
+		return null;
+	}
+
+	private static final int _BATCH_SIZE = 500;
+
+	@Reference
+	private CommercePriceEntryLocalService _commercePriceEntryLocalService;
+
+	@Reference
+	private CommercePriceListLocalService _commercePriceListLocalService;
+
+	@Reference
+	private CommerceTierPriceEntryLocalService
+		_commerceTierPriceEntryLocalService;
+
+}
\ No newline at end of file
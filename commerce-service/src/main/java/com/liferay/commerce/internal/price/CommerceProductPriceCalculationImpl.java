@@ -32,19 +32,30 @@ import com.liferay.commerce.price.list.service.CommercePriceEntryLocalService;
 import com.liferay.commerce.price.list.service.CommerceTierPriceEntryLocalService;
 import com.liferay.commerce.product.constants.CPActionKeys;
 import com.liferay.commerce.product.constants.CPConstants;
+import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.product.model.CPInstance;
+import com.liferay.commerce.product.service.CPInstanceLocalService;
 import com.liferay.commerce.product.service.CPInstanceService;
-import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.security.permission.ActionKeys;
 import com.liferay.portal.kernel.security.permission.PermissionChecker;
 import com.liferay.portal.kernel.security.permission.PermissionThreadLocal;
+import com.liferay.portal.kernel.security.permission.resource.ModelResourcePermission;
 import com.liferay.portal.kernel.security.permission.resource.PortletResourcePermission;
-import com.liferay.portal.kernel.workflow.WorkflowConstants;
+import com.liferay.portal.kernel.util.ArrayUtil;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.osgi.service.component.annotations.Component;
@@ -75,51 +86,132 @@ public class CommerceProductPriceCalculationImpl
 			cpInstanceId, quantity, commerceContext.getCommercePriceList(),
 			commerceContext.getCommerceCurrency(), secure, commerceContext);
 
-		CommerceProductPriceImpl commerceProductPrice =
-			new CommerceProductPriceImpl();
-
-		commerceProductPrice.setQuantity(quantity);
-		commerceProductPrice.setUnitPrice(unitPrice);
-		commerceProductPrice.setUnitPromoPrice(promoPrice);
-
 		CommerceDiscountValue commerceDiscountValue =
 			_commerceDiscountCalculation.getProductCommerceDiscountValue(
 				cpInstanceId, quantity, unitPrice.getPrice(), commerceContext);
 
-		BigDecimal finalPrice = unitPrice.getPrice();
+		return _getCommerceProductPrice(
+			quantity, unitPrice, promoPrice, commerceDiscountValue,
+			commerceContext);
+	}
 
-		BigDecimal promo = promoPrice.getPrice();
+	@Override
+	public CommerceProductPrice getCommerceProductPrice(
+			long cpInstanceId, int quantity, CommerceContext commerceContext)
+		throws PortalException {
 
-		if ((promo != null) && (promo.compareTo(BigDecimal.ZERO) > 0) &&
-			(promo.compareTo(unitPrice.getPrice()) <= 0)) {
+		return getCommerceProductPrice(
+			cpInstanceId, quantity, true, commerceContext);
+	}
 
-			finalPrice = promoPrice.getPrice();
+	@Override
+	public Map<Long, CommerceProductPrice> getCommerceProductPrices(
+			long[] cpInstanceIds, int quantity, boolean secure,
+			CommerceContext commerceContext)
+		throws PortalException {
+
+		Map<Long, CommerceProductPrice> commerceProductPrices =
+			new LinkedHashMap<>();
+
+		if (ArrayUtil.isEmpty(cpInstanceIds) ||
+			(secure && !_hasViewPricePermission(commerceContext))) {
+
+			return commerceProductPrices;
 		}
 
-		finalPrice = finalPrice.multiply(BigDecimal.valueOf(quantity));
+		List<CPInstance> cpInstances = _getCPInstances(cpInstanceIds, secure);
 
-		if (commerceDiscountValue != null) {
-			CommerceMoney discountAmount =
-				commerceDiscountValue.getDiscountAmount();
+		if (cpInstances.isEmpty()) {
+			return commerceProductPrices;
+		}
 
-			finalPrice = finalPrice.subtract(discountAmount.getPrice());
+		CommerceCurrency commerceCurrency =
+			commerceContext.getCommerceCurrency();
+		Optional<CommercePriceList> commercePriceListOptional =
+			commerceContext.getCommercePriceList();
+
+		Map<String, CommercePriceEntry> commercePriceEntries =
+			Collections.emptyMap();
+		Map<Long, CommerceTierPriceEntry> commerceTierPriceEntries =
+			Collections.emptyMap();
+		CommerceCurrency priceListCommerceCurrency = null;
+
+		if (commercePriceListOptional.isPresent()) {
+			CommercePriceList commercePriceList =
+				commercePriceListOptional.get();
+
+			commercePriceEntries =
+				_commercePriceEntryHelper.getCommercePriceEntries(
+					commercePriceList.getCommercePriceListId(), cpInstances);
+			commerceTierPriceEntries =
+				_commercePriceEntryHelper.getCommerceTierPriceEntries(
+					commercePriceEntries.values(), quantity);
+			priceListCommerceCurrency =
+				_commerceCurrencyLocalService.getCommerceCurrency(
+					commercePriceList.getCommerceCurrencyId());
 		}
 
-		commerceProductPrice.setCommerceDiscountValue(commerceDiscountValue);
-		commerceProductPrice.setFinalPrice(
-			_commerceMoneyFactory.create(
-				commerceContext.getCommerceCurrency(), finalPrice));
+		Map<Long, BigDecimal> prices = new HashMap<>();
+		Map<Long, BigDecimal> promoPrices = new HashMap<>();
 
-		return commerceProductPrice;
+		for (CPInstance cpInstance : cpInstances) {
+			BigDecimal price = cpInstance.getPrice();
+			BigDecimal promoPrice = cpInstance.getPromoPrice();
+
+			CommercePriceEntry commercePriceEntry = commercePriceEntries.get(
+				cpInstance.getCPInstanceUuid());
+
+			if (commercePriceEntry != null) {
+				CommerceTierPriceEntry commerceTierPriceEntry =
+					commerceTierPriceEntries.get(
+						commercePriceEntry.getCommercePriceEntryId());
+
+				price = _getPriceListPrice(
+					commercePriceEntry, commerceTierPriceEntry,
+					priceListCommerceCurrency, false);
+				promoPrice = _getPriceListPrice(
+					commercePriceEntry, commerceTierPriceEntry,
+					priceListCommerceCurrency, true);
+			}
+
+			if ((commerceCurrency != null) && !commerceCurrency.isPrimary()) {
+				price = price.multiply(commerceCurrency.getRate());
+				promoPrice = promoPrice.multiply(commerceCurrency.getRate());
+			}
+
+			prices.put(cpInstance.getCPInstanceId(), price);
+			promoPrices.put(cpInstance.getCPInstanceId(), promoPrice);
+		}
+
+		Map<Long, CommerceDiscountValue> commerceDiscountValues =
+			_commerceDiscountCalculation.getProductCommerceDiscountValues(
+				cpInstances, quantity, prices, commerceContext);
+
+		for (CPInstance cpInstance : cpInstances) {
+			long cpInstanceId = cpInstance.getCPInstanceId();
+
+			CommerceProductPrice commerceProductPrice =
+				_getCommerceProductPrice(
+					quantity,
+					_commerceMoneyFactory.create(
+						commerceCurrency, prices.get(cpInstanceId)),
+					_commerceMoneyFactory.create(
+						commerceCurrency, promoPrices.get(cpInstanceId)),
+					commerceDiscountValues.get(cpInstanceId), commerceContext);
+
+			commerceProductPrices.put(cpInstanceId, commerceProductPrice);
+		}
+
+		return commerceProductPrices;
 	}
 
 	@Override
-	public CommerceProductPrice getCommerceProductPrice(
-			long cpInstanceId, int quantity, CommerceContext commerceContext)
+	public Map<Long, CommerceProductPrice> getCommerceProductPrices(
+			long[] cpInstanceIds, int quantity, CommerceContext commerceContext)
 		throws PortalException {
 
-		return getCommerceProductPrice(
-			cpInstanceId, quantity, true, commerceContext);
+		return getCommerceProductPrices(
+			cpInstanceIds, quantity, true, commerceContext);
 	}
 
 	@Override
@@ -168,7 +260,7 @@ public class CommerceProductPriceCalculationImpl
 
 		if (commercePriceList.isPresent()) {
 			BigDecimal priceListPrice = _getPriceListPrice(
-				cpInstanceId, quantity, commercePriceList.get(), true);
+				cpInstance, quantity, commercePriceList.get(), true);
 
 			if (priceListPrice != null) {
 				price = priceListPrice;
@@ -204,28 +296,21 @@ public class CommerceProductPriceCalculationImpl
 			return null;
 		}
 
-		CommerceMoney commerceMoney = null;
-		BigDecimal maxPrice = BigDecimal.ZERO;
-
-		List<CPInstance> cpInstances =
-			_cpInstanceService.getCPDefinitionInstances(
-				cpDefinitionId, WorkflowConstants.STATUS_APPROVED,
-				QueryUtil.ALL_POS, QueryUtil.ALL_POS, null);
+		CPDefinitionPriceRange cpDefinitionPriceRange =
+			_getCPDefinitionPriceRange(
+				cpDefinitionId, quantity, commerceContext);
 
-		for (CPInstance cpInstance : cpInstances) {
-			CommerceMoney cpInstanceCommerceMoney = getUnitPrice(
-				cpInstance.getCPInstanceId(), quantity,
-				commerceContext.getCommercePriceList(),
-				commerceContext.getCommerceCurrency(), secure, commerceContext);
-
-			if (maxPrice.compareTo(cpInstanceCommerceMoney.getPrice()) < 0) {
-				commerceMoney = cpInstanceCommerceMoney;
+		BigDecimal maxPrice = _getUnitPrice(
+			cpDefinitionPriceRange.getMaxCPInstancePrice(),
+			cpDefinitionPriceRange.getMaxPriceListPrice(), false,
+			commerceContext);
 
-				maxPrice = commerceMoney.getPrice();
-			}
+		if ((maxPrice == null) || (maxPrice.compareTo(BigDecimal.ZERO) <= 0)) {
+			return null;
 		}
 
-		return commerceMoney;
+		return _commerceMoneyFactory.create(
+			commerceContext.getCommerceCurrency(), maxPrice);
 	}
 
 	@Override
@@ -246,30 +331,21 @@ public class CommerceProductPriceCalculationImpl
 			return null;
 		}
 
-		CommerceMoney commerceMoney = null;
-		BigDecimal minPrice = BigDecimal.ZERO;
-
-		List<CPInstance> cpInstances =
-			_cpInstanceService.getCPDefinitionInstances(
-				cpDefinitionId, WorkflowConstants.STATUS_APPROVED,
-				QueryUtil.ALL_POS, QueryUtil.ALL_POS, null);
-
-		for (CPInstance cpInstance : cpInstances) {
-			CommerceMoney cpInstanceCommerceMoney = getUnitPrice(
-				cpInstance.getCPInstanceId(), quantity,
-				commerceContext.getCommercePriceList(),
-				commerceContext.getCommerceCurrency(), secure, commerceContext);
-
-			if ((commerceMoney == null) ||
-				(minPrice.compareTo(cpInstanceCommerceMoney.getPrice()) > 0)) {
+		CPDefinitionPriceRange cpDefinitionPriceRange =
+			_getCPDefinitionPriceRange(
+				cpDefinitionId, quantity, commerceContext);
 
-				commerceMoney = cpInstanceCommerceMoney;
+		BigDecimal minPrice = _getUnitPrice(
+			cpDefinitionPriceRange.getMinCPInstancePrice(),
+			cpDefinitionPriceRange.getMinPriceListPrice(), true,
+			commerceContext);
 
-				minPrice = commerceMoney.getPrice();
-			}
+		if (minPrice == null) {
+			return null;
 		}
 
-		return commerceMoney;
+		return _commerceMoneyFactory.create(
+			commerceContext.getCommerceCurrency(), minPrice);
 	}
 
 	@Override
@@ -298,7 +374,7 @@ public class CommerceProductPriceCalculationImpl
 
 		if (commercePriceList.isPresent()) {
 			BigDecimal priceListPrice = _getPriceListPrice(
-				cpInstanceId, quantity, commercePriceList.get(), false);
+				cpInstance, quantity, commercePriceList.get(), false);
 
 			if (priceListPrice != null) {
 				price = priceListPrice;
@@ -324,53 +400,232 @@ public class CommerceProductPriceCalculationImpl
 			commerceContext);
 	}
 
-	private BigDecimal _getPriceListPrice(
-			long cpInstanceId, int quantity,
-			CommercePriceList commercePriceList, boolean promo)
+	private CommerceProductPrice _getCommerceProductPrice(
+		int quantity, CommerceMoney unitPrice, CommerceMoney promoPrice,
+		CommerceDiscountValue commerceDiscountValue,
+		CommerceContext commerceContext) {
+
+		CommerceProductPriceImpl commerceProductPrice =
+			new CommerceProductPriceImpl();
+
+		commerceProductPrice.setQuantity(quantity);
+		commerceProductPrice.setUnitPrice(unitPrice);
+		commerceProductPrice.setUnitPromoPrice(promoPrice);
+
+		BigDecimal finalPrice = unitPrice.getPrice();
+
+		BigDecimal promo = promoPrice.getPrice();
+
+		if ((promo != null) && (promo.compareTo(BigDecimal.ZERO) > 0) &&
+			(promo.compareTo(unitPrice.getPrice()) <= 0)) {
+
+			finalPrice = promoPrice.getPrice();
+		}
+
+		finalPrice = finalPrice.multiply(BigDecimal.valueOf(quantity));
+
+		if (commerceDiscountValue != null) {
+			CommerceMoney discountAmount =
+				commerceDiscountValue.getDiscountAmount();
+
+			finalPrice = finalPrice.subtract(discountAmount.getPrice());
+		}
+
+		commerceProductPrice.setCommerceDiscountValue(commerceDiscountValue);
+		commerceProductPrice.setFinalPrice(
+			_commerceMoneyFactory.create(
+				commerceContext.getCommerceCurrency(), finalPrice));
+
+		return commerceProductPrice;
+	}
+
+	private CPDefinitionPriceRange _getCPDefinitionPriceRange(
+			long cpDefinitionId, int quantity, CommerceContext commerceContext)
 		throws PortalException {
 
-		BigDecimal price = null;
+		_cpDefinitionModelResourcePermission.check(
+			PermissionThreadLocal.getPermissionChecker(), cpDefinitionId,
+			ActionKeys.VIEW);
 
-		CommercePriceEntry commercePriceEntry =
-			_commercePriceEntryLocalService.fetchCommercePriceEntry(
-				cpInstanceId, commercePriceList.getCommercePriceListId());
+		long commercePriceListId = 0;
+
+		Optional<CommercePriceList> commercePriceListOptional =
+			commerceContext.getCommercePriceList();
+
+		if (commercePriceListOptional.isPresent()) {
+			CommercePriceList commercePriceList =
+				commercePriceListOptional.get();
+
+			commercePriceListId = commercePriceList.getCommercePriceListId();
+		}
+
+		return _cpDefinitionPriceRangeCache.getCPDefinitionPriceRange(
+			cpDefinitionId, commercePriceListId, quantity);
+	}
+
+	private List<CPInstance> _getCPInstances(
+			long[] cpInstanceIds, boolean secure)
+		throws PortalException {
+
+		Map<Long, CPInstance> cpInstancesMap = new HashMap<>();
+
+		int start = 0;
+
+		while (start < cpInstanceIds.length) {
+			int end = Math.min(start + _BATCH_SIZE, cpInstanceIds.length);
 
-		if (commercePriceEntry != null) {
-			if (promo) {
-				price = commercePriceEntry.getPromoPrice();
+			DynamicQuery dynamicQuery = _cpInstanceLocalService.dynamicQuery();
+
+			Property cpInstanceIdProperty = PropertyFactoryUtil.forName(
+				"CPInstanceId");
+
+			dynamicQuery.add(
+				cpInstanceIdProperty.in(
+					ArrayUtil.subset(cpInstanceIds, start, end)));
+
+			List<CPInstance> cpInstances =
+				_cpInstanceLocalService.dynamicQuery(dynamicQuery);
+
+			for (CPInstance cpInstance : cpInstances) {
+				cpInstancesMap.put(cpInstance.getCPInstanceId(), cpInstance);
+			}
+
+			start = end;
+		}
+
+		PermissionChecker permissionChecker =
+			PermissionThreadLocal.getPermissionChecker();
+
+		Map<Long, Boolean> cpDefinitionPermissions = new HashMap<>();
+
+		List<CPInstance> viewableCPInstances = new ArrayList<>(
+			cpInstancesMap.size());
+
+		for (long cpInstanceId : cpInstanceIds) {
+			CPInstance cpInstance = cpInstancesMap.remove(cpInstanceId);
+
+			if (cpInstance == null) {
+				continue;
 			}
-			else {
-				price = commercePriceEntry.getPrice();
+
+			if (!secure) {
+				viewableCPInstances.add(cpInstance);
+
+				continue;
 			}
 
-			if (commercePriceEntry.isHasTierPrice()) {
-				CommerceTierPriceEntry commerceTierPriceEntry =
-					_commerceTierPriceEntryLocalService.
-						findClosestCommerceTierPriceEntry(
-							commercePriceEntry.getCommercePriceEntryId(),
-							quantity);
-
-				if (commerceTierPriceEntry != null) {
-					if (promo) {
-						price = commerceTierPriceEntry.getPromoPrice();
-					}
-					else {
-						price = commerceTierPriceEntry.getPrice();
-					}
-				}
+			Boolean hasPermission = cpDefinitionPermissions.get(
+				cpInstance.getCPDefinitionId());
+
+			if (hasPermission == null) {
+				hasPermission = _cpDefinitionModelResourcePermission.contains(
+					permissionChecker, cpInstance.getCPDefinitionId(),
+					ActionKeys.VIEW);
+
+				cpDefinitionPermissions.put(
+					cpInstance.getCPDefinitionId(), hasPermission);
+			}
+
+			if (hasPermission) {
+				viewableCPInstances.add(cpInstance);
 			}
+		}
+
+		return viewableCPInstances;
+	}
 
-			CommerceCurrency priceListCurrency =
+	private BigDecimal _getPriceListPrice(
+		CommercePriceEntry commercePriceEntry,
+		CommerceTierPriceEntry commerceTierPriceEntry,
+		CommerceCurrency priceListCommerceCurrency, boolean promo) {
+
+		BigDecimal price = _commercePriceEntryHelper.getPrice(
+			commercePriceEntry, commerceTierPriceEntry, promo);
+
+		return _getPrimaryPrice(price, priceListCommerceCurrency);
+	}
+
+	private BigDecimal _getPriceListPrice(
+			CPInstance cpInstance, int quantity,
+			CommercePriceList commercePriceList, boolean promo)
+		throws PortalException {
+
+		CommercePriceEntry commercePriceEntry =
+			_commercePriceEntryLocalService.fetchCommercePriceEntry(
+				commercePriceList.getCommercePriceListId(),
+				cpInstance.getCPInstanceUuid(), true);
+
+		if (commercePriceEntry == null) {
+			return null;
+		}
+
+		CommerceTierPriceEntry commerceTierPriceEntry = null;
+
+		if (commercePriceEntry.isHasTierPrice()) {
+			commerceTierPriceEntry =
+				_commerceTierPriceEntryLocalService.
+					findClosestCommerceTierPriceEntry(
+						commercePriceEntry.getCommercePriceEntryId(), quantity);
+		}
+
+		CommerceCurrency priceListCommerceCurrency =
+			_commerceCurrencyLocalService.getCommerceCurrency(
+				commercePriceList.getCommerceCurrencyId());
+
+		return _getPriceListPrice(
+			commercePriceEntry, commerceTierPriceEntry,
+			priceListCommerceCurrency, promo);
+	}
+
+	private BigDecimal _getPrimaryPrice(
+		BigDecimal price, CommerceCurrency priceListCommerceCurrency) {
+
+		if (!priceListCommerceCurrency.isPrimary()) {
+			price = price.divide(
+				priceListCommerceCurrency.getRate(),
+				RoundingMode.valueOf(
+					priceListCommerceCurrency.getRoundingMode()));
+		}
+
+		return price;
+	}
+
+	private BigDecimal _getUnitPrice(
+			BigDecimal cpInstancePrice, BigDecimal priceListPrice, boolean min,
+			CommerceContext commerceContext)
+		throws PortalException {
+
+		BigDecimal price = cpInstancePrice;
+
+		if (priceListPrice != null) {
+			Optional<CommercePriceList> commercePriceListOptional =
+				commerceContext.getCommercePriceList();
+
+			CommercePriceList commercePriceList =
+				commercePriceListOptional.get();
+
+			priceListPrice = _getPrimaryPrice(
+				priceListPrice,
 				_commerceCurrencyLocalService.getCommerceCurrency(
-					commercePriceList.getCommerceCurrencyId());
+					commercePriceList.getCommerceCurrencyId()));
 
-			if (!priceListCurrency.isPrimary()) {
-				price = price.divide(
-					priceListCurrency.getRate(),
-					RoundingMode.valueOf(priceListCurrency.getRoundingMode()));
+			if ((price == null) ||
+				(min && (priceListPrice.compareTo(price) < 0)) ||
+				(!min && (priceListPrice.compareTo(price) > 0))) {
+
+				price = priceListPrice;
 			}
 		}
 
+		CommerceCurrency commerceCurrency =
+			commerceContext.getCommerceCurrency();
+
+		if ((price != null) && (commerceCurrency != null) &&
+			!commerceCurrency.isPrimary()) {
+
+			price = price.multiply(commerceCurrency.getRate());
+		}
+
 		return price;
 	}
 
@@ -396,6 +651,8 @@ public class CommerceProductPriceCalculationImpl
 			CPActionKeys.VIEW_PRICE);
 	}
 
+	private static final int _BATCH_SIZE = 500;
+
 	@Reference
 	private CommerceCurrencyLocalService _commerceCurrencyLocalService;
 
@@ -405,6 +662,9 @@ public class CommerceProductPriceCalculationImpl
 	@Reference
 	private CommerceMoneyFactory _commerceMoneyFactory;
 
+	@Reference
+	private CommercePriceEntryHelper _commercePriceEntryHelper;
+
 	@Reference
 	private CommercePriceEntryLocalService _commercePriceEntryLocalService;
 
@@ -412,6 +672,18 @@ public class CommerceProductPriceCalculationImpl
 	private CommerceTierPriceEntryLocalService
 		_commerceTierPriceEntryLocalService;
 
+	@Reference(
+		target = "(model.class.name=com.liferay.commerce.product.model.CPDefinition)"
+	)
+	private ModelResourcePermission<CPDefinition>
+		_cpDefinitionModelResourcePermission;
+
+	@Reference
+	private CPDefinitionPriceRangeCache _cpDefinitionPriceRangeCache;
+
+	@Reference
+	private CPInstanceLocalService _cpInstanceLocalService;
+
 	@Reference
 	private CPInstanceService _cpInstanceService;
 
@@ -91,13 +91,50 @@ public class CommerceOrderItemServiceHttp {
 		}
 	}
 
+	public static java.util.List<com.liferay.commerce.model.CommerceOrderItem> addCommerceOrderItems(
+		HttpPrincipal httpPrincipal, long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		try {
+			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
+					"addCommerceOrderItems",
+					_addCommerceOrderItemsParameterTypes1);
+
+			MethodHandler methodHandler = new MethodHandler(methodKey,
+					commerceOrderId, commerceOrderItemLines, commerceContext,
+					serviceContext);
+
+			Object returnObj = null;
+
+			try {
+				returnObj = TunnelUtil.invoke(httpPrincipal, methodHandler);
+			}
+			catch (Exception e) {
+				if (e instanceof com.liferay.portal.kernel.exception.PortalException) {
+					throw (com.liferay.portal.kernel.exception.PortalException)e;
+				}
+
+				throw new com.liferay.portal.kernel.exception.SystemException(e);
+			}
+
+			return (java.util.List<com.liferay.commerce.model.CommerceOrderItem>)returnObj;
+		}
+		catch (com.liferay.portal.kernel.exception.SystemException se) {
+			_log.error(se, se);
+
+			throw se;
+		}
+	}
+
 	public static void deleteCommerceOrderItem(HttpPrincipal httpPrincipal,
 		long commerceOrderItemId)
 		throws com.liferay.portal.kernel.exception.PortalException {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"deleteCommerceOrderItem",
-					_deleteCommerceOrderItemParameterTypes1);
+					_deleteCommerceOrderItemParameterTypes2);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderItemId);
@@ -127,7 +164,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"fetchByExternalReferenceCode",
-					_fetchByExternalReferenceCodeParameterTypes2);
+					_fetchByExternalReferenceCodeParameterTypes3);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					companyId, externalReferenceCode);
@@ -160,7 +197,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"fetchCommerceOrderItem",
-					_fetchCommerceOrderItemParameterTypes3);
+					_fetchCommerceOrderItemParameterTypes4);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderItemId);
@@ -193,7 +230,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"getAvailableForShipmentCommerceOrderItems",
-					_getAvailableForShipmentCommerceOrderItemsParameterTypes4);
+					_getAvailableForShipmentCommerceOrderItemsParameterTypes5);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId);
@@ -225,7 +262,7 @@ public class CommerceOrderItemServiceHttp {
 		throws com.liferay.portal.kernel.exception.PortalException {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
-					"getCommerceOrderItem", _getCommerceOrderItemParameterTypes5);
+					"getCommerceOrderItem", _getCommerceOrderItemParameterTypes6);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderItemId);
@@ -258,7 +295,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"getCommerceOrderItems",
-					_getCommerceOrderItemsParameterTypes6);
+					_getCommerceOrderItemsParameterTypes7);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId, start, end);
@@ -291,7 +328,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"getCommerceOrderItemsCount",
-					_getCommerceOrderItemsCountParameterTypes7);
+					_getCommerceOrderItemsCountParameterTypes8);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId);
@@ -324,7 +361,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"getCommerceOrderItemsQuantity",
-					_getCommerceOrderItemsQuantityParameterTypes8);
+					_getCommerceOrderItemsQuantityParameterTypes9);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId);
@@ -358,7 +395,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"getCommerceWarehouseItemQuantity",
-					_getCommerceWarehouseItemQuantityParameterTypes9);
+					_getCommerceWarehouseItemQuantityParameterTypes10);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderItemId, commerceWarehouseId);
@@ -391,7 +428,7 @@ public class CommerceOrderItemServiceHttp {
 		throws com.liferay.portal.kernel.exception.PortalException {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
-					"search", _searchParameterTypes10);
+					"search", _searchParameterTypes11);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId, keywords, start, end, sort);
@@ -425,7 +462,7 @@ public class CommerceOrderItemServiceHttp {
 		throws com.liferay.portal.kernel.exception.PortalException {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
-					"search", _searchParameterTypes11);
+					"search", _searchParameterTypes12);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId, sku, name, andOperator, start, end, sort);
@@ -460,7 +497,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"updateCommerceOrderItem",
-					_updateCommerceOrderItemParameterTypes12);
+					_updateCommerceOrderItemParameterTypes13);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderItemId, quantity, commerceContext,
@@ -497,7 +534,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"updateCommerceOrderItem",
-					_updateCommerceOrderItemParameterTypes13);
+					_updateCommerceOrderItemParameterTypes14);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderItemId, quantity, json, commerceContext,
@@ -534,7 +571,7 @@ public class CommerceOrderItemServiceHttp {
 		try {
 			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
 					"upsertCommerceOrderItem",
-					_upsertCommerceOrderItemParameterTypes14);
+					_upsertCommerceOrderItemParameterTypes15);
 
 			MethodHandler methodHandler = new MethodHandler(methodKey,
 					commerceOrderId, cpInstanceId, quantity, shippedQuantity,
@@ -562,56 +599,103 @@ public class CommerceOrderItemServiceHttp {
 		}
 	}
 
+	public static java.util.List<com.liferay.commerce.model.CommerceOrderItem> upsertCommerceOrderItems(
+		HttpPrincipal httpPrincipal, long commerceOrderId,
+		java.util.List<com.liferay.commerce.order.CommerceOrderItemLine> commerceOrderItemLines,
+		com.liferay.commerce.context.CommerceContext commerceContext,
+		com.liferay.portal.kernel.service.ServiceContext serviceContext)
+		throws com.liferay.portal.kernel.exception.PortalException {
+		try {
+			MethodKey methodKey = new MethodKey(CommerceOrderItemServiceUtil.class,
+					"upsertCommerceOrderItems",
+					_upsertCommerceOrderItemsParameterTypes16);
+
+			MethodHandler methodHandler = new MethodHandler(methodKey,
+					commerceOrderId, commerceOrderItemLines, commerceContext,
+					serviceContext);
+
+			Object returnObj = null;
+
+			try {
+				returnObj = TunnelUtil.invoke(httpPrincipal, methodHandler);
+			}
+			catch (Exception e) {
+				if (e instanceof com.liferay.portal.kernel.exception.PortalException) {
+					throw (com.liferay.portal.kernel.exception.PortalException)e;
+				}
+
+				throw new com.liferay.portal.kernel.exception.SystemException(e);
+			}
+
+			return (java.util.List<com.liferay.commerce.model.CommerceOrderItem>)returnObj;
+		}
+		catch (com.liferay.portal.kernel.exception.SystemException se) {
+			_log.error(se, se);
+
+			throw se;
+		}
+	}
+
 	private static Log _log = LogFactoryUtil.getLog(CommerceOrderItemServiceHttp.class);
 	private static final Class<?>[] _addCommerceOrderItemParameterTypes0 = new Class[] {
 			long.class, long.class, int.class, int.class, String.class,
 			com.liferay.commerce.context.CommerceContext.class,
 			com.liferay.portal.kernel.service.ServiceContext.class
 		};
-	private static final Class<?>[] _deleteCommerceOrderItemParameterTypes1 = new Class[] {
+	private static final Class<?>[] _addCommerceOrderItemsParameterTypes1 = new Class[] {
+			long.class, java.util.List.class,
+			com.liferay.commerce.context.CommerceContext.class,
+			com.liferay.portal.kernel.service.ServiceContext.class
+		};
+	private static final Class<?>[] _deleteCommerceOrderItemParameterTypes2 = new Class[] {
 			long.class
 		};
-	private static final Class<?>[] _fetchByExternalReferenceCodeParameterTypes2 =
+	private static final Class<?>[] _fetchByExternalReferenceCodeParameterTypes3 =
 		new Class[] { long.class, String.class };
-	private static final Class<?>[] _fetchCommerceOrderItemParameterTypes3 = new Class[] {
+	private static final Class<?>[] _fetchCommerceOrderItemParameterTypes4 = new Class[] {
 			long.class
 		};
-	private static final Class<?>[] _getAvailableForShipmentCommerceOrderItemsParameterTypes4 =
+	private static final Class<?>[] _getAvailableForShipmentCommerceOrderItemsParameterTypes5 =
 		new Class[] { long.class };
-	private static final Class<?>[] _getCommerceOrderItemParameterTypes5 = new Class[] {
+	private static final Class<?>[] _getCommerceOrderItemParameterTypes6 = new Class[] {
 			long.class
 		};
-	private static final Class<?>[] _getCommerceOrderItemsParameterTypes6 = new Class[] {
+	private static final Class<?>[] _getCommerceOrderItemsParameterTypes7 = new Class[] {
 			long.class, int.class, int.class
 		};
-	private static final Class<?>[] _getCommerceOrderItemsCountParameterTypes7 = new Class[] {
+	private static final Class<?>[] _getCommerceOrderItemsCountParameterTypes8 = new Class[] {
 			long.class
 		};
-	private static final Class<?>[] _getCommerceOrderItemsQuantityParameterTypes8 =
+	private static final Class<?>[] _getCommerceOrderItemsQuantityParameterTypes9 =
 		new Class[] { long.class };
-	private static final Class<?>[] _getCommerceWarehouseItemQuantityParameterTypes9 =
+	private static final Class<?>[] _getCommerceWarehouseItemQuantityParameterTypes10 =
 		new Class[] { long.class, long.class };
-	private static final Class<?>[] _searchParameterTypes10 = new Class[] {
+	private static final Class<?>[] _searchParameterTypes11 = new Class[] {
 			long.class, String.class, int.class, int.class,
 			com.liferay.portal.kernel.search.Sort.class
 		};
-	private static final Class<?>[] _searchParameterTypes11 = new Class[] {
+	private static final Class<?>[] _searchParameterTypes12 = new Class[] {
 			long.class, String.class, String.class, boolean.class, int.class,
 			int.class, com.liferay.portal.kernel.search.Sort.class
 		};
-	private static final Class<?>[] _updateCommerceOrderItemParameterTypes12 = new Class[] {
+	private static final Class<?>[] _updateCommerceOrderItemParameterTypes13 = new Class[] {
 			long.class, int.class,
 			com.liferay.commerce.context.CommerceContext.class,
 			com.liferay.portal.kernel.service.ServiceContext.class
 		};
-	private static final Class<?>[] _updateCommerceOrderItemParameterTypes13 = new Class[] {
+	private static final Class<?>[] _updateCommerceOrderItemParameterTypes14 = new Class[] {
 			long.class, int.class, String.class,
 			com.liferay.commerce.context.CommerceContext.class,
 			com.liferay.portal.kernel.service.ServiceContext.class
 		};
-	private static final Class<?>[] _upsertCommerceOrderItemParameterTypes14 = new Class[] {
+	private static final Class<?>[] _upsertCommerceOrderItemParameterTypes15 = new Class[] {
 			long.class, long.class, int.class, int.class, String.class,
 			com.liferay.commerce.context.CommerceContext.class,
 			com.liferay.portal.kernel.service.ServiceContext.class
 		};
+	private static final Class<?>[] _upsertCommerceOrderItemsParameterTypes16 = new Class[] {
+			long.class, java.util.List.class,
+			com.liferay.commerce.context.CommerceContext.class,
+			com.liferay.portal.kernel.service.ServiceContext.class
+		};
 }
\ No newline at end of file
@@ -20,14 +20,17 @@ import com.liferay.commerce.currency.model.CommerceMoney;
 import com.liferay.commerce.discount.CommerceDiscountValue;
 import com.liferay.commerce.exception.CommerceOrderValidatorException;
 import com.liferay.commerce.exception.GuestCartItemMaxAllowedException;
+import com.liferay.commerce.internal.inventory.CommerceStockCounterCache;
 import com.liferay.commerce.internal.search.CommerceOrderItemIndexer;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.CommerceOrderItem;
 import com.liferay.commerce.model.CommerceWarehouseItem;
+import com.liferay.commerce.order.CommerceOrderItemLine;
 import com.liferay.commerce.order.CommerceOrderValidatorRegistry;
 import com.liferay.commerce.order.CommerceOrderValidatorResult;
 import com.liferay.commerce.price.CommerceProductPrice;
 import com.liferay.commerce.price.CommerceProductPriceCalculation;
+import com.liferay.commerce.product.exception.NoSuchCPDefinitionException;
 import com.liferay.commerce.product.exception.NoSuchCPInstanceException;
 import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.product.model.CPInstance;
@@ -36,8 +39,18 @@ import com.liferay.commerce.product.service.CPInstanceLocalService;
 import com.liferay.commerce.service.base.CommerceOrderItemLocalServiceBaseImpl;
 import com.liferay.exportimport.kernel.lar.ExportImportThreadLocal;
 import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.dao.orm.QueryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.json.JSONArray;
+import com.liferay.portal.kernel.json.JSONException;
+import com.liferay.portal.kernel.json.JSONFactoryUtil;
+import com.liferay.portal.kernel.json.JSONObject;
+import com.liferay.portal.kernel.log.Log;
+import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.model.User;
 import com.liferay.portal.kernel.search.BaseModelSearchResult;
 import com.liferay.portal.kernel.search.Document;
@@ -52,6 +65,7 @@ import com.liferay.portal.kernel.search.SearchContext;
 import com.liferay.portal.kernel.search.SearchException;
 import com.liferay.portal.kernel.search.Sort;
 import com.liferay.portal.kernel.service.ServiceContext;
+import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.GetterUtil;
 import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.kernel.util.Validator;
@@ -60,8 +74,16 @@ import com.liferay.portal.spring.extender.service.ServiceReference;
 import java.math.BigDecimal;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @author Andrea Di Giorgi
@@ -105,45 +127,108 @@ public class CommerceOrderItemLocalServiceImpl
 			_commerceProductPriceCalculation.getCommerceProductPrice(
 				cpInstanceId, quantity, false, commerceContext);
 
-		CommerceMoney unitPrice = commerceProductPrice.getUnitPrice();
-		CommerceMoney finalPrice = commerceProductPrice.getFinalPrice();
+		CommerceOrderItem commerceOrderItem = _createCommerceOrderItem(
+			commerceOrder, user, cpDefinition, cpInstance, quantity,
+			shippedQuantity, json, commerceProductPrice, serviceContext);
 
-		long commerceOrderItemId = counterLocalService.increment();
+		commerceOrderItemPersistence.update(commerceOrderItem);
 
-		CommerceOrderItem commerceOrderItem =
-			commerceOrderItemPersistence.create(commerceOrderItemId);
+		return commerceOrderItem;
+	}
 
-		commerceOrderItem.setGroupId(commerceOrder.getGroupId());
-		commerceOrderItem.setCompanyId(user.getCompanyId());
-		commerceOrderItem.setUserId(user.getUserId());
-		commerceOrderItem.setUserName(user.getFullName());
-		commerceOrderItem.setCommerceOrderId(
-			commerceOrder.getCommerceOrderId());
-		commerceOrderItem.setCProductId(cpDefinition.getCProductId());
-		commerceOrderItem.setCPInstanceId(cpInstanceId);
-		commerceOrderItem.setQuantity(quantity);
-		commerceOrderItem.setShippedQuantity(shippedQuantity);
-		commerceOrderItem.setJson(json);
-		commerceOrderItem.setUnitPrice(unitPrice.getPrice());
-		commerceOrderItem.setFinalPrice(finalPrice.getPrice());
-		commerceOrderItem.setNameMap(cpDefinition.getNameMap());
-		commerceOrderItem.setSku(cpInstance.getSku());
-		commerceOrderItem.setExpandoBridgeAttributes(serviceContext);
+	/**
+	 * Adds the lines to the order, loading the product instances, definitions
+	 * and prices of all the lines in bulk and validating every line before any
+	 * of them is added.
+	 *
+	 * @param  commerceOrderId the primary key of the commerce order
+	 * @param  commerceOrderItemLines the lines to add
+	 * @param  commerceContext the commerce context
+	 * @param  serviceContext the service context
+	 * @return the commerce order items that were added, in the order of the
+	 *         lines
+	 */
+	@Override
+	public List<CommerceOrderItem> addCommerceOrderItems(
+			long commerceOrderId,
+			List<CommerceOrderItemLine> commerceOrderItemLines,
+			CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException {
 
-		_setCommerceOrderItemDiscountValue(
-			commerceOrderItem, commerceProductPrice.getDiscountValue());
+		CommerceOrder commerceOrder =
+			commerceOrderLocalService.getCommerceOrder(commerceOrderId);
 
-		boolean subscription = cpDefinition.isSubscriptionEnabled();
+		if (commerceOrderItemLines.isEmpty()) {
+			return Collections.emptyList();
+		}
 
-		if (cpInstance.isOverrideSubscriptionInfo()) {
-			subscription = cpInstance.isSubscriptionEnabled();
+		User user = userLocalService.getUser(serviceContext.getUserId());
+
+		Map<Long, CPInstance> cpInstances = _getCPInstances(
+			commerceOrderItemLines);
+		Map<Long, CPDefinition> cpDefinitions = _getCPDefinitions(
+			cpInstances.values());
+
+		validate(
+			serviceContext.getLocale(), commerceOrder, commerceOrderItemLines,
+			cpInstances);
+
+		Map<Integer, Map<Long, CommerceProductPrice>> commerceProductPrices =
+			_getCommerceProductPrices(commerceOrderItemLines, commerceContext);
+
+		List<CommerceOrderItem> commerceOrderItems = new ArrayList<>(
+			commerceOrderItemLines.size());
+
+		for (CommerceOrderItemLine commerceOrderItemLine :
+				commerceOrderItemLines) {
+
+			CPInstance cpInstance = cpInstances.get(
+				commerceOrderItemLine.getCPInstanceId());
+
+			if (cpInstance == null) {
+				throw new NoSuchCPInstanceException(
+					"No CPInstance exists with the primary key " +
+						commerceOrderItemLine.getCPInstanceId());
+			}
+
+			CPDefinition cpDefinition = cpDefinitions.get(
+				cpInstance.getCPDefinitionId());
+
+			if (cpDefinition == null) {
+				throw new NoSuchCPDefinitionException(
+					"No CPDefinition exists with the primary key " +
+						cpInstance.getCPDefinitionId());
+			}
+
+			Map<Long, CommerceProductPrice> quantityCommerceProductPrices =
+				commerceProductPrices.get(commerceOrderItemLine.getQuantity());
+
+			CommerceProductPrice commerceProductPrice =
+				quantityCommerceProductPrices.get(
+					cpInstance.getCPInstanceId());
+
+			String json = commerceOrderItemLine.getJson();
+
+			if (Validator.isNull(json) || json.equals("[]")) {
+				json = cpInstance.getJson();
+			}
+
+			CommerceOrderItem commerceOrderItem = _createCommerceOrderItem(
+				commerceOrder, user, cpDefinition, cpInstance,
+				commerceOrderItemLine.getQuantity(), 0, json,
+				commerceProductPrice, serviceContext);
+
+			commerceOrderItemPersistence.update(commerceOrderItem);
+
+			commerceOrderItems.add(commerceOrderItem);
 		}
 
-		commerceOrderItem.setSubscription(subscription);
+		Indexer<CommerceOrderItem> indexer =
+			IndexerRegistryUtil.nullSafeGetIndexer(CommerceOrderItem.class);
 
-		commerceOrderItemPersistence.update(commerceOrderItem);
+		indexer.reindex(commerceOrderItems);
 
-		return commerceOrderItem;
+		return commerceOrderItems;
 	}
 
 	@Indexable(type = IndexableType.DELETE)
@@ -281,6 +366,14 @@ public class CommerceOrderItemLocalServiceImpl
 		return commerceWarehouseItem.getQuantity();
 	}
 
+	@Override
+	public Map<Long, Integer> getCPInstanceQuantities(
+		long[] cpInstanceIds, int orderStatus) {
+
+		return commerceOrderItemFinder.getCPInstanceQuantities(
+			cpInstanceIds, orderStatus);
+	}
+
 	@Override
 	public int getCPInstanceQuantity(long cpInstanceId, int orderStatus) {
 		return commerceOrderItemFinder.getCPInstanceQuantity(
@@ -387,6 +480,8 @@ public class CommerceOrderItemLocalServiceImpl
 
 		commerceOrderItemPersistence.update(commerceOrderItem);
 
+		_commerceStockCounterCache.updateCommerceOrderItem(commerceOrderItem);
+
 		return commerceOrderItem;
 	}
 
@@ -413,9 +508,7 @@ public class CommerceOrderItemLocalServiceImpl
 		_setCommerceOrderItemDiscountValue(
 			commerceOrderItem, commerceProductPrice.getDiscountValue());
 
-		commerceOrderItemPersistence.update(commerceOrderItem);
-
-		return commerceOrderItem;
+		return commerceOrderItemPersistence.update(commerceOrderItem);
 	}
 
 	@Override
@@ -443,6 +536,109 @@ public class CommerceOrderItemLocalServiceImpl
 			serviceContext);
 	}
 
+	/**
+	 * Adds the lines to the order in a single transaction. Lines of the same
+	 * product instance and options are merged, lines matching an order item
+	 * increase its quantity and the remaining lines are added in bulk.
+	 *
+	 * @param  commerceOrderId the primary key of the commerce order
+	 * @param  commerceOrderItemLines the lines to add
+	 * @param  commerceContext the commerce context
+	 * @param  serviceContext the service context
+	 * @return the commerce order items that were updated or added
+	 */
+	@Override
+	public List<CommerceOrderItem> upsertCommerceOrderItems(
+			long commerceOrderId,
+			List<CommerceOrderItemLine> commerceOrderItemLines,
+			CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException {
+
+		Map<Long, CPInstance> cpInstances = _getCPInstances(
+			commerceOrderItemLines);
+
+		Map<String, CommerceOrderItemLine> mergedCommerceOrderItemLines =
+			new LinkedHashMap<>();
+
+		for (CommerceOrderItemLine commerceOrderItemLine :
+				commerceOrderItemLines) {
+
+			String json = commerceOrderItemLine.getJson();
+
+			CPInstance cpInstance = cpInstances.get(
+				commerceOrderItemLine.getCPInstanceId());
+
+			if ((cpInstance != null) &&
+				(Validator.isNull(json) || json.equals("[]"))) {
+
+				json = cpInstance.getJson();
+			}
+
+			mergedCommerceOrderItemLines.merge(
+				_getCommerceOrderItemKey(
+					commerceOrderItemLine.getCPInstanceId(), json),
+				new CommerceOrderItemLine(
+					commerceOrderItemLine.getCPInstanceId(),
+					commerceOrderItemLine.getQuantity(), json),
+				(commerceOrderItemLine1, commerceOrderItemLine2) ->
+					new CommerceOrderItemLine(
+						commerceOrderItemLine1.getCPInstanceId(),
+						commerceOrderItemLine1.getQuantity() +
+							commerceOrderItemLine2.getQuantity(),
+						commerceOrderItemLine1.getJson()));
+		}
+
+		Map<String, CommerceOrderItem> existingCommerceOrderItems =
+			new HashMap<>();
+
+		for (CommerceOrderItem commerceOrderItem :
+				commerceOrderItemPersistence.findByCommerceOrderId(
+					commerceOrderId)) {
+
+			existingCommerceOrderItems.putIfAbsent(
+				_getCommerceOrderItemKey(
+					commerceOrderItem.getCPInstanceId(),
+					commerceOrderItem.getJson()),
+				commerceOrderItem);
+		}
+
+		List<CommerceOrderItem> commerceOrderItems = new ArrayList<>();
+		List<CommerceOrderItemLine> addCommerceOrderItemLines =
+			new ArrayList<>();
+
+		for (Map.Entry<String, CommerceOrderItemLine> entry :
+				mergedCommerceOrderItemLines.entrySet()) {
+
+			CommerceOrderItemLine commerceOrderItemLine = entry.getValue();
+
+			CommerceOrderItem commerceOrderItem =
+				existingCommerceOrderItems.get(entry.getKey());
+
+			if (commerceOrderItem == null) {
+				addCommerceOrderItemLines.add(commerceOrderItemLine);
+
+				continue;
+			}
+
+			commerceOrderItems.add(
+				commerceOrderItemLocalService.updateCommerceOrderItem(
+					commerceOrderItem.getCommerceOrderItemId(),
+					commerceOrderItem.getQuantity() +
+						commerceOrderItemLine.getQuantity(),
+					commerceOrderItem.getJson(), commerceContext,
+					serviceContext));
+		}
+
+		if (!addCommerceOrderItemLines.isEmpty()) {
+			commerceOrderItems.addAll(
+				commerceOrderItemLocalService.addCommerceOrderItems(
+					commerceOrderId, addCommerceOrderItemLines,
+					commerceContext, serviceContext));
+		}
+
+		return commerceOrderItems;
+	}
+
 	protected SearchContext buildSearchContext(
 			long commerceOrderId, int start, int end, Sort sort)
 		throws PortalException {
@@ -567,6 +763,247 @@ public class CommerceOrderItemLocalServiceImpl
 		}
 	}
 
+	protected void validate(
+			Locale locale, CommerceOrder commerceOrder,
+			List<CommerceOrderItemLine> commerceOrderItemLines,
+			Map<Long, CPInstance> cpInstances)
+		throws PortalException {
+
+		if (commerceOrder.getUserId() == 0) {
+			int count = commerceOrderItemPersistence.countByCommerceOrderId(
+				commerceOrder.getCommerceOrderId());
+
+			if ((count + commerceOrderItemLines.size()) >
+					_commerceOrderConfiguration.guestCartItemMaxAllowed()) {
+
+				throw new GuestCartItemMaxAllowedException();
+			}
+		}
+
+		List<CommerceOrderValidatorResult> commerceOrderValidatorResults =
+			new ArrayList<>();
+
+		for (CommerceOrderItemLine commerceOrderItemLine :
+				commerceOrderItemLines) {
+
+			if (ExportImportThreadLocal.isImportInProcess()) {
+				break;
+			}
+
+			commerceOrderValidatorResults.addAll(
+				_commerceOrderValidatorRegistry.validate(
+					locale, commerceOrder,
+					cpInstances.get(commerceOrderItemLine.getCPInstanceId()),
+					commerceOrderItemLine.getQuantity()));
+		}
+
+		if (!commerceOrderValidatorResults.isEmpty()) {
+			throw new CommerceOrderValidatorException(
+				commerceOrderValidatorResults);
+		}
+	}
+
+	private CommerceOrderItem _createCommerceOrderItem(
+		CommerceOrder commerceOrder, User user, CPDefinition cpDefinition,
+		CPInstance cpInstance, int quantity, int shippedQuantity, String json,
+		CommerceProductPrice commerceProductPrice,
+		ServiceContext serviceContext) {
+
+		CommerceMoney unitPrice = commerceProductPrice.getUnitPrice();
+		CommerceMoney finalPrice = commerceProductPrice.getFinalPrice();
+
+		long commerceOrderItemId = counterLocalService.increment();
+
+		CommerceOrderItem commerceOrderItem =
+			commerceOrderItemPersistence.create(commerceOrderItemId);
+
+		commerceOrderItem.setGroupId(commerceOrder.getGroupId());
+		commerceOrderItem.setCompanyId(user.getCompanyId());
+		commerceOrderItem.setUserId(user.getUserId());
+		commerceOrderItem.setUserName(user.getFullName());
+		commerceOrderItem.setCommerceOrderId(
+			commerceOrder.getCommerceOrderId());
+		commerceOrderItem.setCProductId(cpDefinition.getCProductId());
+		commerceOrderItem.setCPInstanceId(cpInstance.getCPInstanceId());
+		commerceOrderItem.setQuantity(quantity);
+		commerceOrderItem.setShippedQuantity(shippedQuantity);
+		commerceOrderItem.setJson(json);
+		commerceOrderItem.setUnitPrice(unitPrice.getPrice());
+		commerceOrderItem.setFinalPrice(finalPrice.getPrice());
+		commerceOrderItem.setNameMap(cpDefinition.getNameMap());
+		commerceOrderItem.setSku(cpInstance.getSku());
+		commerceOrderItem.setExpandoBridgeAttributes(serviceContext);
+
+		_setCommerceOrderItemDiscountValue(
+			commerceOrderItem, commerceProductPrice.getDiscountValue());
+
+		boolean subscription = cpDefinition.isSubscriptionEnabled();
+
+		if (cpInstance.isOverrideSubscriptionInfo()) {
+			subscription = cpInstance.isSubscriptionEnabled();
+		}
+
+		commerceOrderItem.setSubscription(subscription);
+
+		return commerceOrderItem;
+	}
+
+	/**
+	 * Returns the prices of the lines' product instances, grouped by the
+	 * quantities of the lines, since tier prices and discounts depend on the
+	 * quantity.
+	 */
+	private Map<Integer, Map<Long, CommerceProductPrice>>
+			_getCommerceProductPrices(
+				List<CommerceOrderItemLine> commerceOrderItemLines,
+				CommerceContext commerceContext)
+		throws PortalException {
+
+		Map<Integer, Set<Long>> cpInstanceIdsMap = new HashMap<>();
+
+		for (CommerceOrderItemLine commerceOrderItemLine :
+				commerceOrderItemLines) {
+
+			Set<Long> cpInstanceIds = cpInstanceIdsMap.computeIfAbsent(
+				commerceOrderItemLine.getQuantity(), key -> new HashSet<>());
+
+			cpInstanceIds.add(commerceOrderItemLine.getCPInstanceId());
+		}
+
+		Map<Integer, Map<Long, CommerceProductPrice>> commerceProductPrices =
+			new HashMap<>();
+
+		for (Map.Entry<Integer, Set<Long>> entry :
+				cpInstanceIdsMap.entrySet()) {
+
+			int quantity = entry.getKey();
+
+			commerceProductPrices.put(
+				quantity,
+				_commerceProductPriceCalculation.getCommerceProductPrices(
+					ArrayUtil.toLongArray(entry.getValue()), quantity, false,
+					commerceContext));
+		}
+
+		return commerceProductPrices;
+	}
+
+	/**
+	 * Returns a key that is equal for two order items of the same product
+	 * instance whose options have the same values, in any order.
+	 */
+	private String _getCommerceOrderItemKey(long cpInstanceId, String json) {
+		if (Validator.isNull(json)) {
+			return String.valueOf(cpInstanceId);
+		}
+
+		Map<String, String> options = new TreeMap<>();
+
+		try {
+			JSONArray jsonArray = JSONFactoryUtil.createJSONArray(json);
+
+			for (int i = 0; i < jsonArray.length(); i++) {
+				JSONObject jsonObject = jsonArray.getJSONObject(i);
+
+				options.put(
+					jsonObject.getString("key"), jsonObject.getString("value"));
+			}
+		}
+		catch (JSONException jsone) {
+			if (_log.isDebugEnabled()) {
+				_log.debug(jsone, jsone);
+			}
+
+			return cpInstanceId + StringPool.POUND + json;
+		}
+
+		return cpInstanceId + StringPool.POUND + options;
+	}
+
+	private Map<Long, CPDefinition> _getCPDefinitions(
+		Collection<CPInstance> cpInstances) {
+
+		Set<Long> cpDefinitionIds = new HashSet<>();
+
+		for (CPInstance cpInstance : cpInstances) {
+			cpDefinitionIds.add(cpInstance.getCPDefinitionId());
+		}
+
+		Map<Long, CPDefinition> cpDefinitions = new HashMap<>();
+
+		List<Long> cpDefinitionIdsList = new ArrayList<>(cpDefinitionIds);
+
+		int start = 0;
+
+		while (start < cpDefinitionIdsList.size()) {
+			int end = Math.min(
+				start + _BATCH_SIZE, cpDefinitionIdsList.size());
+
+			DynamicQuery dynamicQuery =
+				_cpDefinitionLocalService.dynamicQuery();
+
+			Property cpDefinitionIdProperty = PropertyFactoryUtil.forName(
+				"CPDefinitionId");
+
+			dynamicQuery.add(
+				cpDefinitionIdProperty.in(
+					cpDefinitionIdsList.subList(start, end)));
+
+			List<CPDefinition> cpDefinitionsList =
+				_cpDefinitionLocalService.dynamicQuery(dynamicQuery);
+
+			for (CPDefinition cpDefinition : cpDefinitionsList) {
+				cpDefinitions.put(
+					cpDefinition.getCPDefinitionId(), cpDefinition);
+			}
+
+			start = end;
+		}
+
+		return cpDefinitions;
+	}
+
+	private Map<Long, CPInstance> _getCPInstances(
+		List<CommerceOrderItemLine> commerceOrderItemLines) {
+
+		Set<Long> cpInstanceIds = new HashSet<>();
+
+		for (CommerceOrderItemLine commerceOrderItemLine :
+				commerceOrderItemLines) {
+
+			cpInstanceIds.add(commerceOrderItemLine.getCPInstanceId());
+		}
+
+		Map<Long, CPInstance> cpInstances = new HashMap<>();
+
+		List<Long> cpInstanceIdsList = new ArrayList<>(cpInstanceIds);
+
+		int start = 0;
+
+		while (start < cpInstanceIdsList.size()) {
+			int end = Math.min(start + _BATCH_SIZE, cpInstanceIdsList.size());
+
+			DynamicQuery dynamicQuery = _cpInstanceLocalService.dynamicQuery();
+
+			Property cpInstanceIdProperty = PropertyFactoryUtil.forName(
+				"CPInstanceId");
+
+			dynamicQuery.add(
+				cpInstanceIdProperty.in(cpInstanceIdsList.subList(start, end)));
+
+			List<CPInstance> cpInstancesList =
+				_cpInstanceLocalService.dynamicQuery(dynamicQuery);
+
+			for (CPInstance cpInstance : cpInstancesList) {
+				cpInstances.put(cpInstance.getCPInstanceId(), cpInstance);
+			}
+
+			start = end;
+		}
+
+		return cpInstances;
+	}
+
 	private void _setCommerceOrderItemDiscountValue(
 		CommerceOrderItem commerceOrderItem,
 		CommerceDiscountValue commerceDiscountValue) {
@@ -609,9 +1046,14 @@ public class CommerceOrderItemLocalServiceImpl
 		commerceOrderItem.setDiscountPercentageLevel4(discountPercentageLevel4);
 	}
 
+	private static final int _BATCH_SIZE = 500;
+
 	private static final String[] _SELECTED_FIELD_NAMES =
 		{Field.ENTRY_CLASS_PK, Field.COMPANY_ID};
 
+	private static final Log _log = LogFactoryUtil.getLog(
+		CommerceOrderItemLocalServiceImpl.class);
+
 	@ServiceReference(type = CommerceOrderConfiguration.class)
 	private CommerceOrderConfiguration _commerceOrderConfiguration;
 
@@ -621,6 +1063,9 @@ public class CommerceOrderItemLocalServiceImpl
 	@ServiceReference(type = CommerceProductPriceCalculation.class)
 	private CommerceProductPriceCalculation _commerceProductPriceCalculation;
 
+	@ServiceReference(type = CommerceStockCounterCache.class)
+	private CommerceStockCounterCache _commerceStockCounterCache;
+
 	@ServiceReference(type = CPDefinitionLocalService.class)
 	private CPDefinitionLocalService _cpDefinitionLocalService;
 
@@ -17,6 +17,7 @@ package com.liferay.commerce.service.impl;
 import com.liferay.commerce.context.CommerceContext;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.CommerceOrderItem;
+import com.liferay.commerce.order.CommerceOrderItemLine;
 import com.liferay.commerce.service.base.CommerceOrderItemServiceBaseImpl;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.search.BaseModelSearchResult;
@@ -49,6 +50,21 @@ public class CommerceOrderItemServiceImpl
 			commerceContext, serviceContext);
 	}
 
+	@Override
+	public List<CommerceOrderItem> addCommerceOrderItems(
+			long commerceOrderId,
+			List<CommerceOrderItemLine> commerceOrderItemLines,
+			CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException {
+
+		_commerceOrderModelResourcePermission.check(
+			getPermissionChecker(), commerceOrderId, ActionKeys.UPDATE);
+
+		return commerceOrderItemLocalService.addCommerceOrderItems(
+			commerceOrderId, commerceOrderItemLines, commerceContext,
+			serviceContext);
+	}
+
 	@Override
 	public void deleteCommerceOrderItem(long commerceOrderItemId)
 		throws PortalException {
@@ -256,6 +272,21 @@ public class CommerceOrderItemServiceImpl
 			commerceContext, serviceContext);
 	}
 
+	@Override
+	public List<CommerceOrderItem> upsertCommerceOrderItems(
+			long commerceOrderId,
+			List<CommerceOrderItemLine> commerceOrderItemLines,
+			CommerceContext commerceContext, ServiceContext serviceContext)
+		throws PortalException {
+
+		_commerceOrderModelResourcePermission.check(
+			getPermissionChecker(), commerceOrderId, ActionKeys.UPDATE);
+
+		return commerceOrderItemLocalService.upsertCommerceOrderItems(
+			commerceOrderId, commerceOrderItemLines, commerceContext,
+			serviceContext);
+	}
+
 	private static volatile ModelResourcePermission<CommerceOrder>
 		_commerceOrderModelResourcePermission =
 			ModelResourcePermissionFactory.getInstance(
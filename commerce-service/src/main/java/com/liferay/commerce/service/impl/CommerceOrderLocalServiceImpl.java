@@ -30,10 +30,13 @@ import com.liferay.commerce.exception.CommerceOrderShippingMethodException;
 import com.liferay.commerce.exception.CommerceOrderStatusException;
 import com.liferay.commerce.exception.CommercePaymentEngineException;
 import com.liferay.commerce.exception.GuestCartMaxAllowedException;
+import com.liferay.commerce.internal.inventory.CommerceStockCounterCache;
+import com.liferay.commerce.internal.price.CommerceOrderItemPriceCache;
 import com.liferay.commerce.model.CommerceAddress;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.CommerceOrderItem;
 import com.liferay.commerce.model.CommerceShippingMethod;
+import com.liferay.commerce.order.CommerceOrderItemLine;
 import com.liferay.commerce.price.CommerceOrderPrice;
 import com.liferay.commerce.price.CommerceOrderPriceCalculation;
 import com.liferay.commerce.product.util.DDMFormValuesHelper;
@@ -300,6 +303,9 @@ public class CommerceOrderLocalServiceImpl
 		if (commerceOrder.getOrderStatus() ==
 				CommerceOrderConstants.ORDER_STATUS_OPEN) {
 
+			_commerceOrderItemPriceCache.removeCommerceOrderItems(
+				commerceOrder);
+
 			commerceOrder = commerceOrderLocalService.recalculatePrice(
 				commerceOrder.getCommerceOrderId(), commerceContext);
 		}
@@ -624,11 +630,25 @@ public class CommerceOrderLocalServiceImpl
 		CommerceOrder commerceOrder = commerceOrderPersistence.findByPrimaryKey(
 			commerceOrderId);
 
+		String orderPriceKey = _commerceOrderItemPriceCache.getOrderPriceKey(
+			commerceOrder, commerceContext);
+
 		for (CommerceOrderItem commerceOrderItem :
 				commerceOrder.getCommerceOrderItems()) {
 
-			commerceOrderItemLocalService.updateCommerceOrderItemPrice(
-				commerceOrderItem.getCommerceOrderItemId(), commerceContext);
+			if (_commerceOrderItemPriceCache.isPriced(
+					commerceOrderItem, orderPriceKey)) {
+
+				continue;
+			}
+
+			commerceOrderItem =
+				commerceOrderItemLocalService.updateCommerceOrderItemPrice(
+					commerceOrderItem.getCommerceOrderItemId(),
+					commerceContext);
+
+			_commerceOrderItemPriceCache.putCommerceOrderItem(
+				commerceOrderItem, orderPriceKey);
 		}
 
 		CommerceOrderPrice commerceOrderPrice =
@@ -711,14 +731,21 @@ public class CommerceOrderLocalServiceImpl
 				commerceOrder.getCommerceOrderId(), QueryUtil.ALL_POS,
 				QueryUtil.ALL_POS);
 
+		List<CommerceOrderItemLine> commerceOrderItemLines = new ArrayList<>(
+			commerceOrderItems.size());
+
 		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
-			commerceOrderItemLocalService.addCommerceOrderItem(
-				newCommerceOrder.getCommerceOrderId(),
-				commerceOrderItem.getCPInstanceId(),
-				commerceOrderItem.getQuantity(), 0, commerceOrderItem.getJson(),
-				commerceContext, serviceContext);
+			commerceOrderItemLines.add(
+				new CommerceOrderItemLine(
+					commerceOrderItem.getCPInstanceId(),
+					commerceOrderItem.getQuantity(),
+					commerceOrderItem.getJson()));
 		}
 
+		commerceOrderItemLocalService.addCommerceOrderItems(
+			newCommerceOrder.getCommerceOrderId(), commerceOrderItemLines,
+			commerceContext, serviceContext);
+
 		return newCommerceOrder;
 	}
 
@@ -1033,12 +1060,25 @@ public class CommerceOrderLocalServiceImpl
 		CommerceOrder commerceOrder = commerceOrderPersistence.findByPrimaryKey(
 			commerceOrderId);
 
+		int previousStatus = commerceOrder.getStatus();
+
 		commerceOrder.setStatus(status);
 		commerceOrder.setStatusByUserId(user.getUserId());
 		commerceOrder.setStatusByUserName(user.getFullName());
 		commerceOrder.setStatusDate(serviceContext.getModifiedDate(now));
 
-		return commerceOrderPersistence.update(commerceOrder);
+		commerceOrder = commerceOrderPersistence.update(commerceOrder);
+
+		// Stock counters
+
+		if ((previousStatus != status) &&
+			((previousStatus == WorkflowConstants.STATUS_APPROVED) ||
+			 (status == WorkflowConstants.STATUS_APPROVED))) {
+
+			_commerceStockCounterCache.updateCommerceOrder(commerceOrderId);
+		}
+
+		return commerceOrder;
 	}
 
 	@Indexable(type = IndexableType.REINDEX)
@@ -1505,12 +1545,18 @@ public class CommerceOrderLocalServiceImpl
 	@ServiceReference(type = CommerceOrderConfiguration.class)
 	private CommerceOrderConfiguration _commerceOrderConfiguration;
 
+	@ServiceReference(type = CommerceOrderItemPriceCache.class)
+	private CommerceOrderItemPriceCache _commerceOrderItemPriceCache;
+
 	@ServiceReference(type = CommerceOrderPriceCalculation.class)
 	private CommerceOrderPriceCalculation _commerceOrderPriceCalculation;
 
 	@ServiceReference(type = CommerceShippingHelper.class)
 	private CommerceShippingHelper _commerceShippingHelper;
 
+	@ServiceReference(type = CommerceStockCounterCache.class)
+	private CommerceStockCounterCache _commerceStockCounterCache;
+
 	@ServiceReference(type = DDMFormValuesHelper.class)
 	private DDMFormValuesHelper _ddmFormValuesHelper;
 
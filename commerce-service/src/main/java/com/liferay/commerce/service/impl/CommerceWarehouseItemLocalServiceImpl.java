@@ -14,6 +14,8 @@
 
 package com.liferay.commerce.service.impl;
 
+import com.liferay.commerce.internal.inventory.CommerceStockCounterCache;
+import com.liferay.commerce.internal.inventory.CommerceStockUpdateStatistics;
 import com.liferay.commerce.model.CommerceWarehouse;
 import com.liferay.commerce.model.CommerceWarehouseItem;
 import com.liferay.commerce.product.model.CPDefinition;
@@ -21,12 +23,20 @@ import com.liferay.commerce.product.model.CPInstance;
 import com.liferay.commerce.product.service.CPDefinitionLocalService;
 import com.liferay.commerce.product.service.CPInstanceLocalService;
 import com.liferay.commerce.service.base.CommerceWarehouseItemLocalServiceBaseImpl;
+import com.liferay.portal.kernel.dao.jdbc.SqlUpdate;
+import com.liferay.portal.kernel.dao.jdbc.SqlUpdateFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.model.User;
 import com.liferay.portal.kernel.service.ServiceContext;
 import com.liferay.portal.kernel.util.OrderByComparator;
 import com.liferay.portal.spring.extender.service.ServiceReference;
 
+import java.sql.Timestamp;
+import java.sql.Types;
+
 import java.util.Collections;
 import java.util.List;
 
@@ -89,6 +99,47 @@ public class CommerceWarehouseItemLocalServiceImpl
 		return commerceWarehouseItem;
 	}
 
+	/**
+	 * Subtracts the quantity from the commerce warehouse item with a single
+	 * update evaluated by the database, so that concurrent decrements of the
+	 * same item are serialized by the row lock and never lost. The time spent
+	 * in the update is recorded in the stock update statistics.
+	 *
+	 * @param  commerceWarehouseItem the commerce warehouse item
+	 * @param  quantity the quantity to subtract
+	 * @return the quantity of the commerce warehouse item after the update
+	 */
+	@Override
+	public int decrementCommerceWarehouseItemQuantity(
+		CommerceWarehouseItem commerceWarehouseItem, int quantity) {
+
+		long commerceWarehouseItemId =
+			commerceWarehouseItem.getCommerceWarehouseItemId();
+
+		SqlUpdate sqlUpdate = SqlUpdateFactoryUtil.getSqlUpdate(
+			commerceWarehouseItemPersistence.getDataSource(),
+			_SQL_DECREMENT_QUANTITY,
+			new int[] {Types.INTEGER, Types.TIMESTAMP, Types.BIGINT});
+
+		long startTime = System.nanoTime();
+
+		sqlUpdate.update(
+			quantity, new Timestamp(System.currentTimeMillis()),
+			commerceWarehouseItemId);
+
+		_commerceStockUpdateStatistics.recordUpdate(
+			System.nanoTime() - startTime);
+
+		commerceWarehouseItemPersistence.clearCache(commerceWarehouseItem);
+
+		int newQuantity = _getQuantity(commerceWarehouseItemId);
+
+		_commerceStockCounterCache.updateCommerceWarehouseItem(
+			commerceWarehouseItem);
+
+		return newQuantity;
+	}
+
 	@Override
 	public void deleteCommerceWarehouseItems(long commerceWarehouseId) {
 		commerceWarehouseItemPersistence.removeByCommerceWarehouseId(
@@ -320,6 +371,36 @@ public class CommerceWarehouseItemLocalServiceImpl
 		return commerceWarehouseItem;
 	}
 
+	private int _getQuantity(long commerceWarehouseItemId) {
+		DynamicQuery dynamicQuery = dynamicQuery();
+
+		Property commerceWarehouseItemIdProperty = PropertyFactoryUtil.forName(
+			"commerceWarehouseItemId");
+
+		dynamicQuery.add(
+			commerceWarehouseItemIdProperty.eq(commerceWarehouseItemId));
+
+		dynamicQuery.setProjection(PropertyFactoryUtil.forName("quantity"));
+
+		List<Integer> quantities = dynamicQuery(dynamicQuery);
+
+		if (quantities.isEmpty()) {
+			return 0;
+		}
+
+		return quantities.get(0);
+	}
+
+	private static final String _SQL_DECREMENT_QUANTITY =
+		"update CommerceWarehouseItem set quantity = quantity - ?, " +
+			"modifiedDate = ? where commerceWarehouseItemId = ?";
+
+	@ServiceReference(type = CommerceStockCounterCache.class)
+	private CommerceStockCounterCache _commerceStockCounterCache;
+
+	@ServiceReference(type = CommerceStockUpdateStatistics.class)
+	private CommerceStockUpdateStatistics _commerceStockUpdateStatistics;
+
 	@ServiceReference(type = CPDefinitionLocalService.class)
 	private CPDefinitionLocalService _cpDefinitionLocalService;
 
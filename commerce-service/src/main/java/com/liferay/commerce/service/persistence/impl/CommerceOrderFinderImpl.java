@@ -14,6 +14,7 @@
 
 package com.liferay.commerce.service.persistence.impl;
 
+import com.liferay.commerce.internal.account.CommerceAccountVisibilityCache;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.impl.CommerceOrderImpl;
 import com.liferay.commerce.service.persistence.CommerceOrderFinder;
@@ -32,6 +33,7 @@ import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.kernel.util.Validator;
 import com.liferay.portal.spring.extender.service.ServiceReference;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -54,6 +56,13 @@ public class CommerceOrderFinderImpl
 	public int countByG_U_C_O(
 		long userId, QueryDefinition<CommerceOrder> queryDefinition) {
 
+		long[] commerceAccountIds =
+			_commerceAccountVisibilityCache.getCommerceAccountIds(userId);
+
+		if (commerceAccountIds.length == 0) {
+			return 0;
+		}
+
 		Session session = null;
 
 		try {
@@ -62,7 +71,8 @@ public class CommerceOrderFinderImpl
 			String sql = _customSQL.get(getClass(), COUNT_BY_G_U_C_O);
 
 			sql = StringUtil.replace(
-				sql, "[$USER_ID$]", String.valueOf(userId));
+				sql, "[$ACCOUNT_IDS$]",
+				_getAccountIdsClause(commerceAccountIds));
 
 			long commerceAccountId = (Long)queryDefinition.getAttribute(
 				"commerceAccountId");
@@ -125,6 +135,14 @@ public class CommerceOrderFinderImpl
 
 			qPos.add(groupId);
 
+			if (commerceAccountIds.length > _MAX_ACCOUNT_IDS_SIZE) {
+				qPos.add(userId);
+				qPos.add(userId);
+			}
+			else {
+				qPos.add(commerceAccountIds);
+			}
+
 			if (Validator.isNotNull(keywords)) {
 				qPos.add(names, 2);
 			}
@@ -187,6 +205,13 @@ public class CommerceOrderFinderImpl
 	public List<CommerceOrder> findByG_U_C_O(
 		long userId, QueryDefinition<CommerceOrder> queryDefinition) {
 
+		long[] commerceAccountIds =
+			_commerceAccountVisibilityCache.getCommerceAccountIds(userId);
+
+		if (commerceAccountIds.length == 0) {
+			return Collections.emptyList();
+		}
+
 		Session session = null;
 
 		try {
@@ -195,7 +220,8 @@ public class CommerceOrderFinderImpl
 			String sql = _customSQL.get(getClass(), FIND_BY_G_U_C_O);
 
 			sql = StringUtil.replace(
-				sql, "[$USER_ID$]", String.valueOf(userId));
+				sql, "[$ACCOUNT_IDS$]",
+				_getAccountIdsClause(commerceAccountIds));
 
 			long commerceAccountId = (Long)queryDefinition.getAttribute(
 				"commerceAccountId");
@@ -260,6 +286,14 @@ public class CommerceOrderFinderImpl
 
 			qPos.add(groupId);
 
+			if (commerceAccountIds.length > _MAX_ACCOUNT_IDS_SIZE) {
+				qPos.add(userId);
+				qPos.add(userId);
+			}
+			else {
+				qPos.add(commerceAccountIds);
+			}
+
 			if (Validator.isNotNull(keywords)) {
 				qPos.add(names, 2);
 			}
@@ -295,6 +329,36 @@ public class CommerceOrderFinderImpl
 			" ) AND";
 	}
 
+	/**
+	 * Returns the clause matching the orders of the visible accounts. Up to
+	 * {@link #_MAX_ACCOUNT_IDS_SIZE} account IDs are bound as parameters. Above
+	 * it, the accounts are selected by a subquery on the user's account and
+	 * organization memberships instead, so that the number of parameters stays
+	 * below the limit of every supported database.
+	 */
+	private String _getAccountIdsClause(long[] commerceAccountIds) {
+		if (commerceAccountIds.length > _MAX_ACCOUNT_IDS_SIZE) {
+			return _customSQL.get(getClass(), FILTER_BY_USER_ACCOUNTS);
+		}
+
+		StringBundler sb = new StringBundler(
+			(commerceAccountIds.length * 2) + 1);
+
+		sb.append("CommerceOrder.commerceAccountId IN (");
+
+		for (int i = 0; i < commerceAccountIds.length; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+
+			sb.append("?");
+		}
+
+		sb.append(")");
+
+		return sb.toString();
+	}
+
 	private String _getOrderStatusClause(int orderStatus, boolean exclude) {
 		if (orderStatus < 0) {
 			return StringPool.BLANK;
@@ -307,6 +371,11 @@ public class CommerceOrderFinderImpl
 		return "(CommerceOrder.orderStatus = " + orderStatus + ") AND";
 	}
 
+	private static final int _MAX_ACCOUNT_IDS_SIZE = 1000;
+
+	@ServiceReference(type = CommerceAccountVisibilityCache.class)
+	private CommerceAccountVisibilityCache _commerceAccountVisibilityCache;
+
 	@ServiceReference(type = CustomSQL.class)
 	private CustomSQL _customSQL;
 
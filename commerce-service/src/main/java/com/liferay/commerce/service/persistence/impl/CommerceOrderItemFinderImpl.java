@@ -24,10 +24,14 @@ import com.liferay.portal.kernel.dao.orm.SQLQuery;
 import com.liferay.portal.kernel.dao.orm.Session;
 import com.liferay.portal.kernel.dao.orm.Type;
 import com.liferay.portal.kernel.exception.SystemException;
+import com.liferay.portal.kernel.util.StringUtil;
 import com.liferay.portal.spring.extender.service.ServiceReference;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Marco Leo
@@ -43,6 +47,9 @@ public class CommerceOrderItemFinderImpl
 		CommerceOrderItemFinder.class.getName() +
 			".getCommerceOrderItemsQuantity";
 
+	public static final String GET_CP_INSTANCE_QUANTITIES =
+		CommerceOrderItemFinder.class.getName() + ".getCPInstanceQuantities";
+
 	public static final String GET_CP_INSTANCE_QUANTITY =
 		CommerceOrderItemFinder.class.getName() + ".getCPInstanceQuantity";
 
@@ -124,6 +131,59 @@ public class CommerceOrderItemFinderImpl
 		}
 	}
 
+	@Override
+	public Map<Long, Integer> getCPInstanceQuantities(
+		long[] cpInstanceIds, int status) {
+
+		if (cpInstanceIds.length == 0) {
+			return Collections.emptyMap();
+		}
+
+		Session session = null;
+
+		try {
+			session = openSession();
+
+			String sql = _customSQL.get(
+				getClass(), GET_CP_INSTANCE_QUANTITIES);
+
+			sql = StringUtil.replace(
+				sql, "[$CP_INSTANCE_IDS$]", StringUtil.merge(cpInstanceIds));
+
+			SQLQuery q = session.createSynchronizedSQLQuery(sql);
+
+			q.addScalar("CPInstanceId", Type.LONG);
+			q.addScalar(SUM_VALUE, Type.LONG);
+
+			QueryPos qPos = QueryPos.getInstance(q);
+
+			qPos.add(status);
+
+			Map<Long, Integer> cpInstanceQuantities = new HashMap<>();
+
+			Iterator<Object[]> itr = q.iterate();
+
+			while (itr.hasNext()) {
+				Object[] array = itr.next();
+
+				Long cpInstanceId = (Long)array[0];
+				Long sum = (Long)array[1];
+
+				if (sum != null) {
+					cpInstanceQuantities.put(cpInstanceId, sum.intValue());
+				}
+			}
+
+			return cpInstanceQuantities;
+		}
+		catch (Exception e) {
+			throw new SystemException(e);
+		}
+		finally {
+			closeSession(session);
+		}
+	}
+
 	@Override
 	public int getCPInstanceQuantity(long cpInstanceId, int status) {
 		Session session = null;
@@ -31,14 +31,20 @@ import com.liferay.commerce.util.CommerceShippingHelper;
 import com.liferay.commerce.util.CommerceShippingOriginLocatorRegistry;
 import com.liferay.portal.kernel.language.LanguageUtil;
 import com.liferay.portal.kernel.module.configuration.ConfigurationProvider;
+import com.liferay.portal.kernel.util.NamedThreadFactory;
 import com.liferay.portal.kernel.util.ResourceBundleUtil;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.ResourceBundle;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 
 /**
@@ -88,7 +94,7 @@ public class FedExCommerceShippingEngine implements CommerceShippingEngine {
 						_commerceShippingHelper,
 						_commerceShippingOriginLocatorRegistry,
 						_cpMeasurementUnitLocalService, _configurationProvider,
-						_getResourceBundle(locale));
+						_threadPoolExecutor, _getResourceBundle(locale));
 
 			return
 				fedExCommerceShippingOptionHelper.getCommerceShippingOptions();
@@ -115,6 +121,30 @@ public class FedExCommerceShippingEngine implements CommerceShippingEngine {
 		return LanguageUtil.get(resourceBundle, "fedex");
 	}
 
+	/**
+	 * Creates the pool running the rate requests. Once its queue is full,
+	 * rate requests run on the calling thread, which also slows down the
+	 * callers until the pool catches up.
+	 */
+	@Activate
+	protected void activate() {
+		Class<?> clazz = getClass();
+
+		_threadPoolExecutor = new ThreadPoolExecutor(
+			_RATE_REQUEST_THREADS, _RATE_REQUEST_THREADS, 60, TimeUnit.SECONDS,
+			new LinkedBlockingQueue<>(_RATE_REQUEST_QUEUE_SIZE),
+			new NamedThreadFactory(
+				clazz.getName(), Thread.NORM_PRIORITY, clazz.getClassLoader()),
+			new ThreadPoolExecutor.CallerRunsPolicy());
+
+		_threadPoolExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	@Deactivate
+	protected void deactivate() {
+		_threadPoolExecutor.shutdownNow();
+	}
+
 	private long _getCommerceShippingMethodId(CommerceOrder commerceOrder) {
 		CommerceShippingMethod commerceShippingMethod =
 			_commerceShippingMethodLocalService.fetchCommerceShippingMethod(
@@ -132,6 +162,10 @@ public class FedExCommerceShippingEngine implements CommerceShippingEngine {
 			"content.Language", locale, getClass());
 	}
 
+	private static final int _RATE_REQUEST_QUEUE_SIZE = 100;
+
+	private static final int _RATE_REQUEST_THREADS = 10;
+
 	@Reference
 	private CommerceAddressRestrictionLocalService
 		_commerceAddressRestrictionLocalService;
@@ -159,4 +193,6 @@ public class FedExCommerceShippingEngine implements CommerceShippingEngine {
 	@Reference
 	private CPMeasurementUnitLocalService _cpMeasurementUnitLocalService;
 
+	private ThreadPoolExecutor _threadPoolExecutor;
+
 }
\ No newline at end of file
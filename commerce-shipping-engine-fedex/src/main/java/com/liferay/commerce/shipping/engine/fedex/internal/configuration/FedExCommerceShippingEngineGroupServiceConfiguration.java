@@ -82,4 +82,12 @@ public interface FedExCommerceShippingEngineGroupServiceConfiguration {
 	@Meta.AD(deflt = "419", name = "max-size-centimeters", required = false)
 	public int maxSizeCentimeters();
 
+	@Meta.AD(deflt = "10", name = "rate-request-timeout", required = false)
+	public int rateRequestTimeout();
+
+	@Meta.AD(
+		deflt = "600", name = "rate-cache-time-to-live", required = false
+	)
+	public int rateCacheTimeToLive();
+
 }
\ No newline at end of file
@@ -21,17 +21,14 @@ import com.fedex.ws.rate.v22.DropoffType;
 import com.fedex.ws.rate.v22.LinearUnits;
 import com.fedex.ws.rate.v22.Money;
 import com.fedex.ws.rate.v22.Notification;
-import com.fedex.ws.rate.v22.NotificationSeverityType;
 import com.fedex.ws.rate.v22.Party;
 import com.fedex.ws.rate.v22.Payment;
 import com.fedex.ws.rate.v22.PaymentType;
 import com.fedex.ws.rate.v22.Payor;
-import com.fedex.ws.rate.v22.RatePortType;
 import com.fedex.ws.rate.v22.RateReply;
 import com.fedex.ws.rate.v22.RateReplyDetail;
 import com.fedex.ws.rate.v22.RateRequest;
 import com.fedex.ws.rate.v22.RateRequestType;
-import com.fedex.ws.rate.v22.RateServiceLocator;
 import com.fedex.ws.rate.v22.RatedShipmentDetail;
 import com.fedex.ws.rate.v22.RequestedPackageLineItem;
 import com.fedex.ws.rate.v22.RequestedShipment;
@@ -71,12 +68,14 @@ import com.liferay.commerce.shipping.engine.fedex.internal.constants.FedExCommer
 import com.liferay.commerce.util.CommerceShippingHelper;
 import com.liferay.commerce.util.CommerceShippingOriginLocatorRegistry;
 import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.module.configuration.ConfigurationProvider;
 import com.liferay.portal.kernel.settings.GroupServiceSettingsLocator;
-import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.CalendarFactoryUtil;
 import com.liferay.portal.kernel.util.KeyValuePair;
 import com.liferay.portal.kernel.util.LocaleUtil;
@@ -95,6 +94,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.apache.axis.types.NonNegativeInteger;
 import org.apache.axis.types.PositiveInteger;
@@ -121,7 +121,7 @@ public class FedExCommerceShippingOptionHelper {
 				commerceShippingOriginLocatorRegistry,
 			CPMeasurementUnitLocalService cpMeasurementUnitLocalService,
 			ConfigurationProvider configurationProvider,
-			ResourceBundle resourceBundle)
+			ExecutorService executorService, ResourceBundle resourceBundle)
 		throws Exception {
 
 		_commerceContext = commerceContext;
@@ -130,6 +130,7 @@ public class FedExCommerceShippingOptionHelper {
 		_commerceProductPriceCalculation = commerceProductPriceCalculation;
 		_commerceShippingHelper = commerceShippingHelper;
 		_cpMeasurementUnitLocalService = cpMeasurementUnitLocalService;
+		_executorService = executorService;
 		_resourceBundle = resourceBundle;
 
 		long groupId = _commerceOrder.getGroupId();
@@ -202,11 +203,31 @@ public class FedExCommerceShippingOptionHelper {
 		Map<CommerceAddress, List<CommerceOrderItem>> originAddresses =
 			_commerceShippingOriginLocator.getOriginAddresses(_commerceOrder);
 
+		List<RateRequest> rateRequests = new ArrayList<>(
+			originAddresses.size());
+
 		for (Map.Entry<CommerceAddress, List<CommerceOrderItem>> entry :
 				originAddresses.entrySet()) {
 
+			rateRequests.add(
+				_getRateRequest(
+					_getShippableCommerceOrderItems(entry.getValue()),
+					entry.getKey()));
+		}
+
+		for (RateReply rateReply : _getRateReplies(rateRequests)) {
+			if (rateReply == null) {
+				if (_log.isWarnEnabled()) {
+					_log.warn(
+						"Rate request timed out for order " +
+							_commerceOrder.getCommerceOrderId());
+				}
+
+				continue;
+			}
+
 			try {
-				_executeRateRequest(rates, entry.getValue(), entry.getKey());
+				_addRates(rates, rateReply);
 			}
 			catch (CommerceShippingEngineException csee) {
 				_log.error(csee, csee);
@@ -243,47 +264,11 @@ public class FedExCommerceShippingOptionHelper {
 		return commerceShippingOptions;
 	}
 
-	private void _executeRateRequest(
-			Map<String, List<BigDecimal>> rates,
-			List<CommerceOrderItem> commerceOrderItems,
-			CommerceAddress originAddress)
-		throws Exception {
-
-		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
-			CPDefinition cpDefinition = commerceOrderItem.getCPDefinition();
-
-			if (!cpDefinition.isShippable() || cpDefinition.isFreeShipping()) {
-				commerceOrderItems.remove(commerceOrderItem);
-			}
-		}
-
-		RateRequest rateRequest = _getRateRequest(
-			commerceOrderItems, originAddress);
-
-		RateServiceLocator rateServiceLocator = new RateServiceLocator();
-
-		String url =
-			_fedExCommerceShippingEngineGroupServiceConfiguration.url();
-
-		if (Validator.isNotNull(url)) {
-			rateServiceLocator.setRateServicePortEndpointAddress(url);
-		}
-
-		RatePortType ratePortType = rateServiceLocator.getRateServicePort();
-
-		RateReply rateReply = ratePortType.getRates(rateRequest);
-
-		NotificationSeverityType notificationSeverityType =
-			rateReply.getHighestSeverity();
-		RateReplyDetail[] rateReplyDetails = rateReply.getRateReplyDetails();
-
-		if (ArrayUtil.isEmpty(rateReplyDetails) ||
-			(!notificationSeverityType.equals(NotificationSeverityType.NOTE) &&
-				!notificationSeverityType.equals(
-					NotificationSeverityType.SUCCESS) &&
-				!notificationSeverityType.equals(
-					NotificationSeverityType.WARNING))) {
+	private void _addRates(
+			Map<String, List<BigDecimal>> rates, RateReply rateReply)
+		throws CommerceShippingEngineException {
 
+		if (!FedExRateReplyRetriever.isSuccessful(rateReply)) {
 			throw new CommerceShippingEngineException.ServerError(
 				_getErrorKVPs(rateReply.getNotifications()));
 		}
@@ -292,7 +277,9 @@ public class FedExCommerceShippingOptionHelper {
 			_fedExCommerceShippingEngineGroupServiceConfiguration.
 				useDiscountedRates();
 
-		for (RateReplyDetail rateReplyDetail : rateReplyDetails) {
+		for (RateReplyDetail rateReplyDetail :
+				rateReply.getRateReplyDetails()) {
+
 			ServiceType serviceType = rateReplyDetail.getServiceType();
 
 			String name = serviceType.getValue();
@@ -338,6 +325,36 @@ public class FedExCommerceShippingOptionHelper {
 		}
 	}
 
+	private void _appendAddress(StringBundler sb, Party party) {
+		Address address = party.getAddress();
+
+		if (address == null) {
+			sb.append(StringPool.POUND);
+
+			return;
+		}
+
+		String[] streetLines = address.getStreetLines();
+
+		if (streetLines != null) {
+			for (String streetLine : streetLines) {
+				sb.append(streetLine);
+				sb.append(StringPool.POUND);
+			}
+		}
+
+		sb.append(address.getCity());
+		sb.append(StringPool.POUND);
+		sb.append(address.getStateOrProvinceCode());
+		sb.append(StringPool.POUND);
+		sb.append(address.getPostalCode());
+		sb.append(StringPool.POUND);
+		sb.append(address.getCountryCode());
+		sb.append(StringPool.POUND);
+		sb.append(String.valueOf(address.getResidential()));
+		sb.append(StringPool.POUND);
+	}
+
 	private Address _getAddress(CommerceAddress commerceAddress)
 		throws PortalException {
 
@@ -551,6 +568,28 @@ public class FedExCommerceShippingOptionHelper {
 		return price;
 	}
 
+	private List<RateReply> _getRateReplies(List<RateRequest> rateRequests)
+		throws Exception {
+
+		List<String> rateRequestKeys = new ArrayList<>(rateRequests.size());
+
+		for (RateRequest rateRequest : rateRequests) {
+			rateRequestKeys.add(_getRateRequestKey(rateRequest));
+		}
+
+		FedExRateReplyRetriever fedExRateReplyRetriever =
+			new FedExRateReplyRetriever(
+				_executorService, _portalCache,
+				_fedExCommerceShippingEngineGroupServiceConfiguration.url(),
+				_fedExCommerceShippingEngineGroupServiceConfiguration.
+					rateRequestTimeout(),
+				_fedExCommerceShippingEngineGroupServiceConfiguration.
+					rateCacheTimeToLive());
+
+		return fedExRateReplyRetriever.getRateReplies(
+			rateRequests, rateRequestKeys);
+	}
+
 	private RateRequest _getRateRequest(
 			List<CommerceOrderItem> commerceOrderItems,
 			CommerceAddress originAddress)
@@ -570,6 +609,77 @@ public class FedExCommerceShippingOptionHelper {
 		return rateRequest;
 	}
 
+	/**
+	 * Returns a key identifying everything the rates depend on: the account,
+	 * the endpoint, the dropoff type, both addresses, the packages and the
+	 * ship date. The transaction detail is left out because it only names the
+	 * order items, and the service types are left out because the reply is
+	 * filtered by them after it is read from the cache.
+	 */
+	private String _getRateRequestKey(RateRequest rateRequest) {
+		RequestedShipment requestedShipment =
+			rateRequest.getRequestedShipment();
+
+		RequestedPackageLineItem[] requestedPackageLineItems =
+			requestedShipment.getRequestedPackageLineItems();
+
+		StringBundler sb = new StringBundler(
+			requestedPackageLineItems.length * 14 + 40);
+
+		ClientDetail clientDetail = rateRequest.getClientDetail();
+
+		sb.append(clientDetail.getAccountNumber());
+		sb.append(StringPool.POUND);
+		sb.append(clientDetail.getMeterNumber());
+		sb.append(StringPool.POUND);
+		sb.append(_fedExCommerceShippingEngineGroupServiceConfiguration.url());
+		sb.append(StringPool.POUND);
+
+		DropoffType dropoffType = requestedShipment.getDropoffType();
+
+		sb.append(dropoffType.getValue());
+		sb.append(StringPool.POUND);
+
+		_appendAddress(sb, requestedShipment.getShipper());
+		_appendAddress(sb, requestedShipment.getRecipient());
+
+		for (RequestedPackageLineItem requestedPackageLineItem :
+				requestedPackageLineItems) {
+
+			com.fedex.ws.rate.v22.Dimensions dimensions =
+				requestedPackageLineItem.getDimensions();
+
+			sb.append(String.valueOf(dimensions.getLength()));
+			sb.append(StringPool.POUND);
+			sb.append(String.valueOf(dimensions.getWidth()));
+			sb.append(StringPool.POUND);
+			sb.append(String.valueOf(dimensions.getHeight()));
+			sb.append(StringPool.POUND);
+			sb.append(String.valueOf(dimensions.getUnits()));
+			sb.append(StringPool.POUND);
+
+			Weight weight = requestedPackageLineItem.getWeight();
+
+			sb.append(String.valueOf(weight.getValue()));
+			sb.append(StringPool.POUND);
+			sb.append(String.valueOf(weight.getUnits()));
+			sb.append(StringPool.POUND);
+
+			Money insuredValue = requestedPackageLineItem.getInsuredValue();
+
+			sb.append(String.valueOf(insuredValue.getAmount()));
+			sb.append(StringPool.POUND);
+		}
+
+		Calendar shipTimestamp = requestedShipment.getShipTimestamp();
+
+		sb.append(shipTimestamp.get(Calendar.YEAR));
+		sb.append(StringPool.POUND);
+		sb.append(shipTimestamp.get(Calendar.DAY_OF_YEAR));
+
+		return sb.toString();
+	}
+
 	private RequestedPackageLineItem _getRequestedPackageLineItem(
 		int fedExWidth, int fedExHeight, int fedExDepth, double fedExWeight,
 		BigDecimal price, int groupPackageCount, int sequenceNumber) {
@@ -790,6 +900,23 @@ public class FedExCommerceShippingOptionHelper {
 		return calendar;
 	}
 
+	private List<CommerceOrderItem> _getShippableCommerceOrderItems(
+		List<CommerceOrderItem> commerceOrderItems) {
+
+		List<CommerceOrderItem> shippableCommerceOrderItems = new ArrayList<>(
+			commerceOrderItems.size());
+
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			CPDefinition cpDefinition = commerceOrderItem.getCPDefinition();
+
+			if (cpDefinition.isShippable() && !cpDefinition.isFreeShipping()) {
+				shippableCommerceOrderItems.add(commerceOrderItem);
+			}
+		}
+
+		return shippableCommerceOrderItems;
+	}
+
 	private TransactionDetail _getTransactionDetail(
 		List<CommerceOrderItem> commerceOrderItems) {
 
@@ -829,6 +956,11 @@ public class FedExCommerceShippingOptionHelper {
 	private static final Log _log = LogFactoryUtil.getLog(
 		FedExCommerceShippingOptionHelper.class);
 
+	private static final PortalCache<String, RateReply> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.SINGLE_VM,
+			FedExCommerceShippingOptionHelper.class.getName());
+
 	private final CommerceContext _commerceContext;
 	private final CommerceCurrency _commerceCurrency;
 	private final CommerceCurrencyLocalService _commerceCurrencyLocalService;
@@ -839,6 +971,7 @@ public class FedExCommerceShippingOptionHelper {
 	private final CommerceShippingOriginLocator _commerceShippingOriginLocator;
 	private final CPMeasurementUnitLocalService _cpMeasurementUnitLocalService;
 	private final CPMeasurementUnit _dimensionCPMeasurementUnit;
+	private final ExecutorService _executorService;
 	private final FedExCommerceShippingEngineGroupServiceConfiguration
 		_fedExCommerceShippingEngineGroupServiceConfiguration;
 	private final LinearUnits _linearUnits;
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.engine.fedex.internal.util;
+
+import com.fedex.ws.rate.v22.NotificationSeverityType;
+import com.fedex.ws.rate.v22.RatePortType;
+import com.fedex.ws.rate.v22.RateReply;
+import com.fedex.ws.rate.v22.RateRequest;
+import com.fedex.ws.rate.v22.RateServiceLocator;
+
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.util.ArrayUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author Andrea Di Giorgi
+ */
+public class FedExRateReplyRetriever {
+
+	public static boolean isSuccessful(RateReply rateReply) {
+		NotificationSeverityType notificationSeverityType =
+			rateReply.getHighestSeverity();
+
+		if (ArrayUtil.isEmpty(rateReply.getRateReplyDetails()) ||
+			(!notificationSeverityType.equals(NotificationSeverityType.NOTE) &&
+			 !notificationSeverityType.equals(
+				 NotificationSeverityType.SUCCESS) &&
+			 !notificationSeverityType.equals(
+				 NotificationSeverityType.WARNING))) {
+
+			return false;
+		}
+
+		return true;
+	}
+
+	public FedExRateReplyRetriever(
+		ExecutorService executorService,
+		PortalCache<String, RateReply> portalCache, String url,
+		int rateRequestTimeout, int rateCacheTimeToLive) {
+
+		_executorService = executorService;
+		_portalCache = portalCache;
+		_url = url;
+		_rateRequestTimeout = rateRequestTimeout;
+		_rateCacheTimeToLive = rateCacheTimeToLive;
+	}
+
+	/**
+	 * Returns the replies to the rate requests, in the same order. Replies
+	 * found in the cache under the request's key are reused and the others
+	 * are requested concurrently. A request that does not complete within the
+	 * timeout, in seconds, gets a <code>null</code> reply.
+	 */
+	public List<RateReply> getRateReplies(
+			List<RateRequest> rateRequests, List<String> rateRequestKeys)
+		throws Exception {
+
+		RateReply[] rateReplies = new RateReply[rateRequests.size()];
+		List<Future<RateReply>> futures = new ArrayList<>(rateRequests.size());
+
+		for (int i = 0; i < rateRequests.size(); i++) {
+			RateRequest rateRequest = rateRequests.get(i);
+
+			rateReplies[i] = _portalCache.get(rateRequestKeys.get(i));
+
+			if (rateReplies[i] != null) {
+				futures.add(null);
+			}
+			else {
+				futures.add(
+					_executorService.submit(() -> getRateReply(rateRequest)));
+			}
+		}
+
+		long deadline =
+			System.nanoTime() + TimeUnit.SECONDS.toNanos(_rateRequestTimeout);
+
+		try {
+			for (int i = 0; i < futures.size(); i++) {
+				Future<RateReply> future = futures.get(i);
+
+				if (future == null) {
+					continue;
+				}
+
+				try {
+					rateReplies[i] = future.get(
+						Math.max(deadline - System.nanoTime(), 0),
+						TimeUnit.NANOSECONDS);
+				}
+				catch (ExecutionException ee) {
+					Throwable cause = ee.getCause();
+
+					if (cause instanceof Exception) {
+						throw (Exception)cause;
+					}
+
+					throw ee;
+				}
+				catch (TimeoutException te) {
+					continue;
+				}
+
+				if (isSuccessful(rateReplies[i])) {
+					_portalCache.put(
+						rateRequestKeys.get(i), rateReplies[i],
+						_rateCacheTimeToLive);
+				}
+			}
+		}
+		finally {
+			for (Future<RateReply> future : futures) {
+				if (future != null) {
+					future.cancel(true);
+				}
+			}
+		}
+
+		return Arrays.asList(rateReplies);
+	}
+
+	protected RateReply getRateReply(RateRequest rateRequest)
+		throws Exception {
+
+		RateServiceLocator rateServiceLocator = new RateServiceLocator();
+
+		if (Validator.isNotNull(_url)) {
+			rateServiceLocator.setRateServicePortEndpointAddress(_url);
+		}
+
+		RatePortType ratePortType = rateServiceLocator.getRateServicePort();
+
+		return ratePortType.getRates(rateRequest);
+	}
+
+	private final ExecutorService _executorService;
+	private final PortalCache<String, RateReply> _portalCache;
+	private final int _rateCacheTimeToLive;
+	private final int _rateRequestTimeout;
+	private final String _url;
+
+}
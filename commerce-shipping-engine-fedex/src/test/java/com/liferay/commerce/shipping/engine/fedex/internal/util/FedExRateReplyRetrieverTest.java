@@ -0,0 +1,347 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.engine.fedex.internal.util;
+
+import com.fedex.ws.rate.v22.NotificationSeverityType;
+import com.fedex.ws.rate.v22.RateReply;
+import com.fedex.ws.rate.v22.RateReplyDetail;
+import com.fedex.ws.rate.v22.RateRequest;
+import com.fedex.ws.rate.v22.TransactionDetail;
+
+import com.liferay.portal.kernel.cache.PortalCache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+/**
+ * @author Andrea Di Giorgi
+ */
+public class FedExRateReplyRetrieverTest {
+
+	@Before
+	public void setUp() {
+		_portalCache = Mockito.mock(PortalCache.class);
+
+		Mockito.when(
+			_portalCache.get(Matchers.anyString())
+		).thenAnswer(
+			invocation -> _cachedRateReplies.get(invocation.getArguments()[0])
+		);
+
+		Mockito.doAnswer(
+			invocation -> {
+				Object[] arguments = invocation.getArguments();
+
+				_cachedRateReplies.put(
+					(String)arguments[0], (RateReply)arguments[1]);
+
+				return null;
+			}
+		).when(
+			_portalCache
+		).put(
+			Matchers.anyString(), Matchers.any(RateReply.class),
+			Matchers.anyInt()
+		);
+	}
+
+	@After
+	public void tearDown() {
+		if (_executorService != null) {
+			_executorService.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testGetRateRepliesCachesSuccessfulReplies() throws Exception {
+		_executorService = Executors.newFixedThreadPool(2);
+
+		FedExRateReplyRetriever fedExRateReplyRetriever =
+			new StubFedExRateReplyRetriever(_executorService, 10) {
+
+				@Override
+				protected RateReply getRateReply(String customerTransactionId) {
+					if (customerTransactionId.equals("error")) {
+						return _createRateReply(
+							customerTransactionId,
+							NotificationSeverityType.ERROR);
+					}
+
+					return _createRateReply(
+						customerTransactionId,
+						NotificationSeverityType.SUCCESS);
+				}
+
+			};
+
+		List<String> customerTransactionIds = Arrays.asList(
+			"success", "error");
+
+		for (int i = 0; i < 2; i++) {
+			List<RateReply> rateReplies = _getRateReplies(
+				fedExRateReplyRetriever, customerTransactionIds);
+
+			_assertCustomerTransactionIds(customerTransactionIds, rateReplies);
+		}
+
+		Assert.assertEquals(1, _getCount("success"));
+		Assert.assertEquals(2, _getCount("error"));
+
+		Assert.assertTrue(_cachedRateReplies.containsKey("success"));
+		Assert.assertFalse(_cachedRateReplies.containsKey("error"));
+	}
+
+	@Test
+	public void testGetRateRepliesConcurrently() throws Exception {
+		List<String> customerTransactionIds = Arrays.asList("1", "2", "3");
+
+		_executorService = Executors.newFixedThreadPool(
+			customerTransactionIds.size());
+
+		CountDownLatch countDownLatch = new CountDownLatch(
+			customerTransactionIds.size());
+
+		FedExRateReplyRetriever fedExRateReplyRetriever =
+			new StubFedExRateReplyRetriever(_executorService, 10) {
+
+				@Override
+				protected RateReply getRateReply(String customerTransactionId)
+					throws Exception {
+
+					countDownLatch.countDown();
+
+					if (!countDownLatch.await(5, TimeUnit.SECONDS)) {
+						throw new TimeoutException();
+					}
+
+					return _createRateReply(
+						customerTransactionId,
+						NotificationSeverityType.SUCCESS);
+				}
+
+			};
+
+		List<RateReply> rateReplies = _getRateReplies(
+			fedExRateReplyRetriever, customerTransactionIds);
+
+		_assertCustomerTransactionIds(customerTransactionIds, rateReplies);
+	}
+
+	@Test
+	public void testGetRateRepliesWithFullQueue() throws Exception {
+		_executorService = new ThreadPoolExecutor(
+			1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(1),
+			new ThreadPoolExecutor.CallerRunsPolicy());
+
+		FedExRateReplyRetriever fedExRateReplyRetriever =
+			new StubFedExRateReplyRetriever(_executorService, 10) {
+
+				@Override
+				protected RateReply getRateReply(String customerTransactionId)
+					throws Exception {
+
+					Thread.sleep(100);
+
+					return _createRateReply(
+						customerTransactionId,
+						NotificationSeverityType.SUCCESS);
+				}
+
+			};
+
+		List<String> customerTransactionIds = Arrays.asList(
+			"1", "2", "3", "4");
+
+		List<RateReply> rateReplies = _getRateReplies(
+			fedExRateReplyRetriever, customerTransactionIds);
+
+		_assertCustomerTransactionIds(customerTransactionIds, rateReplies);
+	}
+
+	@Test
+	public void testGetRateRepliesWithTimeout() throws Exception {
+		_executorService = Executors.newFixedThreadPool(2);
+
+		FedExRateReplyRetriever fedExRateReplyRetriever =
+			new StubFedExRateReplyRetriever(_executorService, 1) {
+
+				@Override
+				protected RateReply getRateReply(String customerTransactionId)
+					throws Exception {
+
+					if (customerTransactionId.equals("slow")) {
+						Thread.sleep(10000);
+					}
+
+					return _createRateReply(
+						customerTransactionId,
+						NotificationSeverityType.SUCCESS);
+				}
+
+			};
+
+		List<RateReply> rateReplies = _getRateReplies(
+			fedExRateReplyRetriever, Arrays.asList("fast", "slow"));
+
+		_assertCustomerTransactionId("fast", rateReplies.get(0));
+
+		Assert.assertNull(rateReplies.get(1));
+		Assert.assertFalse(_cachedRateReplies.containsKey("slow"));
+	}
+
+	private void _assertCustomerTransactionId(
+		String customerTransactionId, RateReply rateReply) {
+
+		Assert.assertNotNull(rateReply);
+
+		TransactionDetail transactionDetail = rateReply.getTransactionDetail();
+
+		Assert.assertEquals(
+			customerTransactionId,
+			transactionDetail.getCustomerTransactionId());
+	}
+
+	private void _assertCustomerTransactionIds(
+		List<String> customerTransactionIds, List<RateReply> rateReplies) {
+
+		Assert.assertEquals(
+			rateReplies.toString(), customerTransactionIds.size(),
+			rateReplies.size());
+
+		for (int i = 0; i < customerTransactionIds.size(); i++) {
+			_assertCustomerTransactionId(
+				customerTransactionIds.get(i), rateReplies.get(i));
+		}
+	}
+
+	private RateReply _createRateReply(
+		String customerTransactionId,
+		NotificationSeverityType notificationSeverityType) {
+
+		RateReply rateReply = new RateReply();
+
+		rateReply.setHighestSeverity(notificationSeverityType);
+		rateReply.setRateReplyDetails(
+			new RateReplyDetail[] {new RateReplyDetail()});
+		rateReply.setTransactionDetail(
+			_createTransactionDetail(customerTransactionId));
+
+		return rateReply;
+	}
+
+	private TransactionDetail _createTransactionDetail(
+		String customerTransactionId) {
+
+		TransactionDetail transactionDetail = new TransactionDetail();
+
+		transactionDetail.setCustomerTransactionId(customerTransactionId);
+
+		return transactionDetail;
+	}
+
+	private int _getCount(String customerTransactionId) {
+		AtomicInteger count = _counts.get(customerTransactionId);
+
+		if (count == null) {
+			return 0;
+		}
+
+		return count.get();
+	}
+
+	private List<RateReply> _getRateReplies(
+			FedExRateReplyRetriever fedExRateReplyRetriever,
+			List<String> customerTransactionIds)
+		throws Exception {
+
+		List<RateRequest> rateRequests = new ArrayList<>(
+			customerTransactionIds.size());
+
+		for (String customerTransactionId : customerTransactionIds) {
+			RateRequest rateRequest = new RateRequest();
+
+			rateRequest.setTransactionDetail(
+				_createTransactionDetail(customerTransactionId));
+
+			rateRequests.add(rateRequest);
+		}
+
+		return fedExRateReplyRetriever.getRateReplies(
+			rateRequests, customerTransactionIds);
+	}
+
+	private final Map<String, RateReply> _cachedRateReplies =
+		new ConcurrentHashMap<>();
+	private final Map<String, AtomicInteger> _counts =
+		new ConcurrentHashMap<>();
+	private ExecutorService _executorService;
+	private PortalCache<String, RateReply> _portalCache;
+
+	/**
+	 * Stands in for the FedEx endpoint, counting the requests it receives
+	 * for each customer transaction ID.
+	 */
+	private abstract class StubFedExRateReplyRetriever
+		extends FedExRateReplyRetriever {
+
+		private StubFedExRateReplyRetriever(
+			ExecutorService executorService, int rateRequestTimeout) {
+
+			super(executorService, _portalCache, null, rateRequestTimeout, 0);
+		}
+
+		@Override
+		protected RateReply getRateReply(RateRequest rateRequest)
+			throws Exception {
+
+			TransactionDetail transactionDetail =
+				rateRequest.getTransactionDetail();
+
+			String customerTransactionId =
+				transactionDetail.getCustomerTransactionId();
+
+			AtomicInteger count = _counts.computeIfAbsent(
+				customerTransactionId, key -> new AtomicInteger());
+
+			count.incrementAndGet();
+
+			return getRateReply(customerTransactionId);
+		}
+
+		protected abstract RateReply getRateReply(String customerTransactionId)
+			throws Exception;
+
+	}
+
+}
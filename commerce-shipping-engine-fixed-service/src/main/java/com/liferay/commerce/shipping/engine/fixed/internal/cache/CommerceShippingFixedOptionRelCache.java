@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.engine.fixed.internal.cache;
+
+import com.liferay.commerce.shipping.engine.fixed.service.CommerceShippingFixedOptionRelLocalService;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps, for each fixed shipping option, a {@link
+ * CommerceShippingFixedOptionRelIndex} of its rels. Entries live in a multi VM
+ * portal cache and are removed, on every cluster node, once a transaction that
+ * changes a rel of the option commits.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(
+	immediate = true, service = CommerceShippingFixedOptionRelCache.class
+)
+public class CommerceShippingFixedOptionRelCache {
+
+	public static final String CACHE_NAME =
+		CommerceShippingFixedOptionRelCache.class.getName();
+
+	/**
+	 * Returns the ID of the rel of the fixed shipping option that matches the
+	 * country, region, zip code and weight, as described in {@link
+	 * CommerceShippingFixedOptionRelIndex#getCommerceShippingFixedOptionRelId(
+	 * long, long, String, double)}.
+	 */
+	public long getCommerceShippingFixedOptionRelId(
+		long commerceShippingFixedOptionId, long commerceCountryId,
+		long commerceRegionId, String zip, double weight) {
+
+		CommerceShippingFixedOptionRelIndex
+			commerceShippingFixedOptionRelIndex =
+				_getCommerceShippingFixedOptionRelIndex(
+					commerceShippingFixedOptionId);
+
+		return commerceShippingFixedOptionRelIndex.
+			getCommerceShippingFixedOptionRelId(
+				commerceCountryId, commerceRegionId, zip, weight);
+	}
+
+	public void invalidate(long commerceShippingFixedOptionId) {
+		_portalCache.remove(commerceShippingFixedOptionId);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_portalCache.remove(commerceShippingFixedOptionId);
+
+				return null;
+			});
+	}
+
+	private CommerceShippingFixedOptionRelIndex
+		_getCommerceShippingFixedOptionRelIndex(
+			long commerceShippingFixedOptionId) {
+
+		CommerceShippingFixedOptionRelIndex
+			commerceShippingFixedOptionRelIndex = _portalCache.get(
+				commerceShippingFixedOptionId);
+
+		if (commerceShippingFixedOptionRelIndex != null) {
+			return commerceShippingFixedOptionRelIndex;
+		}
+
+		commerceShippingFixedOptionRelIndex =
+			new CommerceShippingFixedOptionRelIndex(
+				_commerceShippingFixedOptionRelLocalService.
+					getCommerceShippingFixedOptionRels(
+						commerceShippingFixedOptionId, QueryUtil.ALL_POS,
+						QueryUtil.ALL_POS));
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_portalCache, commerceShippingFixedOptionId,
+			commerceShippingFixedOptionRelIndex);
+
+		return commerceShippingFixedOptionRelIndex;
+	}
+
+	private static final PortalCache<Long, CommerceShippingFixedOptionRelIndex>
+		_portalCache = PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME);
+
+	@Reference
+	private CommerceShippingFixedOptionRelLocalService
+		_commerceShippingFixedOptionRelLocalService;
+
+}
\ No newline at end of file
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.engine.fixed.internal.cache;
+
+import com.liferay.commerce.shipping.engine.fixed.model.CommerceShippingFixedOptionRel;
+import com.liferay.petra.string.StringBundler;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Indexes the rels of a fixed shipping option by country, region and zip
+ * code, each index entry holding the weight ranges of the matching rels
+ * sorted by lower bound. A rel is then resolved with at most eight map
+ * lookups instead of a query.
+ *
+ * @author Alessio Antonio Rendina
+ */
+public class CommerceShippingFixedOptionRelIndex implements Serializable {
+
+	public CommerceShippingFixedOptionRelIndex(
+		List<CommerceShippingFixedOptionRel> commerceShippingFixedOptionRels) {
+
+		for (CommerceShippingFixedOptionRel commerceShippingFixedOptionRel :
+				commerceShippingFixedOptionRels) {
+
+			String key = _getKey(
+				commerceShippingFixedOptionRel.getCommerceCountryId(),
+				commerceShippingFixedOptionRel.getCommerceRegionId(),
+				commerceShippingFixedOptionRel.getZip());
+
+			List<WeightRange> weightRanges = _weightRanges.computeIfAbsent(
+				key, curKey -> new ArrayList<>());
+
+			weightRanges.add(
+				new WeightRange(
+					commerceShippingFixedOptionRel.
+						getCommerceShippingFixedOptionRelId(),
+					commerceShippingFixedOptionRel.getWeightFrom(),
+					commerceShippingFixedOptionRel.getWeightTo()));
+		}
+
+		for (List<WeightRange> weightRanges : _weightRanges.values()) {
+			weightRanges.sort(
+				Comparator.comparingDouble(
+					weightRange -> weightRange._weightFrom));
+		}
+	}
+
+	/**
+	 * Returns the ID of the rel that matches the country, region, zip code
+	 * and weight, where a rel without country, region or zip code matches any
+	 * value and both weight bounds are inclusive. If several rels match, the
+	 * one with the lowest ID is returned. Returns <code>0</code> if no rel
+	 * matches.
+	 */
+	public long getCommerceShippingFixedOptionRelId(
+		long commerceCountryId, long commerceRegionId, String zip,
+		double weight) {
+
+		long[] commerceCountryIds = _getIds(commerceCountryId);
+		long[] commerceRegionIds = _getIds(commerceRegionId);
+
+		String[] zips = {StringPool.BLANK};
+
+		if (Validator.isNotNull(zip)) {
+			zips = new String[] {zip, StringPool.BLANK};
+		}
+
+		long commerceShippingFixedOptionRelId = 0;
+
+		for (long curCommerceCountryId : commerceCountryIds) {
+			for (long curCommerceRegionId : commerceRegionIds) {
+				for (String curZip : zips) {
+					List<WeightRange> weightRanges = _weightRanges.get(
+						_getKey(
+							curCommerceCountryId, curCommerceRegionId,
+							curZip));
+
+					if (weightRanges == null) {
+						continue;
+					}
+
+					for (WeightRange weightRange : weightRanges) {
+						if (weightRange._weightFrom > weight) {
+							break;
+						}
+
+						if ((weightRange._weightTo >= weight) &&
+							((commerceShippingFixedOptionRelId == 0) ||
+							 (weightRange._commerceShippingFixedOptionRelId <
+								 commerceShippingFixedOptionRelId))) {
+
+							commerceShippingFixedOptionRelId =
+								weightRange._commerceShippingFixedOptionRelId;
+						}
+					}
+				}
+			}
+		}
+
+		return commerceShippingFixedOptionRelId;
+	}
+
+	private long[] _getIds(long id) {
+		if (id == 0) {
+			return new long[] {0};
+		}
+
+		return new long[] {id, 0};
+	}
+
+	private String _getKey(
+		long commerceCountryId, long commerceRegionId, String zip) {
+
+		StringBundler sb = new StringBundler(5);
+
+		sb.append(commerceCountryId);
+		sb.append(StringPool.POUND);
+		sb.append(commerceRegionId);
+		sb.append(StringPool.POUND);
+		sb.append(zip);
+
+		return sb.toString();
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final Map<String, List<WeightRange>> _weightRanges =
+		new HashMap<>();
+
+	private static class WeightRange implements Serializable {
+
+		private WeightRange(
+			long commerceShippingFixedOptionRelId, double weightFrom,
+			double weightTo) {
+
+			_commerceShippingFixedOptionRelId =
+				commerceShippingFixedOptionRelId;
+			_weightFrom = weightFrom;
+			_weightTo = weightTo;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final long _commerceShippingFixedOptionRelId;
+		private final double _weightFrom;
+		private final double _weightTo;
+
+	}
+
+}
@@ -14,12 +14,14 @@
 
 package com.liferay.commerce.shipping.engine.fixed.service.impl;
 
+import com.liferay.commerce.shipping.engine.fixed.internal.cache.CommerceShippingFixedOptionRelCache;
 import com.liferay.commerce.shipping.engine.fixed.model.CommerceShippingFixedOptionRel;
 import com.liferay.commerce.shipping.engine.fixed.service.base.CommerceShippingFixedOptionRelLocalServiceBaseImpl;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.model.User;
 import com.liferay.portal.kernel.service.ServiceContext;
 import com.liferay.portal.kernel.util.OrderByComparator;
+import com.liferay.portal.spring.extender.service.ServiceReference;
 
 import java.math.BigDecimal;
 
@@ -90,9 +92,18 @@ public class CommerceShippingFixedOptionRelLocalServiceImpl
 		long commerceShippingFixedOptionId, long commerceCountryId,
 		long commerceRegionId, String zip, double weight) {
 
-		return commerceShippingFixedOptionRelFinder.fetchByC_C_C_Z_W_First(
-			commerceShippingFixedOptionId, commerceCountryId, commerceRegionId,
-			zip, weight);
+		long commerceShippingFixedOptionRelId =
+			_commerceShippingFixedOptionRelCache.
+				getCommerceShippingFixedOptionRelId(
+					commerceShippingFixedOptionId, commerceCountryId,
+					commerceRegionId, zip, weight);
+
+		if (commerceShippingFixedOptionRelId == 0) {
+			return null;
+		}
+
+		return commerceShippingFixedOptionRelPersistence.fetchByPrimaryKey(
+			commerceShippingFixedOptionRelId);
 	}
 
 	@Override
@@ -185,4 +196,8 @@ public class CommerceShippingFixedOptionRelLocalServiceImpl
 		return commerceShippingFixedOptionRel;
 	}
 
+	@ServiceReference(type = CommerceShippingFixedOptionRelCache.class)
+	private CommerceShippingFixedOptionRelCache
+		_commerceShippingFixedOptionRelCache;
+
 }
\ No newline at end of file
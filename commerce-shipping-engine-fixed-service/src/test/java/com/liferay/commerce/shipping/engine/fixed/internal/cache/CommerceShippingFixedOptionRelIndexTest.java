@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.engine.fixed.internal.cache;
+
+import com.liferay.commerce.shipping.engine.fixed.model.CommerceShippingFixedOptionRel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import org.mockito.Mockito;
+
+/**
+ * @author Alessio Antonio Rendina
+ */
+public class CommerceShippingFixedOptionRelIndexTest {
+
+	@Test
+	public void testGetCommerceShippingFixedOptionRelIdWithAdjacentWeights() {
+		CommerceShippingFixedOptionRelIndex
+			commerceShippingFixedOptionRelIndex =
+				new CommerceShippingFixedOptionRelIndex(
+					Arrays.asList(
+						_createCommerceShippingFixedOptionRel(
+							2, 0, 0, "", 10, 20),
+						_createCommerceShippingFixedOptionRel(
+							1, 0, 0, "", 0, 10)));
+
+		Assert.assertEquals(
+			1,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 10));
+		Assert.assertEquals(
+			2,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 10.001));
+	}
+
+	@Test
+	public void testGetCommerceShippingFixedOptionRelIdWithBoundaryWeights() {
+		CommerceShippingFixedOptionRelIndex
+			commerceShippingFixedOptionRelIndex =
+				new CommerceShippingFixedOptionRelIndex(
+					Collections.singletonList(
+						_createCommerceShippingFixedOptionRel(
+							1, 0, 0, "", 10, 20)));
+
+		Assert.assertEquals(
+			0,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 9.999));
+		Assert.assertEquals(
+			1,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 10));
+		Assert.assertEquals(
+			1,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 20));
+		Assert.assertEquals(
+			0,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 20.001));
+	}
+
+	@Test
+	public void testGetCommerceShippingFixedOptionRelIdWithFinderSemantics() {
+		long[] commerceCountryIds = {0, 1, 2};
+		long[] commerceRegionIds = {0, 10, 20};
+		String[] zips = {"", "00100", "00101", "001"};
+		double[] weights = {0, 4.999, 5, 7.5, 10, 10.001, 15, 20, 20.001};
+
+		List<CommerceShippingFixedOptionRel> commerceShippingFixedOptionRels =
+			new ArrayList<>();
+
+		long commerceShippingFixedOptionRelId = 100;
+
+		for (long commerceCountryId : commerceCountryIds) {
+			for (long commerceRegionId : commerceRegionIds) {
+				for (String zip : zips) {
+					commerceShippingFixedOptionRels.add(
+						_createCommerceShippingFixedOptionRel(
+							commerceShippingFixedOptionRelId--,
+							commerceCountryId, commerceRegionId, zip, 5, 10));
+					commerceShippingFixedOptionRels.add(
+						_createCommerceShippingFixedOptionRel(
+							commerceShippingFixedOptionRelId--,
+							commerceCountryId, commerceRegionId, zip, 10,
+							20));
+				}
+			}
+		}
+
+		Collections.shuffle(commerceShippingFixedOptionRels);
+
+		CommerceShippingFixedOptionRelIndex
+			commerceShippingFixedOptionRelIndex =
+				new CommerceShippingFixedOptionRelIndex(
+					commerceShippingFixedOptionRels);
+
+		for (long commerceCountryId : new long[] {0, 1, 2, 3}) {
+			for (long commerceRegionId : new long[] {0, 10, 20, 30}) {
+				for (String zip : new String[] {null, "00100", "00102"}) {
+					for (double weight : weights) {
+						Assert.assertEquals(
+							_getCommerceShippingFixedOptionRelId(
+								commerceShippingFixedOptionRels,
+								commerceCountryId, commerceRegionId, zip,
+								weight),
+							commerceShippingFixedOptionRelIndex.
+								getCommerceShippingFixedOptionRelId(
+									commerceCountryId, commerceRegionId, zip,
+									weight));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGetCommerceShippingFixedOptionRelIdWithZip() {
+		CommerceShippingFixedOptionRelIndex
+			commerceShippingFixedOptionRelIndex =
+				new CommerceShippingFixedOptionRelIndex(
+					Arrays.asList(
+						_createCommerceShippingFixedOptionRel(
+							1, 0, 0, "00100", 0, 10),
+						_createCommerceShippingFixedOptionRel(
+							2, 0, 0, "", 0, 10)));
+
+		Assert.assertEquals(
+			1,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, "00100", 5));
+		Assert.assertEquals(
+			2,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, "00101", 5));
+		Assert.assertEquals(
+			2,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, "001", 5));
+		Assert.assertEquals(
+			2,
+			commerceShippingFixedOptionRelIndex.
+				getCommerceShippingFixedOptionRelId(0, 0, null, 5));
+	}
+
+	private CommerceShippingFixedOptionRel
+		_createCommerceShippingFixedOptionRel(
+			long commerceShippingFixedOptionRelId, long commerceCountryId,
+			long commerceRegionId, String zip, double weightFrom,
+			double weightTo) {
+
+		CommerceShippingFixedOptionRel commerceShippingFixedOptionRel =
+			Mockito.mock(CommerceShippingFixedOptionRel.class);
+
+		Mockito.when(
+			commerceShippingFixedOptionRel.getCommerceCountryId()
+		).thenReturn(
+			commerceCountryId
+		);
+
+		Mockito.when(
+			commerceShippingFixedOptionRel.getCommerceRegionId()
+		).thenReturn(
+			commerceRegionId
+		);
+
+		Mockito.when(
+			commerceShippingFixedOptionRel.getCommerceShippingFixedOptionRelId()
+		).thenReturn(
+			commerceShippingFixedOptionRelId
+		);
+
+		Mockito.when(
+			commerceShippingFixedOptionRel.getWeightFrom()
+		).thenReturn(
+			weightFrom
+		);
+
+		Mockito.when(
+			commerceShippingFixedOptionRel.getWeightTo()
+		).thenReturn(
+			weightTo
+		);
+
+		Mockito.when(
+			commerceShippingFixedOptionRel.getZip()
+		).thenReturn(
+			zip
+		);
+
+		return commerceShippingFixedOptionRel;
+	}
+
+	/**
+	 * Returns the lowest ID among the rels matched by the WHERE clause of the
+	 * findByC_C_C_Z_W custom SQL query. A blank zip code stands for the
+	 * <code>NULL</code> column value, which the model getter returns as an
+	 * empty string.
+	 */
+	private long _getCommerceShippingFixedOptionRelId(
+		List<CommerceShippingFixedOptionRel> commerceShippingFixedOptionRels,
+		long commerceCountryId, long commerceRegionId, String zip,
+		double weight) {
+
+		long commerceShippingFixedOptionRelId = 0;
+
+		for (CommerceShippingFixedOptionRel commerceShippingFixedOptionRel :
+				commerceShippingFixedOptionRels) {
+
+			long curCommerceCountryId =
+				commerceShippingFixedOptionRel.getCommerceCountryId();
+			long curCommerceRegionId =
+				commerceShippingFixedOptionRel.getCommerceRegionId();
+			String curZip = commerceShippingFixedOptionRel.getZip();
+
+			if (((curCommerceCountryId == commerceCountryId) ||
+				 (curCommerceCountryId == 0)) &&
+				((curCommerceRegionId == commerceRegionId) ||
+				 (curCommerceRegionId == 0)) &&
+				(curZip.equals(zip) || curZip.isEmpty()) &&
+				(commerceShippingFixedOptionRel.getWeightFrom() <= weight) &&
+				(commerceShippingFixedOptionRel.getWeightTo() >= weight)) {
+
+				long curCommerceShippingFixedOptionRelId =
+					commerceShippingFixedOptionRel.
+						getCommerceShippingFixedOptionRelId();
+
+				if ((commerceShippingFixedOptionRelId == 0) ||
+					(curCommerceShippingFixedOptionRelId <
+						commerceShippingFixedOptionRelId)) {
+
+					commerceShippingFixedOptionRelId =
+						curCommerceShippingFixedOptionRelId;
+				}
+			}
+		}
+
+		return commerceShippingFixedOptionRelId;
+	}
+
+}
@@ -14,27 +14,39 @@
 
 package com.liferay.commerce.shipping.origin.locator.warehouse.internal;
 
+import com.liferay.commerce.constants.CommerceDestinationNames;
 import com.liferay.commerce.model.CommerceAddress;
 import com.liferay.commerce.model.CommerceOrder;
 import com.liferay.commerce.model.CommerceOrderItem;
 import com.liferay.commerce.model.CommerceShippingOriginLocator;
 import com.liferay.commerce.model.CommerceWarehouse;
+import com.liferay.commerce.model.CommerceWarehouseItem;
 import com.liferay.commerce.service.CommerceAddressLocalService;
+import com.liferay.commerce.service.CommerceWarehouseItemLocalService;
 import com.liferay.commerce.service.CommerceWarehouseLocalService;
-import com.liferay.commerce.shipping.origin.locator.warehouse.internal.util.DistanceCalculator;
-import com.liferay.portal.kernel.dao.orm.QueryUtil;
-import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.commerce.shipping.origin.locator.warehouse.internal.util.WarehouseDistanceRanking;
+import com.liferay.portal.kernel.dao.orm.DynamicQuery;
+import com.liferay.portal.kernel.dao.orm.OrderFactoryUtil;
+import com.liferay.portal.kernel.dao.orm.Property;
+import com.liferay.portal.kernel.dao.orm.PropertyFactoryUtil;
 import com.liferay.portal.kernel.language.LanguageUtil;
+import com.liferay.portal.kernel.messaging.Message;
+import com.liferay.portal.kernel.messaging.MessageBusUtil;
 import com.liferay.portal.kernel.service.ServiceContext;
+import com.liferay.portal.kernel.util.ArrayUtil;
 import com.liferay.portal.kernel.util.ResourceBundleUtil;
+import com.liferay.portal.kernel.util.Time;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.portlet.RenderRequest;
 import javax.portlet.RenderResponse;
@@ -81,15 +93,45 @@ public class WarehouseCommerceShippingOriginLocator
 			return Collections.emptyMap();
 		}
 
-		Map<CommerceWarehouse, List<CommerceOrderItem>>
-			commerceWarehouseOrderItemsMap = new HashMap<>();
-
 		List<CommerceOrderItem> commerceOrderItems =
 			commerceOrder.getCommerceOrderItems();
 
+		Map<Long, CommerceWarehouse> commerceWarehouses = new HashMap<>();
+
+		Map<Long, List<Long>> cpInstanceCommerceWarehouseIds =
+			_getCPInstanceCommerceWarehouseIds(
+				commerceOrderItems, commerceWarehouses);
+
+		WarehouseDistanceRanking warehouseDistanceRanking =
+			new WarehouseDistanceRanking(
+				commerceAddress.getLatitude(), commerceAddress.getLongitude());
+
+		for (CommerceWarehouse commerceWarehouse :
+				commerceWarehouses.values()) {
+
+			if (!commerceWarehouse.isGeolocated()) {
+				_geolocateCommerceWarehouse(commerceWarehouse);
+
+				continue;
+			}
+
+			_geolocationRequests.remove(
+				commerceWarehouse.getCommerceWarehouseId());
+
+			warehouseDistanceRanking.addCommerceWarehouse(
+				commerceWarehouse.getCommerceWarehouseId(),
+				commerceWarehouse.getLatitude(),
+				commerceWarehouse.getLongitude());
+		}
+
+		Map<CommerceWarehouse, List<CommerceOrderItem>>
+			commerceWarehouseOrderItemsMap = new HashMap<>();
+
 		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
 			CommerceWarehouse commerceWarehouse = _getClosestCommerceWarehouse(
-				commerceAddress, commerceOrderItem.getCPInstanceId());
+				cpInstanceCommerceWarehouseIds.get(
+					commerceOrderItem.getCPInstanceId()),
+				commerceWarehouses, warehouseDistanceRanking);
 
 			List<CommerceOrderItem> commerceWarehouseOrderItems =
 				commerceWarehouseOrderItemsMap.get(commerceWarehouse);
@@ -132,36 +174,65 @@ public class WarehouseCommerceShippingOriginLocator
 		throws Exception {
 	}
 
-	private CommerceWarehouse _getClosestCommerceWarehouse(
-			CommerceAddress commerceAddress, long cpInstanceId)
-		throws PortalException {
+	/**
+	 * Asks for the warehouse to be geolocated in the background, unless it
+	 * was already asked recently. While the warehouse remains without
+	 * coordinates, because its geolocation is still pending or has failed, it
+	 * is asked again after one minute, then after a delay that doubles every
+	 * time, up to one day.
+	 */
+	private void _geolocateCommerceWarehouse(
+		CommerceWarehouse commerceWarehouse) {
 
-		List<CommerceWarehouse> commerceWarehouses =
-			_commerceWarehouseLocalService.getCommerceWarehouses(
-				cpInstanceId, QueryUtil.ALL_POS, QueryUtil.ALL_POS);
+		long now = System.currentTimeMillis();
 
-		CommerceWarehouse closestCommerceWarehouse = null;
-		double closestDistance = Double.MAX_VALUE;
+		long[] geolocationRequest = _geolocationRequests.get(
+			commerceWarehouse.getCommerceWarehouseId());
 
-		for (CommerceWarehouse commerceWarehouse : commerceWarehouses) {
-			if (!commerceWarehouse.isGeolocated()) {
-				commerceWarehouse =
-					_commerceWarehouseLocalService.geolocateCommerceWarehouse(
-						commerceWarehouse.getCommerceWarehouseId());
+		long requestCount = 1;
+
+		if (geolocationRequest != null) {
+			if (now < geolocationRequest[1]) {
+				return;
 			}
 
-			double distance = _distanceCalculator.getDistance(
-				commerceAddress.getLatitude(), commerceAddress.getLongitude(),
-				commerceWarehouse.getLatitude(),
-				commerceWarehouse.getLongitude());
+			requestCount = geolocationRequest[0] + 1;
+		}
 
-			if (distance < closestDistance) {
-				closestCommerceWarehouse = commerceWarehouse;
-				closestDistance = distance;
-			}
+		long retryDelay = Math.min(
+			Time.MINUTE << Math.min(requestCount - 1, 20), Time.DAY);
+
+		_geolocationRequests.put(
+			commerceWarehouse.getCommerceWarehouseId(),
+			new long[] {requestCount, now + retryDelay});
+
+		Message message = new Message();
+
+		message.put("className", CommerceWarehouse.class.getName());
+		message.put("classPK", commerceWarehouse.getCommerceWarehouseId());
+
+		MessageBusUtil.sendMessage(
+			CommerceDestinationNames.GEOLOCATION, message);
+	}
+
+	private CommerceWarehouse _getClosestCommerceWarehouse(
+		List<Long> commerceWarehouseIds,
+		Map<Long, CommerceWarehouse> commerceWarehouses,
+		WarehouseDistanceRanking warehouseDistanceRanking) {
+
+		if (commerceWarehouseIds == null) {
+			return null;
+		}
+
+		long commerceWarehouseId =
+			warehouseDistanceRanking.getClosestCommerceWarehouseId(
+				commerceWarehouseIds);
+
+		if (commerceWarehouseId == 0) {
+			commerceWarehouseId = commerceWarehouseIds.get(0);
 		}
 
-		return closestCommerceWarehouse;
+		return commerceWarehouses.get(commerceWarehouseId);
 	}
 
 	private CommerceAddress _getCommerceAddress(
@@ -186,18 +257,126 @@ public class WarehouseCommerceShippingOriginLocator
 		return commerceAddress;
 	}
 
+	/**
+	 * Returns the IDs of the warehouses stocking each SKU of the order items,
+	 * in the order of their warehouse items, and adds those warehouses to the
+	 * map. The warehouse items of all the SKUs are read at once, and so are
+	 * their warehouses.
+	 */
+	private Map<Long, List<Long>> _getCPInstanceCommerceWarehouseIds(
+		List<CommerceOrderItem> commerceOrderItems,
+		Map<Long, CommerceWarehouse> commerceWarehouses) {
+
+		Set<Long> cpInstanceIdsSet = new LinkedHashSet<>();
+
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			cpInstanceIdsSet.add(commerceOrderItem.getCPInstanceId());
+		}
+
+		Long[] cpInstanceIds = cpInstanceIdsSet.toArray(new Long[0]);
+
+		Map<Long, List<Long>> cpInstanceCommerceWarehouseIds =
+			new HashMap<>();
+
+		Set<Long> commerceWarehouseIdsSet = new LinkedHashSet<>();
+
+		int start = 0;
+
+		while (start < cpInstanceIds.length) {
+			int end = Math.min(start + _BATCH_SIZE, cpInstanceIds.length);
+
+			DynamicQuery dynamicQuery =
+				_commerceWarehouseItemLocalService.dynamicQuery();
+
+			Property cpInstanceIdProperty = PropertyFactoryUtil.forName(
+				"CPInstanceId");
+
+			dynamicQuery.add(
+				cpInstanceIdProperty.in(
+					ArrayUtil.subset(cpInstanceIds, start, end)));
+
+			dynamicQuery.addOrder(
+				OrderFactoryUtil.asc("commerceWarehouseItemId"));
+
+			List<CommerceWarehouseItem> commerceWarehouseItems =
+				_commerceWarehouseItemLocalService.dynamicQuery(dynamicQuery);
+
+			for (CommerceWarehouseItem commerceWarehouseItem :
+					commerceWarehouseItems) {
+
+				List<Long> commerceWarehouseIds =
+					cpInstanceCommerceWarehouseIds.computeIfAbsent(
+						commerceWarehouseItem.getCPInstanceId(),
+						cpInstanceId -> new ArrayList<>());
+
+				if (!commerceWarehouseIds.contains(
+						commerceWarehouseItem.getCommerceWarehouseId())) {
+
+					commerceWarehouseIds.add(
+						commerceWarehouseItem.getCommerceWarehouseId());
+				}
+
+				commerceWarehouseIdsSet.add(
+					commerceWarehouseItem.getCommerceWarehouseId());
+			}
+
+			start = end;
+		}
+
+		Long[] commerceWarehouseIds = commerceWarehouseIdsSet.toArray(
+			new Long[0]);
+
+		start = 0;
+
+		while (start < commerceWarehouseIds.length) {
+			int end = Math.min(
+				start + _BATCH_SIZE, commerceWarehouseIds.length);
+
+			DynamicQuery dynamicQuery =
+				_commerceWarehouseLocalService.dynamicQuery();
+
+			Property commerceWarehouseIdProperty = PropertyFactoryUtil.forName(
+				"commerceWarehouseId");
+
+			dynamicQuery.add(
+				commerceWarehouseIdProperty.in(
+					ArrayUtil.subset(commerceWarehouseIds, start, end)));
+
+			List<CommerceWarehouse> subsetCommerceWarehouses =
+				_commerceWarehouseLocalService.dynamicQuery(dynamicQuery);
+
+			for (CommerceWarehouse commerceWarehouse :
+					subsetCommerceWarehouses) {
+
+				commerceWarehouses.put(
+					commerceWarehouse.getCommerceWarehouseId(),
+					commerceWarehouse);
+			}
+
+			start = end;
+		}
+
+		return cpInstanceCommerceWarehouseIds;
+	}
+
 	private ResourceBundle _getResourceBundle(Locale locale) {
 		return ResourceBundleUtil.getBundle(
 			"content.Language", locale, getClass());
 	}
 
+	private static final int _BATCH_SIZE = 500;
+
+	private static final Map<Long, long[]> _geolocationRequests =
+		new ConcurrentHashMap<>();
+
 	@Reference
 	private CommerceAddressLocalService _commerceAddressLocalService;
 
 	@Reference
-	private CommerceWarehouseLocalService _commerceWarehouseLocalService;
+	private CommerceWarehouseItemLocalService
+		_commerceWarehouseItemLocalService;
 
-	private final DistanceCalculator _distanceCalculator =
-		new DistanceCalculator();
+	@Reference
+	private CommerceWarehouseLocalService _commerceWarehouseLocalService;
 
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.origin.locator.warehouse.internal.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the distance of every warehouse from a shipping address, so that the
+ * closest warehouse of any subset is found without computing distances again.
+ *
+ * @author Andrea Di Giorgi
+ */
+public class WarehouseDistanceRanking {
+
+	public WarehouseDistanceRanking(double latitude, double longitude) {
+		_latitude = latitude;
+		_longitude = longitude;
+	}
+
+	public void addCommerceWarehouse(
+		long commerceWarehouseId, double latitude, double longitude) {
+
+		_distances.put(
+			commerceWarehouseId,
+			_distanceCalculator.getDistance(
+				_latitude, _longitude, latitude, longitude));
+	}
+
+	/**
+	 * Returns the ID of the closest warehouse among the given ones, or
+	 * <code>0</code> if none of them was added. Ties are resolved in favor of
+	 * the warehouse that comes first.
+	 */
+	public long getClosestCommerceWarehouseId(
+		Collection<Long> commerceWarehouseIds) {
+
+		long closestCommerceWarehouseId = 0;
+		double closestDistance = Double.MAX_VALUE;
+
+		for (long commerceWarehouseId : commerceWarehouseIds) {
+			Double distance = _distances.get(commerceWarehouseId);
+
+			if ((distance != null) && (distance < closestDistance)) {
+				closestCommerceWarehouseId = commerceWarehouseId;
+				closestDistance = distance;
+			}
+		}
+
+		return closestCommerceWarehouseId;
+	}
+
+	private static final DistanceCalculator _distanceCalculator =
+		new DistanceCalculator();
+
+	private final Map<Long, Double> _distances = new HashMap<>();
+	private final double _latitude;
+	private final double _longitude;
+
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.shipping.origin.locator.warehouse.internal.util;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Andrea Di Giorgi
+ */
+public class WarehouseDistanceRankingTest {
+
+	@Test
+	public void testGetClosestCommerceWarehouseId() {
+		WarehouseDistanceRanking warehouseDistanceRanking =
+			new WarehouseDistanceRanking(_LATITUDE, _LONGITUDE);
+
+		warehouseDistanceRanking.addCommerceWarehouse(1, 48.856614, 2.352222);
+		warehouseDistanceRanking.addCommerceWarehouse(
+			2, 34.045886, -118.564861);
+		warehouseDistanceRanking.addCommerceWarehouse(
+			3, 34.045886, -118.564861);
+
+		Assert.assertEquals(
+			2,
+			warehouseDistanceRanking.getClosestCommerceWarehouseId(
+				Arrays.asList(1L, 2L, 3L)));
+		Assert.assertEquals(
+			3,
+			warehouseDistanceRanking.getClosestCommerceWarehouseId(
+				Arrays.asList(3L, 2L)));
+		Assert.assertEquals(
+			1,
+			warehouseDistanceRanking.getClosestCommerceWarehouseId(
+				Arrays.asList(1L, 4L)));
+		Assert.assertEquals(
+			0,
+			warehouseDistanceRanking.getClosestCommerceWarehouseId(
+				Collections.singletonList(4L)));
+	}
+
+	private static final double _LATITUDE = 33.997673;
+
+	private static final double _LONGITUDE = -117.814508;
+
+}
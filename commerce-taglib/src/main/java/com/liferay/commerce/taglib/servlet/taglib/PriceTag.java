@@ -26,6 +26,7 @@ import com.liferay.commerce.discount.CommerceDiscountValue;
 import com.liferay.commerce.model.CPDefinitionInventory;
 import com.liferay.commerce.price.CommerceProductPrice;
 import com.liferay.commerce.price.CommerceProductPriceCalculation;
+import com.liferay.commerce.price.CommerceProductPriceRequestUtil;
 import com.liferay.commerce.product.model.CPDefinition;
 import com.liferay.commerce.product.model.CPInstance;
 import com.liferay.commerce.product.service.CPDefinitionServiceUtil;
@@ -163,6 +164,22 @@ public class PriceTag extends IncludeTag {
 		_showPromo = true;
 	}
 
+	protected CommerceProductPrice getCommerceProductPrice(
+			CommerceContext commerceContext)
+		throws PortalException {
+
+		CommerceProductPrice commerceProductPrice =
+			CommerceProductPriceRequestUtil.getCommerceProductPrice(
+				request, _cpInstance.getCPInstanceId(), _quantity);
+
+		if (commerceProductPrice != null) {
+			return commerceProductPrice;
+		}
+
+		return commerceProductPriceCalculation.getCommerceProductPrice(
+			_cpInstance.getCPInstanceId(), _quantity, commerceContext);
+	}
+
 	protected String getFormattedPrice(
 			int quantity, CommerceContext commerceContext, Locale locale)
 		throws PortalException {
@@ -265,8 +282,7 @@ public class PriceTag extends IncludeTag {
 		}
 		else {
 			CommerceProductPrice commerceProductPrice =
-				commerceProductPriceCalculation.getCommerceProductPrice(
-					_cpInstance.getCPInstanceId(), _quantity, commerceContext);
+				getCommerceProductPrice(commerceContext);
 
 			if (commerceProductPrice == null) {
 				return;
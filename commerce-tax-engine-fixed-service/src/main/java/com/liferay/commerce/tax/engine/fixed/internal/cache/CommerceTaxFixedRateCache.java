@@ -0,0 +1,242 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.tax.engine.fixed.internal.cache;
+
+import com.liferay.commerce.tax.engine.fixed.model.CommerceTaxFixedRate;
+import com.liferay.commerce.tax.engine.fixed.model.CommerceTaxFixedRateAddressRel;
+import com.liferay.commerce.tax.engine.fixed.service.CommerceTaxFixedRateAddressRelLocalService;
+import com.liferay.commerce.tax.engine.fixed.service.CommerceTaxFixedRateLocalService;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.Validator;
+import com.liferay.portal.kernel.uuid.PortalUUIDUtil;
+
+import java.io.Serializable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Keeps, for each tax method, its fixed rates by tax category and its rates by
+ * address, so that tax engines can resolve a rate without querying the
+ * database. Entries are kept on the local node only, keyed by the tax method
+ * and a token of the tax method that each cluster node generates locally.
+ * When a rate of the tax method changes, the token is removed on every node
+ * once the transaction commits, so that rates read before that commit are
+ * never read again.
+ *
+ * @author Alessio Antonio Rendina
+ */
+@Component(immediate = true, service = CommerceTaxFixedRateCache.class)
+public class CommerceTaxFixedRateCache {
+
+	public static final String CACHE_NAME =
+		CommerceTaxFixedRateCache.class.getName();
+
+	/**
+	 * Returns the rate of the first address rel of the tax method that
+	 * matches the country, region and zip code, where a rel without country,
+	 * region or zip code matches any value, or <code>null</code> if no rel
+	 * matches.
+	 */
+	public Double getAddressRate(
+		long commerceTaxMethodId, long commerceCountryId, long commerceRegionId,
+		String zip) {
+
+		RateTable rateTable = _getRateTable(commerceTaxMethodId);
+
+		for (AddressRate addressRate : rateTable._addressRates) {
+			if (addressRate.matches(commerceCountryId, commerceRegionId, zip)) {
+				return addressRate._rate;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the fixed rate of the tax method for the tax category, or
+	 * <code>null</code> if the tax method has no rate for it.
+	 */
+	public Double getRate(long commerceTaxMethodId, long cpTaxCategoryId) {
+		RateTable rateTable = _getRateTable(commerceTaxMethodId);
+
+		return rateTable._rates.get(cpTaxCategoryId);
+	}
+
+	public void invalidate(long commerceTaxMethodId) {
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_generationsPortalCache.remove(commerceTaxMethodId);
+
+				return null;
+			});
+	}
+
+	private String _getGeneration(long commerceTaxMethodId) {
+		String generation = _generationsPortalCache.get(commerceTaxMethodId);
+
+		if (generation == null) {
+			generation = PortalUUIDUtil.generate();
+
+			PortalCacheHelperUtil.putWithoutReplicator(
+				_generationsPortalCache, commerceTaxMethodId, generation);
+		}
+
+		return generation;
+	}
+
+	private RateTable _getRateTable(long commerceTaxMethodId) {
+		String key =
+			_getGeneration(commerceTaxMethodId) + StringPool.POUND +
+				commerceTaxMethodId;
+
+		RateTable rateTable = _portalCache.get(key);
+
+		if (rateTable != null) {
+			return rateTable;
+		}
+
+		Map<Long, Double> rates = new HashMap<>();
+
+		List<CommerceTaxFixedRate> commerceTaxFixedRates =
+			_commerceTaxFixedRateLocalService.getCommerceTaxFixedRates(
+				commerceTaxMethodId, QueryUtil.ALL_POS, QueryUtil.ALL_POS,
+				null);
+
+		for (CommerceTaxFixedRate commerceTaxFixedRate :
+				commerceTaxFixedRates) {
+
+			rates.put(
+				commerceTaxFixedRate.getCPTaxCategoryId(),
+				commerceTaxFixedRate.getRate());
+		}
+
+		List<CommerceTaxFixedRateAddressRel> commerceTaxFixedRateAddressRels =
+			new ArrayList<>(
+				_commerceTaxFixedRateAddressRelLocalService.
+					getCommerceTaxMethodFixedRateAddressRels(
+						commerceTaxMethodId, QueryUtil.ALL_POS,
+						QueryUtil.ALL_POS));
+
+		commerceTaxFixedRateAddressRels.sort(
+			Comparator.comparingLong(
+				CommerceTaxFixedRateAddressRel::
+					getCommerceTaxFixedRateAddressRelId));
+
+		List<AddressRate> addressRates = new ArrayList<>();
+
+		for (CommerceTaxFixedRateAddressRel commerceTaxFixedRateAddressRel :
+				commerceTaxFixedRateAddressRels) {
+
+			addressRates.add(
+				new AddressRate(
+					commerceTaxFixedRateAddressRel.getCommerceCountryId(),
+					commerceTaxFixedRateAddressRel.getCommerceRegionId(),
+					commerceTaxFixedRateAddressRel.getZip(),
+					commerceTaxFixedRateAddressRel.getRate()));
+		}
+
+		rateTable = new RateTable(addressRates, rates);
+
+		_portalCache.put(key, rateTable);
+
+		return rateTable;
+	}
+
+	private static final PortalCache<Long, String> _generationsPortalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, CACHE_NAME + ".generations");
+	private static final PortalCache<String, RateTable> _portalCache =
+		PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.SINGLE_VM, CACHE_NAME);
+
+	@Reference
+	private CommerceTaxFixedRateAddressRelLocalService
+		_commerceTaxFixedRateAddressRelLocalService;
+
+	@Reference
+	private CommerceTaxFixedRateLocalService _commerceTaxFixedRateLocalService;
+
+	private static class AddressRate implements Serializable {
+
+		private AddressRate(
+			long commerceCountryId, long commerceRegionId, String zip,
+			double rate) {
+
+			_commerceCountryId = commerceCountryId;
+			_commerceRegionId = commerceRegionId;
+			_zip = zip;
+			_rate = rate;
+		}
+
+		public boolean matches(
+			long commerceCountryId, long commerceRegionId, String zip) {
+
+			if ((_commerceCountryId != 0) &&
+				(_commerceCountryId != commerceCountryId)) {
+
+				return false;
+			}
+
+			if ((_commerceRegionId != 0) &&
+				(_commerceRegionId != commerceRegionId)) {
+
+				return false;
+			}
+
+			if (Validator.isNotNull(_zip) && !_zip.equals(zip)) {
+				return false;
+			}
+
+			return true;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final long _commerceCountryId;
+		private final long _commerceRegionId;
+		private final double _rate;
+		private final String _zip;
+
+	}
+
+	private static class RateTable implements Serializable {
+
+		private RateTable(
+			List<AddressRate> addressRates, Map<Long, Double> rates) {
+
+			_addressRates = addressRates;
+			_rates = rates;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final List<AddressRate> _addressRates;
+		private final Map<Long, Double> _rates;
+
+	}
+
+}
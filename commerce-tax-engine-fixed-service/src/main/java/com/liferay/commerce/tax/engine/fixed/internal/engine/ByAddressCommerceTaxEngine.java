@@ -20,8 +20,7 @@ import com.liferay.commerce.service.CommerceAddressLocalService;
 import com.liferay.commerce.tax.CommerceTaxCalculateRequest;
 import com.liferay.commerce.tax.CommerceTaxEngine;
 import com.liferay.commerce.tax.CommerceTaxValue;
-import com.liferay.commerce.tax.engine.fixed.model.CommerceTaxFixedRateAddressRel;
-import com.liferay.commerce.tax.engine.fixed.service.CommerceTaxFixedRateAddressRelLocalService;
+import com.liferay.commerce.tax.engine.fixed.internal.cache.CommerceTaxFixedRateCache;
 import com.liferay.petra.string.StringPool;
 import com.liferay.portal.kernel.language.LanguageUtil;
 import com.liferay.portal.kernel.util.ResourceBundleUtil;
@@ -40,7 +39,10 @@ import org.osgi.service.component.annotations.Reference;
  */
 @Component(
 	immediate = true,
-	property = "commerce.tax.engine.key=" + ByAddressCommerceTaxEngine.KEY,
+	property = {
+		"commerce.tax.engine.key=" + ByAddressCommerceTaxEngine.KEY,
+		"commerce.tax.engine.linear=true"
+	},
 	service = CommerceTaxEngine.class
 )
 public class ByAddressCommerceTaxEngine implements CommerceTaxEngine {
@@ -67,18 +69,15 @@ public class ByAddressCommerceTaxEngine implements CommerceTaxEngine {
 			zip = commerceAddress.getZip();
 		}
 
-		CommerceTaxFixedRateAddressRel commerceTaxFixedRateAddressRel =
-			_commerceTaxFixedRateAddressRelLocalService.
-				fetchCommerceTaxFixedRateAddressRel(
-					commerceTaxCalculateRequest.getCommerceTaxMethodId(),
-					commerceCountryId, commerceRegionId, zip);
+		Double addressRate = _commerceTaxFixedRateCache.getAddressRate(
+			commerceTaxCalculateRequest.getCommerceTaxMethodId(),
+			commerceCountryId, commerceRegionId, zip);
 
-		if (commerceTaxFixedRateAddressRel == null) {
+		if (addressRate == null) {
 			return null;
 		}
 
-		BigDecimal rate = BigDecimal.valueOf(
-			commerceTaxFixedRateAddressRel.getRate());
+		BigDecimal rate = BigDecimal.valueOf(addressRate);
 
 		BigDecimal amount = commerceTaxCalculateRequest.getPrice();
 
@@ -121,7 +120,6 @@ public class ByAddressCommerceTaxEngine implements CommerceTaxEngine {
 	private CommerceAddressLocalService _commerceAddressLocalService;
 
 	@Reference
-	private CommerceTaxFixedRateAddressRelLocalService
-		_commerceTaxFixedRateAddressRelLocalService;
+	private CommerceTaxFixedRateCache _commerceTaxFixedRateCache;
 
 }
\ No newline at end of file
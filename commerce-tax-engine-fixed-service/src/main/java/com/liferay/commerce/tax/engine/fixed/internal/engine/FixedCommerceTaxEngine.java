@@ -18,12 +18,8 @@ import com.liferay.commerce.exception.CommerceTaxEngineException;
 import com.liferay.commerce.tax.CommerceTaxCalculateRequest;
 import com.liferay.commerce.tax.CommerceTaxEngine;
 import com.liferay.commerce.tax.CommerceTaxValue;
-import com.liferay.commerce.tax.engine.fixed.model.CommerceTaxFixedRate;
-import com.liferay.commerce.tax.engine.fixed.service.CommerceTaxFixedRateLocalService;
-import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.commerce.tax.engine.fixed.internal.cache.CommerceTaxFixedRateCache;
 import com.liferay.portal.kernel.language.LanguageUtil;
-import com.liferay.portal.kernel.log.Log;
-import com.liferay.portal.kernel.log.LogFactoryUtil;
 import com.liferay.portal.kernel.util.ResourceBundleUtil;
 
 import java.math.BigDecimal;
@@ -40,7 +36,10 @@ import org.osgi.service.component.annotations.Reference;
  */
 @Component(
 	immediate = true,
-	property = "commerce.tax.engine.key=" + FixedCommerceTaxEngine.KEY,
+	property = {
+		"commerce.tax.engine.key=" + FixedCommerceTaxEngine.KEY,
+		"commerce.tax.engine.linear=true"
+	},
 	service = CommerceTaxEngine.class
 )
 public class FixedCommerceTaxEngine implements CommerceTaxEngine {
@@ -52,36 +51,27 @@ public class FixedCommerceTaxEngine implements CommerceTaxEngine {
 			CommerceTaxCalculateRequest commerceTaxCalculateRequest)
 		throws CommerceTaxEngineException {
 
-		CommerceTaxValue commerceTaxValue = null;
+		Double fixedRate = _commerceTaxFixedRateCache.getRate(
+			commerceTaxCalculateRequest.getCommerceTaxMethodId(),
+			commerceTaxCalculateRequest.getTaxCategoryId());
 
-		try {
-			CommerceTaxFixedRate commerceTaxFixedRate =
-				_commerceTaxFixedRateLocalService.getCommerceTaxFixedRate(
-					commerceTaxCalculateRequest.getTaxCategoryId(),
-					commerceTaxCalculateRequest.getCommerceTaxMethodId());
-
-			BigDecimal rate = BigDecimal.valueOf(
-				commerceTaxFixedRate.getRate());
+		if (fixedRate == null) {
+			return null;
+		}
 
-			BigDecimal amount = commerceTaxCalculateRequest.getPrice();
+		BigDecimal rate = BigDecimal.valueOf(fixedRate);
 
-			BigDecimal taxValue = rate;
+		BigDecimal amount = commerceTaxCalculateRequest.getPrice();
 
-			if (commerceTaxCalculateRequest.isPercentage()) {
-				taxValue = amount.multiply(rate);
+		BigDecimal taxValue = rate;
 
-				taxValue = taxValue.divide(_ONE_HUNDRED);
-			}
+		if (commerceTaxCalculateRequest.isPercentage()) {
+			taxValue = amount.multiply(rate);
 
-			commerceTaxValue = new CommerceTaxValue(KEY, KEY, taxValue);
+			taxValue = taxValue.divide(_ONE_HUNDRED);
 		}
-		catch (PortalException pe) {
-			_log.error(pe, pe);
 
-			throw new CommerceTaxEngineException(pe);
-		}
-
-		return commerceTaxValue;
+		return new CommerceTaxValue(KEY, KEY, taxValue);
 	}
 
 	@Override
@@ -105,10 +95,7 @@ public class FixedCommerceTaxEngine implements CommerceTaxEngine {
 
 	private static final BigDecimal _ONE_HUNDRED = BigDecimal.valueOf(100);
 
-	private static final Log _log = LogFactoryUtil.getLog(
-		FixedCommerceTaxEngine.class);
-
 	@Reference
-	private CommerceTaxFixedRateLocalService _commerceTaxFixedRateLocalService;
+	private CommerceTaxFixedRateCache _commerceTaxFixedRateCache;
 
 }
\ No newline at end of file
@@ -14,6 +14,7 @@
 
 package com.liferay.commerce.tax.engine.fixed.internal.model.listener;
 
+import com.liferay.commerce.tax.engine.fixed.internal.cache.CommerceTaxFixedRateCache;
 import com.liferay.commerce.tax.engine.fixed.service.CommerceTaxFixedRateAddressRelLocalService;
 import com.liferay.commerce.tax.engine.fixed.service.CommerceTaxFixedRateLocalService;
 import com.liferay.commerce.tax.model.CommerceTaxMethod;
@@ -31,6 +32,12 @@ import org.osgi.service.component.annotations.Reference;
 public class CommerceTaxMethodModelListener
 	extends BaseModelListener<CommerceTaxMethod> {
 
+	@Override
+	public void onAfterRemove(CommerceTaxMethod commerceTaxMethod) {
+		_commerceTaxFixedRateCache.invalidate(
+			commerceTaxMethod.getCommerceTaxMethodId());
+	}
+
 	@Override
 	public void onBeforeRemove(CommerceTaxMethod commerceTaxMethod) {
 		_commerceTaxFixedRateAddressRelLocalService.
@@ -46,6 +53,9 @@ public class CommerceTaxMethodModelListener
 	private CommerceTaxFixedRateAddressRelLocalService
 		_commerceTaxFixedRateAddressRelLocalService;
 
+	@Reference
+	private CommerceTaxFixedRateCache _commerceTaxFixedRateCache;
+
 	@Reference
 	private CommerceTaxFixedRateLocalService _commerceTaxFixedRateLocalService;
 
@@ -33,6 +33,7 @@ import com.liferay.commerce.util.CommerceTaxEngineRegistry;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.log.Log;
 import com.liferay.portal.kernel.log.LogFactoryUtil;
+import com.liferay.portal.kernel.util.GetterUtil;
 
 import java.math.BigDecimal;
 
@@ -41,9 +42,14 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
 
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Reference;
+import org.osgi.service.component.annotations.ReferenceCardinality;
+import org.osgi.service.component.annotations.ReferencePolicy;
+import org.osgi.service.component.annotations.ReferencePolicyOption;
 
 /**
  * @author Marco Leo
@@ -62,13 +68,24 @@ public class CommerceTaxCalculationImpl implements CommerceTaxCalculation {
 			return Collections.emptyList();
 		}
 
-		for (CommerceOrderItem commerceOrderItem :
-				commerceOrder.getCommerceOrderItems()) {
+		List<CommerceTaxMethod> commerceTaxMethods =
+			_commerceTaxMethodLocalService.getCommerceTaxMethods(
+				commerceOrder.getGroupId(), true);
+
+		if (commerceTaxMethods.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, List<BigDecimal>> taxCategoryAmounts = _getTaxCategoryAmounts(
+			commerceOrder.getCommerceOrderItems());
 
-			List<CommerceTaxValue> commerceTaxValues = getCommerceTaxValues(
-				commerceOrder.getGroupId(), commerceOrderItem.getCPInstanceId(),
-				commerceOrder.getBillingAddressId(),
-				commerceOrderItem.getFinalPrice(), commerceContext);
+		for (Map.Entry<Long, List<BigDecimal>> entry :
+				taxCategoryAmounts.entrySet()) {
+
+			List<CommerceTaxValue> commerceTaxValues = _getCommerceTaxValues(
+				commerceOrder.getGroupId(), entry.getKey(),
+				commerceOrder.getBillingAddressId(), entry.getValue(),
+				commerceContext, commerceTaxMethods);
 
 			for (CommerceTaxValue commerceTaxValue : commerceTaxValues) {
 				CommerceTaxValue aggregatedCommerceTaxValue = null;
@@ -100,8 +117,6 @@ public class CommerceTaxCalculationImpl implements CommerceTaxCalculation {
 			BigDecimal amount, CommerceContext commerceContext)
 		throws PortalException {
 
-		List<CommerceTaxValue> commerceTaxValues = new ArrayList<>();
-
 		CPInstance cpInstance = _cpCpInstanceLocalService.getCPInstance(
 			cpInstanceId);
 
@@ -110,22 +125,104 @@ public class CommerceTaxCalculationImpl implements CommerceTaxCalculation {
 		if (cpDefinition.isTaxExempt() ||
 			(cpDefinition.getCPTaxCategoryId() <= 0)) {
 
-			return commerceTaxValues;
+			return new ArrayList<>();
+		}
+
+		List<CommerceTaxMethod> commerceTaxMethods =
+			_commerceTaxMethodLocalService.getCommerceTaxMethods(groupId, true);
+
+		return _getCommerceTaxValues(
+			groupId, cpDefinition.getCPTaxCategoryId(), commerceAddressId,
+			Collections.singletonList(amount), commerceContext,
+			commerceTaxMethods);
+	}
+
+	@Override
+	public CommerceMoney getTaxAmount(
+			CommerceOrder commerceOrder, CommerceContext commerceContext)
+		throws PortalException {
+
+		BigDecimal taxAmount = BigDecimal.ZERO;
+
+		List<CommerceTaxValue> commerceTaxValues = getCommerceTaxValues(
+			commerceOrder, commerceContext);
+
+		for (CommerceTaxValue commerceTaxValue : commerceTaxValues) {
+			taxAmount = taxAmount.add(commerceTaxValue.getAmount());
+		}
+
+		return _commerceMoneyFactory.create(
+			commerceContext.getCommerceCurrency(), taxAmount);
+	}
+
+	/**
+	 * Tracks the engines declaring, with the
+	 * <code>commerce.tax.engine.linear</code> property, that their percentage
+	 * tax is linear in the amount, so that the tax of a group of lines can be
+	 * computed once on the group total. Any other engine is asked for the tax
+	 * of every line, since it may round per line or apply thresholds.
+	 */
+	@Reference(
+		cardinality = ReferenceCardinality.MULTIPLE,
+		policy = ReferencePolicy.DYNAMIC,
+		policyOption = ReferencePolicyOption.GREEDY,
+		service = CommerceTaxEngine.class,
+		target = "(commerce.tax.engine.linear=true)"
+	)
+	protected void registerLinearCommerceTaxEngine(
+		CommerceTaxEngine commerceTaxEngine, Map<String, Object> properties) {
+
+		_linearCommerceTaxEngineKeys.add(
+			GetterUtil.getString(properties.get("commerce.tax.engine.key")));
+	}
+
+	protected void unregisterLinearCommerceTaxEngine(
+		CommerceTaxEngine commerceTaxEngine, Map<String, Object> properties) {
+
+		_linearCommerceTaxEngineKeys.remove(
+			GetterUtil.getString(properties.get("commerce.tax.engine.key")));
+	}
+
+	private void _addCommerceTaxValue(
+		List<CommerceTaxValue> commerceTaxValues,
+		CommerceTaxEngine commerceTaxEngine,
+		CommerceTaxCalculateRequest commerceTaxCalculateRequest) {
+
+		try {
+			CommerceTaxValue commerceTaxValue =
+				commerceTaxEngine.getCommerceTaxValue(
+					commerceTaxCalculateRequest);
+
+			if (commerceTaxValue != null) {
+				commerceTaxValues.add(commerceTaxValue);
+			}
+		}
+		catch (CommerceTaxEngineException ctee) {
+			_log.error(ctee, ctee);
+		}
+	}
+
+	private List<CommerceTaxValue> _getCommerceTaxValues(
+		long groupId, long cpTaxCategoryId, long commerceAddressId,
+		List<BigDecimal> amounts, CommerceContext commerceContext,
+		List<CommerceTaxMethod> commerceTaxMethods) {
+
+		List<CommerceTaxValue> commerceTaxValues = new ArrayList<>();
+
+		BigDecimal totalAmount = BigDecimal.ZERO;
+
+		for (BigDecimal amount : amounts) {
+			totalAmount = totalAmount.add(amount);
 		}
 
 		CommerceTaxCalculateRequest commerceTaxCalculateRequest =
 			new CommerceTaxCalculateRequest();
 
 		commerceTaxCalculateRequest.setCommerceAddressId(commerceAddressId);
-		commerceTaxCalculateRequest.setPrice(amount);
 		commerceTaxCalculateRequest.setSiteGroupId(groupId);
-		commerceTaxCalculateRequest.setTaxCategoryId(
-			cpDefinition.getCPTaxCategoryId());
+		commerceTaxCalculateRequest.setTaxCategoryId(cpTaxCategoryId);
 		commerceTaxCalculateRequest.setUserId(commerceContext.getUserId());
 
-		List<CommerceTaxMethod> commerceTaxMethods =
-			_commerceTaxMethodLocalService.getCommerceTaxMethods(groupId, true);
-
 		for (CommerceTaxMethod commerceTaxMethod : commerceTaxMethods) {
 			commerceTaxCalculateRequest.setCommerceTaxMethodId(
 				commerceTaxMethod.getCommerceTaxMethodId());
@@ -136,39 +233,66 @@ public class CommerceTaxCalculationImpl implements CommerceTaxCalculation {
 				_commerceTaxEngineRegistry.getCommerceTaxEngine(
 					commerceTaxMethod.getEngineKey());
 
-			try {
-				CommerceTaxValue commerceTaxValue =
-					commerceTaxEngine.getCommerceTaxValue(
-						commerceTaxCalculateRequest);
+			if (commerceTaxMethod.isPercentage() &&
+				_linearCommerceTaxEngineKeys.contains(
+					commerceTaxMethod.getEngineKey())) {
 
-				if (commerceTaxValue != null) {
-					commerceTaxValues.add(commerceTaxValue);
-				}
+				commerceTaxCalculateRequest.setPrice(totalAmount);
+
+				_addCommerceTaxValue(
+					commerceTaxValues, commerceTaxEngine,
+					commerceTaxCalculateRequest);
+
+				continue;
 			}
-			catch (CommerceTaxEngineException ctee) {
-				_log.error(ctee, ctee);
+
+			for (BigDecimal amount : amounts) {
+				commerceTaxCalculateRequest.setPrice(amount);
+
+				_addCommerceTaxValue(
+					commerceTaxValues, commerceTaxEngine,
+					commerceTaxCalculateRequest);
 			}
 		}
 
 		return commerceTaxValues;
 	}
 
-	@Override
-	public CommerceMoney getTaxAmount(
-			CommerceOrder commerceOrder, CommerceContext commerceContext)
+	private Map<Long, List<BigDecimal>> _getTaxCategoryAmounts(
+			List<CommerceOrderItem> commerceOrderItems)
 		throws PortalException {
 
-		BigDecimal taxAmount = BigDecimal.ZERO;
+		Map<Long, List<BigDecimal>> taxCategoryAmounts = new HashMap<>();
 
-		List<CommerceTaxValue> commerceTaxValues = getCommerceTaxValues(
-			commerceOrder, commerceContext);
+		Map<Long, CPDefinition> cpDefinitions = new HashMap<>();
 
-		for (CommerceTaxValue commerceTaxValue : commerceTaxValues) {
-			taxAmount = taxAmount.add(commerceTaxValue.getAmount());
+		for (CommerceOrderItem commerceOrderItem : commerceOrderItems) {
+			CPDefinition cpDefinition = cpDefinitions.get(
+				commerceOrderItem.getCPInstanceId());
+
+			if (cpDefinition == null) {
+				CPInstance cpInstance = _cpCpInstanceLocalService.getCPInstance(
+					commerceOrderItem.getCPInstanceId());
+
+				cpDefinition = cpInstance.getCPDefinition();
+
+				cpDefinitions.put(
+					commerceOrderItem.getCPInstanceId(), cpDefinition);
+			}
+
+			if (cpDefinition.isTaxExempt() ||
+				(cpDefinition.getCPTaxCategoryId() <= 0)) {
+
+				continue;
+			}
+
+			List<BigDecimal> amounts = taxCategoryAmounts.computeIfAbsent(
+				cpDefinition.getCPTaxCategoryId(), key -> new ArrayList<>());
+
+			amounts.add(commerceOrderItem.getFinalPrice());
 		}
 
-		return _commerceMoneyFactory.create(
-			commerceContext.getCommerceCurrency(), taxAmount);
+		return taxCategoryAmounts;
 	}
 
 	private static final Log _log = LogFactoryUtil.getLog(
@@ -186,4 +310,7 @@ public class CommerceTaxCalculationImpl implements CommerceTaxCalculation {
 	@Reference
 	private CPInstanceLocalService _cpCpInstanceLocalService;
 
+	private final Set<String> _linearCommerceTaxEngineKeys =
+		new CopyOnWriteArraySet<>();
+
 }
\ No newline at end of file
@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.user.segment.internal.cache;
+
+import com.liferay.commerce.user.segment.criterion.CommerceUserSegmentCriterionType;
+import com.liferay.commerce.user.segment.criterion.CommerceUserSegmentCriterionTypeRegistry;
+import com.liferay.commerce.user.segment.internal.criterion.BaseCommerceUserSegmentCriterionType;
+import com.liferay.commerce.user.segment.model.CommerceUserSegmentCriterion;
+import com.liferay.commerce.user.segment.model.CommerceUserSegmentEntry;
+import com.liferay.commerce.user.segment.service.CommerceUserSegmentCriterionLocalService;
+import com.liferay.commerce.user.segment.service.CommerceUserSegmentEntryLocalService;
+import com.liferay.commerce.user.segment.util.comparator.CommerceUserSegmentCriterionPriorityComparator;
+import com.liferay.commerce.user.segment.util.comparator.CommerceUserSegmentEntryPriorityComparator;
+import com.liferay.petra.string.StringPool;
+import com.liferay.portal.kernel.cache.PortalCache;
+import com.liferay.portal.kernel.cache.PortalCacheHelperUtil;
+import com.liferay.portal.kernel.cache.PortalCacheManagerNames;
+import com.liferay.portal.kernel.dao.orm.QueryUtil;
+import com.liferay.portal.kernel.exception.PortalException;
+import com.liferay.portal.kernel.model.User;
+import com.liferay.portal.kernel.service.UserLocalService;
+import com.liferay.portal.kernel.transaction.TransactionCommitCallbackUtil;
+import com.liferay.portal.kernel.util.StringUtil;
+import com.liferay.portal.kernel.util.Validator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * Resolves the user segments of a user from the compiled segments of the
+ * group and keeps the result for each group and account of the user. Compiled
+ * segments are dropped when a segment or one of its criteria changes, and the
+ * results of a user are dropped when the user's roles, organizations or user
+ * groups change.
+ *
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = CommerceUserSegmentEntryCache.class)
+public class CommerceUserSegmentEntryCache {
+
+	public static final String MATCHER_CACHE_NAME =
+		CommerceUserSegmentEntryCache.class.getName() + "_MATCHER";
+
+	public static final String USER_CACHE_NAME =
+		CommerceUserSegmentEntryCache.class.getName() + "_USER";
+
+	/**
+	 * Returns the IDs of the user segments of the user, in descending priority
+	 * order, or <code>null</code> if one of the registered criterion types
+	 * cannot be evaluated in memory and the search index must be used instead.
+	 */
+	public long[] getCommerceUserSegmentEntryIds(
+			long groupId, long commerceAccountId, long userId)
+		throws PortalException {
+
+		Map<String, long[]> commerceUserSegmentEntryIdsMap =
+			_userPortalCache.get(userId);
+
+		if (commerceUserSegmentEntryIdsMap != null) {
+			long[] commerceUserSegmentEntryIds =
+				commerceUserSegmentEntryIdsMap.get(
+					_getKey(groupId, commerceAccountId));
+
+			if (commerceUserSegmentEntryIds != null) {
+				return commerceUserSegmentEntryIds;
+			}
+		}
+
+		List<CommerceUserSegmentCriterionType>
+			commerceUserSegmentCriterionTypes =
+				_commerceUserSegmentCriterionTypeRegistry.
+					getCommerceUserSegmentCriterionTypes();
+
+		for (CommerceUserSegmentCriterionType commerceUserSegmentCriterionType :
+				commerceUserSegmentCriterionTypes) {
+
+			if (!(commerceUserSegmentCriterionType instanceof
+					BaseCommerceUserSegmentCriterionType)) {
+
+				return null;
+			}
+		}
+
+		User user = _userLocalService.getUser(userId);
+
+		Map<String, long[]> userClassPKs = new HashMap<>();
+
+		for (CommerceUserSegmentCriterionType commerceUserSegmentCriterionType :
+				commerceUserSegmentCriterionTypes) {
+
+			BaseCommerceUserSegmentCriterionType
+				baseCommerceUserSegmentCriterionType =
+					(BaseCommerceUserSegmentCriterionType)
+						commerceUserSegmentCriterionType;
+
+			userClassPKs.put(
+				commerceUserSegmentCriterionType.getKey(),
+				baseCommerceUserSegmentCriterionType.getUserClassPKs(
+					user, groupId));
+		}
+
+		CommerceUserSegmentEntryMatcher commerceUserSegmentEntryMatcher =
+			_getCommerceUserSegmentEntryMatcher(groupId);
+
+		long[] commerceUserSegmentEntryIds =
+			commerceUserSegmentEntryMatcher.match(
+				userClassPKs, _MAX_COMMERCE_USER_SEGMENT_ENTRIES);
+
+		putCommerceUserSegmentEntryIds(
+			groupId, commerceAccountId, userId, commerceUserSegmentEntryIds);
+
+		return commerceUserSegmentEntryIds;
+	}
+
+	/**
+	 * Drops the compiled segments of the group and the results of every user
+	 * once the current transaction commits.
+	 */
+	public void invalidateGroup(long groupId) {
+		_matcherPortalCache.remove(groupId);
+		_userPortalCache.removeAll();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_matcherPortalCache.remove(groupId);
+				_userPortalCache.removeAll();
+
+				return null;
+			});
+	}
+
+	public void invalidateUser(long userId) {
+		_userPortalCache.remove(userId);
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_userPortalCache.remove(userId);
+
+				return null;
+			});
+	}
+
+	/**
+	 * Drops the results of every user. Used when a change, such as moving an
+	 * organization, may affect an unknown number of users.
+	 */
+	public void invalidateUsers() {
+		_userPortalCache.removeAll();
+
+		TransactionCommitCallbackUtil.registerCallback(
+			() -> {
+				_userPortalCache.removeAll();
+
+				return null;
+			});
+	}
+
+	public void putCommerceUserSegmentEntryIds(
+		long groupId, long commerceAccountId, long userId,
+		long[] commerceUserSegmentEntryIds) {
+
+		HashMap<String, long[]> commerceUserSegmentEntryIdsMap =
+			new HashMap<>();
+
+		Map<String, long[]> curCommerceUserSegmentEntryIdsMap =
+			_userPortalCache.get(userId);
+
+		if (curCommerceUserSegmentEntryIdsMap != null) {
+			commerceUserSegmentEntryIdsMap.putAll(
+				curCommerceUserSegmentEntryIdsMap);
+		}
+
+		commerceUserSegmentEntryIdsMap.put(
+			_getKey(groupId, commerceAccountId), commerceUserSegmentEntryIds);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_userPortalCache, userId, commerceUserSegmentEntryIdsMap);
+	}
+
+	private CommerceUserSegmentEntryMatcher _getCommerceUserSegmentEntryMatcher(
+		long groupId) {
+
+		CommerceUserSegmentEntryMatcher commerceUserSegmentEntryMatcher =
+			_matcherPortalCache.get(groupId);
+
+		if (commerceUserSegmentEntryMatcher != null) {
+			return commerceUserSegmentEntryMatcher;
+		}
+
+		List<Long> commerceUserSegmentEntryIds = new ArrayList<>();
+		List<Map<String, long[]>> criterionTypeClassPKsList =
+			new ArrayList<>();
+
+		List<CommerceUserSegmentEntry> commerceUserSegmentEntries =
+			_commerceUserSegmentEntryLocalService.
+				getCommerceUserSegmentEntries(
+					groupId, QueryUtil.ALL_POS, QueryUtil.ALL_POS,
+					new CommerceUserSegmentEntryPriorityComparator(false));
+
+		for (CommerceUserSegmentEntry commerceUserSegmentEntry :
+				commerceUserSegmentEntries) {
+
+			if (!commerceUserSegmentEntry.isActive()) {
+				continue;
+			}
+
+			commerceUserSegmentEntryIds.add(
+				commerceUserSegmentEntry.getCommerceUserSegmentEntryId());
+			criterionTypeClassPKsList.add(
+				_getCriterionTypeClassPKs(
+					commerceUserSegmentEntry.getCommerceUserSegmentEntryId()));
+		}
+
+		commerceUserSegmentEntryMatcher = new CommerceUserSegmentEntryMatcher(
+			commerceUserSegmentEntryIds, criterionTypeClassPKsList);
+
+		PortalCacheHelperUtil.putWithoutReplicator(
+			_matcherPortalCache, groupId, commerceUserSegmentEntryMatcher);
+
+		return commerceUserSegmentEntryMatcher;
+	}
+
+	private Map<String, long[]> _getCriterionTypeClassPKs(
+		long commerceUserSegmentEntryId) {
+
+		Map<String, long[]> criterionTypeClassPKs = new HashMap<>();
+
+		List<CommerceUserSegmentCriterion> commerceUserSegmentCriteria =
+			_commerceUserSegmentCriterionLocalService.
+				getCommerceUserSegmentCriteria(
+					commerceUserSegmentEntryId, QueryUtil.ALL_POS,
+					QueryUtil.ALL_POS,
+					new CommerceUserSegmentCriterionPriorityComparator(true));
+
+		for (CommerceUserSegmentCriterion commerceUserSegmentCriterion :
+				commerceUserSegmentCriteria) {
+
+			String typeSettings =
+				commerceUserSegmentCriterion.getTypeSettings();
+
+			if (Validator.isNull(typeSettings)) {
+				continue;
+			}
+
+			criterionTypeClassPKs.put(
+				commerceUserSegmentCriterion.getType(),
+				StringUtil.split(typeSettings, 0L));
+		}
+
+		return criterionTypeClassPKs;
+	}
+
+	private String _getKey(long groupId, long commerceAccountId) {
+		return groupId + StringPool.UNDERLINE + commerceAccountId;
+	}
+
+	private static final int _MAX_COMMERCE_USER_SEGMENT_ENTRIES = 10;
+
+	private static final PortalCache<Long, CommerceUserSegmentEntryMatcher>
+		_matcherPortalCache = PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, MATCHER_CACHE_NAME);
+	private static final PortalCache<Long, HashMap<String, long[]>>
+		_userPortalCache = PortalCacheHelperUtil.getPortalCache(
+			PortalCacheManagerNames.MULTI_VM, USER_CACHE_NAME);
+
+	@Reference
+	private CommerceUserSegmentCriterionLocalService
+		_commerceUserSegmentCriterionLocalService;
+
+	@Reference
+	private CommerceUserSegmentCriterionTypeRegistry
+		_commerceUserSegmentCriterionTypeRegistry;
+
+	@Reference
+	private CommerceUserSegmentEntryLocalService
+		_commerceUserSegmentEntryLocalService;
+
+	@Reference
+	private UserLocalService _userLocalService;
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.user.segment.internal.cache;
+
+import java.io.Serializable;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Holds the active user segments of a group compiled into bit sets, one per
+ * criterion type, so that the segments of a user can be resolved without
+ * querying the search index. Segments are kept in descending priority order
+ * and a user belongs to a segment when, for every criterion type, the segment
+ * either has no criterion of that type or all of the criterion's class
+ * primary keys are among the user's.
+ *
+ * @author Marco Leo
+ */
+public class CommerceUserSegmentEntryMatcher implements Serializable {
+
+	public CommerceUserSegmentEntryMatcher(
+		List<Long> commerceUserSegmentEntryIds,
+		List<Map<String, long[]>> criterionTypeClassPKsList) {
+
+		_commerceUserSegmentEntryIds = new long[
+			commerceUserSegmentEntryIds.size()];
+
+		for (int i = 0; i < _commerceUserSegmentEntryIds.length; i++) {
+			_commerceUserSegmentEntryIds[i] = commerceUserSegmentEntryIds.get(
+				i);
+
+			Map<String, long[]> criterionTypeClassPKs =
+				criterionTypeClassPKsList.get(i);
+
+			for (Map.Entry<String, long[]> entry :
+					criterionTypeClassPKs.entrySet()) {
+
+				CriterionTypeIndex criterionTypeIndex =
+					_criterionTypeIndexes.computeIfAbsent(
+						entry.getKey(),
+						key -> new CriterionTypeIndex(
+							_commerceUserSegmentEntryIds.length));
+
+				criterionTypeIndex.add(i, entry.getValue());
+			}
+		}
+	}
+
+	/**
+	 * Returns the IDs of the segments the user belongs to, in descending
+	 * priority order.
+	 *
+	 * @param  userClassPKs the user's class primary keys for each criterion
+	 *         type
+	 * @param  max the maximum number of segment IDs to return
+	 * @return the matching segment IDs
+	 */
+	public long[] match(Map<String, long[]> userClassPKs, int max) {
+		BitSet bitSet = new BitSet(_commerceUserSegmentEntryIds.length);
+
+		bitSet.set(0, _commerceUserSegmentEntryIds.length);
+
+		for (Map.Entry<String, CriterionTypeIndex> entry :
+				_criterionTypeIndexes.entrySet()) {
+
+			CriterionTypeIndex criterionTypeIndex = entry.getValue();
+
+			bitSet.and(
+				criterionTypeIndex.match(userClassPKs.get(entry.getKey())));
+
+			if (bitSet.isEmpty()) {
+				break;
+			}
+		}
+
+		long[] commerceUserSegmentEntryIds = new long[
+			Math.min(bitSet.cardinality(), max)];
+
+		for (int i = bitSet.nextSetBit(0), j = 0;
+			 (i >= 0) && (j < commerceUserSegmentEntryIds.length);
+			 i = bitSet.nextSetBit(i + 1), j++) {
+
+			commerceUserSegmentEntryIds[j] = _commerceUserSegmentEntryIds[i];
+		}
+
+		return commerceUserSegmentEntryIds;
+	}
+
+	private static final long serialVersionUID = 1L;
+
+	private final long[] _commerceUserSegmentEntryIds;
+	private final Map<String, CriterionTypeIndex> _criterionTypeIndexes =
+		new HashMap<>();
+
+	private static class CriterionTypeIndex implements Serializable {
+
+		public CriterionTypeIndex(int size) {
+			_requiredMatches = new int[size];
+
+			_unconstrainedBitSet = new BitSet(size);
+
+			_unconstrainedBitSet.set(0, size);
+		}
+
+		public void add(int index, long[] classPKs) {
+			Set<Long> uniqueClassPKs = new HashSet<>();
+
+			for (long classPK : classPKs) {
+				if (!uniqueClassPKs.add(classPK)) {
+					continue;
+				}
+
+				BitSet bitSet = _classPKBitSets.computeIfAbsent(
+					classPK, key -> new BitSet(_requiredMatches.length));
+
+				bitSet.set(index);
+			}
+
+			_requiredMatches[index] = uniqueClassPKs.size();
+
+			_unconstrainedBitSet.clear(index);
+		}
+
+		public BitSet match(long[] userClassPKs) {
+			BitSet bitSet = (BitSet)_unconstrainedBitSet.clone();
+
+			if (userClassPKs == null) {
+				return bitSet;
+			}
+
+			int[] matches = new int[_requiredMatches.length];
+
+			Set<Long> uniqueUserClassPKs = new HashSet<>();
+
+			for (long userClassPK : userClassPKs) {
+				if (!uniqueUserClassPKs.add(userClassPK)) {
+					continue;
+				}
+
+				BitSet classPKBitSet = _classPKBitSets.get(userClassPK);
+
+				if (classPKBitSet == null) {
+					continue;
+				}
+
+				for (int i = classPKBitSet.nextSetBit(0); i >= 0;
+					 i = classPKBitSet.nextSetBit(i + 1)) {
+
+					if (++matches[i] == _requiredMatches[i]) {
+						bitSet.set(i);
+					}
+				}
+			}
+
+			return bitSet;
+		}
+
+		private static final long serialVersionUID = 1L;
+
+		private final Map<Long, BitSet> _classPKBitSets = new HashMap<>();
+		private final int[] _requiredMatches;
+		private final BitSet _unconstrainedBitSet;
+
+	}
+
+}
@@ -71,6 +71,16 @@ public abstract class BaseCommerceUserSegmentCriterionType
 		document.addKeyword(getIndexerFieldName() + "_required_matches", 0);
 	}
 
+	/**
+	 * Returns the class primary keys the user's criteria are matched against
+	 * in the group, mirroring {@link #postProcessContextBooleanFilter}.
+	 */
+	public long[] getUserClassPKs(User user, long groupId)
+		throws PortalException {
+
+		return getUserClassPKs(user);
+	}
+
 	@Override
 	public boolean isSatisfied(
 			long commerceUserSegmentCriterionId, ServiceContext serviceContext)
@@ -98,6 +98,13 @@ public class RoleCommerceUserSegmentCriterionTypeImpl
 		return StringUtil.shorten(preview, length, StringPool.TRIPLE_PERIOD);
 	}
 
+	@Override
+	public long[] getUserClassPKs(User user, long groupId)
+		throws PortalException {
+
+		return getUserClassPKs(user, 0, groupId);
+	}
+
 	@Override
 	public void postProcessContextBooleanFilter(
 			BooleanFilter contextBooleanFilter, SearchContext searchContext)
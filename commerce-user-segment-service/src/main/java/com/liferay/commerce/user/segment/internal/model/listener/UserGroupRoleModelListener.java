@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.user.segment.internal.model.listener;
+
+import com.liferay.commerce.user.segment.internal.cache.CommerceUserSegmentEntryCache;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.model.UserGroupRole;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class UserGroupRoleModelListener
+	extends BaseModelListener<UserGroupRole> {
+
+	@Override
+	public void onAfterCreate(UserGroupRole userGroupRole) {
+		_commerceUserSegmentEntryCache.invalidateUser(
+			userGroupRole.getUserId());
+	}
+
+	@Override
+	public void onAfterRemove(UserGroupRole userGroupRole) {
+		_commerceUserSegmentEntryCache.invalidateUser(
+			userGroupRole.getUserId());
+	}
+
+	@Reference
+	private CommerceUserSegmentEntryCache _commerceUserSegmentEntryCache;
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2000-present Liferay, Inc. All rights reserved.
+ *
+ * This library is free software; you can redistribute it and/or modify it under
+ * the terms of the GNU Lesser General Public License as published by the Free
+ * Software Foundation; either version 2.1 of the License, or (at your option)
+ * any later version.
+ *
+ * This library is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU Lesser General Public License for more
+ * details.
+ */
+
+package com.liferay.commerce.user.segment.internal.model.listener;
+
+import com.liferay.commerce.user.segment.internal.cache.CommerceUserSegmentEntryCache;
+import com.liferay.portal.kernel.model.BaseModelListener;
+import com.liferay.portal.kernel.model.ModelListener;
+import com.liferay.portal.kernel.model.Organization;
+import com.liferay.portal.kernel.model.Role;
+import com.liferay.portal.kernel.model.User;
+import com.liferay.portal.kernel.model.UserGroup;
+
+import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Reference;
+
+/**
+ * @author Marco Leo
+ */
+@Component(immediate = true, service = ModelListener.class)
+public class UserModelListener extends BaseModelListener<User> {
+
+	@Override
+	public void onAfterAddAssociation(
+		Object classPK, String associationClassName,
+		Object associationClassPK) {
+
+		_invalidateUser(classPK, associationClassName);
+	}
+
+	@Override
+	public void onAfterRemove(User user) {
+		_commerceUserSegmentEntryCache.invalidateUser(user.getUserId());
+	}
+
+	@Override
+	public void onAfterRemoveAssociation(
+		Object classPK, String associationClassName,
+		Object associationClassPK) {
+
+		_invalidateUser(classPK, associationClassName);
+	}
+
+	private void _invalidateUser(Object classPK, String associationClassName) {
+		if (associationClassName.equals(Organization.class.getName()) ||
+			associationClassName.equals(Role.class.getName()) ||
+			associationClassName.equals(UserGroup.class.getName())) {
+
+			_commerceUserSegmentEntryCache.invalidateUser((Long)classPK);
+		}
+	}
+
+	@Reference
+	private CommerceUserSegmentEntryCache _commerceUserSegmentEntryCache;
+
+}
@@ -18,12 +18,11 @@ import com.liferay.commerce.account.service.CommerceAccountLocalService;
 import com.liferay.commerce.user.segment.exception.CommerceUserSegmentEntryKeyException;
 import com.liferay.commerce.user.segment.exception.CommerceUserSegmentEntryNameException;
 import com.liferay.commerce.user.segment.exception.CommerceUserSegmentEntrySystemException;
+import com.liferay.commerce.user.segment.internal.cache.CommerceUserSegmentEntryCache;
 import com.liferay.commerce.user.segment.model.CommerceUserSegmentCriterionConstants;
 import com.liferay.commerce.user.segment.model.CommerceUserSegmentEntry;
 import com.liferay.commerce.user.segment.model.CommerceUserSegmentEntryConstants;
 import com.liferay.commerce.user.segment.service.base.CommerceUserSegmentEntryLocalServiceBaseImpl;
-import com.liferay.portal.kernel.cache.MultiVMPoolUtil;
-import com.liferay.portal.kernel.cache.PortalCache;
 import com.liferay.portal.kernel.exception.PortalException;
 import com.liferay.portal.kernel.model.Group;
 import com.liferay.portal.kernel.model.ResourceConstants;
@@ -118,7 +117,7 @@ public class CommerceUserSegmentEntryLocalServiceImpl
 
 	@Override
 	public void cleanUserSegmentsChache(long groupId) {
-		MultiVMPoolUtil.removePortalCache("USER_SEGMENTS_" + groupId);
+		_commerceUserSegmentEntryCache.invalidateGroup(groupId);
 	}
 
 	@Override
@@ -224,17 +223,11 @@ public class CommerceUserSegmentEntryLocalServiceImpl
 			long groupId, long commerceAccountId, long userId)
 		throws PortalException {
 
-		PortalCache<String, Serializable> portalCache =
-			MultiVMPoolUtil.getPortalCache("USER_SEGMENTS_" + groupId);
+		long[] commerceUserSegmentEntryIds =
+			_commerceUserSegmentEntryCache.getCommerceUserSegmentEntryIds(
+				groupId, commerceAccountId, userId);
 
-		String cacheKey = String.valueOf(commerceAccountId);
-
-		long[] commerceUserSegmentEntryIds = (long[])portalCache.get(cacheKey);
-
-		boolean userSegmentsCalculated = GetterUtil.getBoolean(
-			portalCache.get(cacheKey + "_calculated"));
-
-		if (userSegmentsCalculated) {
+		if (commerceUserSegmentEntryIds != null) {
 			return commerceUserSegmentEntryIds;
 		}
 
@@ -257,8 +250,8 @@ public class CommerceUserSegmentEntryLocalServiceImpl
 			field -> GetterUtil.getLong(field.get(Field.ENTRY_CLASS_PK))
 		).toArray();
 
-		portalCache.put(cacheKey + "_calculated", true);
-		portalCache.put(cacheKey, commerceUserSegmentEntryIds);
+		_commerceUserSegmentEntryCache.putCommerceUserSegmentEntryIds(
+			groupId, commerceAccountId, userId, commerceUserSegmentEntryIds);
 
 		return commerceUserSegmentEntryIds;
 	}
@@ -516,4 +509,7 @@ public class CommerceUserSegmentEntryLocalServiceImpl
 	@ServiceReference(type = CommerceAccountLocalService.class)
 	private CommerceAccountLocalService _commerceAccountLocalService;
 
+	@ServiceReference(type = CommerceUserSegmentEntryCache.class)
+	private CommerceUserSegmentEntryCache _commerceUserSegmentEntryCache;
+
 }
\ No newline at end of file